@@ -0,0 +1,540 @@
+package scenario2.allocation;
+
+import scenario2.builder.BookingBuilder;
+import scenario2.controller.BookingManager;
+import shared.model.Booking;
+import shared.model.RecurrenceRule;
+import shared.model.Room;
+import shared.model.RoomStatus;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * BatchRoomAllocator – Scenario 2 (Semester Scheduling)
+ * ---------------------------------------------------------------------------
+ * <p>Places a whole term of weekly room requests (lectures, labs, tutorials)
+ * at once instead of one interactive booking at a time. Each request asks for
+ * a weekday, a time of day, a number of seats and optionally one piece of
+ * equipment; each assigned request becomes one weekly
+ * {@link RecurrenceRule} series running from the first matching day of the
+ * term to its last day.</p>
+ *
+ * <h2>Allocation</h2>
+ * <ul>
+ *     <li><b>Best fit</b> – a request gets the smallest bookable room that has
+ *         enough seats and the equipment, so large rooms stay free for large
+ *         classes.</li>
+ *     <li><b>Greedy</b> – requests with the fewest suitable rooms go first,
+ *         then larger and longer ones.</li>
+ *     <li><b>Repair</b> – a request that found every suitable room taken may
+ *         move the one planned request blocking a room into another room that
+ *         suits it, then take the freed room.</li>
+ *     <li>Existing bookings are respected conservatively: a booking on any
+ *         Monday of the term blocks that time on every Monday, since a weekly
+ *         series must be free every week.</li>
+ * </ul>
+ *
+ * <h2>Parallelism</h2>
+ * <p>Requests on different weekdays can never clash, so each weekday is
+ * planned independently on a parallel stream. Existing bookings are read
+ * once up front; the per-day planners only touch their own data.</p>
+ *
+ * <h2>Commit</h2>
+ * <p>{@link #commit} hands every series to
+ * {@link BookingManager#commitPlannedBookings}, which re-checks them under
+ * the room locks and writes the whole plan with one {@code saveAll()}.
+ * Series that lost their slot in the meantime move to the unassigned
+ * report.</p>
+ */
+public class BatchRoomAllocator {
+
+    /** Planned series are internal timetable bookings: no deposit, nothing to pay. */
+    static final String PAYMENT_STATUS = "APPROVED";
+
+    // =============================================================
+    // REQUEST / RESULT TYPES
+    // =============================================================
+
+    /** One weekly slot to place, e.g. "EECS 2311 lecture, Mondays 10:00–11:30, 120 seats". */
+    public static final class Request {
+        private final String requestId;
+        private final String userId;
+        private final int seats;
+        private final String equipment;
+        private final DayOfWeek day;
+        private final LocalTime start;
+        private final LocalTime end;
+        private final String purpose;
+
+        public Request(String requestId, String userId, int seats, String equipment,
+                       DayOfWeek day, LocalTime start, LocalTime end, String purpose) {
+            if (requestId == null || userId == null || day == null || start == null || end == null) {
+                throw new IllegalArgumentException("requestId, userId, day, start and end are required.");
+            }
+            if (seats < 1) {
+                throw new IllegalArgumentException("A request needs at least one seat.");
+            }
+            if (!end.isAfter(start)) {
+                throw new IllegalArgumentException("End time must be after start time.");
+            }
+            this.requestId = requestId;
+            this.userId = userId;
+            this.seats = seats;
+            this.equipment = (equipment == null || equipment.isBlank()) ? null : equipment.trim();
+            this.day = day;
+            this.start = start;
+            this.end = end;
+            this.purpose = (purpose == null || purpose.isBlank()) ? requestId : purpose;
+        }
+
+        public String getRequestId() { return requestId; }
+        public String getUserId() { return userId; }
+        public int getSeats() { return seats; }
+        public String getEquipment() { return equipment; }
+        public DayOfWeek getDay() { return day; }
+        public LocalTime getStart() { return start; }
+        public LocalTime getEnd() { return end; }
+        public String getPurpose() { return purpose; }
+
+        @Override
+        public String toString() {
+            return requestId + " (" + day + " " + start + "–" + end + ", " + seats + " seats"
+                    + (equipment == null ? "" : ", " + equipment) + ")";
+        }
+    }
+
+    /** A request placed in a room; {@code booking} is set once the plan is committed. */
+    public static final class Assignment {
+        private final Request request;
+        private final Room room;
+        private final LocalDateTime firstStart;
+        private final LocalDateTime firstEnd;
+        private Booking booking;
+
+        private Assignment(Request request, Room room, LocalDate firstDate) {
+            this.request = request;
+            this.room = room;
+            this.firstStart = firstDate.atTime(request.start);
+            this.firstEnd = firstDate.atTime(request.end);
+        }
+
+        public Request getRequest() { return request; }
+        public Room getRoom() { return room; }
+        public LocalDateTime getFirstStart() { return firstStart; }
+        public LocalDateTime getFirstEnd() { return firstEnd; }
+        public Booking getBooking() { return booking; }
+    }
+
+    /** A request the plan could not place, with the reason for the report. */
+    public static final class Unassigned {
+        private final Request request;
+        private final String reason;
+
+        private Unassigned(Request request, String reason) {
+            this.request = request;
+            this.reason = reason;
+        }
+
+        public Request getRequest() { return request; }
+        public String getReason() { return reason; }
+    }
+
+    /** Result of {@link #plan}; {@link #commit} updates it in place. */
+    public static final class Plan {
+        private final LocalDate termStart;
+        private final LocalDate termEnd;
+        private final List<Assignment> assignments;
+        private final List<Unassigned> unassigned;
+        private boolean committed;
+
+        private Plan(LocalDate termStart, LocalDate termEnd,
+                     List<Assignment> assignments, List<Unassigned> unassigned) {
+            this.termStart = termStart;
+            this.termEnd = termEnd;
+            this.assignments = assignments;
+            this.unassigned = unassigned;
+        }
+
+        public LocalDate getTermStart() { return termStart; }
+        public LocalDate getTermEnd() { return termEnd; }
+        public List<Assignment> getAssignments() { return Collections.unmodifiableList(assignments); }
+        public List<Unassigned> getUnassigned() { return Collections.unmodifiableList(unassigned); }
+        public boolean isCommitted() { return committed; }
+
+        /** Assignment of a request, or {@code null} if it was not placed. */
+        public Assignment getAssignment(String requestId) {
+            for (Assignment a : assignments) {
+                if (a.request.requestId.equals(requestId)) return a;
+            }
+            return null;
+        }
+
+        /** Human-readable summary listing every unassigned request and why. */
+        public String getReport() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Allocation ").append(termStart).append(" to ").append(termEnd)
+              .append(committed ? " (committed)" : " (not committed)").append(": ")
+              .append(assignments.size()).append(" assigned, ")
+              .append(unassigned.size()).append(" unassigned");
+            for (Unassigned u : unassigned) {
+                sb.append(System.lineSeparator())
+                  .append("  - ").append(u.request).append(": ").append(u.reason);
+            }
+            return sb.toString();
+        }
+    }
+
+    // =============================================================
+    // FIELDS / CONSTRUCTION
+    // =============================================================
+
+    private final BookingManager manager;
+
+    public BatchRoomAllocator() {
+        this(BookingManager.getInstance());
+    }
+
+    public BatchRoomAllocator(BookingManager manager) {
+        this.manager = manager;
+    }
+
+    // =============================================================
+    // PLANNING
+    // =============================================================
+
+    /** Plans and commits in one go; see {@link #plan} and {@link #commit}. */
+    public Plan allocate(List<Request> requests, LocalDate termStart, LocalDate termEnd) {
+        return commit(plan(requests, termStart, termEnd));
+    }
+
+    /** Plans the term over all rooms without writing anything. */
+    public Plan plan(List<Request> requests, LocalDate termStart, LocalDate termEnd) {
+        return plan(requests, termStart, termEnd, manager.getAllRooms());
+    }
+
+    /** Package-private for tests, which supply their own room list. */
+    Plan plan(List<Request> requests, LocalDate termStart, LocalDate termEnd, List<Room> allRooms) {
+        if (requests == null || termStart == null || termEnd == null) {
+            throw new IllegalArgumentException("Requests and term dates are required.");
+        }
+        if (termEnd.isBefore(termStart)) {
+            throw new IllegalArgumentException("Term end must not be before term start.");
+        }
+
+        // Bookable rooms, smallest first → the first fit is the best fit
+        List<Room> rooms = new ArrayList<>();
+        for (Room room : allRooms) {
+            RoomStatus st = room.getStatusEnum();
+            if (st == RoomStatus.DISABLED || st == RoomStatus.MAINTENANCE) continue;
+            rooms.add(room);
+        }
+        rooms.sort(Comparator.comparingInt(Room::getCapacity).thenComparing(Room::getRoomId));
+
+        List<Unassigned> unassigned = new ArrayList<>();
+        Map<DayOfWeek, List<Request>> byDay = new EnumMap<>(DayOfWeek.class);
+        for (Request r : requests) {
+            if (firstDate(termStart, r.day).isAfter(termEnd)) {
+                unassigned.add(new Unassigned(r, "The term has no " + dayName(r.day) + "."));
+            } else {
+                byDay.computeIfAbsent(r.day, d -> new ArrayList<>()).add(r);
+            }
+        }
+
+        Map<DayOfWeek, Map<String, List<LocalTime[]>>> busy =
+                collectBusyTimes(rooms, termStart, termEnd, byDay.keySet());
+
+        // Weekdays are independent – plan them in parallel
+        List<DayPlanner> planners = byDay.entrySet().parallelStream()
+                .map(e -> new DayPlanner(rooms, busy.get(e.getKey())).run(e.getValue()))
+                .collect(Collectors.toList());
+
+        List<Assignment> assignments = new ArrayList<>();
+        for (DayPlanner p : planners) {
+            for (Map.Entry<Request, Room> e : p.assigned.entrySet()) {
+                assignments.add(new Assignment(e.getKey(), e.getValue(),
+                        firstDate(termStart, e.getKey().day)));
+            }
+            unassigned.addAll(p.unassigned);
+        }
+
+        // Report in the order the requests were given
+        Map<Request, Integer> order = new IdentityHashMap<>();
+        for (int i = 0; i < requests.size(); i++) order.put(requests.get(i), i);
+        assignments.sort(Comparator.comparing(a -> order.get(a.request)));
+        unassigned.sort(Comparator.comparing(u -> order.get(u.request)));
+
+        System.out.println("[BatchRoomAllocator] Planned " + requests.size() + " requests over "
+                + byDay.size() + " weekdays: " + assignments.size() + " assigned, "
+                + unassigned.size() + " unassigned");
+        return new Plan(termStart, termEnd, assignments, unassigned);
+    }
+
+    /**
+     * Writes every planned series in one pass. Series whose room was taken
+     * since planning are moved to the unassigned list.
+     */
+    public Plan commit(Plan plan) {
+        if (plan == null) throw new IllegalArgumentException("Plan is required.");
+        if (plan.committed) return plan;
+
+        RecurrenceRule rule = RecurrenceRule.weekly(plan.termEnd);
+        Map<Booking, Assignment> byBooking = new IdentityHashMap<>();
+        List<Booking> planned = new ArrayList<>();
+
+        for (Assignment a : plan.assignments) {
+            Booking b = new BookingBuilder()
+                    .setBookingId(manager.newBookingId())
+                    .setRoomId(a.room.getRoomId())
+                    .setUserId(a.request.userId)
+                    .setStartTime(a.firstStart)
+                    .setEndTime(a.firstEnd)
+                    .setPurpose(a.request.purpose)
+                    .setStatus("CONFIRMED")
+                    .setPaymentStatus(PAYMENT_STATUS)
+                    .setDepositAmount(0.0)
+                    .setRecurrence(rule)
+                    .build();
+            a.booking = b;
+            byBooking.put(b, a);
+            planned.add(b);
+        }
+
+        for (Booking lost : manager.commitPlannedBookings(planned)) {
+            Assignment a = byBooking.get(lost);
+            a.booking = null;
+            plan.assignments.remove(a);
+            plan.unassigned.add(new Unassigned(a.request,
+                    "Room " + a.room.getRoomId() + " was booked before the plan was committed."));
+        }
+
+        plan.committed = true;
+        System.out.println("[BatchRoomAllocator] " + plan.getReport());
+        return plan;
+    }
+
+    // =============================================================
+    // EXISTING BOOKINGS
+    // =============================================================
+
+    /**
+     * Times of day already taken, per weekday and room, by any live booking
+     * (or occurrence) inside the term. Read once, before the parallel phase.
+     */
+    private Map<DayOfWeek, Map<String, List<LocalTime[]>>> collectBusyTimes(
+            List<Room> rooms, LocalDate termStart, LocalDate termEnd, Set<DayOfWeek> days) {
+
+        Map<DayOfWeek, Map<String, List<LocalTime[]>>> busy = new EnumMap<>(DayOfWeek.class);
+        for (DayOfWeek d : days) busy.put(d, new HashMap<>());
+
+        LocalDateTime from = termStart.atStartOfDay();
+        LocalDateTime to = termEnd.atTime(LocalTime.MAX);
+
+        for (Room room : rooms) {
+            for (Booking b : manager.getBookingsForRoom(room.getRoomId())) {
+                if (b.getStatusEnum().isReleased()) continue;
+
+                for (Booking occ : b.getOccurrences(from, to)) {
+                    LocalDate first = occ.getStartTime().toLocalDate();
+                    LocalDate last = occ.getEndTime().toLocalDate();
+                    // a booking past midnight blocks the end of one day and the start of the next
+                    for (LocalDate date = first; !date.isAfter(last); date = date.plusDays(1)) {
+                        Map<String, List<LocalTime[]>> forDay = busy.get(date.getDayOfWeek());
+                        if (forDay == null) continue;
+                        LocalTime s = date.equals(first) ? occ.getStartTime().toLocalTime() : LocalTime.MIN;
+                        LocalTime e = date.equals(last) ? occ.getEndTime().toLocalTime() : LocalTime.MAX;
+                        forDay.computeIfAbsent(room.getRoomId(), k -> new ArrayList<>())
+                              .add(new LocalTime[] {s, e});
+                    }
+                }
+            }
+        }
+        return busy;
+    }
+
+    // =============================================================
+    // PER-DAY PLANNER
+    // =============================================================
+
+    /** A taken interval in one room; {@code owner} is null for existing bookings. */
+    private static final class Slot {
+        final LocalTime start;
+        LocalTime end;
+        final Request owner;
+
+        Slot(LocalTime start, LocalTime end, Request owner) {
+            this.start = start;
+            this.end = end;
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Plans one weekday. Each room's taken slots sit in a {@link TreeMap}
+     * keyed by start and never overlap, so a conflict check is one
+     * {@code floorEntry} plus a short {@code subMap} scan.
+     */
+    private static final class DayPlanner {
+        private final List<Room> rooms;
+        private final Map<String, TreeMap<LocalTime, Slot>> schedule = new HashMap<>();
+        private final Map<Request, List<Room>> candidates = new HashMap<>();
+
+        final Map<Request, Room> assigned = new HashMap<>();
+        final List<Unassigned> unassigned = new ArrayList<>();
+
+        DayPlanner(List<Room> rooms, Map<String, List<LocalTime[]>> busy) {
+            this.rooms = rooms;
+            if (busy == null) return;
+
+            // merge existing bookings into non-overlapping slots
+            for (Map.Entry<String, List<LocalTime[]>> e : busy.entrySet()) {
+                List<LocalTime[]> times = new ArrayList<>(e.getValue());
+                times.sort(Comparator.comparing(t -> t[0]));
+                TreeMap<LocalTime, Slot> slots = slotsOf(e.getKey());
+                Slot current = null;
+                for (LocalTime[] t : times) {
+                    if (current != null && !t[0].isAfter(current.end)) {
+                        if (t[1].isAfter(current.end)) current.end = t[1];
+                    } else {
+                        current = new Slot(t[0], t[1], null);
+                        slots.put(current.start, current);
+                    }
+                }
+            }
+        }
+
+        DayPlanner run(List<Request> requests) {
+            for (Request r : requests) candidates.put(r, suitableRooms(r));
+
+            List<Request> ordered = new ArrayList<>(requests);
+            ordered.sort(Comparator
+                    .comparingInt((Request r) -> candidates.get(r).size())
+                    .thenComparing(Comparator.comparingInt(Request::getSeats).reversed())
+                    .thenComparing(Comparator.comparing(
+                            (Request r) -> Duration.between(r.start, r.end)).reversed())
+                    .thenComparing(Request::getRequestId));
+
+            // Greedy pass: smallest free suitable room
+            List<Request> blocked = new ArrayList<>();
+            for (Request r : ordered) {
+                List<Room> suitable = candidates.get(r);
+                if (suitable.isEmpty()) {
+                    unassigned.add(new Unassigned(r, "No bookable room has " + r.seats + " seats"
+                            + (r.equipment == null ? "" : " and " + r.equipment) + "."));
+                    continue;
+                }
+                Room room = firstFree(r, suitable, null);
+                if (room != null) {
+                    place(r, room);
+                } else {
+                    blocked.add(r);
+                }
+            }
+
+            // Repair pass: move one blocking request elsewhere to make room
+            for (Request r : blocked) {
+                if (!repair(r)) {
+                    unassigned.add(new Unassigned(r,
+                            "Every suitable room is taken at that time."));
+                }
+            }
+            return this;
+        }
+
+        private List<Room> suitableRooms(Request r) {
+            String wanted = r.equipment == null ? null : r.equipment.toLowerCase(Locale.ROOT);
+            List<Room> result = new ArrayList<>();
+            for (Room room : rooms) {
+                if (room.getCapacity() < r.seats) continue;
+                if (wanted != null) {
+                    String amenities = room.getAmenities();
+                    if (amenities == null || !amenities.toLowerCase(Locale.ROOT).contains(wanted)) continue;
+                }
+                result.add(room);
+            }
+            return result;
+        }
+
+        private boolean repair(Request r) {
+            for (Room room : candidates.get(r)) {
+                List<Slot> blockers = conflicts(room.getRoomId(), r.start, r.end);
+                if (blockers.size() != 1 || blockers.get(0).owner == null) continue;
+
+                Request other = blockers.get(0).owner;
+                Room alternative = firstFree(other, candidates.get(other), room);
+                if (alternative == null) continue;
+
+                unplace(other, room);
+                place(other, alternative);
+                place(r, room);
+                return true;
+            }
+            return false;
+        }
+
+        private Room firstFree(Request r, List<Room> suitable, Room except) {
+            for (Room room : suitable) {
+                if (room == except) continue;
+                if (conflicts(room.getRoomId(), r.start, r.end).isEmpty()) return room;
+            }
+            return null;
+        }
+
+        /** Slots overlapping {@code [start, end]}, touching ends included (BookingManager's rule). */
+        private List<Slot> conflicts(String roomId, LocalTime start, LocalTime end) {
+            List<Slot> result = new ArrayList<>();
+            TreeMap<LocalTime, Slot> slots = schedule.get(roomId);
+            if (slots == null) return result;
+
+            Map.Entry<LocalTime, Slot> before = slots.floorEntry(start);
+            if (before != null && !before.getValue().end.isBefore(start)) {
+                result.add(before.getValue());
+            }
+            result.addAll(slots.subMap(start, false, end, true).values());
+            return result;
+        }
+
+        private void place(Request r, Room room) {
+            slotsOf(room.getRoomId()).put(r.start, new Slot(r.start, r.end, r));
+            assigned.put(r, room);
+        }
+
+        private void unplace(Request r, Room room) {
+            slotsOf(room.getRoomId()).remove(r.start);
+            assigned.remove(r);
+        }
+
+        private TreeMap<LocalTime, Slot> slotsOf(String roomId) {
+            return schedule.computeIfAbsent(roomId, k -> new TreeMap<>());
+        }
+    }
+
+    // =============================================================
+    // HELPERS
+    // =============================================================
+
+    private static LocalDate firstDate(LocalDate termStart, DayOfWeek day) {
+        return termStart.with(TemporalAdjusters.nextOrSame(day));
+    }
+
+    private static String dayName(DayOfWeek day) {
+        String name = day.name();
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,173 @@
+package scenario2.archive;
+
+import shared.model.Booking;
+import shared.model.BookingArchive;
+import shared.model.BookingRepository;
+import shared.model.OffHeapBookingSegment;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * BookingArchiveJob – Scenario 2 (Booking History)
+ * ---------------------------------------------------------------------------
+ * <p>Periodically moves bookings that finished more than
+ * {@link #RETENTION_DAYS} days ago from {@link BookingRepository} into the
+ * compressed {@link BookingArchive}. Old FINISHED, CANCELLED and NO_SHOW
+ * rows never affect availability again, so the in-memory set – and every
+ * scan over it – stays proportional to current bookings.</p>
+ *
+ * <h2>Schedule</h2>
+ * <ul>
+ *     <li>{@link #start()} runs the job shortly after start-up and then every
+ *         {@link #RUN_INTERVAL_HOURS} hours on a daemon thread.</li>
+ *     <li>{@link #runNow()} archives immediately on the calling thread.</li>
+ *     <li>At start-up and after every scheduled run that archived
+ *         something, the {@link OffHeapBookingSegment} of the whole history is
+ *         rebuilt on the job's own thread and installed as the archive's
+ *         {@linkplain BookingArchive#useIndex history index}, so history views
+ *         read the mapped file instead of decompressing the archive.</li>
+ * </ul>
+ *
+ * <h2>Threading</h2>
+ * <p>Scheduled runs – the archive append and the CSV rewrite included – stay
+ * on the job's own thread, never the JavaFX thread. {@link BookingRepository}
+ * guards its list with its own lock, and listeners that touch the UI hop to
+ * the FX thread themselves.</p>
+ *
+ * <h2>Design Pattern Context</h2>
+ * <ul>
+ *     <li><b>Singleton</b> – one archival schedule per application.</li>
+ * </ul>
+ */
+public class BookingArchiveJob {
+
+    /** Bookings that ended more than this many days ago are archived. */
+    public static final int RETENTION_DAYS = 180;
+
+    /** Hours between two scheduled runs. */
+    public static final int RUN_INTERVAL_HOURS = 24;
+
+    /** Delay before the first scheduled run, so start-up is not slowed down. */
+    private static final int FIRST_RUN_DELAY_MINUTES = 1;
+
+    private static BookingArchiveJob instance;
+
+    public static synchronized BookingArchiveJob getInstance() {
+        if (instance == null) {
+            instance = new BookingArchiveJob(BookingRepository::getInstance, LocalDateTime::now);
+        }
+        return instance;
+    }
+
+    private final Supplier<BookingRepository> bookings;
+    private final Supplier<LocalDateTime> clock;
+
+    private ScheduledExecutorService scheduler;
+
+    /** Package-private for tests, which supply the repository and the time. */
+    BookingArchiveJob(Supplier<BookingRepository> bookings, Supplier<LocalDateTime> clock) {
+        this.bookings = bookings;
+        this.clock = clock;
+    }
+
+    // =============================================================
+    // RUN
+    // =============================================================
+
+    /** Bookings ending before this moment are archived by the next run. */
+    public LocalDateTime cutoff() {
+        return clock.get().minusDays(RETENTION_DAYS);
+    }
+
+    /**
+     * Archives every booking past the retention window now.
+     *
+     * @return number of bookings moved to the archive
+     */
+    public int runNow() {
+        int archived = bookings.get().archiveEndedBefore(cutoff());
+        if (archived > 0) {
+            System.out.println("[BookingArchiveJob] Archived " + archived + " booking(s).");
+        }
+        return archived;
+    }
+
+    // =============================================================
+    // SCHEDULER
+    // =============================================================
+
+    public synchronized void start() {
+        if (scheduler != null) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "booking-archive");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::runScheduled,
+                FIRST_RUN_DELAY_MINUTES, RUN_INTERVAL_HOURS * 60L, TimeUnit.MINUTES);
+        if (bookings.get().getArchive().exists()) rebuildLater();
+    }
+
+    private void runScheduled() {
+        try {
+            if (runNow() > 0) rebuildLater();
+        } catch (Exception e) {
+            System.out.println("[BookingArchiveJob] Archival failed: " + e.getMessage());
+        }
+    }
+
+    private synchronized void rebuildLater() {
+        if (scheduler == null) return;
+        scheduler.execute(() -> {
+            try {
+                rebuildHistorySegment();
+            } catch (Exception e) {
+                System.out.println("[BookingArchiveJob] History segment rebuild failed: " + e.getMessage());
+            }
+        });
+    }
+
+    /** Location of the history segment, next to the bookings CSV. */
+    public static Path historySegmentPath() {
+        return Path.of(BookingRepository.siblingDataFile(OffHeapBookingSegment.FILE_NAME));
+    }
+
+    /**
+     * Rewrites the off-heap history segment from the whole archive, streaming
+     * the rows straight into the file, and installs it as the archive's
+     * history index. If the archive grew meanwhile the new segment is not
+     * installed; the next run rebuilds it.
+     */
+    public void rebuildHistorySegment() throws IOException {
+        BookingArchive archive = bookings.get().getArchive();
+        long generation = archive.getGeneration();
+        Path path = historySegmentPath();
+        try (Stream<Booking> s = archive.stream()) {
+            OffHeapBookingSegment.write(path, s.iterator());
+        }
+
+        OffHeapBookingSegment segment = OffHeapBookingSegment.open(path);
+        if (!archive.useIndex(segment, generation)) {
+            segment.close();
+            System.out.println("[BookingArchiveJob] Archive changed during rebuild; history index skipped.");
+            return;
+        }
+        System.out.println("[BookingArchiveJob] History index rebuilt with " + segment.size() + " booking(s).");
+    }
+
+    /** Stops the background scheduler. */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+}
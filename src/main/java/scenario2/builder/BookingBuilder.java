@@ -1,6 +1,7 @@
 package scenario2.builder;
 
 import shared.model.Booking;
+import shared.model.RecurrenceRule;
 import java.time.LocalDateTime;
 
 /**
@@ -52,6 +53,9 @@ public class BookingBuilder {
     /** Deposit amount collected at booking time (1×hour rate). */
     private double depositAmount = 0.0;
 
+    /** Optional repetition; {@code null} = one-off booking. */
+    private RecurrenceRule recurrence;
+
     // ===============================================================
     //                        FLUENT SETTERS
     // ===============================================================
@@ -148,6 +152,17 @@ public class BookingBuilder {
     //                           BUILD
     // ===============================================================
 
+    /**
+     * @param recurrence how the booking repeats (weekly, biweekly, chosen
+     *                   weekdays until a date); {@code null} for a one-off
+     *                   booking. Start/end are the first occurrence.
+     * @return this builder instance
+     */
+    public BookingBuilder setRecurrence(RecurrenceRule recurrence) {
+        this.recurrence = recurrence;
+        return this;
+    }
+
     /**
      * Builds the final {@link Booking} object.
      *
@@ -172,7 +187,7 @@ public class BookingBuilder {
         }
 
         // Construct using the full Booking constructor
-        return new Booking(
+        Booking booking = new Booking(
                 bookingId,
                 roomId,
                 userId,
@@ -183,5 +198,7 @@ public class BookingBuilder {
                 paymentStatus,
                 depositAmount
         );
+        booking.setRecurrence(recurrence);
+        return booking;
     }
 }
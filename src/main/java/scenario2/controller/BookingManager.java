@@ -1,13 +1,23 @@
 package scenario2.controller;
 
 import scenario2.builder.BookingBuilder;
+import scenario2.payment.PartnerSettlementEngine;
+import scenario2.payment.PaymentIdempotencyCache;
+import scenario2.payment.PaymentLedger;
+import scenario2.pricing.PricingEngine;
+import scenario2.quota.BookingQuotaTracker;
 import shared.model.*;
+import shared.observer.RepositoryListener;
 import shared.util.CSVHelper;
+import shared.util.IdGenerator;
 
+import java.io.UncheckedIOException;
 import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * BookingManager – Scenario 2 (Room Booking & Payment)
@@ -58,6 +68,9 @@ import java.util.*;
  *     <li>Role-based pricing: student/faculty/staff/partner</li>
  *     <li>Automatic deposit rules</li>
  *     <li>Extension validation with next-slot availability check</li>
+ *     <li>Short-lived slot holds while the payment modal is open</li>
+ *     <li>All-or-nothing multi-room booking for events</li>
+ *     <li>Recurring bookings stored as one record per series</li>
  *     <li>Robust conflict-checking logic for new & edited bookings</li>
  *     <li>Integrated logging for D3 demonstration</li>
  * </ul>
@@ -76,6 +89,12 @@ public class BookingManager {
     /** Time-slot granularity used for extensions (15, 30, 45, ...). */
     private static final int TIME_SLOT_MINUTES = 15;
 
+    /** Check-in opens this many minutes before a booking (or occurrence) starts. */
+    public static final int CHECK_IN_EARLY_MINUTES = 10;
+
+    /** Check-in closes (no-show) this many minutes after a booking (or occurrence) starts. */
+    public static final int CHECK_IN_LATE_MINUTES = 30;
+
     /**
      * Resolve the CSV path used by the older extension methods that still
      * call {@link CSVHelper} directly.
@@ -101,40 +120,42 @@ public class BookingManager {
     private final RoomRepository roomRepo = RoomRepository.getInstance();
     private final BookingRepository bookingRepo = BookingRepository.getInstance();
 
-    private BookingManager() { }
+    /** Booking IDs; the node lock files live next to the bookings CSV. */
+    private final IdGenerator idGenerator =
+            IdGenerator.withNodeLock(BookingRepository.siblingDataFile("booking-node"));
+
+    /** Short-lived holds on slots whose payment modal is open. */
+    private final RoomHoldRegistry holds = new RoomHoldRegistry();
+
+    /** Per-room locks around "check conflicts, then add" for new bookings. */
+    private final Map<String, ReentrantLock> roomLocks = new ConcurrentHashMap<>();
+
+    /**
+     * Per-user locks around "check quota, then add". Always taken before any
+     * room lock, so the two kinds can never deadlock.
+     */
+    private final Map<String, ReentrantLock> userLocks = new ConcurrentHashMap<>();
+
+    /** Per-user weekly hours / active bookings, kept current by booking events. */
+    private final BookingQuotaTracker quotas = new BookingQuotaTracker(
+            BookingQuotaTracker.loadLimits(BookingRepository.siblingDataFile(BookingQuotaTracker.FILE_NAME)));
+
+    private BookingManager() {
+        quotas.countExisting(bookingRepo.snapshot());
+        bookingRepo.addListener(quotas);
+    }
 
     // =========================================================
     //                    PRICING LOGIC
     // =========================================================
 
-    // Students: 20, Faculty: 30, Staff: 40, Partners: 50
-    private static final double STUDENT_RATE = 20.0;
-    private static final double FACULTY_RATE = 30.0;
-    private static final double STAFF_RATE   = 40.0;
-    private static final double PARTNER_RATE = 50.0;
-
-    // Default: use student rate for any new/unknown type
-    private static final double DEFAULT_RATE = STUDENT_RATE;
+    // Students: 20, Faculty: 30, Staff: 40, Partners: 50 (see PricingEngine);
+    // peak / building rules come from pricing_rules.csv when present.
+    private final PricingEngine pricing = PricingEngine.getInstance();
 
-    /** Returns the hourly rate based on user type. */
+    /** Returns the base hourly rate based on user type (unknown types pay the student rate). */
     public double getHourlyRateForUserType(String userType) {
-        if (userType == null || userType.isBlank()) {
-            return DEFAULT_RATE;
-        }
-
-        switch (userType.trim().toUpperCase()) {
-            case "STUDENT":
-                return STUDENT_RATE;
-            case "FACULTY":
-                return FACULTY_RATE;
-            case "STAFF":
-                return STAFF_RATE;
-            case "PARTNER":
-                return PARTNER_RATE;
-            default:
-                // Future account types fall back to DEFAULT_RATE
-                return DEFAULT_RATE;
-        }
+        return pricing.getBaseRate(pricing.resolveUserType(userType));
     }
 
     /**
@@ -151,6 +172,39 @@ public class BookingManager {
         return getHourlyRateForUserType(userType) * durationHours;
     }
 
+    /** Hourly rate for a specific room and start time (time-of-day / building rules applied). */
+    public double getHourlyRate(String userType, Room room, LocalDateTime start) {
+        return pricing.getHourlyRate(pricing.resolveUserType(userType), buildingOf(room), start);
+    }
+
+    /** Deposit for a specific room: one hour at the rate applicable at {@code start}. */
+    public double getDeposit(String userType, Room room, LocalDateTime start) {
+        return pricing.quoteDeposit(pricing.resolveUserType(userType), buildingOf(room), start);
+    }
+
+    /**
+     * Deposits for a whole search result, in the order of {@code rooms}: one
+     * pass over the pricing table instead of one quote per room.
+     */
+    public double[] getDeposits(String userType, List<Room> rooms, LocalDateTime start) {
+        String[] buildings = new String[rooms.size()];
+        for (int i = 0; i < buildings.length; i++) {
+            buildings[i] = buildingOf(rooms.get(i));
+        }
+        double[] deposits = new double[buildings.length];
+        pricing.quoteDeposits(pricing.resolveUserType(userType), buildings, start, deposits);
+        return deposits;
+    }
+
+    /** Estimated total for a specific room, each hour priced in its own time bucket. */
+    public double getEstimatedTotal(String userType, Room room, LocalDateTime start, LocalDateTime end) {
+        return pricing.quoteTotal(pricing.resolveUserType(userType), buildingOf(room), start, end);
+    }
+
+    private static String buildingOf(Room room) {
+        return room == null ? null : room.getBuilding();
+    }
+
     // =========================================================
     //                    ROOM HELPERS
     // =========================================================
@@ -254,23 +308,209 @@ public class BookingManager {
         return matches;
     }
 
-    /** Returns true if the room has no non-cancelled bookings overlapping [start, end]. */
+    /**
+     * Public availability check used by the payment flow to fail fast before
+     * charging; {@link #bookRoom} repeats the check when the booking is made.
+     */
+    public boolean isRoomAvailable(String roomId, LocalDateTime start, LocalDateTime end) {
+        return isRoomAvailable(roomId, start, end, null);
+    }
+
+    /** Same as above, but holds placed by {@code userId} do not count as conflicts. */
+    public boolean isRoomAvailable(String roomId, LocalDateTime start, LocalDateTime end, String userId) {
+        return isRoomAvailable(roomId, start, end, userId, null);
+    }
+
+    /**
+     * Same as above, also ignoring the booking {@code ignoreBookingId} – the
+     * one being edited, which may overlap its own new time.
+     */
+    public boolean isRoomAvailable(String roomId, LocalDateTime start, LocalDateTime end,
+                                   String userId, String ignoreBookingId) {
+        if (roomId == null || start == null || end == null) return false;
+        return isRoomFree(roomId, start, end, userId, ignoreBookingId);
+    }
+
+    /** Returns true if the room has no live bookings or holds overlapping [start, end]. */
     private boolean isRoomFree(String roomId, LocalDateTime start, LocalDateTime end) {
+        return isRoomFree(roomId, start, end, null);
+    }
+
+    /**
+     * Returns true if the room has no non-cancelled bookings and no holds of
+     * other users overlapping [start, end]. {@code holdOwner} may be null.
+     */
+    private boolean isRoomFree(String roomId, LocalDateTime start, LocalDateTime end, String holdOwner) {
+        return isRoomFree(roomId, start, end, holdOwner, null);
+    }
+
+    private boolean isRoomFree(String roomId, LocalDateTime start, LocalDateTime end,
+                               String holdOwner, String ignoreBookingId) {
+        if (holds.isHeld(roomId, start, end, holdOwner)) {
+            return false;
+        }
+
         List<Booking> forRoom = bookingRepo.getBookingsForRoom(roomId);
 
         for (Booking b : forRoom) {
-            String status = b.getStatus();
-            if ("CANCELLED".equals(status) || "NO_SHOW".equals(status)) {
+            if (b.getStatusEnum().isReleased()) {
                 continue; // ignore dead bookings
             }
+            if (b.getBookingId().equals(ignoreBookingId)) continue;
 
-            boolean overlap =
-                    !b.getEndTime().isBefore(start) && !b.getStartTime().isAfter(end);
-            if (overlap) return false;
+            // any occurrence of a recurring booking counts
+            if (b.conflictsWith(start, end)) return false;
         }
         return true;
     }
 
+    /**
+     * Series version of {@link #isRoomFree}: true if no occurrence of the new
+     * series ({@code start}–{@code end} repeating by {@code rule}) clashes
+     * with a live booking, series or other user's hold in the room.
+     * <p>One pass over the room's bookings; each one is expanded only inside
+     * the span the two overlap in, and each of its occurrences is tested
+     * against the new series arithmetically.</p>
+     */
+    private boolean isSeriesFree(String roomId, LocalDateTime start, LocalDateTime end,
+                                 RecurrenceRule rule, String holdOwner) {
+        return isSeriesFree(roomId, start, end, rule, holdOwner, null);
+    }
+
+    private boolean isSeriesFree(String roomId, LocalDateTime start, LocalDateTime end,
+                                 RecurrenceRule rule, String holdOwner, String ignoreBookingId) {
+        Duration length = Duration.between(start, end);
+        List<LocalDateTime> starts = rule.occurrenceStarts(start, start, rule.lastStart(start));
+        LocalDateTime seriesEnd = starts.get(starts.size() - 1).plus(length);
+
+        for (LocalDateTime s : starts) {
+            if (holds.isHeld(roomId, s, s.plus(length), holdOwner)) return false;
+        }
+
+        for (Booking b : bookingRepo.getBookingsForRoom(roomId)) {
+            if (b.getStatusEnum().isReleased()) continue;
+            if (b.getBookingId().equals(ignoreBookingId)) continue;
+
+            // skip bookings entirely outside the series span
+            if (b.getSeriesEnd().isBefore(start) || b.getStartTime().isAfter(seriesEnd)) continue;
+
+            for (Booking occ : b.getOccurrences(start, seriesEnd)) {
+                if (occ.getStatusEnum().isReleased()) continue;
+                if (rule.hasOccurrence(start, occ.getStartTime().minus(length), occ.getEndTime())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Subscribes to add / update / remove events of the bookings this manager
+     * works on (e.g. cancellations and no-shows for the waitlist).
+     */
+    public void addBookingListener(RepositoryListener<Booking> listener) {
+        bookingRepo.addListener(listener);
+    }
+
+    public void removeBookingListener(RepositoryListener<Booking> listener) {
+        bookingRepo.removeListener(listener);
+    }
+
+    // =========================================================
+    //          RESERVATION HOLDS (PAYMENT MODAL OPEN)
+    // =========================================================
+
+    /**
+     * Holds a slot while the user is paying, so nobody else can book it
+     * between search and payment. The hold expires on its own after
+     * {@link RoomHoldRegistry#DEFAULT_TTL_MILLIS} unless released earlier;
+     * {@link #bookRoom} releases it when the booking is made.
+     *
+     * @return the hold ID to pass to {@link #releaseHold(String)}
+     */
+    public String placeHold(String roomId,
+                            String userId,
+                            LocalDateTime start,
+                            LocalDateTime end) throws Exception {
+
+        if (roomId == null || userId == null) {
+            throw new IllegalArgumentException("roomId and userId are required.");
+        }
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new Exception("Invalid start/end time.");
+        }
+
+        // Same room lock as bookRoom, so no booking lands between the check and the place
+        RoomHoldRegistry.Hold hold;
+        ReentrantLock lock = roomLock(roomId);
+        lock.lock();
+        try {
+            if (!isRoomFree(roomId, start, end, userId)) {
+                throw new Exception("Room is no longer available for that time.");
+            }
+
+            hold = holds.place(roomId, userId, start, end);
+            if (hold == null) {
+                // another user's hold landed between the check and the place
+                throw new Exception("Room is no longer available for that time.");
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        System.out.println("[BookingManager] Hold " + hold.getHoldId() + " on room " + roomId
+                + " for " + userId + " (" + start + " - " + end + ")");
+        return hold.getHoldId();
+    }
+
+    /** Releases a hold early (payment cancelled). Unknown or expired IDs are ignored. */
+    public boolean releaseHold(String holdId) {
+        return holds.release(holdId);
+    }
+
+    /**
+     * Expiry time (epoch millis) of a live hold, or {@code -1} once it has
+     * been released, turned into a booking or has run out.
+     */
+    public long getHoldExpiresAt(String holdId) {
+        RoomHoldRegistry.Hold hold = holds.getHold(holdId);
+        return hold == null ? -1 : hold.getExpiresAt();
+    }
+
+    /** Changes how long new holds last. */
+    public void setHoldTtlMillis(long ttlMillis) {
+        holds.setTtlMillis(ttlMillis);
+    }
+
+    /** Number of holds currently blocking slots. */
+    public int getActiveHoldCount() {
+        return holds.getActiveCount();
+    }
+
+    // =========================================================
+    //                 BOOKING QUOTAS
+    // =========================================================
+
+    /** Sets (or, with {@code null}, lifts) the booking limits of a user type. */
+    public void setQuotaLimit(UserType type, BookingQuotaTracker.Limit limit) {
+        quotas.setLimit(type, limit);
+    }
+
+    /** Minutes the user has booked in the ISO week containing {@code time}. */
+    public long getBookedMinutesInWeek(String userId, LocalDateTime time) {
+        return quotas.getBookedMinutes(userId, time);
+    }
+
+    /**
+     * Reason a new booking of {@code [start, end)} would break the user's
+     * limits, or {@code null}. For the UI's fail-fast check before payment;
+     * {@link #bookRoom} checks again atomically with the add.
+     */
+    public String checkBookingQuota(String userId, String userType, LocalDateTime start, LocalDateTime end) {
+        if (userId == null || start == null || end == null) return null;
+        return quotas.checkNewBookings(userId, userType, start, end, 1);
+    }
+
     // =========================================================
     //     INTERNAL HELPERS – ADD / SAVE USING CURRENT REPO
     // =========================================================
@@ -281,8 +521,12 @@ public class BookingManager {
         bookingRepo.saveAll();
     }
 
-    /** Saves current in-memory bookings list to CSV through the repository. */
-    private void saveBookings() {
+    /**
+     * Saves current in-memory bookings list to CSV through the repository,
+     * after announcing the in-place change of {@code changed} to listeners.
+     */
+    private void saveBookings(Booking changed) {
+        bookingRepo.notifyUpdated(changed);
         bookingRepo.saveAll();
     }
 
@@ -295,18 +539,25 @@ public class BookingManager {
         return getDepositForUserTypeAndDuration(userType, extraHours);
     }
 
+    /**
+     * Extension deposit for a specific booking: one hour at the rate that
+     * applies in the booking's room when the extension starts.
+     */
+    public double calculateExtensionDeposit(Booking booking, String userType, long extraMinutes) {
+        if (booking == null) return calculateExtensionDeposit(userType, extraMinutes);
+        return getDeposit(userType, roomRepo.getById(booking.getRoomId()), booking.getEndTime());
+    }
+
     public Booking findBookingById(String bookingId) {
-        for (Booking b : bookingRepo.getAllBookings()) {
-            if (b.getBookingId().equals(bookingId)) {
-                return b;
-            }
-        }
-        return null;
+        return bookingRepo.findById(bookingId);
     }
 
     public boolean canExtendBooking(Booking booking, long extraMinutes) {
         if (booking == null) return false;
 
+        // A series shares one end time; extending it would move every occurrence.
+        if (booking.isRecurring()) return false;
+
         LocalDateTime now         = LocalDateTime.now();
         LocalDateTime originalEnd = booking.getEndTime();
 
@@ -320,30 +571,46 @@ public class BookingManager {
             return false;
         }
 
-        LocalDateTime newEnd = originalEnd.plusMinutes(extraMinutes);
+        // 3) The room must be free in [originalEnd, originalEnd + extraMinutes)
+        return freeMinutesAfterEnd(booking, extraMinutes) >= extraMinutes;
+    }
 
-        // 3) Check if room is fully free in [originalEnd, newEnd)
-        //    (no overlap with any other booking for the same room)
-        for (Booking other : bookingRepo.getAllBookings()) {
-            if (other.getBookingId().equals(booking.getBookingId())) continue;
-            if (!other.getRoomId().equals(booking.getRoomId()))     continue;
+    /**
+     * Longest extension, in whole time slots and at most {@code limitMinutes},
+     * that {@link #canExtendBooking} would accept right now; 0 if none. Lets
+     * the extension menu be built with one query instead of one per option.
+     */
+    public long getMaxExtensionMinutes(Booking booking, long limitMinutes) {
+        if (booking == null || limitMinutes < TIME_SLOT_MINUTES) return 0;
+        if (booking.isRecurring()) return 0;
 
-            LocalDateTime otherStart = other.getStartTime();
-            LocalDateTime otherEnd   = other.getEndTime();
+        LocalDateTime now = LocalDateTime.now();
+        if (!now.isBefore(booking.getEndTime().minusMinutes(EXTENSION_BUFFER_MINUTES))) {
+            return 0;
+        }
 
-            // overlap if:
-            //   [originalEnd, newEnd) ∩ [otherStart, otherEnd) ≠ ∅
-            boolean overlaps =
-                    originalEnd.isBefore(otherEnd) &&   // this extension starts before other ends
-                            otherStart.isBefore(newEnd);        // and other starts before extension ends
+        long free = freeMinutesAfterEnd(booking, limitMinutes);
+        return free - free % TIME_SLOT_MINUTES;
+    }
 
-            if (overlaps) {
-                // any overlap, even partial → NOT allowed (Req 9 edge case)
-                return false;
-            }
-        }
+    /**
+     * Minutes (up to {@code horizonMinutes}) from the booking's end until the
+     * next live booking or other user's hold in the same room. The next
+     * booking comes from the room's start-ordered index
+     * ({@link BookingRepository#nextOccupiedAfter}); touching is allowed
+     * here, the extension window being half-open.
+     */
+    private long freeMinutesAfterEnd(Booking booking, long horizonMinutes) {
+        LocalDateTime from = booking.getEndTime();
+        LocalDateTime horizon = from.plusMinutes(horizonMinutes);
 
-        return true;
+        LocalDateTime next = bookingRepo.nextOccupiedAfter(
+                booking.getRoomId(), from, horizon, booking.getBookingId());
+        LocalDateTime held = holds.nextHeldAfter(booking.getRoomId(), from, booking.getUserId());
+        if (held != null && (next == null || held.isBefore(next))) next = held;
+
+        if (next == null || next.isAfter(horizon)) return horizonMinutes;
+        return Duration.between(from, next).toMinutes();
     }
 
     /**
@@ -365,26 +632,46 @@ public class BookingManager {
             throw new Exception("You can only extend your own bookings.");
         }
 
-        String status = booking.getStatus();
-        if (!"CONFIRMED".equals(status) && !"IN_USE".equals(status)) {
+        BookingStatus status = booking.getStatusEnum();
+        if (status != BookingStatus.CONFIRMED && status != BookingStatus.IN_USE) {
             throw new Exception("Only active bookings can be extended.");
         }
 
-        if (!canExtendBooking(booking, extraMinutes)) {
-            throw new Exception("Room is not available for that extension window " +
-                    "or the request is too close to the end time.");
+        if (booking.isRecurring()) {
+            throw new Exception("Recurring bookings cannot be extended; edit the series instead.");
         }
 
-        double additionalDeposit = calculateExtensionDeposit(userType, extraMinutes);
+        double additionalDeposit;
+        ReentrantLock userLock = userLock(booking.getUserId());
+        ReentrantLock lock = roomLock(booking.getRoomId());
+        userLock.lock();
+        lock.lock();
+        try {
+            if (!canExtendBooking(booking, extraMinutes)) {
+                throw new Exception("Room is not available for that extension window " +
+                        "or the request is too close to the end time.");
+            }
 
-        // Apply the extension
-        booking.setEndTime(booking.getEndTime().plusMinutes(extraMinutes));
-        booking.setDepositAmount(
-                booking.getDepositAmount() + additionalDeposit
-        );
+            String overQuota = quotas.checkExtension(booking, userType, extraMinutes);
+            if (overQuota != null) {
+                throw new Exception(overQuota);
+            }
+
+            additionalDeposit = calculateExtensionDeposit(booking, userType, extraMinutes);
 
-        // Persist current state (via repository)
-        saveBookings();
+            // Apply the extension
+            booking.setEndTime(booking.getEndTime().plusMinutes(extraMinutes));
+            booking.setDepositAmount(
+                    booking.getDepositAmount() + additionalDeposit
+            );
+
+            // Persist current state (via repository)
+            saveBookings(booking);
+        } finally {
+            lock.unlock();
+            userLock.unlock();
+        }
+        PaymentLedger.getInstance().recordExtension(booking, additionalDeposit);
 
         return booking;
     }
@@ -421,6 +708,10 @@ public class BookingManager {
             throw new IllegalStateException("Only active/confirmed bookings can be extended.");
         }
 
+        if (target.isRecurring()) {
+            throw new IllegalStateException("Recurring bookings cannot be extended; edit the series instead.");
+        }
+
         LocalDateTime oldEnd = target.getEndTime();
 
         if (!newEndTime.isAfter(oldEnd)) {
@@ -450,6 +741,7 @@ public class BookingManager {
 
         // 6) save all bookings back
         CSVHelper.saveBookings(csvPath, all);
+        PaymentLedger.getInstance().recordExtension(target, extraAmount);
 
         return target;
     }
@@ -502,6 +794,21 @@ public class BookingManager {
                             LocalDateTime end,
                             String purpose,
                             String userType) throws Exception {
+        return bookRoom(roomId, userId, start, end, purpose, userType, "APPROVED");
+    }
+
+    /**
+     * Same as {@link #bookRoom(String, String, LocalDateTime, LocalDateTime, String, String)}
+     * but records the outcome of the payment strategy (e.g. PENDING for
+     * partner billing) instead of assuming APPROVED.
+     */
+    public Booking bookRoom(String roomId,
+                            String userId,
+                            LocalDateTime start,
+                            LocalDateTime end,
+                            String purpose,
+                            String userType,
+                            String paymentStatus) throws Exception {
 
         if (roomId == null || userId == null) {
             throw new IllegalArgumentException("roomId and userId are required.");
@@ -516,34 +823,37 @@ public class BookingManager {
             throw new Exception("Invalid start/end time.");
         }
 
-        // Final conflict check in case something changed after search
-        if (!isRoomFree(roomId, start, end)) {
-            throw new Exception("Room is no longer available for that time.");
-        }
-
-        long minutes = Duration.between(start, end).toMinutes();
-        long hours = minutes / 60;
-        if (minutes % 60 != 0) hours++;
-        if (hours <= 0) hours = 1;
+        Booking booking;
+        ReentrantLock userLock = userLock(userId);
+        ReentrantLock lock = roomLock(roomId);
+        userLock.lock();
+        lock.lock();
+        try {
+            // Quota and conflicts are checked atomically with the add
+            String overQuota = quotas.checkNewBookings(userId, userType, start, end, 1);
+            if (overQuota != null) {
+                throw new Exception(overQuota);
+            }
 
-        double deposit = getDepositForUserTypeAndDuration(userType, hours);
+            // Final conflict check in case something changed after search;
+            // the payer's own hold does not block them
+            if (!isRoomFree(roomId, start, end, userId)) {
+                throw new Exception("Room is no longer available for that time.");
+            }
 
-        String bookingId = generateBookingId();
+            booking = newConfirmedBooking(room, userId, start, end, purpose, userType, paymentStatus);
 
-        Booking booking = new BookingBuilder()
-                .setBookingId(bookingId)
-                .setRoomId(roomId)
-                .setUserId(userId)
-                .setStartTime(start)
-                .setEndTime(end)
-                .setPurpose(purpose)
-                .setStatus("CONFIRMED")
-                .setPaymentStatus("APPROVED")   // card passed in PaymentModal
-                .setDepositAmount(deposit)
-                .build();
+            // Use internal add + save, compatible with BookingRepository
+            addBookingInternal(booking);
+            holds.releaseFor(roomId, userId, start, end);
+        } finally {
+            lock.unlock();
+            userLock.unlock();
+        }
+        afterBookingCreated(booking);
 
-        // Use internal add + save, compatible with BookingRepository
-        addBookingInternal(booking);
+        String bookingId = booking.getBookingId();
+        double deposit = booking.getDepositAmount();
 
         // ===================== BOOKING LOG (SUCCESS) ============================
         LocalDateTime logNow = LocalDateTime.now();
@@ -571,8 +881,309 @@ public class BookingManager {
         return booking;
     }
 
+    // =========================================================
+    //                 RECURRING BOOKINGS
+    // =========================================================
+
+    /**
+     * Books a repeating slot (e.g. a weekly lab meeting) as a single record:
+     * {@code start}/{@code end} are the first occurrence and {@code rule}
+     * says how it repeats. The whole series is conflict-checked in one pass
+     * and saved with one write. The deposit is taken once, for the first
+     * occurrence.
+     */
+    public Booking bookRecurring(String roomId,
+                                 String userId,
+                                 LocalDateTime start,
+                                 LocalDateTime end,
+                                 String purpose,
+                                 String userType,
+                                 String paymentStatus,
+                                 RecurrenceRule rule) throws Exception {
+
+        if (rule == null) {
+            return bookRoom(roomId, userId, start, end, purpose, userType, paymentStatus);
+        }
+        if (roomId == null || userId == null) {
+            throw new IllegalArgumentException("roomId and userId are required.");
+        }
+
+        Room room = roomRepo.getById(roomId);
+        if (room == null) {
+            throw new Exception("Selected room does not exist.");
+        }
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new Exception("Invalid start/end time.");
+        }
+        if (!end.isBefore(start.plusDays(1))) {
+            throw new Exception("Each occurrence of a recurring booking must be shorter than a day.");
+        }
+        if (rule.getUntil().isBefore(start.toLocalDate())) {
+            throw new Exception("Recurrence must end on or after the first booking.");
+        }
+        if (!rule.getDays().isEmpty() && !rule.getDays().contains(start.getDayOfWeek())) {
+            throw new Exception("The first booking must fall on one of the recurrence weekdays.");
+        }
+
+        Booking booking;
+        ReentrantLock userLock = userLock(userId);
+        ReentrantLock lock = roomLock(roomId);
+        userLock.lock();
+        lock.lock();
+        try {
+            String overQuota = quotas.checkNewSeries(userId, userType, start, end, rule);
+            if (overQuota != null) {
+                throw new Exception(overQuota);
+            }
+
+            if (!isSeriesFree(roomId, start, end, rule, userId)) {
+                throw new Exception("Room is not available for every occurrence of that series.");
+            }
+
+            booking = new BookingBuilder()
+                    .setBookingId(generateBookingId())
+                    .setRoomId(roomId)
+                    .setUserId(userId)
+                    .setStartTime(start)
+                    .setEndTime(end)
+                    .setPurpose(purpose)
+                    .setStatus("CONFIRMED")
+                    .setPaymentStatus(paymentStatus)
+                    .setDepositAmount(getDeposit(userType, room, start))
+                    .setRecurrence(rule)
+                    .build();
+
+            addBookingInternal(booking);
+            holds.releaseFor(roomId, userId, start, end);
+        } finally {
+            lock.unlock();
+            userLock.unlock();
+        }
+        afterBookingCreated(booking);
+
+        System.out.println("[BookingManager] Recurring booking " + booking.getBookingId()
+                + " in " + roomId + " for " + userId + ": " + rule.countOccurrences(start)
+                + " occurrences (" + rule.format() + ")");
+        return booking;
+    }
+
+    // =========================================================
+    //              MULTI-ROOM BOOKING (EVENTS)
+    // =========================================================
+
+    /**
+     * Books several rooms for the same interval, all or nothing – e.g. a
+     * plenary plus breakout rooms for an event coordinator.
+     *
+     * <ul>
+     *     <li>The rooms' locks are taken in sorted room-ID order, so two
+     *         overlapping requests can never deadlock.</li>
+     *     <li>Every room is checked while all locks are held; if any room is
+     *         taken, nothing is booked.</li>
+     *     <li>All bookings are added and then written with one {@code saveAll()}.</li>
+     * </ul>
+     *
+     * @return the new bookings, in the order of {@code roomIds}
+     */
+    public List<Booking> bookRooms(List<String> roomIds,
+                                   String userId,
+                                   LocalDateTime start,
+                                   LocalDateTime end,
+                                   String purpose,
+                                   String userType,
+                                   String paymentStatus) throws Exception {
+
+        if (roomIds == null || roomIds.isEmpty() || userId == null) {
+            throw new IllegalArgumentException("roomIds and userId are required.");
+        }
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new Exception("Invalid start/end time.");
+        }
+
+        // Sorted, de-duplicated lock order
+        TreeSet<String> ordered = new TreeSet<>(roomIds);
+        if (ordered.size() != roomIds.size() || ordered.contains(null)) {
+            throw new Exception("Each room can only be booked once per request.");
+        }
+
+        Map<String, Room> rooms = new HashMap<>();
+        for (String roomId : ordered) {
+            Room room = roomRepo.getById(roomId);
+            if (room == null) {
+                throw new Exception("Selected room does not exist: " + roomId);
+            }
+            rooms.put(roomId, room);
+        }
+
+        List<ReentrantLock> locked = new ArrayList<>();
+        List<Booking> created = new ArrayList<>();
+        ReentrantLock userLock = userLock(userId);
+        userLock.lock();
+        try {
+            for (String roomId : ordered) {
+                ReentrantLock lock = roomLock(roomId);
+                lock.lock();
+                locked.add(lock);
+            }
+
+            String overQuota = quotas.checkNewBookings(userId, userType, start, end, roomIds.size());
+            if (overQuota != null) {
+                throw new Exception(overQuota);
+            }
+
+            for (String roomId : ordered) {
+                if (!isRoomFree(roomId, start, end, userId)) {
+                    throw new Exception("Room " + roomId + " is no longer available for that time. "
+                            + "No rooms were booked.");
+                }
+            }
+
+            for (String roomId : roomIds) {
+                created.add(newConfirmedBooking(rooms.get(roomId), userId, start, end,
+                        purpose, userType, paymentStatus));
+            }
+
+            // One write for the whole event
+            bookingRepo.getAllBookings().addAll(created);
+            bookingRepo.saveAll();
+
+            for (String roomId : ordered) {
+                holds.releaseFor(roomId, userId, start, end);
+            }
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                locked.get(i).unlock();
+            }
+            userLock.unlock();
+        }
+
+        for (Booking b : created) {
+            afterBookingCreated(b);
+        }
+
+        System.out.println("[BookingManager] Event booking for " + userId + ": "
+                + created.size() + " rooms " + roomIds + " (" + start + " - " + end + ")");
+        return created;
+    }
+
+    // =========================================================
+    //          BATCH COMMIT (SEMESTER ALLOCATION PLANS)
+    // =========================================================
+
+    /**
+     * Commits bookings planned ahead (e.g. by {@code BatchRoomAllocator}) in
+     * one persistence pass.
+     *
+     * <ul>
+     *     <li>Room locks are taken in sorted room-ID order, as in {@link #bookRooms}.</li>
+     *     <li>Each booking – one-off or series – is checked again against the
+     *         current bookings, other users' holds and the planned bookings
+     *         accepted before it. Clashing ones are handed back instead of
+     *         failing the whole plan.</li>
+     *     <li>Accepted bookings go into the in-memory list (and per-room index)
+     *         one by one and are written with a single {@code saveAll()}.</li>
+     * </ul>
+     *
+     * @return the planned bookings that were NOT committed
+     */
+    public List<Booking> commitPlannedBookings(List<Booking> planned) {
+        List<Booking> rejected = new ArrayList<>();
+        if (planned == null || planned.isEmpty()) return rejected;
+
+        TreeSet<String> ordered = new TreeSet<>();
+        for (Booking b : planned) ordered.add(b.getRoomId());
+
+        List<ReentrantLock> locked = new ArrayList<>();
+        List<Booking> accepted = new ArrayList<>();
+        try {
+            for (String roomId : ordered) {
+                ReentrantLock lock = roomLock(roomId);
+                lock.lock();
+                locked.add(lock);
+            }
+
+            for (Booking b : planned) {
+                boolean free = b.isRecurring()
+                        ? isSeriesFree(b.getRoomId(), b.getStartTime(), b.getEndTime(),
+                                       b.getRecurrence(), b.getUserId())
+                        : isRoomFree(b.getRoomId(), b.getStartTime(), b.getEndTime(), b.getUserId());
+                if (free) {
+                    bookingRepo.getAllBookings().add(b);
+                    accepted.add(b);
+                } else {
+                    rejected.add(b);
+                }
+            }
+
+            if (!accepted.isEmpty()) bookingRepo.saveAll();
+        } finally {
+            for (int i = locked.size() - 1; i >= 0; i--) {
+                locked.get(i).unlock();
+            }
+        }
+
+        for (Booking b : accepted) {
+            afterBookingCreated(b);
+        }
+
+        System.out.println("[BookingManager] Committed planned bookings: "
+                + accepted.size() + " saved, " + rejected.size() + " rejected");
+        return rejected;
+    }
+
+    /** A fresh booking ID, for callers that build bookings themselves (batch plans). */
+    public String newBookingId() {
+        return generateBookingId();
+    }
+
+    /** Every booking of one room, served from the repository's per-room index. */
+    public List<Booking> getBookingsForRoom(String roomId) {
+        return bookingRepo.getBookingsForRoom(roomId);
+    }
+
+    /** Lock guarding the check-then-add of new bookings in one room. */
+    private ReentrantLock userLock(String userId) {
+        return userLocks.computeIfAbsent(userId.trim().toLowerCase(Locale.ROOT), k -> new ReentrantLock());
+    }
+
+    private ReentrantLock roomLock(String roomId) {
+        return roomLocks.computeIfAbsent(roomId, k -> new ReentrantLock());
+    }
+
+    /** Builds a CONFIRMED booking with a fresh ID and the room's deposit. */
+    private Booking newConfirmedBooking(Room room,
+                                        String userId,
+                                        LocalDateTime start,
+                                        LocalDateTime end,
+                                        String purpose,
+                                        String userType,
+                                        String paymentStatus) {
+        return new BookingBuilder()
+                .setBookingId(generateBookingId())
+                .setRoomId(room.getRoomId())
+                .setUserId(userId)
+                .setStartTime(start)
+                .setEndTime(end)
+                .setPurpose(purpose)
+                .setStatus("CONFIRMED")
+                .setPaymentStatus(paymentStatus)   // outcome of the PaymentModal strategy
+                .setDepositAmount(getDeposit(userType, room, start))
+                .build();
+    }
+
+    /** Ledger entry and partner billing for a booking that was just persisted. */
+    private void afterBookingCreated(Booking booking) {
+        PaymentLedger.getInstance().recordCharge(booking);
+
+        // Partner charges left PENDING are billed later in per-organisation batches
+        if (booking.getPaymentStatusEnum() == PaymentStatus.PENDING) {
+            PartnerSettlementEngine.getInstance().enqueue(booking);
+        }
+    }
+
+    /** Unique even for bookings created in the same millisecond or by other instances. */
     private String generateBookingId() {
-        return "B" + System.currentTimeMillis();
+        return idGenerator.nextId("B");
     }
 
     // =========================================================
@@ -584,7 +1195,7 @@ public class BookingManager {
         List<Booking> result = new ArrayList<>();
         if (userId == null) return result;
 
-        for (Booking b : bookingRepo.getAllBookings()) {
+        for (Booking b : bookingRepo.snapshot()) {
             if (userId.equalsIgnoreCase(b.getUserId())) {
                 result.add(b);
             }
@@ -592,6 +1203,24 @@ public class BookingManager {
         return result;
     }
 
+    /**
+     * A user's bookings that were moved to the archive, most recent first.
+     * Streams the compressed archive, so call it only for history views.
+     */
+    public List<Booking> getArchivedUserBookings(String userId) {
+        try {
+            return bookingRepo.getArchive().findForUser(userId);
+        } catch (UncheckedIOException e) {
+            System.out.println("[BookingManager] Could not read booking archive: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /** True once bookings have been archived, i.e. there may be older history to show. */
+    public boolean hasArchivedBookings() {
+        return bookingRepo.getArchive().exists();
+    }
+
     // =========================================================
     //               CANCEL / EDIT EXISTING BOOKINGS
     // =========================================================
@@ -606,15 +1235,17 @@ public class BookingManager {
             throw new Exception("You can cancel only your own bookings.");
         }
 
-        if ("CANCELLED".equals(booking.getStatus())) {
+        if (booking.getStatusEnum() == BookingStatus.CANCELLED) {
             return false; // already cancelled
         }
 
-        booking.setStatus("CANCELLED");
+        booking.setStatus(BookingStatus.CANCELLED);
         // simple rule: treat as refunded on cancel
-        booking.setPaymentStatus("REFUNDED");
+        booking.setPaymentStatus(PaymentStatus.REFUNDED);
 
-        saveBookings();
+        saveBookings(booking);
+        PaymentLedger.getInstance().recordRefund(booking);
+        forgetPaymentKey(booking.getUserId(), booking.getRoomId(), booking.getStartTime(), booking.getEndTime());
 
         // ===================== BOOKING CANCELLED LOG ============================
         LocalDateTime now = LocalDateTime.now();
@@ -645,6 +1276,22 @@ public class BookingManager {
                             LocalDateTime newStart,
                             LocalDateTime newEnd,
                             String newPurpose) throws Exception {
+        editBooking(bookingId, userEmail, newRoomId, newStart, newEnd, newPurpose, null);
+    }
+
+    /**
+     * Moves a booking (a whole series: its first occurrence) to a new room
+     * and time. The new times are checked against the user's quota – without
+     * the booking's current times – atomically with the update;
+     * {@code userType} {@code null} falls back to student limits.
+     */
+    public void editBooking(String bookingId,
+                            String userEmail,
+                            String newRoomId,
+                            LocalDateTime newStart,
+                            LocalDateTime newEnd,
+                            String newPurpose,
+                            String userType) throws Exception {
 
         Booking booking = getBookingById(bookingId);
         if (booking == null) {
@@ -661,8 +1308,8 @@ public class BookingManager {
             throw new Exception("You can edit only your own bookings.");
         }
 
-        if (!"CONFIRMED".equals(booking.getStatus())
-                && !"PENDING_PAYMENT".equals(booking.getStatus())) {
+        if (booking.getStatusEnum() != BookingStatus.CONFIRMED
+                && booking.getStatusEnum() != BookingStatus.PENDING_PAYMENT) {
             throw new Exception("Only upcoming bookings can be edited.");
         }
 
@@ -675,29 +1322,54 @@ public class BookingManager {
             throw new Exception("Invalid start/end time.");
         }
 
-        // Check conflicts in the new room, but ignore this same booking
-        List<Booking> forRoom = bookingRepo.getBookingsForRoom(newRoomId);
-        for (Booking other : forRoom) {
-            if (other.getBookingId().equals(bookingId)) continue;
-
-            String status = other.getStatus();
-            if ("CANCELLED".equals(status) || "NO_SHOW".equals(status)) continue;
+        // For a series, newStart/newEnd are the new first occurrence
+        RecurrenceRule rule = booking.getRecurrence();
+        if (rule != null) {
+            if (!newEnd.isBefore(newStart.plusDays(1))) {
+                throw new Exception("Each occurrence of a recurring booking must be shorter than a day.");
+            }
+            if (rule.getUntil().isBefore(newStart.toLocalDate())) {
+                throw new Exception("Recurrence must end on or after the first booking.");
+            }
+            if (!rule.getDays().isEmpty() && !rule.getDays().contains(newStart.getDayOfWeek())) {
+                throw new Exception("The first booking must fall on one of the recurrence weekdays.");
+            }
+        }
 
-            boolean overlap =
-                    !other.getEndTime().isBefore(newStart) &&
-                            !other.getStartTime().isAfter(newEnd);
+        ReentrantLock userLock = userLock(booking.getUserId());
+        ReentrantLock lock = roomLock(newRoomId);
+        userLock.lock();
+        lock.lock();
+        try {
+            String overQuota = quotas.checkEdit(booking, userType, newStart, newEnd);
+            if (overQuota != null) {
+                throw new Exception(overQuota);
+            }
 
-            if (overlap) {
+            // Check conflicts in the new room, but ignore this same booking;
+            // every occurrence counts for a series
+            boolean free = rule != null
+                    ? isSeriesFree(newRoomId, newStart, newEnd, rule, booking.getUserId(), bookingId)
+                    : isRoomFree(newRoomId, newStart, newEnd, booking.getUserId(), bookingId);
+            if (!free) {
                 throw new Exception("Room is not available for the new time.");
             }
-        }
-
-        booking.setRoomId(newRoomId);
-        booking.setStartTime(newStart);
-        booking.setEndTime(newEnd);
-        booking.setPurpose(newPurpose);
 
-        saveBookings();
+            // check-ins / no-shows belong to the old occurrence times
+            if (!newStart.equals(booking.getStartTime()) || !newEnd.equals(booking.getEndTime())) {
+                booking.clearOccurrenceStatuses();
+            }
+            booking.setRoomId(newRoomId);
+            booking.setStartTime(newStart);
+            booking.setEndTime(newEnd);
+            booking.setPurpose(newPurpose);
+
+            saveBookings(booking);
+        } finally {
+            lock.unlock();
+            userLock.unlock();
+        }
+        forgetPaymentKey(booking.getUserId(), oldRoom, oldStart, oldEnd);
 
         // ===================== BOOKING EDITED LOG ============================
         LocalDateTime now = LocalDateTime.now();
@@ -725,6 +1397,16 @@ public class BookingManager {
     //          METHODS USED BY SCENARIO 3 (SENSORS)
     // =========================================================
 
+    /**
+     * The deposit paid under this booking attempt's idempotency key no longer
+     * stands for a live booking (refunded, or moved to another slot), so
+     * paying for that slot again must charge again.
+     */
+    private static void forgetPaymentKey(String userId, String roomId, LocalDateTime start, LocalDateTime end) {
+        PaymentIdempotencyCache.getInstance()
+                .invalidate(PaymentIdempotencyCache.keyForBooking(userId, roomId, start, end));
+    }
+
     /** Simple lookup by ID – used all over Scenario 3. */
     public Booking getBookingById(String id) {
         if (id == null) return null;
@@ -737,11 +1419,26 @@ public class BookingManager {
      * we treat the deposit as applied and mark the booking IN_USE.
      */
     public void applyDepositToFinalCost(String bookingId) {
+        applyDepositToFinalCost(bookingId, null);
+    }
+
+    /**
+     * Check-in for one occurrence. For a recurring booking only the
+     * occurrence starting at {@code occurrenceStart} (the one open for
+     * check-in if {@code null}) becomes IN_USE; a one-off booking ignores
+     * {@code occurrenceStart}.
+     */
+    public void applyDepositToFinalCost(String bookingId, LocalDateTime occurrenceStart) {
         Booking b = getBookingById(bookingId);
         if (b == null) return;
 
-        b.setStatus("IN_USE");
-        saveBookings();
+        if (b.isRecurring()) {
+            setOccurrenceStatus(b, occurrenceStart, BookingStatus.IN_USE);
+            return;
+        }
+
+        b.setStatus(BookingStatus.IN_USE);
+        saveBookings(b);
     }
 
     /**
@@ -749,17 +1446,93 @@ public class BookingManager {
      * forfeit the deposit.
      */
     public void markDepositForfeited(String bookingId) {
+        markDepositForfeited(bookingId, null);
+    }
+
+    /**
+     * No-show for one occurrence. For a recurring booking only that
+     * occurrence is marked NO_SHOW and its slot is freed – the series stays
+     * CONFIRMED, so later weeks are unaffected – and the deposit still held
+     * is forfeited (later no-shows record a zero forfeit). A one-off booking
+     * ignores {@code occurrenceStart} and forfeits its deposit.
+     */
+    public void markDepositForfeited(String bookingId, LocalDateTime occurrenceStart) {
         Booking b = getBookingById(bookingId);
         if (b == null) return;
 
-        b.setStatus("NO_SHOW");
-        b.setPaymentStatus("FORFEITED");
-        saveBookings();
+        if (b.isRecurring()) {
+            if (setOccurrenceStatus(b, occurrenceStart, BookingStatus.NO_SHOW)) {
+                PaymentLedger.getInstance().recordForfeit(b);
+            }
+            return;
+        }
+
+        b.setStatus(BookingStatus.NO_SHOW);
+        b.setPaymentStatus(PaymentStatus.FORFEITED);
+        saveBookings(b);
+        PaymentLedger.getInstance().recordForfeit(b);
+    }
+
+    /** Key of one occurrence of a recurring booking, e.g. {@code "B12@2025-03-04T10:00"}. */
+    public static String occurrenceKey(String bookingId, LocalDateTime occurrenceStart) {
+        return bookingId + "@" + occurrenceStart;
+    }
+
+    /**
+     * Check-in / no-show state recorded for one occurrence of a recurring
+     * booking, or {@code null} if nothing happened to it yet.
+     */
+    public BookingStatus getOccurrenceStatus(String bookingId, LocalDateTime occurrenceStart) {
+        Booking b = getBookingById(bookingId);
+        return b == null ? null : b.getOccurrenceStatus(occurrenceStart);
+    }
+
+    /**
+     * The occurrence of {@code booking} whose check-in window is open at
+     * {@code now}: it starts between {@code lateMinutes} before and
+     * {@code earlyMinutes} after {@code now}. The copy carries the
+     * occurrence's own check-in / no-show status. A one-off booking is
+     * returned as is; {@code null} if no occurrence of a series qualifies.
+     */
+    public Booking getOccurrenceNear(Booking booking, LocalDateTime now, long earlyMinutes, long lateMinutes) {
+        if (booking == null || now == null) return null;
+        if (!booking.isRecurring()) return booking;
+
+        LocalDateTime from = now.minusMinutes(lateMinutes);
+        LocalDateTime to = now.plusMinutes(earlyMinutes);
+        for (Booking occ : booking.getOccurrences(from, to)) {
+            if (occ.getStartTime().isBefore(from) || occ.getStartTime().isAfter(to)) continue;
+            return occ;
+        }
+        return null;
+    }
+
+    /**
+     * Records the state of one occurrence on the series, persists it and
+     * announces the series as updated, so quotas, the dashboard and the
+     * waitlist (for a freed NO_SHOW slot) see it.
+     *
+     * @return false if there was no open occurrence to apply it to
+     */
+    private boolean setOccurrenceStatus(Booking series, LocalDateTime occurrenceStart, BookingStatus status) {
+        if (occurrenceStart == null) {
+            Booking current = getOccurrenceNear(series, LocalDateTime.now(),
+                    CHECK_IN_EARLY_MINUTES, CHECK_IN_LATE_MINUTES);
+            if (current == null) return false;
+            occurrenceStart = current.getStartTime();
+        }
+        series.setOccurrenceStatus(occurrenceStart, status);
+        saveBookings(series);
+        System.out.println("[BookingManager] Occurrence " + occurrenceStart + " of series "
+                + series.getBookingId() + " → " + status);
+        return true;
     }
 
     /**
      * Used by RoomStatusManager + RoomOccupancyPopup to figure out
      * whether there is an active booking for a room at a given time.
+     * For a recurring booking the occurrence running at {@code now} is
+     * returned, with that occurrence's own check-in / no-show status.
      */
     public Booking getActiveBookingForRoom(String roomId, LocalDateTime now) {
         if (roomId == null || now == null) return null;
@@ -767,13 +1540,13 @@ public class BookingManager {
         List<Booking> forRoom = bookingRepo.getBookingsForRoom(roomId);
         for (Booking b : forRoom) {
 
-            String status = b.getStatus();
-            if ("CANCELLED".equals(status) || "NO_SHOW".equals(status)) continue;
+            if (b.getStatusEnum().isReleased()) continue;
 
-            boolean inWindow =
-                    !now.isBefore(b.getStartTime()) && !now.isAfter(b.getEndTime());
-
-            if (inWindow) return b;
+            // occurrences whose [start, end] contains now
+            for (Booking occ : b.getOccurrences(now, now)) {
+                if (occ.getStatusEnum().isReleased()) continue;
+                return occ;
+            }
         }
         return null;
     }
@@ -0,0 +1,224 @@
+package scenario2.controller;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * RoomHoldRegistry – Scenario 2 (Room Booking & Payment)
+ * ---------------------------------------------------------------------------
+ * <p>Short-lived reservations on a (room, interval) pair while a user is
+ * paying. A hold blocks the slot for everybody else until it is released,
+ * turned into a booking, or its time-to-live runs out.</p>
+ *
+ * <h2>Expiry</h2>
+ * <ul>
+ *     <li>All holds share one {@link PriorityQueue} ordered by expiry time.</li>
+ *     <li>Every call first pops the expired holds off the head of the queue,
+ *         so expiry costs nothing while holds are still valid and there is no
+ *         timer thread per hold.</li>
+ *     <li>Released holds stay in the queue until they reach the head; they are
+ *         recognised by no longer being in {@code byId}.</li>
+ * </ul>
+ *
+ * <h2>Lookup</h2>
+ * <p>Holds are indexed per room, so a conflict check only scans the (usually
+ * zero or one) holds on that room.</p>
+ *
+ * <p>Used through {@link BookingManager}; not a singleton of its own.</p>
+ */
+public class RoomHoldRegistry {
+
+    /** Default hold lifetime: long enough to type card details. */
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+
+    /** One hold on a room. */
+    public static final class Hold {
+        private final String holdId;
+        private final String roomId;
+        private final String userId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final long expiresAt;
+
+        private Hold(String holdId, String roomId, String userId,
+                     LocalDateTime start, LocalDateTime end, long expiresAt) {
+            this.holdId = holdId;
+            this.roomId = roomId;
+            this.userId = userId;
+            this.start = start;
+            this.end = end;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getHoldId() { return holdId; }
+        public String getRoomId() { return roomId; }
+        public String getUserId() { return userId; }
+        public LocalDateTime getStart() { return start; }
+        public LocalDateTime getEnd() { return end; }
+        public long getExpiresAt() { return expiresAt; }
+
+        /** Same inclusive overlap rule as booking conflicts. */
+        private boolean overlaps(LocalDateTime s, LocalDateTime e) {
+            return !end.isBefore(s) && !start.isAfter(e);
+        }
+    }
+
+    private final LongSupplier clock;
+    private long ttlMillis;
+
+    private final Map<String, Hold> byId = new HashMap<>();
+    private final Map<String, List<Hold>> byRoom = new HashMap<>();
+    private final PriorityQueue<Hold> expiryQueue =
+            new PriorityQueue<>((a, b) -> Long.compare(a.expiresAt, b.expiresAt));
+
+    RoomHoldRegistry() {
+        this(System::currentTimeMillis, DEFAULT_TTL_MILLIS);
+    }
+
+    /** Package-private for tests, which drive the clock by hand. */
+    RoomHoldRegistry(LongSupplier clock, long ttlMillis) {
+        this.clock = clock;
+        this.ttlMillis = ttlMillis;
+    }
+
+    public synchronized void setTtlMillis(long ttlMillis) {
+        if (ttlMillis <= 0) {
+            throw new IllegalArgumentException("Hold TTL must be positive.");
+        }
+        this.ttlMillis = ttlMillis;
+    }
+
+    // =============================================================
+    // HOLDS
+    // =============================================================
+
+    /**
+     * Places a hold unless another user already holds an overlapping slot.
+     * The caller checks existing bookings first.
+     *
+     * @return the new hold, or {@code null} if the slot is held by someone else
+     */
+    public synchronized Hold place(String roomId, String userId,
+                                   LocalDateTime start, LocalDateTime end) {
+        purgeExpired();
+        if (isHeldByOther(roomId, start, end, userId)) {
+            return null;
+        }
+
+        Hold hold = new Hold(UUID.randomUUID().toString(), roomId, userId,
+                start, end, clock.getAsLong() + ttlMillis);
+        byId.put(hold.holdId, hold);
+        byRoom.computeIfAbsent(roomId, k -> new ArrayList<>()).add(hold);
+        expiryQueue.add(hold);
+        return hold;
+    }
+
+    /** Releases a hold; returns {@code false} if it was unknown or already expired. */
+    public synchronized boolean release(String holdId) {
+        purgeExpired();
+        Hold hold = holdId == null ? null : byId.remove(holdId);
+        if (hold == null) return false;
+        unindex(hold);
+        return true;
+    }
+
+    /** Releases every hold of {@code userId} on the room that overlaps the interval. */
+    public synchronized void releaseFor(String roomId, String userId,
+                                        LocalDateTime start, LocalDateTime end) {
+        purgeExpired();
+        List<Hold> holds = byRoom.get(roomId);
+        if (holds == null) return;
+
+        Iterator<Hold> it = holds.iterator();
+        while (it.hasNext()) {
+            Hold h = it.next();
+            if (h.userId.equalsIgnoreCase(userId) && h.overlaps(start, end)) {
+                it.remove();
+                byId.remove(h.holdId);
+            }
+        }
+        if (holds.isEmpty()) byRoom.remove(roomId);
+    }
+
+    /**
+     * True if a live hold of a user other than {@code ignoreUserId} overlaps
+     * the interval. Pass {@code null} to count every hold.
+     */
+    public synchronized boolean isHeld(String roomId, LocalDateTime start,
+                                       LocalDateTime end, String ignoreUserId) {
+        purgeExpired();
+        return isHeldByOther(roomId, start, end, ignoreUserId);
+    }
+
+    /**
+     * Earliest moment after {@code from} held by a user other than
+     * {@code ignoreUserId}: {@code from} itself if a hold is running then,
+     * otherwise the nearest later hold start, or {@code null} if none.
+     */
+    public synchronized LocalDateTime nextHeldAfter(String roomId, LocalDateTime from, String ignoreUserId) {
+        purgeExpired();
+        List<Hold> holds = byRoom.get(roomId);
+        if (holds == null) return null;
+
+        LocalDateTime next = null;
+        for (Hold h : holds) {
+            if (ignoreUserId != null && h.userId.equalsIgnoreCase(ignoreUserId)) continue;
+            if (!h.end.isAfter(from)) continue;
+            if (!h.start.isAfter(from)) return from;
+            if (next == null || h.start.isBefore(next)) next = h.start;
+        }
+        return next;
+    }
+
+    public synchronized Hold getHold(String holdId) {
+        purgeExpired();
+        return byId.get(holdId);
+    }
+
+    public synchronized int getActiveCount() {
+        purgeExpired();
+        return byId.size();
+    }
+
+    // =============================================================
+    // INTERNALS
+    // =============================================================
+
+    private boolean isHeldByOther(String roomId, LocalDateTime start,
+                                  LocalDateTime end, String ignoreUserId) {
+        List<Hold> holds = byRoom.get(roomId);
+        if (holds == null) return false;
+
+        for (Hold h : holds) {
+            if (ignoreUserId != null && h.userId.equalsIgnoreCase(ignoreUserId)) continue;
+            if (h.overlaps(start, end)) return true;
+        }
+        return false;
+    }
+
+    /** Pops expired holds off the head of the queue. */
+    private void purgeExpired() {
+        long now = clock.getAsLong();
+        Hold head;
+        while ((head = expiryQueue.peek()) != null && head.expiresAt <= now) {
+            expiryQueue.poll();
+            if (byId.remove(head.holdId) != null) {
+                unindex(head);
+            }
+        }
+    }
+
+    private void unindex(Hold hold) {
+        List<Hold> holds = byRoom.get(hold.roomId);
+        if (holds == null) return;
+        holds.remove(hold);
+        if (holds.isEmpty()) byRoom.remove(hold.roomId);
+    }
+}
@@ -0,0 +1,153 @@
+package scenario2.payment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * GatewayLoadDriver – Scenario 2 (Payment Load Testing)
+ * ---------------------------------------------------------------------------
+ * <p>Pushes a batch of concurrent checkouts through
+ * {@link PaymentContext#executePaymentAsync(String, double, String)} and reports
+ * throughput and latency percentiles. Combined with
+ * {@link SimulatedGatewayPayment} it shows how checkout behaves when the
+ * gateway is slow, flaky or rate-limited, without any external service.</p>
+ *
+ * <h2>What Is Measured</h2>
+ * <ul>
+ *     <li>Latency of each checkout from submission to its final result,
+ *         including queueing, timeouts and retries.</li>
+ *     <li>Overall throughput (completed checkouts per second).</li>
+ *     <li>Approved / pending / failed counts.</li>
+ * </ul>
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * java scenario2.payment.GatewayLoadDriver [checkouts] [concurrency] [medianLatencyMs] [errorRate] [ratePerSecond]
+ * </pre>
+ * <p>At most {@code concurrency} checkouts are in flight at once; note that
+ * {@link PaymentContext} itself runs at most {@link PaymentContext#POOL_SIZE}
+ * gateway calls in parallel.</p>
+ */
+public final class GatewayLoadDriver {
+
+    private GatewayLoadDriver() { }
+
+    /** Result of one load run. */
+    public static final class Report {
+        private final int checkouts;
+        private final long elapsedNanos;
+        private final long[] sortedLatencyNanos;
+        private final int approved;
+        private final int pending;
+        private final int failed;
+
+        Report(int checkouts, long elapsedNanos, long[] latencyNanos,
+               int approved, int pending, int failed) {
+            this.checkouts = checkouts;
+            this.elapsedNanos = elapsedNanos;
+            this.sortedLatencyNanos = latencyNanos.clone();
+            Arrays.sort(this.sortedLatencyNanos);
+            this.approved = approved;
+            this.pending = pending;
+            this.failed = failed;
+        }
+
+        public int getCheckouts() { return checkouts; }
+        public int getApproved() { return approved; }
+        public int getPending() { return pending; }
+        public int getFailed() { return failed; }
+
+        /** Completed checkouts per second of wall-clock time. */
+        public double getThroughputPerSecond() {
+            return elapsedNanos == 0 ? 0 : checkouts / (elapsedNanos / 1e9);
+        }
+
+        /** Latency at the given percentile (nearest rank), in milliseconds. */
+        public double getPercentileMillis(double percentile) {
+            if (sortedLatencyNanos.length == 0) return 0;
+            int rank = (int) Math.ceil(percentile / 100.0 * sortedLatencyNanos.length);
+            int index = Math.min(sortedLatencyNanos.length - 1, Math.max(0, rank - 1));
+            return sortedLatencyNanos[index] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "checkouts=%d approved=%d pending=%d failed=%d | %.1f/s | p50=%.1fms p95=%.1fms p99=%.1fms",
+                    checkouts, approved, pending, failed, getThroughputPerSecond(),
+                    getPercentileMillis(50), getPercentileMillis(95), getPercentileMillis(99));
+        }
+    }
+
+    /**
+     * Runs {@code checkouts} payments with at most {@code concurrency} in flight
+     * and waits for all of them to finish.
+     */
+    public static Report run(PaymentContext context, int checkouts, int concurrency)
+            throws InterruptedException {
+
+        if (checkouts <= 0 || concurrency <= 0) {
+            throw new IllegalArgumentException("checkouts and concurrency must be positive.");
+        }
+
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[checkouts];
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger pending = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<CompletableFuture<Void>> all = new ArrayList<>(checkouts);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < checkouts; i++) {
+            inFlight.acquire();
+            final int slot = i;
+            final long submitted = System.nanoTime();
+
+            all.add(context.executePaymentAsync("load-user-" + i, 20.0, "STUDENT")
+                    .handle((result, error) -> {
+                        latencies[slot] = System.nanoTime() - submitted;
+                        if (error != null || result.getStatus() == PaymentResult.Status.FAILED) {
+                            failed.incrementAndGet();
+                        } else if (result.getStatus() == PaymentResult.Status.PENDING) {
+                            pending.incrementAndGet();
+                        } else {
+                            approved.incrementAndGet();
+                        }
+                        inFlight.release();
+                        return null;
+                    }));
+        }
+        CompletableFuture.allOf(all.toArray(CompletableFuture<?>[]::new)).join();
+        long elapsed = System.nanoTime() - start;
+
+        return new Report(checkouts, elapsed, latencies, approved.get(), pending.get(), failed.get());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int checkouts = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        long medianMs = args.length > 2 ? Long.parseLong(args[2]) : 80;
+        double errorRate = args.length > 3 ? Double.parseDouble(args[3]) : 0.02;
+        int ratePerSecond = args.length > 4 ? Integer.parseInt(args[4]) : 0;
+
+        SimulatedGatewayPayment gateway = new SimulatedGatewayPayment(
+                SimulatedGatewayPayment.LatencyModel.logNormal(medianMs, 0.5),
+                errorRate, 0.03, ratePerSecond, 42L);
+
+        System.out.println("[GatewayLoadDriver] " + checkouts + " checkouts, concurrency " + concurrency
+                + ", median latency " + medianMs + "ms, error rate " + errorRate
+                + (ratePerSecond > 0 ? ", limit " + ratePerSecond + "/s" : ""));
+
+        Report report = run(new PaymentContext(gateway), checkouts, concurrency);
+
+        System.out.println("[GatewayLoadDriver] " + report);
+        System.out.println("[GatewayLoadDriver] gateway calls=" + gateway.getCallCount()
+                + " errors=" + gateway.getErrorCount()
+                + " declines=" + gateway.getDeclineCount()
+                + " rateLimited=" + gateway.getRateLimitedCount());
+    }
+}
@@ -0,0 +1,350 @@
+package scenario2.payment;
+
+import scenario1.controller.UserManager;
+import shared.model.Booking;
+import shared.model.BookingRepository;
+import shared.model.PaymentStatus;
+import shared.model.SystemUser;
+import shared.model.User;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * PartnerSettlementEngine – Scenario 2 (Partner Billing)
+ * ---------------------------------------------------------------------------
+ * <p>Settles the charges that {@link PartnerBillingPayment} leaves in
+ * <b>PENDING</b>. Instead of billing each booking on its own, pending charges
+ * are collected per organisation ({@link SystemUser#getOrgId()}) and turned
+ * into one invoice per organisation at a fixed interval.</p>
+ *
+ * <h2>Settlement Cycle</h2>
+ * <ol>
+ *     <li>{@link #enqueue(Booking)} files a PENDING booking under its
+ *         organisation (partners without an org are billed individually).</li>
+ *     <li>Every {@link #SETTLEMENT_INTERVAL_MINUTES} minutes – or earlier, when
+ *         an organisation reaches {@link #MAX_BATCH_SIZE} charges – the
+ *         background scheduler drains all pending charges.</li>
+ *     <li>Charges whose booking is no longer PENDING (e.g. cancelled and
+ *         refunded meanwhile) are dropped.</li>
+ *     <li>All invoices of the batch are appended to {@code partner_invoices.csv}
+ *         in <b>one</b> write, then the bookings are marked INVOICED and saved
+ *         with <b>one</b> {@code saveAll()}. Only now does {@link PaymentLedger}
+ *         book their deposits as revenue.</li>
+ * </ol>
+ *
+ * <h2>Threading</h2>
+ * <p>Settlement runs on a single daemon thread. The booking updates of a batch
+ * are handed to the {@linkplain #setUpdateExecutor(Executor) update executor}
+ * (the JavaFX thread in the app) so the in-memory bookings are only changed
+ * where the UI changes them.</p>
+ *
+ * <h2>Design Pattern Context</h2>
+ * <ul>
+ *     <li><b>Singleton</b> – one settlement queue per application.</li>
+ * </ul>
+ */
+public class PartnerSettlementEngine {
+
+    /** Minutes between two settlement runs. */
+    public static final int SETTLEMENT_INTERVAL_MINUTES = 15;
+
+    /** Pending charges of one organisation that trigger an early settlement. */
+    public static final int MAX_BATCH_SIZE = 50;
+
+    public static final String FILE_NAME = "partner_invoices.csv";
+
+    /** Payment status of a booking once its charge has been invoiced. */
+    public static final String INVOICED = "INVOICED";
+
+    private static final String HEADER = "invoiceId,orgId,bookingId,userId,amount,issuedAt";
+    private static final DateTimeFormatter INVOICE_STAMP = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static PartnerSettlementEngine instance;
+
+    public static synchronized PartnerSettlementEngine getInstance() {
+        if (instance == null) {
+            instance = new PartnerSettlementEngine(
+                    BookingRepository.siblingDataFile(FILE_NAME),
+                    BookingRepository::getInstance,
+                    PartnerSettlementEngine::orgOfUser);
+            instance.seedFromRepository();
+        }
+        return instance;
+    }
+
+    /** One pending partner charge. */
+    private static final class PendingCharge {
+        final String bookingId;
+        final String userId;
+        final double amount;
+
+        PendingCharge(String bookingId, String userId, double amount) {
+            this.bookingId = bookingId;
+            this.userId = userId;
+            this.amount = amount;
+        }
+    }
+
+    /** Invoice produced for one organisation in one settlement batch. */
+    public static final class Invoice {
+        private final String invoiceId;
+        private final String orgId;
+        private final List<String> bookingIds;
+        private final double total;
+
+        Invoice(String invoiceId, String orgId, List<String> bookingIds, double total) {
+            this.invoiceId = invoiceId;
+            this.orgId = orgId;
+            this.bookingIds = Collections.unmodifiableList(bookingIds);
+            this.total = total;
+        }
+
+        public String getInvoiceId() { return invoiceId; }
+        public String getOrgId() { return orgId; }
+        public List<String> getBookingIds() { return bookingIds; }
+        public double getTotal() { return total; }
+    }
+
+    private final String invoicePath;
+    private final Supplier<BookingRepository> bookings;
+    private final Function<String, String> orgResolver;
+
+    /** orgId → pending charges, in arrival order. */
+    private final Map<String, List<PendingCharge>> pending = new LinkedHashMap<>();
+    private final Set<String> queuedIds = new HashSet<>();
+    private int pendingCount = 0;
+    private final AtomicLong batchNumber = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+    private Executor updateExecutor = Runnable::run;
+
+    PartnerSettlementEngine(String invoicePath,
+                            Supplier<BookingRepository> bookings,
+                            Function<String, String> orgResolver) {
+        this.invoicePath = invoicePath;
+        this.bookings = bookings;
+        this.orgResolver = orgResolver;
+    }
+
+    /** Where booking updates of a batch are applied (default: settlement thread). */
+    public void setUpdateExecutor(Executor updateExecutor) {
+        this.updateExecutor = updateExecutor == null ? Runnable::run : updateExecutor;
+    }
+
+    // =============================================================
+    // ENQUEUE
+    // =============================================================
+
+    /** Queues the deposit of a PENDING booking for the next settlement. */
+    public void enqueue(Booking booking) {
+        if (booking == null || booking.getPaymentStatusEnum() != PaymentStatus.PENDING) return;
+
+        String orgId = orgResolver.apply(booking.getUserId());
+        synchronized (this) {
+            if (!queuedIds.add(booking.getBookingId())) return;   // already queued
+
+            List<PendingCharge> charges = pending.computeIfAbsent(orgId, k -> new ArrayList<>());
+            charges.add(new PendingCharge(booking.getBookingId(), booking.getUserId(), booking.getDepositAmount()));
+            pendingCount++;
+
+            ensureScheduler();
+            if (charges.size() >= MAX_BATCH_SIZE) {
+                scheduler.execute(this::settleSafely);
+            }
+        }
+    }
+
+    /** Number of charges waiting for the next settlement. */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /** Pending charges of one organisation. */
+    public synchronized int getPendingCount(String orgId) {
+        List<PendingCharge> charges = pending.get(orgId);
+        return charges == null ? 0 : charges.size();
+    }
+
+    /** Picks up PENDING bookings left over from a previous run. */
+    private void seedFromRepository() {
+        for (Booking b : bookings.get().snapshot()) {
+            enqueue(b);
+        }
+    }
+
+    // =============================================================
+    // SETTLEMENT
+    // =============================================================
+
+    /**
+     * Settles every pending charge now and returns the invoices issued
+     * (one per organisation with at least one still-pending booking).
+     */
+    public List<Invoice> settleNow() {
+        Map<String, List<PendingCharge>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) return new ArrayList<>();
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+            queuedIds.clear();
+            pendingCount = 0;
+        }
+
+        // One pass over the bookings to find the ones still waiting for billing
+        Map<String, Booking> stillPending = new HashMap<>();
+        for (Booking b : bookings.get().snapshot()) {
+            if (b.getPaymentStatusEnum() == PaymentStatus.PENDING) {
+                stillPending.put(b.getBookingId(), b);
+            }
+        }
+
+        String stamp = LocalDateTime.now().format(INVOICE_STAMP) + "-" + batchNumber.incrementAndGet();
+        String issuedAt = LocalDateTime.now().toString();
+        List<Invoice> invoices = new ArrayList<>();
+        Map<Booking, Double> invoiced = new LinkedHashMap<>();
+        StringBuilder lines = new StringBuilder();
+
+        for (Map.Entry<String, List<PendingCharge>> e : batch.entrySet()) {
+            String orgId = e.getKey();
+            String invoiceId = "INV-" + orgId.replace(",", "") + "-" + stamp;
+            List<String> ids = new ArrayList<>();
+            double total = 0;
+
+            for (PendingCharge c : e.getValue()) {
+                Booking b = stillPending.remove(c.bookingId);   // remove: never bill a booking twice
+                if (b == null) continue;
+
+                ids.add(c.bookingId);
+                total += c.amount;
+                invoiced.put(b, c.amount);
+                lines.append(String.join(",", invoiceId, orgId.replace(",", ";"), c.bookingId,
+                                c.userId, Double.toString(c.amount), issuedAt))
+                        .append(System.lineSeparator());
+            }
+
+            if (!ids.isEmpty()) {
+                invoices.add(new Invoice(invoiceId, orgId, ids, total));
+            }
+        }
+
+        if (invoices.isEmpty()) return invoices;
+
+        if (!appendInvoices(lines.toString())) {
+            requeue(batch);   // nothing was billed – try again next cycle
+            return new ArrayList<>();
+        }
+
+        updateExecutor.execute(() -> {
+            BookingRepository repo = bookings.get();
+            for (Map.Entry<Booking, Double> e : invoiced.entrySet()) {
+                Booking b = e.getKey();
+                if (b.getPaymentStatusEnum() != PaymentStatus.PENDING) continue;   // changed while invoicing
+                b.setPaymentStatus(INVOICED);
+                repo.notifyUpdated(b);
+                PaymentLedger.getInstance().recordSettlement(b, e.getValue());
+            }
+            repo.saveAll();
+        });
+
+        System.out.println("[PartnerSettlementEngine] Settled " + invoiced.size()
+                + " charge(s) into " + invoices.size() + " invoice(s)");
+        return invoices;
+    }
+
+    private boolean appendInvoices(String lines) {
+        File file = new File(invoicePath);
+        boolean writeHeader = !file.exists() || file.length() == 0;
+        try {
+            if (file.getParentFile() != null) file.getParentFile().mkdirs();
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, true))) {
+                if (writeHeader) {
+                    bw.write(HEADER);
+                    bw.newLine();
+                }
+                bw.write(lines);
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println("[PartnerSettlementEngine] Could not write " + invoicePath + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private synchronized void requeue(Map<String, List<PendingCharge>> batch) {
+        for (Map.Entry<String, List<PendingCharge>> e : batch.entrySet()) {
+            List<PendingCharge> charges = pending.computeIfAbsent(e.getKey(), k -> new ArrayList<>());
+            for (PendingCharge c : e.getValue()) {
+                if (queuedIds.add(c.bookingId)) {
+                    charges.add(c);
+                    pendingCount++;
+                }
+            }
+        }
+    }
+
+    // =============================================================
+    // SCHEDULER
+    // =============================================================
+
+    private void ensureScheduler() {
+        if (scheduler != null) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "partner-settlement");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::settleSafely,
+                SETTLEMENT_INTERVAL_MINUTES, SETTLEMENT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private void settleSafely() {
+        try {
+            settleNow();
+        } catch (Exception e) {
+            System.out.println("[PartnerSettlementEngine] Settlement failed: " + e.getMessage());
+        }
+    }
+
+    /** Stops the background scheduler (pending charges stay queued). */
+    public synchronized void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    // =============================================================
+    // ORGANISATION LOOKUP
+    // =============================================================
+
+    /** Organisation of a user; partners without one are billed individually. */
+    private static String orgOfUser(String userId) {
+        User user = UserManager.getInstance().findByEmail(userId);
+        if (user instanceof SystemUser) {
+            String org = ((SystemUser) user).getOrgId();
+            if (org != null && !org.isBlank()) return org.trim();
+        }
+        return userId == null ? "UNKNOWN" : userId;
+    }
+}
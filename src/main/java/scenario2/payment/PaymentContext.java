@@ -1,5 +1,16 @@
 package scenario2.payment;
 
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 /**
  * PaymentContext – Scenario 2 (Strategy Pattern)
  * ---------------------------------------------------------------------------
@@ -29,12 +40,52 @@ package scenario2.payment;
  *     <li>Delegates validation and processing to the selected strategy.</li>
  *     <li>Returns a standardized {@link PaymentResult} object for UI handling.</li>
  * </ul>
+ *
+ * <h2>Asynchronous Execution</h2>
+ * <p>{@link #executePaymentAsync(String, double, String)} runs the strategy on a
+ * small shared worker pool so a slow gateway never blocks the JavaFX thread:</p>
+ * <ul>
+ *     <li>Each attempt is limited to {@link PaymentStrategy#getTimeoutMillis()};
+ *         a timed-out attempt is interrupted.</li>
+ *     <li>Every attempt of one payment passes the same payment key to the
+ *         strategy.</li>
+ *     <li>An exception or a timeout leaves the outcome unknown – the gateway
+ *         may have charged before failing – so it is retried, with
+ *         exponential backoff, only if the strategy
+ *         {@linkplain PaymentStrategy#honoursPaymentKey() charges at most once
+ *         per key}. A {@code FAILED} result is a real decline and is never
+ *         retried.</li>
+ *     <li>Cancelling the returned future interrupts the running attempt and
+ *         stops further retries.</li>
+ *     <li>If every attempt fails, the future completes normally with a
+ *         {@code FAILED} result, so callers only handle one outcome type.</li>
+ * </ul>
+ *
+ * <h2>Idempotency</h2>
+ * <p>The overloads taking an {@code idempotencyKey} go through
+ * {@link PaymentIdempotencyCache}: repeating a key returns the first outcome
+ * (or joins the payment still in progress) without calling the strategy again.
+ * The same key is the payment key handed to the strategy on every attempt
+ * (see {@link PaymentIdempotencyCache#keyForBooking}).</p>
  */
 
 
 public class PaymentContext {
 
+    /** Worker threads shared by all asynchronous payments. */
+    public static final int POOL_SIZE = 4;
+
+    /** Payments that may wait for a worker before new ones are rejected. */
+    public static final int QUEUE_CAPACITY = 64;
+
+    public static final int DEFAULT_MAX_RETRIES = 2;
+    public static final long DEFAULT_BACKOFF_MILLIS = 250;
+
+    private static final ExecutorService PAYMENT_EXECUTOR = createExecutor();
+
     private PaymentStrategy strategy;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long backoffMillis = DEFAULT_BACKOFF_MILLIS;
 
     public PaymentContext(PaymentStrategy strategy) {
         this.strategy = strategy;
@@ -55,4 +106,175 @@ public class PaymentContext {
 
         return strategy.pay(userId, amount, userType);
     }
+
+    /**
+     * Idempotent variant: a key that already produced an APPROVED / PENDING
+     * result returns that result without calling the strategy again.
+     */
+    public PaymentResult executePayment(String userId, double amount, String userType, String idempotencyKey) {
+        return PaymentIdempotencyCache.getInstance()
+                .execute(idempotencyKey, () -> CompletableFuture.completedFuture(
+                        strategy == null
+                                ? new PaymentResult(PaymentResult.Status.FAILED, "No strategy selected")
+                                : strategy.pay(userId, amount, userType, idempotencyKey)))
+                .join();
+    }
+
+    /**
+     * Retries after a timeout or exception: attempt {@code n} waits
+     * {@code backoffMillis * 2^(n-1)} before starting.
+     */
+    public void setRetryPolicy(int maxRetries, long backoffMillis) {
+        if (maxRetries < 0 || backoffMillis < 0) {
+            throw new IllegalArgumentException("Retry count and backoff must not be negative.");
+        }
+        this.maxRetries = maxRetries;
+        this.backoffMillis = backoffMillis;
+    }
+
+    // =============================================================
+    // ASYNCHRONOUS EXECUTION
+    // =============================================================
+
+    /**
+     * Runs the payment off the caller's thread with timeout, retry and
+     * cancellation support (see class comment).
+     */
+    public CompletableFuture<PaymentResult> executePaymentAsync(String userId, double amount, String userType) {
+        // One key for all attempts, so a retry can never become a second charge
+        return startAsync(userId, amount, userType, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Returns a charge of this context's strategy, e.g. when the booking it
+     * paid for could not be created afterwards.
+     */
+    public PaymentResult refundPayment(String userId, double amount, String paymentKey) {
+        if (strategy == null) {
+            return new PaymentResult(PaymentResult.Status.FAILED, "No strategy selected");
+        }
+        PaymentResult refund = strategy.refund(userId, amount, paymentKey);
+        if (refund.getStatus() != PaymentResult.Status.FAILED && paymentKey != null) {
+            // a new attempt with this key must charge again, not reuse the refunded outcome
+            PaymentIdempotencyCache.getInstance().invalidate(paymentKey);
+        }
+        return refund;
+    }
+
+    /**
+     * Idempotent async variant: duplicates of {@code idempotencyKey} get the
+     * cached outcome immediately, or join the payment that is still in
+     * flight. Cancelling the returned future only stops waiting for it.
+     */
+    public CompletableFuture<PaymentResult> executePaymentAsync(String userId,
+                                                                double amount,
+                                                                String userType,
+                                                                String idempotencyKey) {
+        return PaymentIdempotencyCache.getInstance()
+                .execute(idempotencyKey, () -> startAsync(userId, amount, userType, idempotencyKey));
+    }
+
+    private CompletableFuture<PaymentResult> startAsync(String userId,
+                                                        double amount,
+                                                        String userType,
+                                                        String paymentKey) {
+        CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+
+        PaymentStrategy current = strategy;   // later setStrategy() calls do not affect this payment
+        if (current == null) {
+            result.complete(new PaymentResult(PaymentResult.Status.FAILED, "No strategy selected"));
+            return result;
+        }
+
+        attempt(current, userId, amount, userType, paymentKey, 0, maxRetries, backoffMillis, result);
+        return result;
+    }
+
+    private static void attempt(PaymentStrategy strategy,
+                                String userId,
+                                double amount,
+                                String userType,
+                                String paymentKey,
+                                int attemptNo,
+                                int maxRetries,
+                                long backoffMillis,
+                                CompletableFuture<PaymentResult> result) {
+
+        if (result.isDone()) return;   // cancelled while waiting for the backoff
+
+        CompletableFuture<PaymentResult> attempt = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = PAYMENT_EXECUTOR.submit(() -> {
+                try {
+                    attempt.complete(strategy.pay(userId, amount, userType, paymentKey));
+                } catch (Throwable t) {
+                    attempt.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.complete(new PaymentResult(PaymentResult.Status.FAILED,
+                    "Payment service is busy, please try again"));
+            return;
+        }
+
+        // Cancelling the overall payment interrupts the attempt in progress
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) task.cancel(true);
+        });
+
+        attempt.orTimeout(strategy.getTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((r, error) -> {
+                    if (error == null) {
+                        result.complete(r != null ? r
+                                : new PaymentResult(PaymentResult.Status.FAILED, "No payment result"));
+                        return;
+                    }
+
+                    task.cancel(true);   // frees the worker if the strategy is still running
+                    if (result.isDone()) return;
+
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    boolean timedOut = cause instanceof TimeoutException;
+                    String reason = timedOut
+                            ? "Payment timed out"
+                            : "Payment error: " + cause.getMessage();
+
+                    // The failed call may still have charged: only retry if the key prevents a second charge
+                    if (!strategy.honoursPaymentKey()) {
+                        System.out.println("[PaymentContext] " + reason + " – not retried, outcome unknown");
+                        result.complete(new PaymentResult(PaymentResult.Status.FAILED,
+                                reason + ", please check your statement before trying again"));
+                        return;
+                    }
+
+                    if (attemptNo >= maxRetries) {
+                        System.out.println("[PaymentContext] Giving up after "
+                                + (attemptNo + 1) + " attempt(s): " + reason);
+                        result.complete(new PaymentResult(PaymentResult.Status.FAILED, reason));
+                        return;
+                    }
+
+                    long delay = backoffMillis << attemptNo;
+                    System.out.println("[PaymentContext] " + reason + " – retrying in " + delay + " ms");
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() ->
+                            attempt(strategy, userId, amount, userType, paymentKey,
+                                    attemptNo + 1, maxRetries, backoffMillis, result));
+                });
+    }
+
+    private static ExecutorService createExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                POOL_SIZE, POOL_SIZE,
+                30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                r -> {
+                    Thread t = new Thread(r, "payment-worker");
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
 }
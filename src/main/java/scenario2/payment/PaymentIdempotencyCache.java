@@ -0,0 +1,298 @@
+package scenario2.payment;
+
+import shared.model.BookingRepository;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * PaymentIdempotencyCache – Scenario 2 (Room Booking & Payment)
+ * ---------------------------------------------------------------------------
+ * <p>Remembers the outcome of each payment by its <b>idempotency key</b> (one
+ * key per booking attempt), so a double-click on "Pay Now" or a retry after a
+ * timeout returns the original result instead of charging a second time.</p>
+ *
+ * <h2>Behavior</h2>
+ * <ul>
+ *     <li><b>Cached outcomes</b> – APPROVED and PENDING results are kept for
+ *         {@link #TTL_MILLIS}. FAILED results are not cached: nothing was
+ *         charged, so trying again is safe.</li>
+ *     <li><b>In-flight dedupe</b> – while a key is still being processed, a
+ *         duplicate request joins the same payment instead of starting a new
+ *         gateway call. Every caller gets its own future: cancelling it only
+ *         stops that caller waiting, while the payment runs to completion and
+ *         its outcome is still remembered.</li>
+ *     <li><b>Bounded</b> – at most {@link #MAX_ENTRIES} keys; the oldest are
+ *         dropped first (with a single TTL, oldest = closest to expiry).</li>
+ *     <li><b>Invalidation</b> – {@link #invalidate(String)} forgets a key whose
+ *         charge was refunded, so the same booking attempt can be paid again.</li>
+ *     <li><b>Persistent</b> – each outcome is appended to
+ *         {@code payment_idempotency.csv} next to the bookings CSV and reloaded
+ *         on start-up, so duplicates are recognised across restarts. The file
+ *         is rewritten (compacted) once it holds twice the live entries.</li>
+ * </ul>
+ *
+ * <h2>Design Pattern Context</h2>
+ * <ul>
+ *     <li><b>Singleton</b> – one cache shared by every {@link PaymentContext}.</li>
+ * </ul>
+ */
+public class PaymentIdempotencyCache {
+
+    /** How long an outcome is remembered (24 hours). */
+    public static final long TTL_MILLIS = 24L * 60 * 60 * 1000;
+
+    /** Maximum number of remembered keys. */
+    public static final int MAX_ENTRIES = 1000;
+
+    public static final String FILE_NAME = "payment_idempotency.csv";
+
+    private static final String HEADER = "idempotencyKey,status,message,expiresAt";
+
+    private static PaymentIdempotencyCache instance;
+
+    public static synchronized PaymentIdempotencyCache getInstance() {
+        if (instance == null) {
+            instance = new PaymentIdempotencyCache(BookingRepository.siblingDataFile(FILE_NAME));
+        }
+        return instance;
+    }
+
+    private static final class Entry {
+        final PaymentResult result;
+        final long expiresAt;
+
+        Entry(PaymentResult result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String path;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final Map<String, CompletableFuture<PaymentResult>> inFlight = new ConcurrentHashMap<>();
+    private int linesOnDisk = 0;
+
+    PaymentIdempotencyCache(String path) {
+        this.path = path;
+        load();
+    }
+
+    /**
+     * Idempotency key of one booking attempt: the same user paying for the
+     * same room and time gets the same key, across modal re-opens and
+     * restarts, until the charge is {@linkplain #invalidate refunded}.
+     */
+    public static String keyForBooking(String userId, String roomId, LocalDateTime start, LocalDateTime end) {
+        String key = "BOOK:" + userId + ":" + roomId + ":" + start + ":" + end;
+        return key.replace(',', '_');
+    }
+
+    // =============================================================
+    // LOOKUP / EXECUTE
+    // =============================================================
+
+    /** Cached outcome of {@code key}, or {@code null} if unknown or expired. */
+    public synchronized PaymentResult get(String key) {
+        purgeExpired(System.currentTimeMillis());
+        Entry e = entries.get(key);
+        return e == null ? null : e.result;
+    }
+
+    /**
+     * Returns the cached outcome of {@code key}, joins the payment already in
+     * progress for it, or starts a new one with {@code payment}.
+     */
+    public CompletableFuture<PaymentResult> execute(String key,
+                                                    Supplier<CompletableFuture<PaymentResult>> payment) {
+        checkKey(key);
+        PaymentResult cached = get(key);
+        if (cached != null) {
+            System.out.println("[PaymentIdempotencyCache] Duplicate request " + key + " → cached result");
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<PaymentResult> started = new CompletableFuture<>();
+        CompletableFuture<PaymentResult> existing = inFlight.putIfAbsent(key, started);
+        if (existing != null) {
+            System.out.println("[PaymentIdempotencyCache] Duplicate request " + key + " → joined in-flight payment");
+            return existing.copy();
+        }
+
+        // Re-check: the previous holder of the key may have finished in between
+        cached = get(key);
+        if (cached != null) {
+            inFlight.remove(key, started);
+            started.complete(cached);
+            return started;
+        }
+
+        CompletableFuture<PaymentResult> actual;
+        try {
+            actual = payment.get();
+        } catch (RuntimeException e) {
+            inFlight.remove(key, started);
+            started.completeExceptionally(e);
+            return started.copy();
+        }
+
+        actual.whenComplete((result, error) -> {
+            if (error == null && result != null) put(key, result);
+            inFlight.remove(key, started);
+            if (error != null) started.completeExceptionally(error);
+            else started.complete(result);
+        });
+        // The shared future is never handed out: a caller cancelling its copy
+        // must not abandon a charge that may already have gone through
+        return started.copy();
+    }
+
+    /** Remembers {@code result} for {@code key} (FAILED results are ignored). */
+    public synchronized void put(String key, PaymentResult result) {
+        checkKey(key);
+        if (result == null || result.getStatus() == PaymentResult.Status.FAILED) return;
+
+        long now = System.currentTimeMillis();
+        Entry e = new Entry(result, now + TTL_MILLIS);
+        entries.remove(key);
+        entries.put(key, e);
+        while (entries.size() > MAX_ENTRIES) {
+            Iterator<String> oldest = entries.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+        append(key, e);
+    }
+
+    /**
+     * Forgets {@code key} (e.g. its charge was refunded); the next payment
+     * with it runs again. The removal is persisted as a FAILED line, which
+     * the loader treats as "no outcome".
+     */
+    public synchronized void invalidate(String key) {
+        checkKey(key);
+        Entry removed = entries.remove(key);
+        if (removed == null) return;
+
+        append(key, new Entry(new PaymentResult(PaymentResult.Status.FAILED, "invalidated"),
+                removed.expiresAt));
+    }
+
+    private static void checkKey(String key) {
+        if (key == null || key.isBlank() || key.indexOf(',') >= 0) {
+            throw new IllegalArgumentException("Idempotency key must be non-blank and contain no commas.");
+        }
+    }
+
+    public synchronized int size() {
+        purgeExpired(System.currentTimeMillis());
+        return entries.size();
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Entry> it = entries.values().iterator();
+        while (it.hasNext() && it.next().expiresAt <= now) {
+            it.remove();
+        }
+    }
+
+    // =============================================================
+    // PERSISTENCE
+    // =============================================================
+
+    private void load() {
+        File file = new File(path);
+        if (!file.exists()) return;
+
+        long now = System.currentTimeMillis();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("idempotencyKey")) continue;
+                linesOnDisk++;
+
+                String[] p = line.split(",");
+                if (p.length < 4) continue;
+                try {
+                    long expiresAt = Long.parseLong(p[3].trim());
+                    if (expiresAt <= now) continue;
+                    PaymentResult result = new PaymentResult(
+                            PaymentResult.Status.valueOf(p[1].trim()), p[2].replace(";", ","));
+                    entries.remove(p[0]);
+                    if (result.getStatus() == PaymentResult.Status.FAILED) continue;   // invalidated
+                    entries.put(p[0], new Entry(result, expiresAt));
+                } catch (IllegalArgumentException ignored) {
+                    // malformed line – skip it
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("[PaymentIdempotencyCache] Could not load " + path + ": " + e.getMessage());
+        }
+
+        while (entries.size() > MAX_ENTRIES) {
+            Iterator<String> oldest = entries.keySet().iterator();
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    private void append(String key, Entry e) {
+        if (linesOnDisk >= 2 * Math.max(entries.size(), MAX_ENTRIES / 2)) {
+            rewrite();
+            return;
+        }
+
+        File file = new File(path);
+        boolean writeHeader = !file.exists() || file.length() == 0;
+        try {
+            if (file.getParentFile() != null) file.getParentFile().mkdirs();
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, true))) {
+                if (writeHeader) {
+                    bw.write(HEADER);
+                    bw.newLine();
+                }
+                bw.write(format(key, e));
+                bw.newLine();
+            }
+            linesOnDisk++;
+        } catch (IOException ex) {
+            System.out.println("[PaymentIdempotencyCache] Could not save " + path + ": " + ex.getMessage());
+        }
+    }
+
+    /** Writes only the live entries, dropping expired and superseded lines. */
+    private void rewrite() {
+        File file = new File(path);
+        try {
+            if (file.getParentFile() != null) file.getParentFile().mkdirs();
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, false))) {
+                bw.write(HEADER);
+                bw.newLine();
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    bw.write(format(e.getKey(), e.getValue()));
+                    bw.newLine();
+                }
+            }
+            linesOnDisk = entries.size();
+        } catch (IOException ex) {
+            System.out.println("[PaymentIdempotencyCache] Could not save " + path + ": " + ex.getMessage());
+        }
+    }
+
+    private static String format(String key, Entry e) {
+        String message = e.result.getMessage() == null ? "" : e.result.getMessage().replace(",", ";");
+        return String.join(",", key, e.result.getStatus().name(), message,
+                Long.toString(e.expiresAt));
+    }
+}
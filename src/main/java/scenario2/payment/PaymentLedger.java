@@ -0,0 +1,328 @@
+package scenario2.payment;
+
+import shared.model.Booking;
+import shared.model.BookingRepository;
+import shared.model.PaymentStatus;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * PaymentLedger – Scenario 2 (Room Booking & Payment)
+ * ---------------------------------------------------------------------------
+ * <p>Append-only record of every money movement on a booking deposit. The
+ * booking itself still carries its current {@code depositAmount}; the ledger
+ * adds the history and keeps running totals, so revenue and refund figures are
+ * simple lookups instead of scans over all bookings.</p>
+ *
+ * <h2>Entry Types</h2>
+ * <ul>
+ *     <li><b>CHARGE</b> – deposit taken when the booking is made, or – for a
+ *         partner booking – when its invoice is issued.</li>
+ *     <li><b>RECEIVABLE</b> – partner deposit left PENDING: owed, not yet
+ *         collected. It becomes a CHARGE once {@link PartnerSettlementEngine}
+ *         invoices it, and is dropped if the booking is cancelled or
+ *         forfeited first.</li>
+ *     <li><b>EXTENSION</b> – extra deposit for extending a booking.</li>
+ *     <li><b>REFUND</b> – the booking's remaining balance returned on cancel.</li>
+ *     <li><b>FORFEIT</b> – the balance kept after a no-show (no cash movement,
+ *         recorded for reporting).</li>
+ * </ul>
+ *
+ * <h2>Running Totals</h2>
+ * <ul>
+ *     <li>Per user, per room and overall: charged, refunded, forfeited and
+ *         still receivable.</li>
+ *     <li>Per booking: the balance still held (charged − refunded − forfeited).</li>
+ *     <li>Updated with every entry; never recomputed.</li>
+ * </ul>
+ *
+ * <h2>Persistence</h2>
+ * <p>Each entry is appended as one line to {@code payment_ledger.csv} next to
+ * the bookings CSV. Lines are never rewritten. On start-up the file is
+ * streamed once and only the totals are rebuilt; the entries themselves are
+ * not kept in memory.</p>
+ *
+ * <h2>Design Pattern Context</h2>
+ * <ul>
+ *     <li><b>Singleton</b> – one ledger per application.</li>
+ * </ul>
+ */
+public class PaymentLedger {
+
+    public static final String FILE_NAME = "payment_ledger.csv";
+
+    private static final String HEADER = "sequence,timestamp,type,bookingId,userId,roomId,amount";
+
+    public enum EntryType {
+        CHARGE,
+        RECEIVABLE,
+        EXTENSION,
+        REFUND,
+        FORFEIT
+    }
+
+    private static PaymentLedger instance;
+
+    public static synchronized PaymentLedger getInstance() {
+        if (instance == null) {
+            instance = new PaymentLedger(BookingRepository.siblingDataFile(FILE_NAME));
+        }
+        return instance;
+    }
+
+    // =============================================================
+    // TOTALS
+    // =============================================================
+
+    /** Running totals of one user, one room, or the whole system. */
+    public static final class Totals {
+        private double charged;
+        private double refunded;
+        private double forfeited;
+        private double receivable;
+        private int entries;
+
+        /** Deposits and extensions collected. */
+        public double getCharged() { return charged; }
+
+        /** Amounts returned on cancellation. */
+        public double getRefunded() { return refunded; }
+
+        /** Deposits kept after no-shows (part of {@link #getNetRevenue()}). */
+        public double getForfeited() { return forfeited; }
+
+        /** Partner deposits owed but not invoiced yet (not part of revenue). */
+        public double getReceivable() { return receivable; }
+
+        /** Money kept: charged minus refunded. */
+        public double getNetRevenue() { return charged - refunded; }
+
+        public int getEntryCount() { return entries; }
+
+        private void apply(EntryType type, double amount) {
+            switch (type) {
+                case CHARGE:
+                case EXTENSION:
+                    charged += amount;
+                    break;
+                case REFUND:
+                    refunded += amount;
+                    break;
+                case FORFEIT:
+                    forfeited += amount;
+                    break;
+                case RECEIVABLE:
+                    receivable += amount;
+                    break;
+            }
+            entries++;
+        }
+
+        private Totals copy() {
+            Totals t = new Totals();
+            t.charged = charged;
+            t.refunded = refunded;
+            t.forfeited = forfeited;
+            t.receivable = receivable;
+            t.entries = entries;
+            return t;
+        }
+    }
+
+    private final String path;
+    private final Totals overall = new Totals();
+    private final Map<String, Totals> byUser = new HashMap<>();
+    private final Map<String, Totals> byRoom = new HashMap<>();
+    /** Balance still held per booking ID. */
+    private final Map<String, Double> bookingBalance = new HashMap<>();
+    /** Partner deposit still owed per booking ID. */
+    private final Map<String, Double> bookingReceivable = new HashMap<>();
+    private long sequence = 0;
+
+    PaymentLedger(String path) {
+        this.path = path;
+        replay();
+    }
+
+    // =============================================================
+    // RECORDING
+    // =============================================================
+
+    /**
+     * Records the initial deposit of a new booking: a CHARGE, or a RECEIVABLE
+     * while the payment is still PENDING (partner billing).
+     */
+    public void recordCharge(Booking booking) {
+        if (booking == null || booking.getDepositAmount() < 0) return;
+        EntryType type = booking.getPaymentStatusEnum() == PaymentStatus.PENDING
+                ? EntryType.RECEIVABLE
+                : EntryType.CHARGE;
+        append(type, booking, booking.getDepositAmount());
+    }
+
+    /** Books an invoiced partner deposit as revenue, closing its receivable. */
+    public void recordSettlement(Booking booking, double amount) {
+        if (booking == null || amount < 0) return;
+        append(EntryType.CHARGE, booking, amount);
+    }
+
+    /** Records the extra deposit of an extension. */
+    public void recordExtension(Booking booking, double amount) {
+        if (booking == null || amount <= 0) return;
+        append(EntryType.EXTENSION, booking, amount);
+    }
+
+    /** Refunds the booking's remaining balance; returns the amount refunded. */
+    public synchronized double recordRefund(Booking booking) {
+        if (booking == null) return 0;
+        double amount = balanceOf(booking);
+        append(EntryType.REFUND, booking, amount);
+        return amount;
+    }
+
+    /** Forfeits the booking's remaining balance; returns the amount forfeited. */
+    public synchronized double recordForfeit(Booking booking) {
+        if (booking == null) return 0;
+        double amount = balanceOf(booking);
+        append(EntryType.FORFEIT, booking, amount);
+        return amount;
+    }
+
+    /**
+     * Balance held for a booking. Bookings made before the ledger existed have
+     * no entries; their stored deposit is used instead.
+     */
+    private double balanceOf(Booking booking) {
+        Double balance = bookingBalance.get(booking.getBookingId());
+        return Math.max(0, balance != null ? balance : booking.getDepositAmount());
+    }
+
+    private synchronized void append(EntryType type, Booking b, double amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("Ledger amounts must not be negative.");
+        }
+
+        long seq = ++sequence;
+        apply(type, b.getBookingId(), b.getUserId(), b.getRoomId(), amount);
+
+        File file = new File(path);
+        boolean writeHeader = !file.exists() || file.length() == 0;
+        try {
+            if (file.getParentFile() != null) file.getParentFile().mkdirs();
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(file, true))) {
+                if (writeHeader) {
+                    bw.write(HEADER);
+                    bw.newLine();
+                }
+                bw.write(String.join(",",
+                        Long.toString(seq),
+                        LocalDateTime.now().toString(),
+                        type.name(),
+                        String.valueOf(b.getBookingId()),
+                        String.valueOf(b.getUserId()),
+                        String.valueOf(b.getRoomId()),
+                        Double.toString(amount)));
+                bw.newLine();
+            }
+        } catch (IOException e) {
+            System.out.println("[PaymentLedger] Could not append to " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void apply(EntryType type, String bookingId, String userId, String roomId, double amount) {
+        Totals user = byUser.computeIfAbsent(userKey(userId), k -> new Totals());
+        Totals room = byRoom.computeIfAbsent(String.valueOf(roomId), k -> new Totals());
+        overall.apply(type, amount);
+        user.apply(type, amount);
+        room.apply(type, amount);
+
+        String id = String.valueOf(bookingId);
+        if (type == EntryType.RECEIVABLE) {
+            bookingReceivable.merge(id, amount, Double::sum);
+            bookingBalance.merge(id, 0.0, Double::sum);   // nothing collected yet
+            return;
+        }
+
+        // A charge, refund or forfeit closes whatever the booking still owed
+        Double owed = bookingReceivable.remove(id);
+        if (owed != null) {
+            overall.receivable -= owed;
+            user.receivable -= owed;
+            room.receivable -= owed;
+        }
+
+        double delta = (type == EntryType.CHARGE || type == EntryType.EXTENSION) ? amount : -amount;
+        bookingBalance.merge(id, delta, Double::sum);
+    }
+
+    private static String userKey(String userId) {
+        return userId == null ? "null" : userId.toLowerCase(Locale.ROOT);
+    }
+
+    // =============================================================
+    // REPORTS (O(1))
+    // =============================================================
+
+    public synchronized Totals getOverallTotals() {
+        return overall.copy();
+    }
+
+    /** Totals of one user (user IDs are compared ignoring case). */
+    public synchronized Totals getUserTotals(String userId) {
+        Totals t = byUser.get(userKey(userId));
+        return t == null ? new Totals() : t.copy();
+    }
+
+    public synchronized Totals getRoomTotals(String roomId) {
+        Totals t = byRoom.get(String.valueOf(roomId));
+        return t == null ? new Totals() : t.copy();
+    }
+
+    /** Deposit still held for a booking (0 if the ledger has no entries for it). */
+    public synchronized double getBookingBalance(String bookingId) {
+        return bookingBalance.getOrDefault(String.valueOf(bookingId), 0.0);
+    }
+
+    // =============================================================
+    // REPLAY
+    // =============================================================
+
+    /** Streams the ledger file once and rebuilds the running totals. */
+    private void replay() {
+        File file = new File(path);
+        if (!file.exists()) return;
+
+        int applied = 0;
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("sequence")) continue;
+
+                String[] p = line.split(",");
+                if (p.length < 7) continue;
+                try {
+                    long seq = Long.parseLong(p[0]);
+                    EntryType type = EntryType.valueOf(p[2]);
+                    double amount = Double.parseDouble(p[6]);
+                    apply(type, p[3], p[4], p[5], amount);
+                    sequence = Math.max(sequence, seq);
+                    applied++;
+                } catch (IllegalArgumentException ignored) {
+                    // malformed line – skip it
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("[PaymentLedger] Could not read " + path + ": " + e.getMessage());
+        }
+        System.out.println("[PaymentLedger] Replayed " + applied + " ledger entries");
+    }
+}
@@ -32,9 +32,56 @@ package scenario2.payment;
  * PaymentContext ctx = new PaymentContext(new CreditCardPayment());
  * PaymentResult result = ctx.executePayment(userId, amount, userType);
  * </pre>
+ *
+ * <h2>Timeouts</h2>
+ * <p>When run through {@code PaymentContext.executePaymentAsync(...)}, an
+ * attempt that takes longer than {@link #getTimeoutMillis()} is abandoned.
+ * Strategies that talk to slow back ends can override it.</p>
+ *
+ * <h2>Payment Keys</h2>
+ * <p>{@code PaymentContext} calls {@link #pay(String, double, String, String)}
+ * with one key per payment, the same for every retry. An attempt that timed
+ * out or threw may still have charged, so it is only retried for strategies
+ * that {@linkplain #honoursPaymentKey() charge at most once per key}; others
+ * report it as a failure.</p>
  */
 
 
 public interface PaymentStrategy {
+
+    /** Default time budget of one payment attempt. */
+    long DEFAULT_TIMEOUT_MILLIS = 5_000;
+
     PaymentResult pay(String userId, double amount, String userType);
+
+    /**
+     * Same as {@link #pay(String, double, String)}, tagged with the key of
+     * the payment this attempt belongs to. Ignores the key by default.
+     */
+    default PaymentResult pay(String userId, double amount, String userType, String paymentKey) {
+        return pay(userId, amount, userType);
+    }
+
+    /**
+     * True if repeating {@link #pay(String, double, String, String)} with the
+     * same key never charges twice (like a gateway's idempotency header), so
+     * an attempt with an unknown outcome can safely be retried.
+     */
+    default boolean honoursPaymentKey() {
+        return false;
+    }
+
+    /**
+     * Returns a charge made under {@code paymentKey}, e.g. when the booking
+     * it paid for could not be created. The simulated strategies have
+     * nothing to call and just confirm.
+     */
+    default PaymentResult refund(String userId, double amount, String paymentKey) {
+        return new PaymentResult(PaymentResult.Status.APPROVED, "Refund issued");
+    }
+
+    /** Maximum time one attempt may take before it is abandoned (async path only). */
+    default long getTimeoutMillis() {
+        return DEFAULT_TIMEOUT_MILLIS;
+    }
 }
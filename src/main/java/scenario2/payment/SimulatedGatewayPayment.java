@@ -0,0 +1,243 @@
+package scenario2.payment;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SimulatedGatewayPayment – Scenario 2 (Strategy Pattern)
+ * ---------------------------------------------------------------------------
+ * <p>In-process stand-in for a remote card gateway. Unlike
+ * {@link CreditCardPayment}, which answers instantly, this strategy behaves
+ * like a real network dependency so checkout can be exercised under load
+ * (see {@link GatewayLoadDriver}).</p>
+ *
+ * <h2>Simulated Behaviour</h2>
+ * <ul>
+ *     <li><b>Latency</b> – every call sleeps for a delay drawn from a
+ *         {@link LatencyModel} (fixed, uniform or log-normal).</li>
+ *     <li><b>Errors</b> – a fraction of calls throw {@link GatewayException}
+ *         (transient failure, retried by the async path of {@link PaymentContext}).</li>
+ *     <li><b>Declines</b> – a fraction of calls return {@code FAILED}.</li>
+ *     <li><b>Rate limit</b> – a token bucket; calls above the limit are
+ *         rejected with a {@link GatewayException} right away, like an HTTP 429.</li>
+ *     <li><b>Payment keys</b> – like a real gateway's idempotency header, a
+ *         key that was already approved returns the first result instead of
+ *         charging again, so {@link PaymentContext} may retry timeouts.</li>
+ * </ul>
+ *
+ * <h2>Notes</h2>
+ * <ul>
+ *     <li>Thread-safe; one instance can serve many concurrent checkouts.</li>
+ *     <li>A fixed seed makes the error / decline pattern reproducible.</li>
+ *     <li>No network or external service is involved.</li>
+ * </ul>
+ */
+public class SimulatedGatewayPayment implements PaymentStrategy {
+
+    /** Transient gateway failure (timeout on the remote side, 5xx, rate limit). */
+    public static class GatewayException extends RuntimeException {
+        public GatewayException(String message) {
+            super(message);
+        }
+    }
+
+    // =============================================================
+    // LATENCY MODELS
+    // =============================================================
+
+    /** Draws the response time of one gateway call. */
+    public interface LatencyModel {
+        long sampleMillis(Random random);
+
+        static LatencyModel fixed(long millis) {
+            return random -> millis;
+        }
+
+        static LatencyModel uniform(long minMillis, long maxMillis) {
+            if (maxMillis < minMillis) {
+                throw new IllegalArgumentException("maxMillis must be >= minMillis");
+            }
+            return random -> minMillis + (long) (random.nextDouble() * (maxMillis - minMillis));
+        }
+
+        /**
+         * Long-tailed latency typical of network calls: most calls are close
+         * to {@code medianMillis}, a few are several times slower.
+         */
+        static LatencyModel logNormal(long medianMillis, double sigma) {
+            double mu = Math.log(Math.max(1, medianMillis));
+            return random -> Math.round(Math.exp(mu + sigma * random.nextGaussian()));
+        }
+    }
+
+    // =============================================================
+    // CONFIGURATION + STATE
+    // =============================================================
+
+    private final LatencyModel latency;
+    private final double errorRate;
+    private final double declineRate;
+    private final TokenBucket rateLimit;   // null → unlimited
+    private final Random random;
+    private long timeoutMillis = DEFAULT_TIMEOUT_MILLIS;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong declines = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+
+    /** Approved charges by payment key (the simulator keeps them for its lifetime). */
+    private final Map<String, PaymentResult> chargedKeys = new ConcurrentHashMap<>();
+
+    /**
+     * @param latency            response-time model
+     * @param errorRate          fraction of calls (0–1) that throw a transient error
+     * @param declineRate        fraction of calls (0–1) that are declined
+     * @param requestsPerSecond  sustained rate limit; {@code <= 0} disables it
+     * @param seed               random seed for reproducible runs
+     */
+    public SimulatedGatewayPayment(LatencyModel latency,
+                                   double errorRate,
+                                   double declineRate,
+                                   int requestsPerSecond,
+                                   long seed) {
+        if (latency == null) {
+            throw new IllegalArgumentException("Latency model is required.");
+        }
+        if (errorRate < 0 || errorRate > 1 || declineRate < 0 || declineRate > 1) {
+            throw new IllegalArgumentException("Rates must be between 0 and 1.");
+        }
+        this.latency = latency;
+        this.errorRate = errorRate;
+        this.declineRate = declineRate;
+        this.rateLimit = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond) : null;
+        this.random = new Random(seed);
+    }
+
+    /** Gateway with the given latency and no errors, declines or rate limit. */
+    public SimulatedGatewayPayment(LatencyModel latency) {
+        this(latency, 0, 0, 0, 42L);
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    // =============================================================
+    // PAYMENT
+    // =============================================================
+
+    @Override
+    public PaymentResult pay(String userId, double amount, String userType) {
+        calls.incrementAndGet();
+
+        if (rateLimit != null && !rateLimit.tryAcquire()) {
+            rateLimited.incrementAndGet();
+            throw new GatewayException("Gateway rate limit exceeded");
+        }
+
+        sleep(Math.max(0, latency.sampleMillis(random)));
+
+        if (amount <= 0) {
+            declines.incrementAndGet();
+            return new PaymentResult(PaymentResult.Status.FAILED, "Invalid payment amount");
+        }
+
+        double roll = random.nextDouble();
+        if (roll < errorRate) {
+            errors.incrementAndGet();
+            throw new GatewayException("Gateway unavailable");
+        }
+        if (roll < errorRate + declineRate) {
+            declines.incrementAndGet();
+            return new PaymentResult(PaymentResult.Status.FAILED, "Card declined (simulated gateway)");
+        }
+
+        return new PaymentResult(PaymentResult.Status.APPROVED, "Payment successful (Simulated Gateway)");
+    }
+
+    @Override
+    public PaymentResult pay(String userId, double amount, String userType, String paymentKey) {
+        if (paymentKey == null) return pay(userId, amount, userType);
+
+        PaymentResult earlier = chargedKeys.get(paymentKey);
+        if (earlier != null) {
+            duplicates.incrementAndGet();
+            return earlier;
+        }
+
+        PaymentResult result = pay(userId, amount, userType);
+        if (result.getStatus() == PaymentResult.Status.APPROVED) {
+            // an abandoned attempt with the same key may have finished first
+            earlier = chargedKeys.putIfAbsent(paymentKey, result);
+            if (earlier != null) {
+                duplicates.incrementAndGet();
+                return earlier;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean honoursPaymentKey() {
+        return true;
+    }
+
+    private static void sleep(long millis) {
+        if (millis == 0) return;
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayException("Gateway call interrupted");
+        }
+    }
+
+    // =============================================================
+    // STATISTICS
+    // =============================================================
+
+    public long getCallCount() { return calls.get(); }
+    public long getErrorCount() { return errors.get(); }
+    public long getDeclineCount() { return declines.get(); }
+    public long getRateLimitedCount() { return rateLimited.get(); }
+    public long getDuplicateCount() { return duplicates.get(); }
+
+    // =============================================================
+    // TOKEN BUCKET
+    // =============================================================
+
+    /** Allows {@code ratePerSecond} calls per second with a burst of the same size. */
+    static final class TokenBucket {
+        private final double capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int ratePerSecond) {
+            this.capacity = ratePerSecond;
+            this.tokensPerNano = ratePerSecond / (double) TimeUnit.SECONDS.toNanos(1);
+            this.tokens = capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+    }
+}
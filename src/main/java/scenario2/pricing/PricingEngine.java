@@ -0,0 +1,320 @@
+package scenario2.pricing;
+
+import shared.model.BookingRepository;
+import shared.model.UserType;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * PricingEngine – Scenario 2 (Room Booking & Payment)
+ * ---------------------------------------------------------------------------
+ * <p>Rule-table pricing for room bookings. Hourly rates depend on the
+ * {@link UserType}, the room's building, and the time bucket (hour of day,
+ * weekday vs. weekend). All rules are compiled once into a flat
+ * {@code double[]} so a quote is a few array-index calculations – no string
+ * parsing, no rule matching and no allocation per quote.</p>
+ *
+ * <h2>Rate Table</h2>
+ * <ul>
+ *     <li><b>Base rates</b> per user type (Students 20, Faculty 30, Staff 40,
+ *         Partners 50; any other type pays the student rate).</li>
+ *     <li><b>Rules</b> multiply the base rate for matching cells, e.g.
+ *         "PARTNER, Lassonde, weekdays 9–17 × 1.25". Rules are applied in file
+ *         order, so later rules stack on earlier ones.</li>
+ *     <li>Buildings named in a rule get their own slice of the table; every
+ *         other building shares the "any building" slice.</li>
+ * </ul>
+ *
+ * <h2>Rule File</h2>
+ * <p>Optional {@code pricing_rules.csv} next to the bookings CSV:</p>
+ * <pre>
+ * userType,building,days,fromHour,toHour,multiplier
+ * *,*,WEEKDAY,9,17,1.25
+ * PARTNER,Lassonde,*,0,24,1.10
+ * </pre>
+ * <p>{@code *} matches anything; {@code days} is {@code WEEKDAY}, {@code WEEKEND}
+ * or {@code *}; hours are {@code [fromHour, toHour)}. Without the file only
+ * the base rates apply, which reproduces the original flat pricing.</p>
+ *
+ * <h2>Deposit</h2>
+ * <p>The deposit stays one hour at the rate applicable when the booking starts.</p>
+ *
+ * <h2>Design Pattern Context</h2>
+ * <ul>
+ *     <li><b>Singleton</b> – one compiled table per application, used by
+ *         {@code BookingManager}.</li>
+ * </ul>
+ */
+public class PricingEngine {
+
+    public static final String FILE_NAME = "pricing_rules.csv";
+
+    /** Hour-of-day buckets per day kind. */
+    private static final int HOURS = 24;
+    /** Weekday / weekend. */
+    private static final int DAY_KINDS = 2;
+    private static final int WEEKDAY = 0;
+    private static final int WEEKEND = 1;
+    private static final int BUCKETS = HOURS * DAY_KINDS;
+
+    private static final UserType[] TYPES = UserType.values();
+    private static final UserType DEFAULT_TYPE = UserType.STUDENT;
+
+    private static PricingEngine instance;
+
+    public static synchronized PricingEngine getInstance() {
+        if (instance == null) {
+            instance = new PricingEngine(defaultBaseRates(),
+                    loadRules(BookingRepository.siblingDataFile(FILE_NAME)));
+        }
+        return instance;
+    }
+
+    /** The original flat rates. */
+    public static Map<UserType, Double> defaultBaseRates() {
+        Map<UserType, Double> base = new EnumMap<>(UserType.class);
+        base.put(UserType.STUDENT, 20.0);
+        base.put(UserType.FACULTY, 30.0);
+        base.put(UserType.STAFF, 40.0);
+        base.put(UserType.PARTNER, 50.0);
+        return base;
+    }
+
+    // =============================================================
+    // RULES
+    // =============================================================
+
+    /** One multiplier rule; {@code null} fields match anything. */
+    public static final class Rule {
+        private final UserType userType;
+        private final String building;
+        private final Boolean weekend;
+        private final int fromHour;
+        private final int toHour;
+        private final double multiplier;
+
+        /**
+         * @param userType   user type, or {@code null} for all
+         * @param building   building name (case-insensitive), or {@code null} for all
+         * @param weekend    {@code true} = weekends, {@code false} = weekdays, {@code null} = every day
+         * @param fromHour   first hour covered (0–23)
+         * @param toHour     first hour no longer covered (1–24)
+         * @param multiplier factor applied to the rate
+         */
+        public Rule(UserType userType, String building, Boolean weekend,
+                    int fromHour, int toHour, double multiplier) {
+            if (fromHour < 0 || toHour > HOURS || fromHour >= toHour) {
+                throw new IllegalArgumentException("Invalid hour range " + fromHour + "-" + toHour);
+            }
+            if (multiplier <= 0) {
+                throw new IllegalArgumentException("Multiplier must be positive.");
+            }
+            this.userType = userType;
+            this.building = (building == null || building.isBlank()) ? null : building.trim();
+            this.weekend = weekend;
+            this.fromHour = fromHour;
+            this.toHour = toHour;
+            this.multiplier = multiplier;
+        }
+    }
+
+    // =============================================================
+    // COMPILED TABLE
+    // =============================================================
+
+    /** rates[((type * buildings) + building) * BUCKETS + bucket] */
+    private final double[] rates;
+    private final double[] baseRates;
+    private final int buildingSlots;
+    /** Building name → slot (slot 0 = any other building). */
+    private final Map<String, Integer> buildingIndex = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    /** Common spellings of user types, so quoting from a String does not allocate. */
+    private final Map<String, UserType> typeLookup = new HashMap<>();
+
+    public PricingEngine(Map<UserType, Double> baseRatesByType, List<Rule> rules) {
+        baseRates = new double[TYPES.length];
+        double fallback = baseRatesByType.getOrDefault(DEFAULT_TYPE, 20.0);
+        for (UserType t : TYPES) {
+            baseRates[t.ordinal()] = baseRatesByType.getOrDefault(t, fallback);
+
+            String name = t.name();
+            typeLookup.put(name, t);
+            typeLookup.put(name.toLowerCase(Locale.ROOT), t);
+            typeLookup.put(name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT), t);
+        }
+
+        for (Rule r : rules) {
+            if (r.building != null && !buildingIndex.containsKey(r.building)) {
+                buildingIndex.put(r.building, buildingIndex.size() + 1);
+            }
+        }
+        buildingSlots = buildingIndex.size() + 1;
+        rates = new double[TYPES.length * buildingSlots * BUCKETS];
+
+        // Start every cell at the base rate, then apply the rules in order
+        for (int t = 0; t < TYPES.length; t++) {
+            for (int b = 0; b < buildingSlots; b++) {
+                int row = (t * buildingSlots + b) * BUCKETS;
+                for (int k = 0; k < BUCKETS; k++) rates[row + k] = baseRates[t];
+            }
+        }
+
+        for (Rule r : rules) {
+            for (int t = 0; t < TYPES.length; t++) {
+                if (r.userType != null && r.userType.ordinal() != t) continue;
+
+                for (int b = 0; b < buildingSlots; b++) {
+                    if (r.building != null && buildingIndex.get(r.building) != b) continue;
+
+                    int row = (t * buildingSlots + b) * BUCKETS;
+                    for (int day = 0; day < DAY_KINDS; day++) {
+                        if (r.weekend != null && r.weekend != (day == WEEKEND)) continue;
+                        for (int h = r.fromHour; h < r.toHour; h++) {
+                            rates[row + day * HOURS + h] *= r.multiplier;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // =============================================================
+    // QUOTES
+    // =============================================================
+
+    /** Maps a stored user-type string to the enum; unknown or blank → STUDENT. */
+    public UserType resolveUserType(String userType) {
+        if (userType == null) return DEFAULT_TYPE;
+        UserType t = typeLookup.get(userType);
+        if (t != null) return t;
+
+        String key = userType.trim().toUpperCase(Locale.ROOT);
+        for (UserType candidate : TYPES) {
+            if (candidate.name().equals(key)) return candidate;
+        }
+        return DEFAULT_TYPE;
+    }
+
+    /** Flat base rate of a user type (no time or building rules). */
+    public double getBaseRate(UserType type) {
+        return baseRates[(type == null ? DEFAULT_TYPE : type).ordinal()];
+    }
+
+    /** Hourly rate for a user type in a building at the given time. */
+    public double getHourlyRate(UserType type, String building, LocalDateTime at) {
+        if (at == null) return getBaseRate(type);
+        return rates[row(type, building) + bucket(at.getDayOfWeek(), at.getHour())];
+    }
+
+    /** Deposit = one hour at the rate applicable when the booking starts. */
+    public double quoteDeposit(UserType type, String building, LocalDateTime start) {
+        return getHourlyRate(type, building, start);
+    }
+
+    /**
+     * Estimated total for {@code [start, end)}: each started hour is charged
+     * at the rate of its own time bucket (minimum one hour).
+     */
+    public double quoteTotal(UserType type, String building, LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !end.isAfter(start)) {
+            return getHourlyRate(type, building, start);
+        }
+
+        long minutes = Duration.between(start, end).toMinutes();
+        long hours = Math.max(1, (minutes + 59) / 60);
+
+        int row = row(type, building);
+        int hour = start.getHour();
+        int dow = start.getDayOfWeek().getValue();   // 1 = Monday … 7 = Sunday
+        double total = 0;
+        for (long i = 0; i < hours; i++) {
+            total += rates[row + (dow >= 6 ? WEEKEND : WEEKDAY) * HOURS + hour];
+            if (++hour == HOURS) {
+                hour = 0;
+                dow = dow == 7 ? 1 : dow + 1;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Deposits for a whole search result set in one pass, written into
+     * {@code out} (which the caller can reuse between searches).
+     */
+    public void quoteDeposits(UserType type, String[] buildings, LocalDateTime start, double[] out) {
+        int bucket = start == null ? -1 : bucket(start.getDayOfWeek(), start.getHour());
+        for (int i = 0; i < buildings.length; i++) {
+            out[i] = bucket < 0 ? getBaseRate(type) : rates[row(type, buildings[i]) + bucket];
+        }
+    }
+
+    /** Buildings that have their own pricing rules. */
+    public List<String> getPricedBuildings() {
+        return Collections.unmodifiableList(new ArrayList<>(buildingIndex.keySet()));
+    }
+
+    private int row(UserType type, String building) {
+        int t = (type == null ? DEFAULT_TYPE : type).ordinal();
+        Integer b = building == null ? null : buildingIndex.get(building);
+        return (t * buildingSlots + (b == null ? 0 : b)) * BUCKETS;
+    }
+
+    private static int bucket(DayOfWeek day, int hour) {
+        boolean weekend = day == DayOfWeek.SATURDAY || day == DayOfWeek.SUNDAY;
+        return (weekend ? WEEKEND : WEEKDAY) * HOURS + hour;
+    }
+
+    // =============================================================
+    // RULE FILE
+    // =============================================================
+
+    /** Reads {@code pricing_rules.csv}; a missing file means "no rules". */
+    public static List<Rule> loadRules(String path) {
+        List<Rule> rules = new ArrayList<>();
+        File file = new File(path);
+        if (!file.exists()) return rules;
+
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("userType") || line.startsWith("#")) continue;
+
+                String[] p = line.split(",");
+                if (p.length < 6) continue;
+                try {
+                    UserType type = "*".equals(p[0].trim()) ? null : UserType.valueOf(p[0].trim().toUpperCase());
+                    String building = "*".equals(p[1].trim()) ? null : p[1].trim();
+                    String days = p[2].trim().toUpperCase();
+                    Boolean weekend = "WEEKEND".equals(days) ? Boolean.TRUE
+                            : "WEEKDAY".equals(days) ? Boolean.FALSE : null;
+
+                    rules.add(new Rule(type, building, weekend,
+                            Integer.parseInt(p[3].trim()),
+                            Integer.parseInt(p[4].trim()),
+                            Double.parseDouble(p[5].trim())));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("[PricingEngine] Skipping rule '" + line + "': " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("[PricingEngine] Could not read " + path + ": " + e.getMessage());
+        }
+
+        System.out.println("[PricingEngine] Loaded " + rules.size() + " pricing rule(s)");
+        return rules;
+    }
+}
@@ -0,0 +1,429 @@
+package scenario2.quota;
+
+import shared.model.Booking;
+import shared.model.RecurrenceRule;
+import shared.model.UserType;
+import shared.observer.RepositoryListener;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * BookingQuotaTracker – Scenario 2 (Room Booking & Payment)
+ * ---------------------------------------------------------------------------
+ * <p>Caps how much a user can book, per user type, to stop hoarding:</p>
+ * <ul>
+ *     <li><b>Hours per ISO week</b> – booked minutes in each week (a booking
+ *         crossing Sunday midnight counts in both weeks);</li>
+ *     <li><b>Active bookings</b> – live bookings (or series) that have not
+ *         ended yet.</li>
+ * </ul>
+ *
+ * <h2>Rolling Counters</h2>
+ * <ul>
+ *     <li>Counters are kept per user and updated from booking events
+ *         ({@link RepositoryListener}): adding a booking counts it; cancelling,
+ *         a no-show, an extension or an edit replaces its old contribution
+ *         with the new one. Nothing is ever recounted by scanning bookings.</li>
+ *     <li>Each booking's last contribution is remembered, so an update is
+ *         "subtract old, add new".</li>
+ *     <li>Bookings leave the active count when they end: each user's active
+ *         bookings sit in a queue ordered by end time, and ended ones are
+ *         popped the next time that user is checked.</li>
+ *     <li>A check is a couple of map lookups – it never depends on how many
+ *         bookings exist.</li>
+ * </ul>
+ *
+ * <h2>Limit File</h2>
+ * <p>Optional {@code quota_limits.csv} next to the bookings CSV:</p>
+ * <pre>
+ * userType,maxHoursPerWeek,maxActiveBookings
+ * STUDENT,10,3
+ * PARTNER,40,*
+ * </pre>
+ * <p>{@code *} means unlimited. Without the file nobody is limited, which
+ * keeps the original behaviour.</p>
+ *
+ * <p>Owned by {@code BookingManager}; not a singleton of its own.</p>
+ */
+public class BookingQuotaTracker implements RepositoryListener<Booking> {
+
+    public static final String FILE_NAME = "quota_limits.csv";
+
+    /** Marker for "no limit". */
+    public static final int UNLIMITED = -1;
+
+    /** Limits for one user type. */
+    public static final class Limit {
+        private final int maxHoursPerWeek;
+        private final int maxActiveBookings;
+
+        public Limit(int maxHoursPerWeek, int maxActiveBookings) {
+            this.maxHoursPerWeek = maxHoursPerWeek;
+            this.maxActiveBookings = maxActiveBookings;
+        }
+
+        public int getMaxHoursPerWeek() { return maxHoursPerWeek; }
+        public int getMaxActiveBookings() { return maxActiveBookings; }
+    }
+
+    /** What one booking currently adds to its user's counters. */
+    private static final class Contribution {
+        final String user;
+        final Map<Long, Long> minutesByWeek;
+        final LocalDateTime end;
+        boolean active;
+
+        Contribution(String user, Map<Long, Long> minutesByWeek, LocalDateTime end) {
+            this.user = user;
+            this.minutesByWeek = minutesByWeek;
+            this.end = end;
+        }
+    }
+
+    /** Per-user counters. */
+    private static final class Counters {
+        final Map<Long, Long> minutesByWeek = new HashMap<>();
+        final PriorityQueue<Contribution> activeByEnd =
+                new PriorityQueue<>((a, b) -> a.end.compareTo(b.end));
+        int activeCount;
+    }
+
+    private final Map<UserType, Limit> limits;
+    private final Clock clock;
+
+    private final Map<String, Counters> byUser = new HashMap<>();
+    private final Map<Booking, Contribution> contributions = new IdentityHashMap<>();
+
+    public BookingQuotaTracker(Map<UserType, Limit> limits) {
+        this(limits, Clock.systemDefaultZone());
+    }
+
+    /** Package-private for tests, which fix the clock. */
+    BookingQuotaTracker(Map<UserType, Limit> limits, Clock clock) {
+        this.limits = new EnumMap<>(UserType.class);
+        if (limits != null) this.limits.putAll(limits);
+        this.clock = clock;
+    }
+
+    /** Counts bookings that existed before the tracker was attached (once, at startup). */
+    public synchronized void countExisting(List<Booking> bookings) {
+        for (Booking b : bookings) add(b);
+    }
+
+    public synchronized Limit getLimit(UserType type) {
+        return limits.get(type);
+    }
+
+    /** Sets (or, with {@code null}, lifts) the limits of a user type. */
+    public synchronized void setLimit(UserType type, Limit limit) {
+        if (limit == null) {
+            limits.remove(type);
+        } else {
+            limits.put(type, limit);
+        }
+    }
+
+    // =============================================================
+    // EVENTS
+    // =============================================================
+
+    @Override
+    public synchronized void onAdded(Booking booking) {
+        add(booking);
+    }
+
+    @Override
+    public synchronized void onUpdated(Booking booking) {
+        remove(booking);
+        add(booking);
+    }
+
+    @Override
+    public synchronized void onRemoved(Booking booking) {
+        remove(booking);
+    }
+
+    // =============================================================
+    // CHECKS
+    // =============================================================
+
+    /**
+     * Reason {@code count} new bookings of {@code [start, end)} would break
+     * the user's limits, or {@code null} if they fit.
+     */
+    public synchronized String checkNewBookings(String userId, String userType,
+                                                LocalDateTime start, LocalDateTime end, int count) {
+        Limit limit = limits.get(resolveUserType(userType));
+        if (limit == null || userId == null) return null;
+
+        Counters c = counters(userId);
+        if (limit.maxActiveBookings != UNLIMITED) {
+            purgeEnded(c);
+            if (c.activeCount + count > limit.maxActiveBookings) {
+                return "Booking limit reached: " + typeName(userType) + " accounts can hold "
+                        + limit.maxActiveBookings + " active bookings at a time.";
+            }
+        }
+        return checkMinutes(c, limit, userType, minutesByWeek(start, end), count);
+    }
+
+    /** Reason a weekly series would break the user's limits, or {@code null}. */
+    public synchronized String checkNewSeries(String userId, String userType,
+                                              LocalDateTime start, LocalDateTime end, RecurrenceRule rule) {
+        String reason = checkNewBookings(userId, userType, start, end, 1);
+        if (reason != null || rule == null) return reason;
+
+        Limit limit = limits.get(resolveUserType(userType));
+        if (limit == null || limit.maxHoursPerWeek == UNLIMITED) return null;
+
+        return checkMinutes(counters(userId), limit, userType, seriesMinutes(start, end, rule), 1);
+    }
+
+    /**
+     * Reason moving a booking (a series: its first occurrence) to
+     * {@code [newStart, newEnd)} would break the weekly limit, or
+     * {@code null}. The booking's current minutes are taken out first, and
+     * weeks the edit does not add to are never refused.
+     */
+    public synchronized String checkEdit(Booking booking, String userType,
+                                         LocalDateTime newStart, LocalDateTime newEnd) {
+        Limit limit = limits.get(resolveUserType(userType));
+        if (limit == null || booking == null || limit.maxHoursPerWeek == UNLIMITED) return null;
+
+        Map<Long, Long> added = booking.isRecurring()
+                ? seriesMinutes(newStart, newEnd, booking.getRecurrence())
+                : minutesByWeek(newStart, newEnd);
+        Contribution current = contributions.get(booking);
+        if (current != null) {
+            for (Map.Entry<Long, Long> e : current.minutesByWeek.entrySet()) {
+                added.merge(e.getKey(), -e.getValue(), Long::sum);
+            }
+        }
+        added.values().removeIf(minutes -> minutes <= 0);
+        return checkMinutes(counters(booking.getUserId()), limit, userType, added, 1);
+    }
+
+    /** Reason extending a booking by {@code extraMinutes} would break the weekly limit, or {@code null}. */
+    public synchronized String checkExtension(Booking booking, String userType, long extraMinutes) {
+        Limit limit = limits.get(resolveUserType(userType));
+        if (limit == null || booking == null) return null;
+
+        LocalDateTime from = booking.getEndTime();
+        return checkMinutes(counters(booking.getUserId()), limit, userType,
+                minutesByWeek(from, from.plusMinutes(extraMinutes)), 1);
+    }
+
+    /** Minutes the user has booked in the ISO week containing {@code time}. */
+    public synchronized long getBookedMinutes(String userId, LocalDateTime time) {
+        Counters c = byUser.get(key(userId));
+        if (c == null) return 0;
+        return c.minutesByWeek.getOrDefault(weekKey(time), 0L);
+    }
+
+    /** Live bookings of the user that have not ended yet. */
+    public synchronized int getActiveCount(String userId) {
+        Counters c = byUser.get(key(userId));
+        if (c == null) return 0;
+        purgeEnded(c);
+        return c.activeCount;
+    }
+
+    private String checkMinutes(Counters c, Limit limit, String userType,
+                                Map<Long, Long> added, int count) {
+        if (limit.maxHoursPerWeek == UNLIMITED) return null;
+
+        long max = limit.maxHoursPerWeek * 60L;
+        for (Map.Entry<Long, Long> e : added.entrySet()) {
+            long booked = c.minutesByWeek.getOrDefault(e.getKey(), 0L);
+            if (booked + e.getValue() * count > max) {
+                return "Weekly limit reached: " + typeName(userType) + " accounts can book "
+                        + limit.maxHoursPerWeek + " hours per week.";
+            }
+        }
+        return null;
+    }
+
+    // =============================================================
+    // COUNTERS
+    // =============================================================
+
+    private void add(Booking b) {
+        if (b == null || b.getUserId() == null || contributions.containsKey(b)) return;
+
+        if (b.getStatusEnum().isReleased()) return;
+        if (b.getStartTime() == null || b.getEndTime() == null) return;
+
+        Map<Long, Long> minutes;
+        if (b.isRecurring()) {
+            minutes = new HashMap<>();
+            for (Booking occ : b.getOccurrences(b.getStartTime(), b.getSeriesEnd())) {
+                if (occ.getStatusEnum().isReleased()) continue;
+                addMinutes(minutes, occ.getStartTime(), occ.getEndTime());
+            }
+        } else {
+            minutes = minutesByWeek(b.getStartTime(), b.getEndTime());
+        }
+
+        Contribution contribution = new Contribution(key(b.getUserId()), minutes, b.getSeriesEnd());
+        contributions.put(b, contribution);
+
+        Counters c = byUser.computeIfAbsent(contribution.user, k -> new Counters());
+        for (Map.Entry<Long, Long> e : minutes.entrySet()) {
+            c.minutesByWeek.merge(e.getKey(), e.getValue(), Long::sum);
+        }
+        if (contribution.end.isAfter(LocalDateTime.now(clock))) {
+            contribution.active = true;
+            c.activeCount++;
+            c.activeByEnd.add(contribution);
+        }
+    }
+
+    private void remove(Booking b) {
+        Contribution contribution = contributions.remove(b);
+        if (contribution == null) return;
+
+        Counters c = byUser.get(contribution.user);
+        for (Map.Entry<Long, Long> e : contribution.minutesByWeek.entrySet()) {
+            long left = c.minutesByWeek.getOrDefault(e.getKey(), 0L) - e.getValue();
+            if (left <= 0) {
+                c.minutesByWeek.remove(e.getKey());
+            } else {
+                c.minutesByWeek.put(e.getKey(), left);
+            }
+        }
+        if (contribution.active) {
+            contribution.active = false;   // its queue entry is skipped when popped
+            c.activeCount--;
+        }
+    }
+
+    /** Pops bookings that have ended off the head of the user's queue. */
+    private void purgeEnded(Counters c) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Contribution head;
+        while ((head = c.activeByEnd.peek()) != null && !head.end.isAfter(now)) {
+            c.activeByEnd.poll();
+            if (head.active) {
+                head.active = false;
+                c.activeCount--;
+            }
+        }
+    }
+
+    private Counters counters(String userId) {
+        return byUser.computeIfAbsent(key(userId), k -> new Counters());
+    }
+
+    // =============================================================
+    // ISO WEEKS
+    // =============================================================
+
+    /** Minutes per week of every occurrence of a series starting at {@code start}. */
+    private static Map<Long, Long> seriesMinutes(LocalDateTime start, LocalDateTime end, RecurrenceRule rule) {
+        Duration length = Duration.between(start, end);
+        Map<Long, Long> result = new HashMap<>();
+        for (LocalDateTime s : rule.occurrenceStarts(start, start, rule.lastStart(start))) {
+            addMinutes(result, s, s.plus(length));
+        }
+        return result;
+    }
+
+    private static Map<Long, Long> minutesByWeek(LocalDateTime start, LocalDateTime end) {
+        Map<Long, Long> result = new HashMap<>();
+        addMinutes(result, start, end);
+        return result;
+    }
+
+    /** Adds the minutes of {@code [start, end)}, split at Monday 00:00. */
+    private static void addMinutes(Map<Long, Long> into, LocalDateTime start, LocalDateTime end) {
+        LocalDateTime s = start;
+        while (s.isBefore(end)) {
+            LocalDateTime nextMonday = s.toLocalDate()
+                    .with(TemporalAdjusters.next(DayOfWeek.MONDAY)).atStartOfDay();
+            LocalDateTime e = nextMonday.isBefore(end) ? nextMonday : end;
+            into.merge(weekKey(s), ChronoUnit.MINUTES.between(s, e), Long::sum);
+            s = e;
+        }
+    }
+
+    /** ISO week-based year × 100 + week number, e.g. 202503. */
+    static long weekKey(LocalDateTime time) {
+        return time.get(IsoFields.WEEK_BASED_YEAR) * 100L + time.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+    }
+
+    // =============================================================
+    // USER TYPES / LIMIT FILE
+    // =============================================================
+
+    /** Same fallback as pricing: unknown types are treated as students. */
+    static UserType resolveUserType(String userType) {
+        if (userType == null) return UserType.STUDENT;
+        try {
+            return UserType.valueOf(userType.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return UserType.STUDENT;
+        }
+    }
+
+    private static String typeName(String userType) {
+        String name = resolveUserType(userType).name();
+        return name.charAt(0) + name.substring(1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String key(String userId) {
+        return userId == null ? "" : userId.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Reads {@code quota_limits.csv}; a missing file means "no limits". */
+    public static Map<UserType, Limit> loadLimits(String path) {
+        Map<UserType, Limit> result = new EnumMap<>(UserType.class);
+        File file = new File(path);
+        if (!file.exists()) return result;
+
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty() || line.startsWith("userType") || line.startsWith("#")) continue;
+
+                String[] p = line.split(",");
+                if (p.length < 3) continue;
+                try {
+                    UserType type = UserType.valueOf(p[0].trim().toUpperCase(Locale.ROOT));
+                    result.put(type, new Limit(parseLimit(p[1]), parseLimit(p[2])));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("[BookingQuotaTracker] Skipping limit '" + line + "': " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("[BookingQuotaTracker] Could not read " + path + ": " + e.getMessage());
+        }
+
+        System.out.println("[BookingQuotaTracker] Loaded limits for " + result.size() + " user type(s)");
+        return result;
+    }
+
+    private static int parseLimit(String raw) {
+        String s = raw.trim();
+        if ("*".equals(s)) return UNLIMITED;
+        int value = Integer.parseInt(s);
+        if (value < 0) throw new IllegalArgumentException("Limit must not be negative: " + s);
+        return value;
+    }
+}
@@ -0,0 +1,227 @@
+package scenario2.suggestion;
+
+import scenario2.controller.BookingManager;
+import shared.model.Room;
+import shared.model.RoomStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * AlternativeSuggester – Scenario 2 (Room Booking & Payment)
+ * ---------------------------------------------------------------------------
+ * <p>When the room a user picked turns out to be taken ("Room is no longer
+ * available ..."), suggests what to book instead, so the user does not have
+ * to run the search again:</p>
+ * <ul>
+ *     <li><b>Similar rooms at the same time</b>, ranked by similarity to the
+ *         room that failed: same building (40%), capacity close to it (30%) and
+ *         shared amenities (30%, Jaccard overlap). Rooms smaller than the
+ *         capacity band are left out – they would not fit the group.</li>
+ *     <li><b>The same room at a nearby time</b> on the same day, in 15-minute
+ *         steps up to three hours either way; closer times rank higher.</li>
+ * </ul>
+ *
+ * <h2>Cost</h2>
+ * <p>Rooms are ranked on their attributes first and checked for availability
+ * in that order, stopping once enough free ones are found. Each check goes
+ * through {@link BookingManager#isRoomAvailable}, which reads only that
+ * room's bookings from the per-room index (and respects other users' holds).</p>
+ */
+public class AlternativeSuggester {
+
+    public static final int DEFAULT_LIMIT = 5;
+
+    /** Rooms below {@code capacity × (1 − band)} are not suggested. */
+    static final double CAPACITY_BAND = 0.5;
+
+    static final int STEP_MINUTES = 15;
+    static final int MAX_SHIFT_MINUTES = 180;
+
+    /** One alternative: a room and an interval, with its rank score (higher is better). */
+    public static final class Suggestion {
+        private final Room room;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final double score;
+        private final boolean sameRoom;
+
+        private Suggestion(Room room, LocalDateTime start, LocalDateTime end,
+                           double score, boolean sameRoom) {
+            this.room = room;
+            this.start = start;
+            this.end = end;
+            this.score = score;
+            this.sameRoom = sameRoom;
+        }
+
+        public Room getRoom() { return room; }
+        public LocalDateTime getStart() { return start; }
+        public LocalDateTime getEnd() { return end; }
+        public double getScore() { return score; }
+
+        /** True for "same room, other time"; false for "other room, same time". */
+        public boolean isSameRoom() { return sameRoom; }
+
+        /** One line for the failure dialog. */
+        public String describe() {
+            String where = room.getRoomName() + " (" + room.getRoomId() + ")";
+            String building = room.getBuilding() == null ? "" : ", " + room.getBuilding();
+            return where + building + ", " + room.getCapacity() + " seats – "
+                    + start.toLocalDate() + " " + start.toLocalTime() + " - " + end.toLocalTime();
+        }
+
+        @Override
+        public String toString() {
+            return describe();
+        }
+    }
+
+    private final BookingManager manager;
+
+    public AlternativeSuggester() {
+        this(BookingManager.getInstance());
+    }
+
+    public AlternativeSuggester(BookingManager manager) {
+        this.manager = manager;
+    }
+
+    // =============================================================
+    // SUGGESTIONS
+    // =============================================================
+
+    /** Up to {@link #DEFAULT_LIMIT} alternatives for a failed (room, interval). */
+    public List<Suggestion> suggest(String roomId, LocalDateTime start, LocalDateTime end, String userId) {
+        return suggest(roomId, start, end, userId, null, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Ranked alternatives for a failed (room, interval).
+     *
+     * @param userId          the user's own holds do not block a suggestion (may be null)
+     * @param ignoreBookingId booking being edited, which may overlap its new time (may be null)
+     * @param limit           maximum number of suggestions
+     */
+    public List<Suggestion> suggest(String roomId,
+                                    LocalDateTime start,
+                                    LocalDateTime end,
+                                    String userId,
+                                    String ignoreBookingId,
+                                    int limit) {
+        List<Suggestion> result = new ArrayList<>();
+        Room original = manager.getRoomById(roomId);
+        if (original == null || start == null || end == null || !end.isAfter(start) || limit <= 0) {
+            return result;
+        }
+
+        result.addAll(similarRooms(original, start, end, userId, ignoreBookingId, limit));
+        result.addAll(nearbyTimes(original, start, end, userId, ignoreBookingId, limit));
+
+        result.sort(Comparator.comparingDouble(Suggestion::getScore).reversed()
+                .thenComparing(s -> s.sameRoom)
+                .thenComparing(s -> s.room.getRoomId()));
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    /** Free rooms at the requested time, most similar first. */
+    private List<Suggestion> similarRooms(Room original, LocalDateTime start, LocalDateTime end,
+                                          String userId, String ignoreBookingId, int limit) {
+        Set<String> wanted = amenitiesOf(original);
+        int minCapacity = (int) Math.ceil(original.getCapacity() * (1 - CAPACITY_BAND));
+
+        List<Suggestion> ranked = new ArrayList<>();
+        for (Room room : manager.getAllRooms()) {
+            if (room.getRoomId().equals(original.getRoomId())) continue;
+            RoomStatus st = room.getStatusEnum();
+            if (st == RoomStatus.DISABLED || st == RoomStatus.MAINTENANCE) continue;
+            if (room.getCapacity() < minCapacity) continue;
+
+            ranked.add(new Suggestion(room, start, end, similarity(original, wanted, room), false));
+        }
+        ranked.sort(Comparator.comparingDouble(Suggestion::getScore).reversed());
+
+        // availability only for the best candidates
+        List<Suggestion> free = new ArrayList<>();
+        for (Suggestion s : ranked) {
+            if (free.size() == limit) break;
+            if (manager.isRoomAvailable(s.room.getRoomId(), start, end, userId, ignoreBookingId)) {
+                free.add(s);
+            }
+        }
+        return free;
+    }
+
+    /** The same room shifted later / earlier on the same day, closest first. */
+    private List<Suggestion> nearbyTimes(Room original, LocalDateTime start, LocalDateTime end,
+                                         String userId, String ignoreBookingId, int limit) {
+        List<Suggestion> free = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int shift = STEP_MINUTES; shift <= MAX_SHIFT_MINUTES && free.size() < limit; shift += STEP_MINUTES) {
+            double score = 1.0 - shift / (2.0 * MAX_SHIFT_MINUTES);
+            for (int sign : new int[] {1, -1}) {
+                LocalDateTime s = start.plusMinutes((long) sign * shift);
+                LocalDateTime e = end.plusMinutes((long) sign * shift);
+                if (!s.toLocalDate().equals(start.toLocalDate()) || !e.toLocalDate().equals(end.toLocalDate())) {
+                    continue;   // stay on the day the user chose
+                }
+                if (s.isBefore(now)) continue;
+
+                if (free.size() < limit
+                        && manager.isRoomAvailable(original.getRoomId(), s, e, userId, ignoreBookingId)) {
+                    free.add(new Suggestion(original, s, e, score, true));
+                }
+            }
+        }
+        return free;
+    }
+
+    // =============================================================
+    // SIMILARITY
+    // =============================================================
+
+    /** 0..1: building 0.4, capacity closeness 0.3, amenity overlap 0.3. */
+    static double similarity(Room original, Set<String> originalAmenities, Room other) {
+        double score = 0;
+
+        if (original.getBuilding() != null && other.getBuilding() != null
+                && original.getBuilding().trim().equalsIgnoreCase(other.getBuilding().trim())) {
+            score += 0.4;
+        }
+
+        int cap = Math.max(1, original.getCapacity());
+        double capacityGap = Math.abs(other.getCapacity() - original.getCapacity()) / (double) cap;
+        score += 0.3 * Math.max(0, 1 - capacityGap);
+
+        Set<String> otherAmenities = amenitiesOf(other);
+        Set<String> union = new HashSet<>(originalAmenities);
+        union.addAll(otherAmenities);
+        if (union.isEmpty()) {
+            score += 0.3;   // neither room lists any amenities
+        } else {
+            Set<String> shared = new HashSet<>(originalAmenities);
+            shared.retainAll(otherAmenities);
+            score += 0.3 * shared.size() / union.size();
+        }
+        return score;
+    }
+
+    /** Amenities as lower-case names; rooms.csv separates them with ';' (older rows use ','). */
+    static Set<String> amenitiesOf(Room room) {
+        Set<String> set = new HashSet<>();
+        String amenities = room.getAmenities();
+        if (amenities == null) return set;
+
+        for (String raw : amenities.split("[;,]")) {
+            String s = raw.trim().toLowerCase(Locale.ROOT);
+            if (!s.isEmpty()) set.add(s);
+        }
+        return set;
+    }
+}
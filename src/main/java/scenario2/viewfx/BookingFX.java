@@ -2,6 +2,7 @@ package scenario2.viewfx;
 
 import javafx.animation.FadeTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
@@ -24,7 +25,16 @@ import java.util.Optional;
 
 
 import shared.util.GlobalNavigationHelper;
+import scenario2.archive.BookingArchiveJob;
 import scenario2.controller.BookingManager;
+import scenario2.payment.CreditCardPayment;
+import scenario2.payment.PartnerBillingPayment;
+import scenario2.payment.PartnerSettlementEngine;
+import scenario2.payment.PaymentContext;
+import scenario2.payment.PaymentIdempotencyCache;
+import scenario2.payment.PaymentResult;
+import scenario2.suggestion.AlternativeSuggester;
+import scenario2.waitlist.WaitlistEngine;
 import shared.model.Booking;
 import shared.model.Room;
 import shared.model.User;
@@ -32,10 +42,10 @@ import scenario1.controller.UserManager;
 import scenario3.SensorSystem;
 import scenario3.RoomStatusManager;
 import scenario3.ui.BookingStatusObserver;
+import scenario3.ui.CheckInCountdownClock;
 import scenario2.controller.BookingManager;
 
 
-import java.io.InputStream;
 import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -44,9 +54,7 @@ import java.time.YearMonth;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Comparator;
-import javafx.animation.Timeline;
-import javafx.animation.KeyFrame;
-import javafx.animation.Animation;
+import java.util.concurrent.CompletableFuture;
 import javafx.scene.layout.Region;
 
 /**
@@ -131,6 +139,7 @@ public class BookingFX extends Application {
 
     // Core system singletons + user session state
     private BookingManager bookingManager;
+    private AlternativeSuggester alternativeSuggester;
     private String currentUserEmail;
     private String currentUserType;
 
@@ -142,6 +151,10 @@ public class BookingFX extends Application {
 
     // Modal windows (overlays)
     private VBox paymentModal;
+    /** Deposit charge still waiting for the gateway, if any. */
+    private CompletableFuture<PaymentResult> pendingPayment;
+    /** Hold on the slot being paid for, released when the modal is cancelled. */
+    private String activeHoldId;
     private VBox confirmationModal;
     private VBox editBookingModal;
     private VBox cancelModal;
@@ -156,7 +169,6 @@ public class BookingFX extends Application {
     private Label sidebarEmailLabel;
     private String loggedInEmail;
     private String loggedInUserType;
-    private Timeline countdownTimer = null;
 
 
     // Scenario 3 — Observer callback
@@ -185,6 +197,17 @@ public class BookingFX extends Application {
         // ==========================================================
 
         bookingManager = BookingManager.getInstance();
+        alternativeSuggester = new AlternativeSuggester(bookingManager);
+        // Partner invoices are written in the background; booking updates land on the FX thread
+        PartnerSettlementEngine.getInstance().setUpdateExecutor(Platform::runLater);
+        // Long-finished bookings move to the compressed archive once a day, in the background
+        BookingArchiveJob.getInstance().start();
+        // Waitlist offers arrive on whichever thread freed the slot
+        WaitlistEngine.getInstance().addOfferListener(request -> {
+            if (request.getUserId().equalsIgnoreCase(currentUserEmail)) {
+                Platform.runLater(() -> showWaitlistOffer(request));
+            }
+        });
         // Scenario 3 Observer — auto UI refresh
         RoomStatusManager.getInstance().attach(new BookingStatusObserver(this));
 
@@ -428,6 +451,15 @@ public class BookingFX extends Application {
      * Each room name maps to an image inside /images/.
      */
     private ImageView getRoomImageView(Room room) {
+        return getRoomImageView(room, 220, 120, 22);
+    }
+
+    /**
+     * Builds a rounded preview for the room at the given display size. The
+     * decoded image comes from {@link RoomImageCache}, so it is downsampled to
+     * exactly this size once and reused by every later card.
+     */
+    private ImageView getRoomImageView(Room room, int width, int height, int arc) {
         String path;
 
         switch (room.getRoomName()) {
@@ -440,19 +472,18 @@ public class BookingFX extends Application {
             default                     -> path = "/images/default-room.png";
         }
 
-        InputStream is = getClass().getResourceAsStream(path);
-        if (is == null) {
-            System.out.println("Room image not found: " + path);
+        Image image = RoomImageCache.getInstance().get(path, width, height);
+        if (image == null) {
             return null;
         }
 
-        ImageView view = new ImageView(new Image(is));
-        view.setFitWidth(220);
-        view.setFitHeight(120);
+        ImageView view = new ImageView(image);
+        view.setFitWidth(width);
+        view.setFitHeight(height);
 
-        Rectangle clip = new Rectangle(220, 120);
-        clip.setArcWidth(22);
-        clip.setArcHeight(22);
+        Rectangle clip = new Rectangle(width, height);
+        clip.setArcWidth(arc);
+        clip.setArcHeight(arc);
         view.setClip(clip);
 
         return view;
@@ -1000,6 +1031,18 @@ public class BookingFX extends Application {
                                   String purpose,
                                   double depositAmount) {
 
+        // Reserve the slot while the user types card details, so nobody
+        // else can take it between search and payment
+        releaseActiveHold();
+        try {
+            activeHoldId = bookingManager.placeHold(
+                    room.getRoomId(), currentUserEmail, startTime, endTime);
+        } catch (Exception ex) {
+            showUnavailableAlert("Booking Failed", ex.getMessage(),
+                    room.getRoomId(), startTime, endTime, null);
+            return;
+        }
+
         Object[] refs = (Object[]) paymentModal.getUserData();
         Label roomLabel = (Label) refs[0];
         Label timeLabel = (Label) refs[1];
@@ -1024,6 +1067,11 @@ public class BookingFX extends Application {
         expiryField.clear();
         cvvField.clear();
         nameField.clear();
+        // One idempotency key per booking attempt (user, room, time): repeated
+        // clicks, retries and re-opening this modal never charge the deposit twice.
+        String paymentKey = PaymentIdempotencyCache.keyForBooking(
+                currentUserEmail, room.getRoomId(), startTime, endTime);
+
 // reset handlers
         payBtn.setOnAction(null);
         cancelBtn.setOnAction(null);
@@ -1047,28 +1095,98 @@ public class BookingFX extends Application {
 
             // card is valid → now process booking + payment
             processPaymentAndConfirm(
-                    room, startTime, endTime, purpose, currentUserType
+                    room, startTime, endTime, purpose, currentUserType,
+                    depositAmount, paymentKey, payBtn, errorLabel
             );
         });
 
-        cancelBtn.setOnAction(event -> hideOverlay());
-
+        payBtn.setDisable(false);
+        payBtn.setText("Pay Now");
 
-
-
-
-        cancelBtn.setOnAction(event -> hideOverlay());
+        cancelBtn.setOnAction(event -> {
+            cancelPendingPayment();
+            releaseActiveHold();
+            hideOverlay();
+        });
 
         paymentModal.setVisible(true);
         confirmationModal.setVisible(false);
         showOverlay();
     }
 
+    /**
+     * Charges the deposit on the payment worker pool and books the room once
+     * the gateway answers. The FX thread stays free while the payment is in
+     * flight; the Pay button is disabled so it cannot be submitted twice.
+     */
     private void processPaymentAndConfirm(Room room,
                                           LocalDateTime startTime,
                                           LocalDateTime endTime,
                                           String purpose,
-                                          String userType) {
+                                          String userType,
+                                          double depositAmount,
+                                          String paymentKey,
+                                          Button payBtn,
+                                          Label errorLabel) {
+
+        // Fail fast before charging anything
+        if (!bookingManager.isRoomAvailable(room.getRoomId(), startTime, endTime, currentUserEmail)) {
+            releaseActiveHold();
+            hideOverlay();
+            showUnavailableAlert("Booking Failed", "Room is no longer available for that time.",
+                    room.getRoomId(), startTime, endTime, null);
+            return;
+        }
+        String overQuota = bookingManager.checkBookingQuota(currentUserEmail, userType, startTime, endTime);
+        if (overQuota != null) {
+            showInlineError(errorLabel, overQuota);
+            return;
+        }
+
+        PaymentContext paymentContext = new PaymentContext(
+                "PARTNER".equalsIgnoreCase(userType)
+                        ? new PartnerBillingPayment()
+                        : new CreditCardPayment());
+
+        payBtn.setDisable(true);
+        payBtn.setText("Processing...");
+
+        CompletableFuture<PaymentResult> payment =
+                paymentContext.executePaymentAsync(currentUserEmail, depositAmount, userType, paymentKey);
+        pendingPayment = payment;
+
+        payment.thenAccept(result -> Platform.runLater(() -> {
+            if (pendingPayment != payment) return;   // modal was cancelled meanwhile
+            pendingPayment = null;
+
+            payBtn.setDisable(false);
+            payBtn.setText("Pay Now");
+
+            if (result.getStatus() == PaymentResult.Status.FAILED) {
+                errorLabel.setText(result.getMessage());
+                errorLabel.setVisible(true);
+                return;
+            }
+
+            confirmBooking(room, startTime, endTime, purpose, userType, result,
+                    paymentContext, depositAmount, paymentKey);
+        }));
+    }
+
+    /**
+     * Creates the booking once the payment strategy has approved (or deferred)
+     * the charge. If the booking cannot be created, an approved charge is
+     * refunded so the user never pays for a booking they did not get.
+     */
+    private void confirmBooking(Room room,
+                                LocalDateTime startTime,
+                                LocalDateTime endTime,
+                                String purpose,
+                                String userType,
+                                PaymentResult paymentResult,
+                                PaymentContext paymentContext,
+                                double depositAmount,
+                                String paymentKey) {
         try {
             Booking booking = bookingManager.bookRoom(
                     room.getRoomId(),
@@ -1076,22 +1194,95 @@ public class BookingFX extends Application {
                     startTime,
                     endTime,
                     purpose,
-                    userType
-
+                    userType,
+                    paymentResult.getStatus().name()
             );
+            activeHoldId = null;   // bookRoom released it
 
             // Scenario 3: Start no-show countdown
-            scenario3.SensorSystem.getInstance().registerNewBooking(booking);
-
-
-            showConfirmationModal(booking, room, startTime, endTime);
-
             SensorSystem.getInstance().registerNewBooking(booking);
 
+            showConfirmationModal(booking, room, startTime, endTime);
 
         } catch (Exception ex) {
-            showAlert("Booking Failed", ex.getMessage());
+            String message = ex.getMessage();
+            if (paymentResult.getStatus() == PaymentResult.Status.APPROVED) {
+                PaymentResult refund = paymentContext.refundPayment(currentUserEmail, depositAmount, paymentKey);
+                System.out.println("[BookingFX] Booking failed after payment – refund "
+                        + refund.getStatus() + ": " + refund.getMessage());
+                message += refund.getStatus() == PaymentResult.Status.FAILED
+                        ? "\nThe deposit could not be refunded automatically; please contact support."
+                        : "\nYour deposit has been refunded.";
+            }
+            releaseActiveHold();
             hideOverlay();
+            showUnavailableAlert("Booking Failed", message,
+                    room.getRoomId(), startTime, endTime, null);
+        }
+    }
+
+    /**
+     * Stops waiting for a payment still in flight (modal closed). The attempt
+     * itself finishes and is remembered under its key, so paying again
+     * returns its outcome instead of charging twice.
+     */
+    private void cancelPendingPayment() {
+        if (pendingPayment != null) {
+            pendingPayment.cancel(true);
+            pendingPayment = null;
+        }
+    }
+
+    /** A waitlisted slot was freed and held for this user: go straight to payment. */
+    private void showWaitlistOffer(WaitlistEngine.Request request) {
+        Room room = bookingManager.getRoomById(request.getOfferedRoomId());
+        if (room == null) return;
+
+        showAlert("Room Available",
+                room.getRoomName() + " is now free for " + request.getStart().toLocalDate() + " "
+                        + request.getStart().toLocalTime() + " - " + request.getEnd().toLocalTime()
+                        + ". It is held for you for a few minutes.");
+
+        double deposit = bookingManager.getDeposit(currentUserType, room, request.getStart());
+        showPaymentModal(room, request.getStart(), request.getEnd(), request.getPurpose(), deposit);
+    }
+
+    /**
+     * Failure dialog for a booking attempt. If the slot is taken, it also lists
+     * similar free rooms and nearby free times, so the user does not have to
+     * search again.
+     */
+    private void showUnavailableAlert(String title,
+                                      String message,
+                                      String roomId,
+                                      LocalDateTime startTime,
+                                      LocalDateTime endTime,
+                                      String ignoreBookingId) {
+        if (bookingManager.isRoomAvailable(roomId, startTime, endTime, currentUserEmail, ignoreBookingId)) {
+            showAlert(title, message);   // failed for another reason
+            return;
+        }
+
+        List<AlternativeSuggester.Suggestion> alternatives = alternativeSuggester.suggest(
+                roomId, startTime, endTime, currentUserEmail, ignoreBookingId,
+                AlternativeSuggester.DEFAULT_LIMIT);
+        if (alternatives.isEmpty()) {
+            showAlert(title, message);
+            return;
+        }
+
+        StringBuilder text = new StringBuilder(message).append("\n\nAvailable instead:");
+        for (AlternativeSuggester.Suggestion s : alternatives) {
+            text.append("\n• ").append(s.describe());
+        }
+        showAlert(title, text.toString());
+    }
+
+    /** Gives up the slot hold of the payment modal, if any. */
+    private void releaseActiveHold() {
+        if (activeHoldId != null) {
+            bookingManager.releaseHold(activeHoldId);
+            activeHoldId = null;
         }
     }
 
@@ -1432,7 +1623,8 @@ public class BookingFX extends Application {
                 List<Room> availableRooms = bookingManager.searchAvailableRooms(
                         startDateTime, endDateTime, capacity, building, equipment);
 
-                displayAvailableRooms(availableRooms, startDateTime, endDateTime, purpose, resultArea);
+                displayAvailableRooms(availableRooms, startDateTime, endDateTime, purpose,
+                        capacity, building, equipment, resultArea);
 
             } catch (Exception ex) {
                 showAlert("Error", ex.getMessage());
@@ -1500,6 +1692,9 @@ public class BookingFX extends Application {
                                        LocalDateTime startTime,
                                        LocalDateTime endTime,
                                        String purpose,
+                                       int capacity,
+                                       String building,
+                                       String equipment,
                                        VBox resultArea) {
         resultArea.getChildren().clear();
 
@@ -1513,7 +1708,29 @@ public class BookingFX extends Application {
             suggestionLbl.setStyle("-fx-text-fill: #6c757d; -fx-font-size: 11;");
             suggestionLbl.setWrapText(true);
 
-            resultArea.getChildren().addAll(noRoomsLbl, suggestionLbl);
+            // Instead of searching again and again, wait for a cancellation or no-show
+            Button waitlistBtn = new Button("Join Waitlist");
+            waitlistBtn.setStyle(
+                    "-fx-background-color: #AD001D;" +
+                            "-fx-text-fill: white;" +
+                            "-fx-font-weight: bold;" +
+                            "-fx-background-radius: 999;" +
+                            "-fx-padding: 6 18;"
+            );
+            waitlistBtn.setOnAction(e -> {
+                try {
+                    WaitlistEngine.getInstance().join(currentUserEmail, currentUserType,
+                            startTime, endTime, capacity, building, equipment, purpose);
+                    waitlistBtn.setDisable(true);
+                    waitlistBtn.setText("On Waitlist");
+                    showAlert("Waitlist",
+                            "You're on the waitlist. If a matching room frees up, it will be held for you.");
+                } catch (Exception ex) {
+                    showAlert("Error", ex.getMessage());
+                }
+            });
+
+            resultArea.getChildren().addAll(noRoomsLbl, suggestionLbl, waitlistBtn);
             return;
         }
 
@@ -1526,8 +1743,10 @@ public class BookingFX extends Application {
 
         resultArea.getChildren().addAll(availableLbl, tipLbl);
 
-        for (Room room : rooms) {
-            HBox roomCard = createRoomCard(room, startTime, endTime, purpose);
+        // Whole result set priced in one pass (peak / building rules from PricingEngine)
+        double[] deposits = bookingManager.getDeposits(currentUserType, rooms, startTime);
+        for (int i = 0; i < rooms.size(); i++) {
+            HBox roomCard = createRoomCard(rooms.get(i), startTime, endTime, purpose, deposits[i]);
             resultArea.getChildren().add(roomCard);
             animateCardIn(roomCard);
         }
@@ -1543,7 +1762,8 @@ public class BookingFX extends Application {
     private HBox createRoomCard(Room room,
                                 LocalDateTime startTime,
                                 LocalDateTime endTime,
-                                String purpose) {
+                                String purpose,
+                                double depositAmount) {
 
         HBox card = new HBox(16);
         card.setPadding(new Insets(12));
@@ -1571,16 +1791,8 @@ public class BookingFX extends Application {
             card.setScaleY(1.0);
         });
 
-        ImageView preview = getRoomImageView(room);
+        ImageView preview = getRoomImageView(room, 150, 95, 16);
         if (preview != null) {
-            preview.setFitWidth(150);
-            preview.setFitHeight(95);
-
-            Rectangle clip = new Rectangle(150, 95);
-            clip.setArcWidth(16);
-            clip.setArcHeight(16);
-            preview.setClip(clip);
-
             card.getChildren().add(preview);
         }
 
@@ -1600,18 +1812,13 @@ public class BookingFX extends Application {
         Label amenitiesLabel = new Label("🛠 " + room.getAmenities());
         amenitiesLabel.setStyle("-fx-text-fill: #6b7280; -fx-font-size: 11;");
 
-        long durationMinutes = java.time.Duration.between(startTime, endTime).toMinutes();
-        long durationHours = (long) Math.ceil(durationMinutes / 60.0);
-
-        double hourlyRate    = bookingManager.getHourlyRateForUserType(currentUserType);
-        double depositAmount = bookingManager.getDepositForUserTypeAndDuration(currentUserType, durationHours);
-
+        // The deposit is one hour at the rate applicable at the start
         Label depositLabel = new Label(
                 String.format(
                         "💰 Deposit: $%.2f (1 hour × $%.2f/hour) • Est. total ≈ $%.2f",
                         depositAmount,
-                        hourlyRate,
-                        bookingManager.getEstimatedTotalForUser(currentUserType, durationHours)
+                        depositAmount,
+                        bookingManager.getEstimatedTotal(currentUserType, room, startTime, endTime)
                 ));
         depositLabel.setStyle("-fx-text-fill: #AD001D; -fx-font-size: 11; -fx-font-weight: bold;");
 
@@ -1811,7 +2018,8 @@ public class BookingFX extends Application {
         // ------------------------------
         // If no upcoming AND no past
         // ------------------------------
-        if (upcoming.isEmpty() && past.isEmpty()) {
+        boolean hasArchive = bookingManager.hasArchivedBookings();
+        if (upcoming.isEmpty() && past.isEmpty() && !hasArchive) {
             Label noBookings = new Label("You don't have any bookings yet.");
             noBookings.setStyle("-fx-text-fill: #666; -fx-font-size: 16;");
 
@@ -1868,6 +2076,46 @@ public class BookingFX extends Application {
             container.getChildren().addAll(pastHeader, pastPane);
         }
 
+        // ============================================================
+        // OLDER BOOKINGS — streamed from the archive only when expanded
+        // ============================================================
+        if (hasArchive) {
+            VBox archivedList = new VBox(10);
+
+            TitledPane archivedPane = new TitledPane("Show Older Bookings", archivedList);
+            archivedPane.setExpanded(false);
+            archivedPane.setCollapsible(true);
+            archivedPane.setStyle("-fx-font-size: 14;");
+
+            archivedPane.expandedProperty().addListener((obs, wasExpanded, expanded) -> {
+                if (!expanded || !archivedList.getChildren().isEmpty()) return;
+
+                Label loading = new Label("Loading older bookings...");
+                loading.setStyle("-fx-text-fill: #6c757d; -fx-font-size: 11;");
+                archivedList.getChildren().add(loading);
+
+                String email = currentUserEmail;
+                CompletableFuture
+                        .supplyAsync(() -> bookingManager.getArchivedUserBookings(email))
+                        .thenAccept(archived -> Platform.runLater(() -> {
+                            archivedList.getChildren().clear();
+                            if (archived.isEmpty()) {
+                                Label none = new Label("No older bookings.");
+                                none.setStyle("-fx-text-fill: #6c757d; -fx-font-size: 11;");
+                                archivedList.getChildren().add(none);
+                                return;
+                            }
+                            for (Booking b : archived) {
+                                HBox card = createBookingCard(b);
+                                card.setDisable(true);
+                                archivedList.getChildren().add(card);
+                            }
+                        }));
+            });
+
+            container.getChildren().add(archivedPane);
+        }
+
         ScrollPane scrollPane = new ScrollPane(container);
         scrollPane.setFitToWidth(true);
         scrollPane.setFitToHeight(true);
@@ -1903,7 +2151,7 @@ public class BookingFX extends Application {
         purpose.setStyle("-fx-text-fill: #666; -fx-font-size: 12;");
 
         String paymentStatus = booking.getPaymentStatus();
-        String paymentColor = "APPROVED".equals(paymentStatus) ? "#5cb85c"
+        String paymentColor = "APPROVED".equals(paymentStatus) || "INVOICED".equals(paymentStatus) ? "#5cb85c"
                 : "PENDING".equals(paymentStatus) ? "#f0ad4e" : "#d9534f";
 
         Label payment = new Label(
@@ -1934,15 +2182,20 @@ public class BookingFX extends Application {
 
         // ======================= Scenario 3: Check-In Button =======================
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime earliestCheckIn = booking.getStartTime().minusMinutes(10);
-        LocalDateTime latestCheckIn   = booking.getStartTime().plusMinutes(30); // For demo change to 2
+        // For a series, the occurrence whose check-in window is open (with its own status)
+        Booking occurrence = bookingManager.getOccurrenceNear(booking, now,
+                BookingManager.CHECK_IN_EARLY_MINUTES, BookingManager.CHECK_IN_LATE_MINUTES);
+        if (occurrence == null) occurrence = booking;
+
+        LocalDateTime earliestCheckIn = occurrence.getStartTime().minusMinutes(BookingManager.CHECK_IN_EARLY_MINUTES);
+        LocalDateTime latestCheckIn   = occurrence.getStartTime().plusMinutes(BookingManager.CHECK_IN_LATE_MINUTES);
 
         boolean allowCheckIn =
-                booking.getStatus().equals("CONFIRMED") &&
+                occurrence.getStatus().equals("CONFIRMED") &&
                         now.isAfter(earliestCheckIn) &&
                         now.isBefore(latestCheckIn) &&
-                        !booking.getStatus().equals("IN_USE") &&
-                        !booking.getStatus().equals("NO_SHOW");
+                        !occurrence.getStatus().equals("IN_USE") &&
+                        !occurrence.getStatus().equals("NO_SHOW");
 
         if (allowCheckIn) {
 
@@ -1950,44 +2203,21 @@ public class BookingFX extends Application {
             Label countdownLabel = new Label();
             countdownLabel.setStyle("-fx-text-fill: #d9534f; -fx-font-size: 11; -fx-font-weight: bold;");
 
-            LocalDateTime deadline = latestCheckIn;
-
-            final Timeline[] countdownTimer = new Timeline[1];
-
-            countdownTimer[0] = new Timeline(
-                    new KeyFrame(Duration.seconds(1), ev -> {
-
-                        long secondsLeft = java.time.Duration
-                                .between(LocalDateTime.now(), deadline)
-                                .getSeconds();
-
-                        if (secondsLeft <= 0) {
-                            countdownLabel.setText("Check-in window closed");
-
-                            try {
-                                scenario3.RoomStatusManager.getInstance().forceNoShow(
-                                        booking.getBookingId(),
-                                        booking.getRoomId(),
-                                        booking.getUserId()
-                                );
-                            } catch (Exception ex) {
-                                System.out.println("[ERROR] Auto no-show: " + ex.getMessage());
-                            }
-
-                            countdownTimer[0].stop();
-                            showMyBookingsView();
-                            return;
-                        }
-
-                        long mins = secondsLeft / 60;
-                        long secs = secondsLeft % 60;
-                        countdownLabel.setText("⏳ Check-in closes in " + mins + "m " + secs + "s");
-
-                    })
-            );
+            // One shared 1s clock drives every card's countdown; the label
+            // unregisters itself when My Bookings is rebuilt.
+            CheckInCountdownClock.getInstance().register(countdownLabel, latestCheckIn, () -> {
+                try {
+                    scenario3.RoomStatusManager.getInstance().forceNoShow(
+                            booking.getBookingId(),
+                            booking.getRoomId(),
+                            booking.getUserId()
+                    );
+                } catch (Exception ex) {
+                    System.out.println("[ERROR] Auto no-show: " + ex.getMessage());
+                }
 
-            countdownTimer[0].setCycleCount(Animation.INDEFINITE);
-            countdownTimer[0].play();
+                showMyBookingsView();
+            });
 
             // ========================= CHECK-IN BUTTON =========================
             Button checkInBtn = new Button("Check-In");
@@ -2003,7 +2233,7 @@ public class BookingFX extends Application {
 
             checkInBtn.setOnAction(e -> {
                 try {
-                    countdownTimer[0].stop();
+                    CheckInCountdownClock.getInstance().unregister(countdownLabel);
 
                     RoomStatusManager.getInstance().checkIn(
                             booking.getBookingId(),
@@ -2072,21 +2302,30 @@ public class BookingFX extends Application {
         if (c.contains("60")  || c.contains("1 hour")) return 60;
 
         return 0;
-    }// you can reuse same buffer as manager for UI hint
-    private static final int FX_EXTENSION_BUFFER_MINUTES = 10;
+    }
+
+    /** Extension choices offered in the menu; the longest one bounds the availability query. */
+    private static final List<String> EXTENSION_OPTIONS = List.of(
+            "15 minutes",
+            "30 minutes",
+            "45 minutes",
+            "60 minutes (1 hour)",
+            "90 minutes (1.5 hours)",
+            "120 minutes (2 hours)"
+    );
+    private static final long MAX_EXTENSION_OPTION_MINUTES = 120;
 
     private void addExtensionButtonIfEligible(HBox buttonBox, Booking booking) {
 
-        LocalDateTime now  = LocalDateTime.now();
-        LocalDateTime end  = booking.getEndTime();
         String status      = booking.getStatus();
 
-        // Only CONFIRMED / IN_USE and still before (end - buffer)
+        // Only CONFIRMED / IN_USE, still before (end - buffer), and the next slot free
         boolean statusOk =
                 "CONFIRMED".equals(status) || "IN_USE".equals(status);
 
         if (!statusOk) return;
-        if (!now.isBefore(end.minusMinutes(FX_EXTENSION_BUFFER_MINUTES))) {
+        long maxExtension = bookingManager.getMaxExtensionMinutes(booking, MAX_EXTENSION_OPTION_MINUTES);
+        if (maxExtension <= 0) {
             return;
         }
 
@@ -2100,7 +2339,7 @@ public class BookingFX extends Application {
                         "-fx-padding: 6 16;"
         );
         Tooltip.install(extendBtn, new Tooltip(
-                "Extend this booking if the next slot is fully available."));
+                "Extend this booking by up to " + maxExtension + " minutes."));
 
         extendBtn.setOnAction(e -> showExtendPrompt(booking));
 
@@ -2108,24 +2347,27 @@ public class BookingFX extends Application {
     }
     private void showExtendPrompt(Booking booking) {
 
-        // Step 1: ask how much time to add
-        List<String> options = List.of(
-                "15 minutes",
-                "30 minutes",
-                "45 minutes",
-                "60 minutes (1 hour)",
-                "90 minutes (1.5 hours)",
-                "120 minutes (2 hours)"
-        );
+        // Step 1: ask how much time to add – one availability query, only feasible choices
+        long maxExtension = bookingManager.getMaxExtensionMinutes(booking, MAX_EXTENSION_OPTION_MINUTES);
+        List<String> options = new ArrayList<>();
+        for (String option : EXTENSION_OPTIONS) {
+            if (mapChoiceToMinutes(option) <= maxExtension) options.add(option);
+        }
+        if (options.isEmpty()) {
+            showAlert("Extension Unavailable",
+                    "The room is not available right after this booking.");
+            return;
+        }
 
-        ChoiceDialog<String> dialog = new ChoiceDialog<>("30 minutes", options);
+        String defaultChoice = options.contains("30 minutes") ? "30 minutes" : options.get(0);
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(defaultChoice, options);
         dialog.setTitle("Extend Booking");
         dialog.setHeaderText("Extend booking " + booking.getBookingId());
         dialog.setContentText(
                 "How much extra time would you like to add?\n\n" +
                         "• You must request at least 10 minutes before the current end time.\n" +
                         "• Only full 15-minute slots are allowed.\n" +
-                        "• Extension is only possible if the next slot is fully available."
+                        "• The room is free for up to " + maxExtension + " more minutes."
         );
 
         Stage owner = (Stage) mainContent.getScene().getWindow();
@@ -2139,16 +2381,9 @@ public class BookingFX extends Application {
             }
 
             try {
-                // Check availability + calculate extra deposit
-                if (!bookingManager.canExtendBooking(booking, extraMinutes)) {
-                    showAlert("Extension Unavailable",
-                            "The room is not fully available for that extension window.\n" +
-                                    "Try a shorter extension or a different booking.");
-                    return;
-                }
-
+                // Only feasible choices are listed; extendBooking re-checks on confirm
                 double extraDeposit =
-                        bookingManager.calculateExtensionDeposit(currentUserType, extraMinutes);
+                        bookingManager.calculateExtensionDeposit(booking, currentUserType, extraMinutes);
 
                 LocalDateTime newEnd = booking.getEndTime().plusMinutes(extraMinutes);
 
@@ -2265,14 +2500,27 @@ public class BookingFX extends Application {
                     return;
                 }
 
-                bookingManager.editBooking(
-                        booking.getBookingId(),
-                        currentUserEmail,
-                        roomId,
-                        LocalDateTime.of(date, newStart),
-                        LocalDateTime.of(date, newEnd),
-                        purpose
-                );
+                try {
+                    bookingManager.editBooking(
+                            booking.getBookingId(),
+                            currentUserEmail,
+                            roomId,
+                            LocalDateTime.of(date, newStart),
+                            LocalDateTime.of(date, newEnd),
+                            purpose,
+                            currentUserType
+                    );
+                } catch (Exception ex) {
+                    showInlineError(errorLabel, ex.getMessage());
+                    LocalDateTime wantedStart = LocalDateTime.of(date, newStart);
+                    LocalDateTime wantedEnd = LocalDateTime.of(date, newEnd);
+                    if (!bookingManager.isRoomAvailable(roomId, wantedStart, wantedEnd,
+                            currentUserEmail, booking.getBookingId())) {
+                        showUnavailableAlert("Edit Failed", ex.getMessage(), roomId,
+                                wantedStart, wantedEnd, booking.getBookingId());
+                    }
+                    return;
+                }
 
                 // Close modal, refresh list
                 editBookingModal.setVisible(false);
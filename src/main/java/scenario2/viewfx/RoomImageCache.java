@@ -0,0 +1,135 @@
+package scenario2.viewfx;
+
+import javafx.scene.image.Image;
+
+import java.net.URL;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RoomImageCache – Scenario 2 (Room Booking & Payment)
+ * ------------------------------------------------------------------
+ * <p>Shared cache for the room preview images shown on search results and
+ * My Bookings cards.</p>
+ *
+ * <h2>Purpose</h2>
+ * <ul>
+ *     <li>Entries are keyed by image resource + target size, so each room
+ *         picture is decoded once per card size instead of once per render.</li>
+ *     <li>Images are decoded in the background and downsampled at load time
+ *         ({@code requestedWidth}/{@code requestedHeight}), so only the
+ *         displayed pixels are ever kept on the heap.</li>
+ *     <li>The cache is bounded by an estimated decoded size (ARGB, 4 bytes per
+ *         pixel) and evicts least-recently-used entries first.</li>
+ *     <li>Missing resources are remembered so they are not looked up (and
+ *         logged) again on every render.</li>
+ * </ul>
+ */
+public final class RoomImageCache {
+
+    /** Default memory budget for decoded previews. */
+    private static final long DEFAULT_MAX_BYTES = 16L * 1024 * 1024;
+
+    private static RoomImageCache instance;
+
+    private final long maxBytes;
+    private long usedBytes = 0;
+
+    /** Access-ordered map: iteration starts at the least recently used entry. */
+    private final LinkedHashMap<String, Image> images = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> missingResources = new HashSet<>();
+
+    private RoomImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public static synchronized RoomImageCache getInstance() {
+        if (instance == null) {
+            instance = new RoomImageCache(DEFAULT_MAX_BYTES);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the image at {@code resourcePath} decoded at {@code width x height},
+     * or {@code null} if the resource does not exist. The returned image may
+     * still be loading; an {@code ImageView} shows it as soon as it is ready.
+     */
+    public synchronized Image get(String resourcePath, int width, int height) {
+        String key = resourcePath + "@" + width + "x" + height;
+
+        Image cached = images.get(key);
+        if (cached != null && !cached.isError()) {
+            return cached;
+        }
+        if (cached != null) {
+            // Failed background load: forget it so the next render retries
+            remove(key, width, height);
+        }
+
+        if (missingResources.contains(resourcePath)) {
+            return null;
+        }
+
+        URL url = RoomImageCache.class.getResource(resourcePath);
+        if (url == null) {
+            missingResources.add(resourcePath);
+            System.out.println("Room image not found: " + resourcePath);
+            return null;
+        }
+
+        // preserveRatio=false matches the fixed-size card layout; smooth=true, backgroundLoading=true
+        Image image = new Image(url.toExternalForm(), width, height, false, true, true);
+        images.put(key, image);
+        usedBytes += estimateBytes(width, height);
+        evictIfNeeded();
+
+        return image;
+    }
+
+    /** Drops every cached image (e.g. after a theme or resource change). */
+    public synchronized void clear() {
+        images.clear();
+        missingResources.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized int size() {
+        return images.size();
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    // =============================================================
+    // INTERNAL
+    // =============================================================
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Image>> it = images.entrySet().iterator();
+        // Always keep the entry that was just added (the most recent one)
+        while (usedBytes > maxBytes && images.size() > 1 && it.hasNext()) {
+            Map.Entry<String, Image> eldest = it.next();
+            usedBytes -= estimateBytes(eldest.getValue());
+            it.remove();
+        }
+    }
+
+    private void remove(String key, int width, int height) {
+        if (images.remove(key) != null) {
+            usedBytes -= estimateBytes(width, height);
+        }
+    }
+
+    private static long estimateBytes(Image image) {
+        return estimateBytes((int) image.getRequestedWidth(), (int) image.getRequestedHeight());
+    }
+
+    private static long estimateBytes(int width, int height) {
+        return 4L * Math.max(width, 1) * Math.max(height, 1);
+    }
+}
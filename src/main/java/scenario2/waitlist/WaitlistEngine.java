@@ -0,0 +1,481 @@
+package scenario2.waitlist;
+
+import scenario2.controller.BookingManager;
+import shared.model.Booking;
+import shared.model.BookingStatus;
+import shared.model.Room;
+import shared.observer.RepositoryListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * WaitlistEngine – Scenario 2 (Room Booking & Payment)
+ * ---------------------------------------------------------------------------
+ * <p>Lets users wait for a slot instead of re-running the search. A request
+ * names either one room or a set of search constraints (capacity, building,
+ * equipment) plus the wanted interval. When a booking is cancelled or marked
+ * as a no-show (for a series: one occurrence), the engine looks up the
+ * waiting requests that overlap the freed slot and offers it to them in
+ * request order.</p>
+ *
+ * <h2>Matching</h2>
+ * <ul>
+ *     <li>Waiting requests are indexed by start time: one {@link TreeMap} per
+ *         room, plus one for "any room matching my constraints".</li>
+ *     <li>A freed slot {@code [s, e]} only visits requests starting in
+ *         {@code [s − longest request, e]} – never the whole waitlist.</li>
+ *     <li>Candidates are tried oldest first. Each still needs its whole
+ *         interval free ({@link BookingManager#searchAvailableRooms} /
+ *         {@link BookingManager#isRoomAvailable}).</li>
+ * </ul>
+ *
+ * <h2>Offers</h2>
+ * <ul>
+ *     <li>An offer is a slot hold ({@link BookingManager#placeHold}) in the
+ *         waiting user's name, so nobody else can take it while they pay.
+ *         Offer listeners (e.g. BookingFX) are told about it.</li>
+ *     <li>When the user books the slot, the request becomes ASSIGNED.</li>
+ *     <li>If the hold runs out first, the request becomes EXPIRED and the slot
+ *         is offered to the next matching request. A background thread wakes
+ *         up when each offer's hold is due to expire
+ *         ({@link #expireOffers()}).</li>
+ *     <li>The waitlist is kept in memory only.</li>
+ * </ul>
+ *
+ * <h2>Events</h2>
+ * <p>The engine listens to booking change events
+ * ({@link BookingManager#addBookingListener}), so it reacts to
+ * {@code BookingManager.cancelBooking} and to Scenario 3 no-shows
+ * ({@code RoomStatusManager.handleNoShow} → {@code markDepositForfeited})
+ * without either of them knowing about the waitlist.</p>
+ *
+ * <h2>Design Pattern Context</h2>
+ * <ul>
+ *     <li><b>Singleton</b> – one waitlist per application.</li>
+ *     <li><b>Observer</b> – subscribes to booking events, publishes offers.</li>
+ * </ul>
+ */
+public class WaitlistEngine {
+
+    public enum Status {
+        WAITING,
+        OFFERED,
+        ASSIGNED,
+        CANCELLED,
+        /** The offer's hold ran out before the user booked. */
+        EXPIRED
+    }
+
+    /** One user waiting for a room (or any room matching constraints) at an interval. */
+    public static final class Request {
+        private final String requestId;
+        private final long sequence;
+        private final String userId;
+        private final String userType;
+        private final String roomId;        // null = any room matching constraints
+        private final int capacity;
+        private final String building;
+        private final String equipment;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final String purpose;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile Status status = Status.WAITING;
+        private volatile String offeredRoomId;
+        private volatile String holdId;
+
+        private Request(long sequence, String userId, String userType, String roomId,
+                        int capacity, String building, String equipment,
+                        LocalDateTime start, LocalDateTime end, String purpose) {
+            this.requestId = "W" + sequence;
+            this.sequence = sequence;
+            this.userId = userId;
+            this.userType = userType;
+            this.roomId = roomId;
+            this.capacity = capacity;
+            this.building = building;
+            this.equipment = equipment;
+            this.start = start;
+            this.end = end;
+            this.purpose = purpose;
+        }
+
+        public String getRequestId() { return requestId; }
+        public String getUserId() { return userId; }
+        public String getUserType() { return userType; }
+        /** The requested room, or {@code null} for a constraint request. */
+        public String getRoomId() { return roomId; }
+        public int getCapacity() { return capacity; }
+        public String getBuilding() { return building; }
+        public String getEquipment() { return equipment; }
+        public LocalDateTime getStart() { return start; }
+        public LocalDateTime getEnd() { return end; }
+        public String getPurpose() { return purpose; }
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public Status getStatus() { return status; }
+        /** Room held for the user once the request is OFFERED. */
+        public String getOfferedRoomId() { return offeredRoomId; }
+        public String getHoldId() { return holdId; }
+
+        private boolean overlaps(LocalDateTime s, LocalDateTime e) {
+            return !end.isBefore(s) && !start.isAfter(e);
+        }
+    }
+
+    private static WaitlistEngine instance;
+
+    public static synchronized WaitlistEngine getInstance() {
+        if (instance == null) {
+            instance = new WaitlistEngine(BookingManager.getInstance());
+        }
+        return instance;
+    }
+
+    private final BookingManager bookingManager;
+
+    /** Room ID → waiting requests for that room, by start time. */
+    private final Map<String, TreeMap<LocalDateTime, List<Request>>> byRoom = new HashMap<>();
+    /** Waiting constraint requests (any matching room), by start time. */
+    private final TreeMap<LocalDateTime, List<Request>> anyRoom = new TreeMap<>();
+    private final Map<String, Request> byId = new HashMap<>();
+
+    /** Longest waiting interval; bounds how far back an overlap lookup looks. */
+    private Duration longest = Duration.ZERO;
+    private long sequence = 0;
+
+    private final List<Consumer<Request>> offerListeners = new CopyOnWriteArrayList<>();
+
+    /** Wakes up when offered holds are due to expire; created on the first offer. */
+    private ScheduledExecutorService expiryScheduler;
+
+    private final RepositoryListener<Booking> bookingListener = new RepositoryListener<>() {
+        @Override
+        public void onAdded(Booking booking) {
+            markAssigned(booking);
+        }
+
+        @Override
+        public void onUpdated(Booking booking) {
+            if (booking.getStatusEnum().isReleased()) {
+                slotFreed(booking.getRoomId(), booking.getStartTime(), booking.getSeriesEnd());
+                return;
+            }
+            // single no-show occurrences of a series that is still running
+            Duration length = Duration.between(booking.getStartTime(), booking.getEndTime());
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<LocalDateTime, BookingStatus> e : booking.getOccurrenceStatuses().entrySet()) {
+                LocalDateTime end = e.getKey().plus(length);
+                if (e.getValue().isReleased() && end.isAfter(now)) {
+                    slotFreed(booking.getRoomId(), e.getKey(), end);
+                }
+            }
+        }
+    };
+
+    WaitlistEngine(BookingManager bookingManager) {
+        this.bookingManager = bookingManager;
+        bookingManager.addBookingListener(bookingListener);
+    }
+
+    /** Stops listening to booking events and stops the expiry thread (tests). */
+    public void shutdown() {
+        bookingManager.removeBookingListener(bookingListener);
+        synchronized (this) {
+            if (expiryScheduler != null) {
+                expiryScheduler.shutdownNow();
+                expiryScheduler = null;
+            }
+        }
+    }
+
+    public void addOfferListener(Consumer<Request> listener) {
+        offerListeners.add(listener);
+    }
+
+    public void removeOfferListener(Consumer<Request> listener) {
+        offerListeners.remove(listener);
+    }
+
+    // =============================================================
+    // JOIN / LEAVE
+    // =============================================================
+
+    /** Waits for one specific room. */
+    public synchronized Request join(String userId, String userType, String roomId,
+                                     LocalDateTime start, LocalDateTime end,
+                                     String purpose) throws Exception {
+        if (roomId == null || bookingManager.getRoomById(roomId) == null) {
+            throw new Exception("Selected room does not exist.");
+        }
+        return add(userId, userType, roomId, 0, null, null, start, end, purpose);
+    }
+
+    /** Waits for any room matching the same constraints as the search form. */
+    public synchronized Request join(String userId, String userType,
+                                     LocalDateTime start, LocalDateTime end,
+                                     int capacity, String building, String equipment,
+                                     String purpose) throws Exception {
+        return add(userId, userType, null, capacity, building, equipment, start, end, purpose);
+    }
+
+    private Request add(String userId, String userType, String roomId,
+                        int capacity, String building, String equipment,
+                        LocalDateTime start, LocalDateTime end, String purpose) throws Exception {
+        if (userId == null) {
+            throw new IllegalArgumentException("userId is required.");
+        }
+        if (start == null || end == null || !end.isAfter(start)) {
+            throw new Exception("Invalid start/end time.");
+        }
+        if (!end.isAfter(LocalDateTime.now())) {
+            throw new Exception("That time has already passed.");
+        }
+
+        Request r = new Request(++sequence, userId, userType, roomId,
+                capacity, building, equipment, start, end, purpose);
+        byId.put(r.requestId, r);
+        index(r);
+
+        Duration length = Duration.between(start, end);
+        if (length.compareTo(longest) > 0) longest = length;
+
+        System.out.println("[WaitlistEngine] " + r.requestId + " " + userId + " waiting for "
+                + (roomId != null ? "room " + roomId : "any room") + " (" + start + " - " + end + ")");
+        return r;
+    }
+
+    /** Leaves the waitlist; an open offer is given up. */
+    public boolean leave(String requestId) {
+        Request r;
+        synchronized (this) {
+            r = byId.get(requestId);
+            if (r == null || r.status == Status.ASSIGNED || r.status == Status.CANCELLED
+                    || r.status == Status.EXPIRED) return false;
+            unindex(r);
+            r.status = Status.CANCELLED;
+        }
+
+        if (r.holdId != null && bookingManager.releaseHold(r.holdId)) {
+            // the released slot may suit the next person in line
+            slotFreed(r.offeredRoomId, r.start, r.end);
+        }
+        return true;
+    }
+
+    public synchronized Request getRequest(String requestId) {
+        return byId.get(requestId);
+    }
+
+    /** A user's requests, oldest first. */
+    public synchronized List<Request> getRequestsForUser(String userId) {
+        List<Request> result = new ArrayList<>();
+        for (Request r : byId.values()) {
+            if (r.userId.equalsIgnoreCase(userId)) result.add(r);
+        }
+        result.sort(Comparator.comparingLong(r -> r.sequence));
+        return result;
+    }
+
+    public synchronized int getWaitingCount() {
+        int n = 0;
+        for (Request r : byId.values()) {
+            if (r.status == Status.WAITING) n++;
+        }
+        return n;
+    }
+
+    // =============================================================
+    // MATCHING
+    // =============================================================
+
+    /**
+     * Offers a freed slot to the waiting requests that overlap it, oldest
+     * first. Called from booking events; public for callers that free slots
+     * in other ways.
+     */
+    public void slotFreed(String roomId, LocalDateTime start, LocalDateTime end) {
+        if (roomId == null || start == null || end == null) return;
+
+        List<Request> waiting = new ArrayList<>();
+        synchronized (this) {
+            for (Request r : candidates(roomId, start, end)) {
+                if (!r.end.isAfter(LocalDateTime.now())) {
+                    // too late to use – drop it
+                    unindex(r);
+                    r.status = Status.CANCELLED;
+                    continue;
+                }
+                if (fits(r, roomId)) waiting.add(r);
+            }
+        }
+
+        // Holds are placed outside this engine's lock: placeHold takes the
+        // room lock, and booking events reach markAssigned while it is held
+        List<Request> offered = new ArrayList<>();
+        for (Request r : waiting) {
+            String holdId;
+            try {
+                holdId = bookingManager.placeHold(roomId, r.userId, r.start, r.end);
+            } catch (Exception e) {
+                continue;   // still taken for part of the interval
+            }
+            synchronized (this) {
+                if (r.status != Status.WAITING) {
+                    // offered elsewhere or left meanwhile
+                    bookingManager.releaseHold(holdId);
+                    continue;
+                }
+                unindex(r);
+                r.holdId = holdId;
+                r.offeredRoomId = roomId;
+                r.status = Status.OFFERED;
+                offered.add(r);
+                scheduleExpiry(holdId);
+            }
+        }
+
+        for (Request r : offered) {
+            System.out.println("[WaitlistEngine] Offered room " + roomId + " to " + r.userId
+                    + " (" + r.requestId + ")");
+            for (Consumer<Request> l : offerListeners) {
+                try {
+                    l.accept(r);
+                } catch (Exception e) {
+                    System.out.println("[WaitlistEngine] Offer listener failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Expires the offers whose hold has run out and offers each freed slot
+     * to the next matching request. Runs on the expiry thread; public for
+     * callers (and tests) that want to settle expired offers right away.
+     */
+    public void expireOffers() {
+        List<Request> expired = new ArrayList<>();
+        synchronized (this) {
+            for (Request r : byId.values()) {
+                if (r.status == Status.OFFERED && r.holdId != null
+                        && bookingManager.getHoldExpiresAt(r.holdId) < 0) {
+                    r.status = Status.EXPIRED;
+                    r.holdId = null;
+                    expired.add(r);
+                }
+            }
+        }
+
+        expired.sort(Comparator.comparingLong(r -> r.sequence));
+        for (Request r : expired) {
+            System.out.println("[WaitlistEngine] Offer to " + r.userId + " expired (" + r.requestId + ")");
+            slotFreed(r.offeredRoomId, r.start, r.end);
+        }
+    }
+
+    /** Runs {@link #expireOffers()} once the hold is due to run out. */
+    private void scheduleExpiry(String holdId) {
+        long expiresAt = bookingManager.getHoldExpiresAt(holdId);
+        if (expiresAt < 0) return;
+
+        if (expiryScheduler == null) {
+            expiryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread t = new Thread(runnable, "waitlist-offer-expiry");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        long delay = Math.max(0, expiresAt - System.currentTimeMillis());
+        expiryScheduler.schedule(this::expireSafely, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void expireSafely() {
+        try {
+            expireOffers();
+        } catch (Exception e) {
+            System.out.println("[WaitlistEngine] Expiring offers failed: " + e.getMessage());
+        }
+    }
+
+    /** Waiting requests overlapping {@code [start, end]} that could use this room, oldest first. */
+    private List<Request> candidates(String roomId, LocalDateTime start, LocalDateTime end) {
+        List<Request> result = new ArrayList<>();
+        LocalDateTime from = start.minus(longest);
+
+        TreeMap<LocalDateTime, List<Request>> forRoom = byRoom.get(roomId);
+        if (forRoom != null) collect(forRoom, from, start, end, result);
+        collect(anyRoom, from, start, end, result);
+
+        result.sort(Comparator.comparingLong(r -> r.sequence));
+        return result;
+    }
+
+    private static void collect(TreeMap<LocalDateTime, List<Request>> index,
+                                LocalDateTime from, LocalDateTime start, LocalDateTime end,
+                                List<Request> out) {
+        for (List<Request> bucket : index.subMap(from, true, end, true).values()) {
+            for (Request r : bucket) {
+                if (r.overlaps(start, end)) out.add(r);
+            }
+        }
+    }
+
+    /** True if the request's whole interval is free in this room and the room suits it. */
+    private boolean fits(Request r, String roomId) {
+        if (r.roomId != null) {
+            return bookingManager.isRoomAvailable(roomId, r.start, r.end, r.userId);
+        }
+        for (Room room : bookingManager.searchAvailableRooms(r.start, r.end,
+                r.capacity, r.building, r.equipment)) {
+            if (room.getRoomId().equals(roomId)) return true;
+        }
+        return false;
+    }
+
+    /** A new booking by an offered user for their slot completes the request. */
+    private synchronized void markAssigned(Booking booking) {
+        for (Request r : byId.values()) {
+            if (r.status == Status.OFFERED
+                    && r.userId.equalsIgnoreCase(booking.getUserId())
+                    && booking.getRoomId().equals(r.offeredRoomId)
+                    && r.overlaps(booking.getStartTime(), booking.getEndTime())) {
+                r.status = Status.ASSIGNED;
+                r.holdId = null;
+            }
+        }
+    }
+
+    // =============================================================
+    // INDEX
+    // =============================================================
+
+    private void index(Request r) {
+        TreeMap<LocalDateTime, List<Request>> index = r.roomId == null
+                ? anyRoom
+                : byRoom.computeIfAbsent(r.roomId, k -> new TreeMap<>());
+        index.computeIfAbsent(r.start, k -> new ArrayList<>()).add(r);
+    }
+
+    private void unindex(Request r) {
+        TreeMap<LocalDateTime, List<Request>> index = r.roomId == null ? anyRoom : byRoom.get(r.roomId);
+        if (index == null) return;
+
+        List<Request> bucket = index.get(r.start);
+        if (bucket == null) return;
+        bucket.remove(r);
+        if (bucket.isEmpty()) index.remove(r.start);
+        if (index.isEmpty() && r.roomId != null) byRoom.remove(r.roomId);
+    }
+}
@@ -0,0 +1,235 @@
+package scenario3;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OccupancyPollingService – Scenario 3 (Check-In & Usage Monitoring)
+ * ------------------------------------------------------------------
+ * <p>One shared sensor poller for every room that is currently being
+ * watched (e.g. by an admin's <b>Room Occupancy</b> popup).</p>
+ *
+ * <h2>Purpose</h2>
+ * <ul>
+ *     <li>Polls each watched room <b>once per interval</b>, no matter how many
+ *         windows watch it, using a single background scheduler thread.</li>
+ *     <li>Keeps a fixed-size ring buffer of log lines per room, so the sensor
+ *         history never grows without bound.</li>
+ *     <li>Pushes to listeners only when a room's status actually changes.</li>
+ *     <li>Stops polling a room when its last watcher leaves, and the
+ *         scheduler itself when nothing is watched.</li>
+ * </ul>
+ *
+ * <h2>Design Pattern Context</h2>
+ * <ul>
+ *     <li><b>Singleton</b> – one poller per application.</li>
+ *     <li><b>Observer</b> – watchers register a {@link OccupancyListener}.</li>
+ * </ul>
+ *
+ * <h2>Threading</h2>
+ * <p>The scheduler thread only decides when to poll. Each poll – reading the
+ * room's active booking through {@link RoomStatusManager#refreshOccupancy}
+ * and calling the listeners – is handed to the
+ * {@linkplain #setUpdateExecutor(Executor) update executor} (the JavaFX
+ * thread in the app), where the bookings are changed.</p>
+ */
+public class OccupancyPollingService {
+
+    /** Seconds between two sensor pings of the same room. */
+    public static final int POLL_INTERVAL_SECONDS = 30;
+
+    /** Number of log lines kept per room. */
+    public static final int LOG_CAPACITY = 50;
+
+    private static final DateTimeFormatter LOG_FORMAT =
+            DateTimeFormatter.ofPattern("MMM dd, yyyy  hh:mm a");
+
+    /** Receives status changes of a watched room. */
+    public interface OccupancyListener {
+        void onStatusChanged(String roomId, String status, String logLine);
+    }
+
+    private static OccupancyPollingService instance;
+
+    public static synchronized OccupancyPollingService getInstance() {
+        if (instance == null) {
+            instance = new OccupancyPollingService();
+        }
+        return instance;
+    }
+
+    private OccupancyPollingService() { }
+
+    private final Map<String, WatchedRoom> watched = new HashMap<>();
+    private ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> pollTask;
+    private volatile Executor updateExecutor = Runnable::run;
+
+    /** Where polls and listener calls run (default: the calling / poller thread). */
+    public void setUpdateExecutor(Executor updateExecutor) {
+        this.updateExecutor = updateExecutor == null ? Runnable::run : updateExecutor;
+    }
+
+    /** Listeners, last status and log of one watched room. */
+    private static final class WatchedRoom {
+        final List<OccupancyListener> listeners = new CopyOnWriteArrayList<>();
+        final RingLog log = new RingLog(LOG_CAPACITY);
+        String lastStatus = null;
+    }
+
+    // ======================================================
+    // WATCH / UNWATCH
+    // ======================================================
+
+    /**
+     * Starts watching a room and returns its current log (oldest first).
+     * A room watched for the first time is polled right away.
+     */
+    public synchronized List<String> watch(String roomId, OccupancyListener listener) {
+        WatchedRoom room = watched.get(roomId);
+        boolean firstWatcher = room == null;
+        if (firstWatcher) {
+            room = new WatchedRoom();
+            watched.put(roomId, room);
+        }
+        room.listeners.add(listener);
+
+        ensureScheduler();
+        if (firstWatcher) {
+            scheduler.execute(() -> updateExecutor.execute(() -> pollRoom(roomId)));
+        }
+        return room.log.toList();
+    }
+
+    /** Stops delivering updates to {@code listener}. */
+    public synchronized void unwatch(String roomId, OccupancyListener listener) {
+        WatchedRoom room = watched.get(roomId);
+        if (room == null) return;
+
+        room.listeners.remove(listener);
+        if (room.listeners.isEmpty()) {
+            watched.remove(roomId);
+        }
+        if (watched.isEmpty()) {
+            shutdownScheduler();
+        }
+    }
+
+    /** Current log of a room (oldest first); empty if it is not watched. */
+    public synchronized List<String> getLog(String roomId) {
+        WatchedRoom room = watched.get(roomId);
+        return room == null ? new ArrayList<>() : room.log.toList();
+    }
+
+    public synchronized boolean isWatched(String roomId) {
+        return watched.containsKey(roomId);
+    }
+
+    // ======================================================
+    // POLLING
+    // ======================================================
+
+    /** Polls every watched room once (one sensor ping each) on the update executor. */
+    public void pollAll() {
+        List<String> roomIds;
+        synchronized (this) {
+            roomIds = new ArrayList<>(watched.keySet());
+        }
+        updateExecutor.execute(() -> {
+            for (String roomId : roomIds) {
+                pollRoom(roomId);
+            }
+        });
+    }
+
+    private void pollRoom(String roomId) {
+        String status;
+        try {
+            status = RoomStatusManager.getInstance().refreshOccupancy(roomId);
+        } catch (Exception e) {
+            System.out.println("[OccupancyPollingService] Poll failed for " + roomId + ": " + e.getMessage());
+            return;
+        }
+
+        WatchedRoom room;
+        String line;
+        synchronized (this) {
+            room = watched.get(roomId);
+            if (room == null || status.equals(room.lastStatus)) return;   // unwatched or no change
+
+            room.lastStatus = status;
+            line = "[" + LocalDateTime.now().format(LOG_FORMAT) + "] "
+                    + "Sensor ping → Room " + roomId + " status = " + status;
+            room.log.add(line);
+        }
+
+        for (OccupancyListener l : room.listeners) {
+            try {
+                l.onStatusChanged(roomId, status, line);
+            } catch (Exception e) {
+                System.out.println("[OccupancyPollingService] Listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private void ensureScheduler() {
+        if (scheduler != null) return;
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "occupancy-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        pollTask = scheduler.scheduleAtFixedRate(
+                this::pollAll, POLL_INTERVAL_SECONDS, POLL_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void shutdownScheduler() {
+        if (scheduler == null) return;
+        pollTask.cancel(false);
+        scheduler.shutdown();
+        scheduler = null;
+        pollTask = null;
+    }
+
+    // ======================================================
+    // RING BUFFER LOG
+    // ======================================================
+
+    /** Fixed-capacity log: once full, each new line overwrites the oldest. */
+    static final class RingLog {
+        private final String[] lines;
+        private int next = 0;
+        private int size = 0;
+
+        RingLog(int capacity) {
+            lines = new String[capacity];
+        }
+
+        void add(String line) {
+            lines[next] = line;
+            next = (next + 1) % lines.length;
+            if (size < lines.length) size++;
+        }
+
+        /** Lines from oldest to newest. */
+        List<String> toList() {
+            List<String> out = new ArrayList<>(size);
+            int start = (next - size + lines.length) % lines.length;
+            for (int i = 0; i < size; i++) {
+                out.add(lines[(start + i) % lines.length]);
+            }
+            return out;
+        }
+    }
+}
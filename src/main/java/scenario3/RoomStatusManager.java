@@ -4,6 +4,7 @@ import shared.observer.Subject;
 import shared.observer.Observer;
 
 import shared.model.Booking;
+import shared.model.BookingStatus;
 import shared.model.Room;
 import shared.model.RoomRepository;
 import scenario2.controller.BookingManager;
@@ -70,6 +71,9 @@ import java.util.*;
  *     <li>Real-time UI updates</li>
  *     <li>Sensor-triggered room state transitions</li>
  *     <li>Booking-aware occupancy logic (supports multiple overlapping edge cases)</li>
+ *     <li>Recurring bookings are checked in and marked NO_SHOW per occurrence;
+ *         timers, {@link #isNoShow(String, LocalDateTime)} and the series
+ *         record are keyed by {@link BookingManager#occurrenceKey}</li>
  * </ul>
  */
 
@@ -136,6 +140,13 @@ public class RoomStatusManager implements Subject {
         return noShowBookings.contains(bookingId);
     }
 
+    /** Whether the occurrence of a recurring booking starting at {@code occurrenceStart} was a no-show. */
+    public synchronized boolean isNoShow(String bookingId, LocalDateTime occurrenceStart) {
+        if (noShowBookings.contains(BookingManager.occurrenceKey(bookingId, occurrenceStart))) return true;
+        // recorded before a restart
+        return BookingManager.getInstance().getOccurrenceStatus(bookingId, occurrenceStart) == BookingStatus.NO_SHOW;
+    }
+
     // ======================================================
     // CHECK-IN LOGIC
     // ======================================================
@@ -148,14 +159,24 @@ public class RoomStatusManager implements Subject {
         if (!booking.getUserId().equals(userId))
             throw new Exception("You can only check into your own booking.");
 
-        if (!"CONFIRMED".equals(booking.getStatus()))
+        LocalDateTime now = LocalDateTime.now();
+
+        // A series is checked into one occurrence at a time
+        Booking series = booking;
+        if (series.isRecurring()) {
+            booking = BookingManager.getInstance().getOccurrenceNear(
+                    series, now, BookingManager.CHECK_IN_EARLY_MINUTES, NO_SHOW_MINUTES);
+            if (booking == null)
+                throw new Exception("No occurrence of this recurring booking is open for check-in right now.");
+        }
+
+        if (booking.getStatusEnum() != BookingStatus.CONFIRMED)
             throw new Exception("Only CONFIRMED bookings can be checked into.");
 
-        LocalDateTime now = LocalDateTime.now();
         LocalDateTime start = booking.getStartTime();
 
         // Allow check-in from 10 minutes BEFORE start → until start + NO_SHOW_MINUTES
-        LocalDateTime earliestCheckIn = start.minusMinutes(10);
+        LocalDateTime earliestCheckIn = start.minusMinutes(BookingManager.CHECK_IN_EARLY_MINUTES);
         LocalDateTime latestCheckIn   = start.plusMinutes(NO_SHOW_MINUTES);
 
         if (now.isBefore(earliestCheckIn)) {
@@ -170,7 +191,7 @@ public class RoomStatusManager implements Subject {
         // ------------------------
         // UPDATE BOOKING
         // ------------------------
-        BookingManager.getInstance().applyDepositToFinalCost(bookingId);
+        BookingManager.getInstance().applyDepositToFinalCost(bookingId, start);
 
         // ------------------------
         // UPDATE ROOM
@@ -185,11 +206,14 @@ public class RoomStatusManager implements Subject {
         // ------------------------
         // CANCEL NO-SHOW TIMER
         // ------------------------
-        cancelNoShowTimer(bookingId);
-        noShowBookings.remove(bookingId);
+        String key = trackingKey(series, start);
+        cancelNoShowTimer(key);
+        noShowBookings.remove(key);
 
         System.out.println("[RoomStatusManager] CHECK-IN → Booking "
-                + bookingId + " | Room " + roomId + " IN_USE");
+                + key + " | Room " + roomId + " IN_USE");
+
+        if (series.isRecurring()) startOccurrenceCountdown(series, roomId, start.plusMinutes(1));
 
         notifyObservers();
     }
@@ -202,29 +226,61 @@ public class RoomStatusManager implements Subject {
         Booking b = BookingManager.getInstance().getBookingById(bookingId);
         if (b == null) return;
 
+        // A series gets one timer for its next occurrence at a time
+        if (b.isRecurring()) {
+            if (b.getStatusEnum() == BookingStatus.CONFIRMED) startOccurrenceCountdown(b, roomId, bookingStart);
+            return;
+        }
+
         // ❌ Do NOT start timer if user already checked in
-        if ("IN_USE".equals(b.getStatus())) return;
+        if (b.getStatusEnum() == BookingStatus.IN_USE) return;
 
         // ❌ Do NOT start timer if already NO_SHOW
-        if ("NO_SHOW".equals(b.getStatus())) return;
+        if (b.getStatusEnum() == BookingStatus.NO_SHOW) return;
 
         // ❌ Do NOT restart timer if booking start has passed
         if (LocalDateTime.now().isAfter(bookingStart)) return;
 
-        cancelNoShowTimer(bookingId);
+        scheduleNoShow(bookingId, bookingId, roomId, bookingStart, null);
+    }
 
-        LocalDateTime fireTime = bookingStart.plusMinutes(NO_SHOW_MINUTES);
+    /**
+     * Arms the no-show timer of the first occurrence of {@code series} that
+     * starts at or after {@code from}, whose check-in window has not closed
+     * yet and which has not been checked into or marked NO_SHOW.
+     */
+    private synchronized void startOccurrenceCountdown(Booking series, String roomId, LocalDateTime from) {
+        LocalDateTime stillOpen = LocalDateTime.now().minusMinutes(NO_SHOW_MINUTES);
+        if (from == null || from.isBefore(stillOpen)) from = stillOpen;
+
+        BookingManager bm = BookingManager.getInstance();
+        for (Booking occ : series.getOccurrences(from, series.getSeriesEnd())) {
+            LocalDateTime start = occ.getStartTime();
+            if (start.isBefore(from)) continue;
+            if (bm.getOccurrenceStatus(series.getBookingId(), start) != null) continue;
+
+            scheduleNoShow(trackingKey(series, start), series.getBookingId(), roomId, start, start);
+            return;
+        }
+    }
+
+    /** (Re)starts the timer stored under {@code key}; it fires NO_SHOW_MINUTES after {@code start}. */
+    private synchronized void scheduleNoShow(String key, String bookingId, String roomId,
+                                             LocalDateTime start, LocalDateTime occurrenceStart) {
+        cancelNoShowTimer(key);
+
+        LocalDateTime fireTime = start.plusMinutes(NO_SHOW_MINUTES);
         long delayMs = Duration.between(LocalDateTime.now(), fireTime).toMillis();
         if (delayMs < 0) delayMs = 0;
 
         Timer timer = new Timer(true);
         timer.schedule(new TimerTask() {
             @Override public void run() {
-                handleNoShow(bookingId, roomId);
+                handleNoShow(bookingId, roomId, occurrenceStart);
             }
         }, delayMs);
 
-        noShowTimers.put(bookingId, timer);
+        noShowTimers.put(key, timer);
     }
 
 
@@ -232,16 +288,39 @@ public class RoomStatusManager implements Subject {
     // NO-SHOW HANDLER
     // ======================================================
     private synchronized void handleNoShow(String bookingId, String roomId) {
+        handleNoShow(bookingId, roomId, null);
+    }
 
-        noShowTimers.remove(bookingId);
-        noShowBookings.add(bookingId);
+    /**
+     * Marks a booking NO_SHOW. For a recurring booking only the occurrence
+     * starting at {@code occurrenceStart} (the one open for check-in if
+     * {@code null}) is affected, and the next occurrence's timer is armed.
+     */
+    private synchronized void handleNoShow(String bookingId, String roomId, LocalDateTime occurrenceStart) {
+
+        Booking series = findBooking(bookingId);
+        boolean recurring = series != null && series.isRecurring();
+        if (recurring && occurrenceStart == null) {
+            Booking current = currentOccurrence(series);
+            if (current == null) {
+                System.out.println("[RoomStatusManager] NO-SHOW ignored → no open occurrence of series " + bookingId);
+                return;
+            }
+            occurrenceStart = current.getStartTime();
+        }
+        String key = recurring ? trackingKey(series, occurrenceStart) : bookingId;
+
+        noShowTimers.remove(key);
+        noShowBookings.add(key);
 
         roomStatuses.put(roomId, "NO_SHOW");
 
-        BookingManager.getInstance().markDepositForfeited(bookingId);
+        BookingManager.getInstance().markDepositForfeited(bookingId, occurrenceStart);
 
         System.out.println("[RoomStatusManager] NO-SHOW → Booking "
-                + bookingId + " | Room " + roomId);
+                + key + " | Room " + roomId);
+
+        if (recurring) startOccurrenceCountdown(series, roomId, occurrenceStart.plusMinutes(1));
 
         notifyObservers();
     }
@@ -251,15 +330,29 @@ public class RoomStatusManager implements Subject {
     // ======================================================
     public synchronized void registerCheckIn(String bookingId, String roomId) {
 
-        cancelNoShowTimer(bookingId);
-        noShowBookings.remove(bookingId);
+        Booking series = findBooking(bookingId);
+        LocalDateTime occurrenceStart = null;
+        if (series != null && series.isRecurring()) {
+            Booking current = currentOccurrence(series);
+            if (current == null) {
+                System.out.println("[RoomStatusManager] SENSOR CHECK-IN ignored → no open occurrence of series " + bookingId);
+                return;
+            }
+            occurrenceStart = current.getStartTime();
+        }
+        String key = occurrenceStart != null ? trackingKey(series, occurrenceStart) : bookingId;
+
+        cancelNoShowTimer(key);
+        noShowBookings.remove(key);
 
         roomStatuses.put(roomId, "IN_USE");
 
-        BookingManager.getInstance().applyDepositToFinalCost(bookingId);
+        BookingManager.getInstance().applyDepositToFinalCost(bookingId, occurrenceStart);
 
         System.out.println("[RoomStatusManager] SENSOR CHECK-IN → Booking "
-                + bookingId + " | Room " + roomId);
+                + key + " | Room " + roomId);
+
+        if (occurrenceStart != null) startOccurrenceCountdown(series, roomId, occurrenceStart.plusMinutes(1));
 
         notifyObservers();
     }
@@ -269,47 +362,51 @@ public class RoomStatusManager implements Subject {
         notifyObservers();
     }
 
+    /**
+     * Sensor occupancy update. The resulting status is derived from the
+     * room's active booking (see {@link #refreshOccupancy(String)}); the
+     * {@code occupied} flag is kept for existing callers.
+     */
     public synchronized void updateOccupancy(String roomId, boolean occupied) {
+        refreshOccupancy(roomId);
+    }
+
+    /**
+     * Recomputes the live status of a room from its active booking and
+     * returns it. Observers are notified only if the status actually changed,
+     * so periodic sensor polling does not refresh every UI on each ping.
+     */
+    public synchronized String refreshOccupancy(String roomId) {
         LocalDateTime now = LocalDateTime.now();
+        String newStatus;
 
         // 1. Is there an active booking right now?
         Booking active = BookingManager.getInstance().getActiveBookingForRoom(roomId, now);
 
         if (active == null) {
             // No booking → always AVAILABLE
-            roomStatuses.put(roomId, "AVAILABLE");
-            notifyObservers();
-            return;
-        }
-
-        String bookingStatus = active.getStatus();
-
-        // 2. If booking is NO_SHOW → ALWAYS AVAILABLE
-        if ("NO_SHOW".equals(bookingStatus)) {
-            roomStatuses.put(roomId, "AVAILABLE");
-            notifyObservers();
-            return;
+            newStatus = "AVAILABLE";
+        } else if (active.getStatusEnum() == BookingStatus.NO_SHOW) {
+            // 2. If booking is NO_SHOW → ALWAYS AVAILABLE
+            newStatus = "AVAILABLE";
+        } else if (active.getStatusEnum() == BookingStatus.IN_USE) {
+            // 3. If user checked in → IN_USE during booking window ONLY
+            boolean insideWindow =
+                    !now.isBefore(active.getStartTime()) && !now.isAfter(active.getEndTime());
+            newStatus = insideWindow ? "IN_USE" : "AVAILABLE";
+        } else {
+            // 4. Booking exists but user has NOT checked in yet
+            // Room MUST be AVAILABLE during grace/check-in period
+            newStatus = "AVAILABLE";
         }
 
-        // 3. If user checked in → IN_USE during booking window ONLY
-        if ("IN_USE".equals(bookingStatus)) {
-            // Inside booking window → IN_USE
-            if (!now.isBefore(active.getStartTime()) && !now.isAfter(active.getEndTime())) {
-                roomStatuses.put(roomId, "IN_USE");
-            }
-            // Outside booking window → AVAILABLE
-            else {
-                roomStatuses.put(roomId, "AVAILABLE");
-            }
+        String previous = getRoomStatus(roomId);
+        roomStatuses.put(roomId, newStatus);
 
+        if (!newStatus.equals(previous)) {
             notifyObservers();
-            return;
         }
-
-        // 4. Booking exists but user has NOT checked in yet
-        // Room MUST be AVAILABLE during grace/check-in period
-        roomStatuses.put(roomId, "AVAILABLE");
-        notifyObservers();
+        return newStatus;
     }
 
 
@@ -325,6 +422,19 @@ public class RoomStatusManager implements Subject {
         return BookingManager.getInstance().getBookingById(id);
     }
 
+    /** Occurrence of a series whose check-in window is open now, or null. */
+    private Booking currentOccurrence(Booking series) {
+        return BookingManager.getInstance().getOccurrenceNear(
+                series, LocalDateTime.now(), BookingManager.CHECK_IN_EARLY_MINUTES, NO_SHOW_MINUTES);
+    }
+
+    /** Timer / no-show key: the booking ID, or the occurrence key for a series. */
+    private static String trackingKey(Booking booking, LocalDateTime occurrenceStart) {
+        return booking.isRecurring()
+                ? BookingManager.occurrenceKey(booking.getBookingId(), occurrenceStart)
+                : booking.getBookingId();
+    }
+
     public synchronized void forceNoShow(String bookingId, String roomId, String userId) {
         // Unified no-show handler
         handleNoShow(bookingId, roomId);
@@ -0,0 +1,167 @@
+package scenario3.ui;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.beans.value.ChangeListener;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.util.Duration;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CheckInCountdownClock – Scenario 3 (Check-In & Usage Monitoring)
+ * ------------------------------------------------------------------
+ * <p>A single shared UI clock that drives every "Check-in closes in ..."
+ * label shown on the <b>My Bookings</b> screen.</p>
+ *
+ * <h2>Purpose</h2>
+ * <ul>
+ *     <li>Owns exactly one JavaFX {@link Timeline} that ticks once per second,
+ *         no matter how many booking cards are on screen.</li>
+ *     <li>Updates all registered countdown labels on each tick.</li>
+ *     <li>Runs each label's expiry callback (auto no-show) once, when its
+ *         check-in deadline passes.</li>
+ * </ul>
+ *
+ * <h2>Lifecycle</h2>
+ * <ul>
+ *     <li>Labels are registered with {@link #register(Label, LocalDateTime, Runnable)}.</li>
+ *     <li>A label is unregistered automatically when it leaves the scene graph
+ *         (its {@code sceneProperty} goes back to {@code null}), e.g. when
+ *         My Bookings is rebuilt or the user navigates away.</li>
+ *     <li>The timeline stops when nothing is registered and restarts on the
+ *         next registration, so an idle screen costs nothing.</li>
+ * </ul>
+ *
+ * <h2>Threading</h2>
+ * <p>All methods must be called on the JavaFX Application Thread.</p>
+ */
+public final class CheckInCountdownClock {
+
+    private static CheckInCountdownClock instance;
+
+    private final Map<Label, Entry> entries = new LinkedHashMap<>();
+    private final Timeline ticker;
+
+    /** Deadline + callback + scene listener for one registered label. */
+    private static final class Entry {
+        final LocalDateTime deadline;
+        final Runnable onExpired;
+        ChangeListener<Scene> sceneListener;
+
+        Entry(LocalDateTime deadline, Runnable onExpired) {
+            this.deadline = deadline;
+            this.onExpired = onExpired;
+        }
+    }
+
+    private CheckInCountdownClock() {
+        ticker = new Timeline(new KeyFrame(Duration.seconds(1), e -> tick()));
+        ticker.setCycleCount(Animation.INDEFINITE);
+    }
+
+    public static synchronized CheckInCountdownClock getInstance() {
+        if (instance == null) {
+            instance = new CheckInCountdownClock();
+        }
+        return instance;
+    }
+
+    // =============================================================
+    // REGISTRATION
+    // =============================================================
+
+    /**
+     * Registers a countdown label. The label text is refreshed every second
+     * until {@code deadline}; after that it reads "Check-in window closed"
+     * and {@code onExpired} is run once.
+     */
+    public void register(Label label, LocalDateTime deadline, Runnable onExpired) {
+        unregister(label);
+
+        Entry entry = new Entry(deadline, onExpired);
+        entry.sceneListener = (obs, oldScene, newScene) -> {
+            // Only a detach counts: cards are built before they are attached.
+            if (oldScene != null && newScene == null) {
+                unregister(label);
+            }
+        };
+        label.sceneProperty().addListener(entry.sceneListener);
+        entries.put(label, entry);
+
+        render(label, secondsLeft(entry, LocalDateTime.now()));
+
+        if (ticker.getStatus() != Animation.Status.RUNNING) {
+            ticker.play();
+        }
+    }
+
+    /**
+     * Stops updating the given label (e.g. after a successful check-in).
+     */
+    public void unregister(Label label) {
+        Entry entry = entries.remove(label);
+        if (entry != null) {
+            label.sceneProperty().removeListener(entry.sceneListener);
+        }
+        if (entries.isEmpty()) {
+            ticker.stop();
+        }
+    }
+
+    /** Number of labels currently driven by the clock. */
+    public int getRegisteredCount() {
+        return entries.size();
+    }
+
+    // =============================================================
+    // TICK
+    // =============================================================
+
+    private void tick() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Map.Entry<Label, Entry>> expired = new ArrayList<>();
+
+        for (Map.Entry<Label, Entry> e : entries.entrySet()) {
+            long secondsLeft = secondsLeft(e.getValue(), now);
+            if (secondsLeft <= 0) {
+                expired.add(e);
+            } else {
+                render(e.getKey(), secondsLeft);
+            }
+        }
+
+        // Callbacks may rebuild the view (and detach other labels),
+        // so they run only after the iteration is finished.
+        for (Map.Entry<Label, Entry> e : expired) {
+            Label label = e.getKey();
+            unregister(label);
+            render(label, 0);
+            try {
+                e.getValue().onExpired.run();
+            } catch (Exception ex) {
+                System.out.println("[CheckInCountdownClock] Expiry callback failed: " + ex.getMessage());
+            }
+        }
+    }
+
+    private static long secondsLeft(Entry entry, LocalDateTime now) {
+        return java.time.Duration.between(now, entry.deadline).getSeconds();
+    }
+
+    private static void render(Label label, long secondsLeft) {
+        if (secondsLeft <= 0) {
+            label.setText("Check-in window closed");
+            return;
+        }
+        long mins = secondsLeft / 60;
+        long secs = secondsLeft % 60;
+        label.setText("⏳ Check-in closes in " + mins + "m " + secs + "s");
+    }
+}
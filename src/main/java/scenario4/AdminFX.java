@@ -3,11 +3,14 @@ package scenario4;
 import javafx.animation.*;
 import javafx.application.Application;
 import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
 import javafx.geometry.*;
 import javafx.scene.*;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.effect.GaussianBlur;
 import javafx.scene.input.*;
 import javafx.scene.layout.*;
@@ -26,6 +29,7 @@ import shared.model.*;
 import shared.util.CSVHelper;
 import scenario4.components.RoomDetailsPopup;
 import scenario4.components.RoomOccupancyPopup;
+import scenario4.viewmodel.RoomViewModel;
 
 /**
  * AdminFX – Scenario 4 (Admin Panel Application Entry Point)
@@ -470,24 +474,15 @@ public class AdminFX extends Application {
         Map<String, Room> rooms = repo.getAllRooms();
 
         // ---------- METRICS ----------
-        int totalRooms = rooms.size();
-        int active = 0, disabled = 0, maint = 0;
+        // Counters are maintained incrementally from repository events
+        DashboardStatsService.Snapshot stats = DashboardStatsService.getInstance().snapshot();
 
-        Map<String, Integer> buildingCapacity = new LinkedHashMap<>();
+        int totalRooms = stats.getTotalRooms();
+        int active = stats.getActiveRooms();
+        int disabled = stats.getDisabledRooms();
+        int maint = stats.getMaintenanceRooms();
 
-        for (Room r : rooms.values()) {
-            String st = (r.getStatus() == null ? "" : r.getStatus()).toUpperCase();
-
-            if (st.contains("DIS")) disabled++;
-            else if (st.contains("MAINT")) maint++;
-            else active++;
-
-            buildingCapacity.merge(
-                    (r.getBuilding() == null || r.getBuilding().isBlank()) ? "Other" : r.getBuilding(),
-                    r.getCapacity(),
-                    Integer::sum
-            );
-        }
+        Map<String, Integer> buildingCapacity = stats.getCapacityByBuilding();
 
         int totalAdmins = userManager.getAdminAccounts().size();
         int systemLoad = new Random().nextInt(55) + 10;
@@ -505,7 +500,7 @@ public class AdminFX extends Application {
         //  BOOKINGS TREND (Last 14 Days)
         // ============================================================
 
-        LineChart<String, Number> trend = buildBookingsTrendChart();
+        LineChart<String, Number> trend = buildBookingsTrendChart(stats);
 
         // 🔥 FIX: force chart height so it doesn't collapse
         trend.setMinHeight(260);
@@ -630,7 +625,7 @@ public class AdminFX extends Application {
     // ============================================================
 //  BOOKINGS TREND CHART (Last 14 Days)
 // ============================================================
-    private LineChart<String, Number> buildBookingsTrendChart() {
+    private LineChart<String, Number> buildBookingsTrendChart(DashboardStatsService.Snapshot stats) {
 
         // X axis (dates)
         CategoryAxis x = new CategoryAxis();
@@ -649,32 +644,11 @@ public class AdminFX extends Application {
         // Build empty series
         XYChart.Series<String, Number> series = new XYChart.Series<>();
 
-        // Collect bookings (from Booking CSV)
-        // Collect bookings (from Booking CSV safely)
-        List<Booking> all;
-        try {
-            all = CSVHelper.loadBookings("data/bookings.csv");
-        } catch (Exception ex) {
-            all = new ArrayList<>();
-            System.out.println("[WARN] Failed to load bookings CSV: " + ex.getMessage());
-        }
-
-
-        // Count bookings per day for last 14 days
+        // Bookings per day for the last 14 days (kept in memory by the stats service)
         Map<String, Integer> counts = new LinkedHashMap<>();
-
-        LocalDateTime now = LocalDateTime.now();
-
-        for (int i = 13; i >= 0; i--) {
-            String d = now.minusDays(i).format(DateTimeFormatter.ofPattern("MMM d"));
-            counts.put(d, 0);
-        }
-
-        for (Booking b : all) {
-            String d = b.getStartTime().format(DateTimeFormatter.ofPattern("MMM d"));
-            if (counts.containsKey(d)) {
-                counts.put(d, counts.get(d) + 1);
-            }
+        DateTimeFormatter dayFmt = DateTimeFormatter.ofPattern("MMM d");
+        for (var e : stats.getBookingsPerDay().entrySet()) {
+            counts.put(e.getKey().format(dayFmt), e.getValue());
         }
 
         // Add to line series
@@ -971,25 +945,25 @@ public class AdminFX extends Application {
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
 
         TableColumn<Room,String> idCol = new TableColumn<>("Room ID");
-        idCol.setCellValueFactory(new PropertyValueFactory<>("roomId"));
+        idCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).roomIdProperty());
 
         TableColumn<Room,String> nameCol = new TableColumn<>("Room Name");
-        nameCol.setCellValueFactory(new PropertyValueFactory<>("roomName"));
+        nameCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).roomNameProperty());
 
         TableColumn<Room,Integer> capCol = new TableColumn<>("Capacity");
-        capCol.setCellValueFactory(c -> c.getValue().capacityProperty().asObject());
+        capCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).capacityProperty().asObject());
 
         TableColumn<Room,String> locCol = new TableColumn<>("Location");
-        locCol.setCellValueFactory(new PropertyValueFactory<>("location"));
+        locCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).locationProperty());
 
         TableColumn<Room,String> amenCol = new TableColumn<>("Amenities");
-        amenCol.setCellValueFactory(new PropertyValueFactory<>("amenities"));
+        amenCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).amenitiesProperty());
 
         TableColumn<Room,String> buildCol = new TableColumn<>("Building");
-        buildCol.setCellValueFactory(new PropertyValueFactory<>("building"));
+        buildCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).buildingProperty());
 
         TableColumn<Room,String> statusCol = new TableColumn<>("Status");
-        statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).statusProperty());
         applyStatusPillCellFactory(statusCol);
 
         table.getColumns().addAll(
@@ -1004,56 +978,41 @@ public class AdminFX extends Application {
             }
         });
 
-        // Filtering logic
-        Runnable refresh = () -> {
-
-            table.getItems().clear();
-
-            String q = search.getText().toLowerCase().trim();
-            String f = filter.getValue();
+        // Filtering logic: the table shows a sorted, filtered view over one
+        // observable copy of the catalog, so typing only swaps the predicate.
+        ObservableList<Room> rooms = FXCollections.observableArrayList(repo.getAllRooms().values());
+        FilteredList<Room> filtered = new FilteredList<>(rooms);
+        SortedList<Room> sorted = new SortedList<>(filtered);
+        sorted.comparatorProperty().bind(table.comparatorProperty());
+        table.setItems(sorted);
 
-            for (Room r : repo.getAllRooms().values()) {
+        RoomTableFilter roomFilter = new RoomTableFilter(filtered);
+        Runnable refresh = () -> roomFilter.apply(search.getText(), filter.getValue());
 
-                String st = (r.getStatus() == null ? "" : r.getStatus()).toUpperCase();
-
-                boolean matchFilter =
-                        switch (f) {
-                            case "Active" -> !st.contains("DIS") && !st.contains("MAINT");
-                            case "Disabled" -> st.contains("DIS");
-                            case "Maintenance" -> st.contains("MAINT");
-                            default -> true;
-                        };
-
-                boolean matchText =
-                        r.getRoomId().toLowerCase().contains(q) ||
-                                r.getRoomName().toLowerCase().contains(q) ||
-                                r.getLocation().toLowerCase().contains(q) ||
-                                (r.getBuilding() != null && r.getBuilding().toLowerCase().contains(q)) ||
-                                st.toLowerCase().contains(q);
-
-                if (matchFilter && matchText) table.getItems().add(r);
-            }
-        };
+        // Debounce typing: re-filter once the user pauses, not per keystroke
+        PauseTransition searchDebounce = new PauseTransition(Duration.millis(150));
+        searchDebounce.setOnFinished(e -> refresh.run());
 
         refresh.run();
-        search.textProperty().addListener((o,a,b)-> refresh.run());
+        search.textProperty().addListener((o,a,b)-> searchDebounce.playFromStart());
         filter.setOnAction(e -> refresh.run());
 
         // Buttons
         Button enable = pillBtn("Enable", "#16a34a");
-        enable.setOnAction(e -> updateStatus(table, repo, "ENABLED"));
+        enable.setOnAction(e -> { updateStatus(table, repo, "ENABLED"); roomFilter.invalidate(); });
 
         Button disable = pillBtn("Disable", "#f97316");
-        disable.setOnAction(e -> updateStatus(table, repo, "DISABLED"));
+        disable.setOnAction(e -> { updateStatus(table, repo, "DISABLED"); roomFilter.invalidate(); });
 
         Button maint = pillBtn("Maintenance", "#fbbf24");
-        maint.setOnAction(e -> updateStatus(table, repo, "MAINTENANCE"));
+        maint.setOnAction(e -> { updateStatus(table, repo, "MAINTENANCE"); roomFilter.invalidate(); });
 
         Button edit = pillBtn("Edit", "#2563eb");
         edit.setOnAction(e -> {
             Room r = table.getSelectionModel().getSelectedItem();
             if (r == null) { alertWarning("Select a room first."); return; }
             openEditRoomDialog(r, repo, table);
+            roomFilter.invalidate();
         });
 
         Button del = pillBtn("Delete", YORK_RED);
@@ -1072,7 +1031,7 @@ public class AdminFX extends Application {
             conf.showAndWait().ifPresent(btn -> {
                 if (btn == ButtonType.OK) {
                     repo.deleteRoom(r.getRoomId());
-                    table.getItems().remove(r);
+                    rooms.remove(r);
                     alertSuccess("Room deleted.");
                 }
             });
@@ -1102,6 +1061,66 @@ public class AdminFX extends Application {
     }
 
 
+    // ----------- Manage Rooms filter ----------------
+
+    /**
+     * Drives the Manage Rooms {@link FilteredList}. Matching uses each room's
+     * precomputed {@link Room#getSearchKey()}; when the query only grows (the
+     * user keeps typing) and the status filter is unchanged, only the rows
+     * that matched the previous query are re-tested.
+     */
+    private static final class RoomTableFilter {
+
+        private final FilteredList<Room> filtered;
+        private String lastQuery = null;
+        private String lastStatusFilter = null;
+
+        RoomTableFilter(FilteredList<Room> filtered) {
+            this.filtered = filtered;
+        }
+
+        void apply(String rawQuery, String statusFilter) {
+            String q = rawQuery == null ? "" : rawQuery.toLowerCase().trim();
+            String f = statusFilter == null ? "All" : statusFilter;
+
+            boolean narrowing = lastQuery != null
+                    && f.equals(lastStatusFilter)
+                    && q.startsWith(lastQuery);
+
+            if (narrowing && q.equals(lastQuery)) return;
+
+            Set<Room> candidates = null;
+            if (narrowing) {
+                candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+                candidates.addAll(filtered);
+            }
+            final Set<Room> previous = candidates;
+
+            filtered.setPredicate(r ->
+                    (previous == null || previous.contains(r))
+                            && matchesStatus(r, f)
+                            && r.getSearchKey().contains(q));
+
+            lastQuery = q;
+            lastStatusFilter = f;
+        }
+
+        /** Forces the next {@link #apply} to re-test every room (after edits). */
+        void invalidate() {
+            lastQuery = null;
+        }
+
+        private static boolean matchesStatus(Room r, String f) {
+            String st = (r.getStatus() == null ? "" : r.getStatus()).toUpperCase();
+            return switch (f) {
+                case "Active" -> !st.contains("DIS") && !st.contains("MAINT");
+                case "Disabled" -> st.contains("DIS");
+                case "Maintenance" -> st.contains("MAINT");
+                default -> true;
+            };
+        }
+    }
+
     // ----------- Status Pill Cell Factory ----------------
 
     private void applyStatusPillCellFactory(TableColumn<Room,String> col) {
@@ -0,0 +1,274 @@
+package scenario4;
+
+import shared.model.Booking;
+import shared.model.BookingRepository;
+import shared.model.Room;
+import shared.model.RoomRepository;
+import shared.observer.RepositoryListener;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * DashboardStatsService – Scenario 4 (Admin Dashboard Analytics)
+ * ------------------------------------------------------------------------
+ * <p>Keeps the numbers behind the admin dashboard as rolling counters so the
+ * dashboard can be drawn from a ready-made {@link Snapshot} instead of
+ * rescanning every room and re-reading {@code bookings.csv}.</p>
+ *
+ * <h2>Counters</h2>
+ * <ul>
+ *     <li>Rooms per status class (active / disabled / maintenance)</li>
+ *     <li>Total capacity per building</li>
+ *     <li>Bookings per day (by start date)</li>
+ * </ul>
+ *
+ * <h2>How It Stays Current</h2>
+ * <ul>
+ *     <li>Seeded once from {@link RoomRepository} and {@link BookingRepository}.</li>
+ *     <li>Afterwards updated from their {@link RepositoryListener} events; each
+ *         event adjusts only the counters the changed item contributes to.</li>
+ *     <li>The last contribution of every room / booking is remembered, so an
+ *         in-place edit is applied as "remove old contribution, add new".</li>
+ *     <li>If a repository singleton is replaced (tests), the service re-attaches
+ *         and re-seeds on the next {@link #getInstance()}.</li>
+ * </ul>
+ *
+ * <h2>Design Pattern Context</h2>
+ * <ul>
+ *     <li><b>Singleton</b> – one set of counters shared by all dashboard views.</li>
+ *     <li><b>Observer</b> – subscribes to repository change events.</li>
+ * </ul>
+ */
+public class DashboardStatsService {
+
+    /** Number of days shown by the bookings trend chart. */
+    public static final int TREND_DAYS = 14;
+
+    private static final int ACTIVE = 0;
+    private static final int DISABLED = 1;
+    private static final int MAINTENANCE = 2;
+
+    private static DashboardStatsService instance;
+
+    private RoomRepository roomRepo;
+    private BookingRepository bookingRepo;
+
+    // ---------- Room counters ----------
+    private final int[] roomsByStatus = new int[3];
+    private final Map<String, Integer> capacityByBuilding = new TreeMap<>();
+    private final Map<String, Integer> roomsPerBuilding = new HashMap<>();
+    /** Last contribution of each room, keyed by room ID. */
+    private final Map<String, RoomContribution> roomContributions = new HashMap<>();
+
+    // ---------- Booking counters ----------
+    private final Map<LocalDate, Integer> bookingsPerDay = new HashMap<>();
+    /** Last counted start date of each booking (identity: IDs are not guaranteed unique). */
+    private final Map<Booking, LocalDate> bookingDays = new IdentityHashMap<>();
+
+    // ---------- Snapshot cache ----------
+    private long version = 0;
+    private long snapshotVersion = -1;
+    private LocalDate snapshotDay = null;
+    private Snapshot snapshot = null;
+
+    private final RepositoryListener<Room> roomListener = new RepositoryListener<>() {
+        @Override public void onAdded(Room room)   { roomChanged(room); }
+        @Override public void onUpdated(Room room) { roomChanged(room); }
+        @Override public void onRemoved(Room room) { roomRemoved(room); }
+    };
+
+    private final RepositoryListener<Booking> bookingListener = new RepositoryListener<>() {
+        @Override public void onAdded(Booking b)   { bookingChanged(b); }
+        @Override public void onUpdated(Booking b) { bookingChanged(b); }
+        @Override public void onRemoved(Booking b) { bookingRemoved(b); }
+    };
+
+    private DashboardStatsService() { }
+
+    public static synchronized DashboardStatsService getInstance() {
+        if (instance == null) {
+            instance = new DashboardStatsService();
+        }
+        instance.ensureAttached();
+        return instance;
+    }
+
+    // =============================================================
+    // SNAPSHOT
+    // =============================================================
+
+    /**
+     * Returns the current dashboard numbers. The snapshot is rebuilt only when
+     * a counter changed or the day rolled over; otherwise the cached one is
+     * returned as-is.
+     */
+    public synchronized Snapshot snapshot() {
+        LocalDate today = LocalDate.now();
+        if (snapshot != null && snapshotVersion == version && today.equals(snapshotDay)) {
+            return snapshot;
+        }
+
+        Map<LocalDate, Integer> trend = new LinkedHashMap<>();
+        for (int i = TREND_DAYS - 1; i >= 0; i--) {
+            LocalDate d = today.minusDays(i);
+            trend.put(d, bookingsPerDay.getOrDefault(d, 0));
+        }
+
+        snapshot = new Snapshot(
+                roomContributions.size(),
+                roomsByStatus[ACTIVE],
+                roomsByStatus[DISABLED],
+                roomsByStatus[MAINTENANCE],
+                new LinkedHashMap<>(capacityByBuilding),
+                trend
+        );
+        snapshotVersion = version;
+        snapshotDay = today;
+        return snapshot;
+    }
+
+    /** Immutable view of the dashboard counters at one point in time. */
+    public static final class Snapshot {
+        private final int totalRooms;
+        private final int activeRooms;
+        private final int disabledRooms;
+        private final int maintenanceRooms;
+        private final Map<String, Integer> capacityByBuilding;
+        private final Map<LocalDate, Integer> bookingsPerDay;
+
+        private Snapshot(int totalRooms, int activeRooms, int disabledRooms, int maintenanceRooms,
+                         Map<String, Integer> capacityByBuilding,
+                         Map<LocalDate, Integer> bookingsPerDay) {
+            this.totalRooms = totalRooms;
+            this.activeRooms = activeRooms;
+            this.disabledRooms = disabledRooms;
+            this.maintenanceRooms = maintenanceRooms;
+            this.capacityByBuilding = Collections.unmodifiableMap(capacityByBuilding);
+            this.bookingsPerDay = Collections.unmodifiableMap(bookingsPerDay);
+        }
+
+        public int getTotalRooms() { return totalRooms; }
+        public int getActiveRooms() { return activeRooms; }
+        public int getDisabledRooms() { return disabledRooms; }
+        public int getMaintenanceRooms() { return maintenanceRooms; }
+
+        /** Total capacity per building, sorted by building name. */
+        public Map<String, Integer> getCapacityByBuilding() { return capacityByBuilding; }
+
+        /** Bookings per day for the last {@link #TREND_DAYS} days, oldest first. */
+        public Map<LocalDate, Integer> getBookingsPerDay() { return bookingsPerDay; }
+    }
+
+    // =============================================================
+    // ATTACH / SEED
+    // =============================================================
+
+    private synchronized void ensureAttached() {
+        RoomRepository currentRooms = RoomRepository.getInstance();
+        if (currentRooms != roomRepo) {
+            if (roomRepo != null) roomRepo.removeListener(roomListener);
+            roomRepo = currentRooms;
+            roomContributions.clear();
+            capacityByBuilding.clear();
+            roomsPerBuilding.clear();
+            Arrays.fill(roomsByStatus, 0);
+            for (Room r : roomRepo.getAllRooms().values()) roomChanged(r);
+            roomRepo.addListener(roomListener);
+        }
+
+        BookingRepository currentBookings = BookingRepository.getInstance();
+        if (currentBookings != bookingRepo) {
+            if (bookingRepo != null) bookingRepo.removeListener(bookingListener);
+            bookingRepo = currentBookings;
+            bookingDays.clear();
+            bookingsPerDay.clear();
+            for (Booking b : bookingRepo.snapshot()) bookingChanged(b);
+            bookingRepo.addListener(bookingListener);
+        }
+    }
+
+    // =============================================================
+    // ROOM EVENTS
+    // =============================================================
+
+    private static final class RoomContribution {
+        final int statusClass;
+        final String building;
+        final int capacity;
+
+        RoomContribution(Room r) {
+            String st = (r.getStatus() == null ? "" : r.getStatus()).toUpperCase();
+            if (st.contains("DIS")) statusClass = DISABLED;
+            else if (st.contains("MAINT")) statusClass = MAINTENANCE;
+            else statusClass = ACTIVE;
+
+            building = (r.getBuilding() == null || r.getBuilding().isBlank()) ? "Other" : r.getBuilding();
+            capacity = r.getCapacity();
+        }
+    }
+
+    private synchronized void roomChanged(Room room) {
+        RoomContribution old = roomContributions.remove(room.getRoomId());
+        if (old != null) subtract(old);
+
+        RoomContribution now = new RoomContribution(room);
+        roomContributions.put(room.getRoomId(), now);
+        roomsByStatus[now.statusClass]++;
+        capacityByBuilding.merge(now.building, now.capacity, Integer::sum);
+        roomsPerBuilding.merge(now.building, 1, Integer::sum);
+        version++;
+    }
+
+    private synchronized void roomRemoved(Room room) {
+        RoomContribution old = roomContributions.remove(room.getRoomId());
+        if (old != null) {
+            subtract(old);
+            version++;
+        }
+    }
+
+    private void subtract(RoomContribution c) {
+        roomsByStatus[c.statusClass]--;
+        // A building stays listed while it still has rooms, even at capacity 0
+        if (roomsPerBuilding.merge(c.building, -1, Integer::sum) <= 0) {
+            roomsPerBuilding.remove(c.building);
+            capacityByBuilding.remove(c.building);
+        } else {
+            capacityByBuilding.merge(c.building, -c.capacity, Integer::sum);
+        }
+    }
+
+    // =============================================================
+    // BOOKING EVENTS
+    // =============================================================
+
+    private synchronized void bookingChanged(Booking b) {
+        LocalDate day = b.getStartTime() == null ? null : b.getStartTime().toLocalDate();
+        LocalDate old = bookingDays.get(b);
+        if (bookingDays.containsKey(b) && Objects.equals(old, day)) return;
+
+        if (old != null) decrementDay(old);
+        bookingDays.put(b, day);
+        if (day != null) bookingsPerDay.merge(day, 1, Integer::sum);
+        version++;
+    }
+
+    private synchronized void bookingRemoved(Booking b) {
+        if (!bookingDays.containsKey(b)) return;
+        LocalDate old = bookingDays.remove(b);
+        if (old != null) decrementDay(old);
+        version++;
+    }
+
+    private void decrementDay(LocalDate day) {
+        bookingsPerDay.computeIfPresent(day, (d, n) -> n > 1 ? n - 1 : null);
+    }
+}
@@ -1,7 +1,6 @@
 package scenario4.components;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -11,11 +10,10 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.stage.Window;
-import javafx.util.Duration;
 
 import shared.model.Booking;
 import shared.model.BookingRepository;
-import scenario3.RoomStatusManager;
+import scenario3.OccupancyPollingService;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -40,7 +38,7 @@ import java.util.List;
  *     <li>Modal popup that inherits owner window (AdminFX)</li>
  *     <li>Table of filtered bookings (only current + future)</li>
  *     <li>A simulated sensor system that periodically updates status</li>
- *     <li>Log history showing every sensor ping</li>
+ *     <li>Log history of status changes (bounded, shared per room)</li>
  *     <li>Back button restores AdminFX fullscreen state</li>
  * </ul>
  *
@@ -54,7 +52,8 @@ import java.util.List;
  * <h2>Notes</h2>
  * <ul>
  *     <li>This popup does not modify any booking or room data.</li>
- *     <li>Sensor values are simulated every 30 seconds for demonstration.</li>
+ *     <li>Sensor values are polled every 30 seconds by the shared
+ *         {@link OccupancyPollingService}; the popup only subscribes.</li>
  *     <li>Used exclusively in the Admin dashboard (Scenario 4).</li>
  * </ul>
  */
@@ -62,8 +61,6 @@ import java.util.List;
 
 public class RoomOccupancyPopup {
 
-    private static Timeline sensorTimeline;
-
     // Nice date formatting: "Nov 21, 2025 09:00 AM"
     private static final DateTimeFormatter NICE_FORMAT =
             DateTimeFormatter.ofPattern("MMM dd, yyyy  hh:mm a");
@@ -161,23 +158,17 @@ public class RoomOccupancyPopup {
         ListView<String> logView = new ListView<>();
         logView.setPrefHeight(180);
 
-        /**
-         * Starts a recurring 30-second timeline that simulates automated
-         * occupancy sensor pings for the given room.
-         *
-         * <p>Each cycle triggers a sensor event, updates the RoomStatusManager,
-         * and appends a descriptive log entry to the ListView.</p>
-         *
-         * @param roomId  the room being monitored
-         * @param logView the UI list where sensor logs appear
-         */
-
-        startSensorSimulation(roomId, logView);
-
-        popup.setOnCloseRequest(e -> {
-            if (sensorTimeline != null)
-                sensorTimeline.stop();
-        });
+        // Subscribe to the shared poller: it pings the room once per interval
+        // for all open popups and pushes a line only when the status changes.
+        // Polls run on the FX thread, next to the UI's own booking changes.
+        OccupancyPollingService.getInstance().setUpdateExecutor(Platform::runLater);
+        OccupancyPollingService.OccupancyListener listener =
+                (id, status, line) -> appendLogLine(logView, line);
+
+        logView.getItems().setAll(OccupancyPollingService.getInstance().watch(roomId, listener));
+
+        // onHidden also covers popup.close() from the Back button
+        popup.setOnHidden(e -> OccupancyPollingService.getInstance().unwatch(roomId, listener));
 
         // ======================================================
         // PAGE LAYOUT
@@ -191,70 +182,17 @@ public class RoomOccupancyPopup {
     }
 
     // =====================================================
-    // 30-SECOND SENSOR LOG UPDATER
+    // SENSOR LOG
     // =====================================================
-    private static void startSensorSimulation(String roomId, ListView<String> logView) {
 
-        if (sensorTimeline != null)
-            sensorTimeline.stop();
-
-        sensorTimeline = new Timeline(
-                new KeyFrame(Duration.ZERO, e -> appendSensorTick(roomId, logView)),
-                new KeyFrame(Duration.seconds(30))
-        );
-
-        sensorTimeline.setCycleCount(Timeline.INDEFINITE);
-        sensorTimeline.play();
-    }
+    /** Appends a pushed log line, keeping the list as short as the service's ring buffer. */
+    private static void appendLogLine(ListView<String> logView, String line) {
+        logView.getItems().add(line);
 
-    /**
-     * Performs a single sensor tick:
-     *
-     * <ul>
-     *     <li>Checks for an active booking at the current time</li>
-     *     <li>Updates room occupancy according to booking + check-in status</li>
-     *     <li>Requests RoomStatusManager to refresh room state</li>
-     *     <li>Appends a timestamped sensor log entry</li>
-     * </ul>
-     *
-     * <p>This is invoked every 30 seconds by the Timeline started in
-     * {@link #startSensorSimulation(String, ListView)}.</p>
-     *
-     * @param roomId  the room being updated
-     * @param logView the ListView containing sensor history
-     */
-
-    private static void appendSensorTick(String roomId, ListView<String> logView) {
-
-        RoomStatusManager statusManager = RoomStatusManager.getInstance();
-        LocalDateTime now = LocalDateTime.now();
-
-        // Check if there is an active booking
-        Booking active = scenario2.controller.BookingManager.getInstance()
-                .getActiveBookingForRoom(roomId, now);
-
-        if (active == null) {
-            // No booking → room MUST be AVAILABLE
-            statusManager.updateOccupancy(roomId, false);
-        } else {
-            // Booking exists:
-            if (now.isAfter(active.getEndTime())) {
-                // Booking ended → room empty now
-                statusManager.updateOccupancy(roomId, false);
-            } else {
-                // Booking has not ended → only IN_USE if user checked in
-                boolean inUse = "IN_USE".equals(active.getStatus());
-                statusManager.updateOccupancy(roomId, inUse);
-            }
+        int overflow = logView.getItems().size() - OccupancyPollingService.LOG_CAPACITY;
+        if (overflow > 0) {
+            logView.getItems().remove(0, overflow);
         }
-
-        // Now fetch status AFTER updating
-        String status = statusManager.getRoomStatus(roomId);
-
-        String line = "[" + now.format(NICE_FORMAT) + "] "
-                + "Sensor ping → Room " + roomId + " status = " + status;
-
-        logView.getItems().add(line);
         logView.scrollTo(logView.getItems().size() - 1);
     }
 
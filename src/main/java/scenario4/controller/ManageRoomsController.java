@@ -5,7 +5,6 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Modality;
@@ -14,6 +13,7 @@ import javafx.stage.StageStyle;
 import shared.model.Room;
 import shared.model.RoomRepository;
 import scenario4.components.RoomDetailsPopup;
+import scenario4.viewmodel.RoomViewModel;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -82,32 +82,32 @@ public class ManageRoomsController {
      *     <li>Status</li>
      * </ul>
      *
-     * Uses {@link PropertyValueFactory} to bind JavaFX table columns to
-     * Room model properties.
+     * Binds each column through {@link RoomViewModel}, which creates the
+     * JavaFX property for a cell only when the table asks for it.
      */
 
     private void setupTable() {
 
         TableColumn<Room, String> idCol = new TableColumn<>("Room ID");
-        idCol.setCellValueFactory(new PropertyValueFactory<>("roomId"));
+        idCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).roomIdProperty());
 
         TableColumn<Room, String> nameCol = new TableColumn<>("Room Name");
-        nameCol.setCellValueFactory(new PropertyValueFactory<>("roomName"));
+        nameCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).roomNameProperty());
 
         TableColumn<Room, Integer> capCol = new TableColumn<>("Capacity");
-        capCol.setCellValueFactory(new PropertyValueFactory<>("capacity"));
+        capCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).capacityProperty().asObject());
 
         TableColumn<Room, String> locCol = new TableColumn<>("Location");
-        locCol.setCellValueFactory(new PropertyValueFactory<>("location"));
+        locCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).locationProperty());
 
         TableColumn<Room, String> amenitiesCol = new TableColumn<>("Amenities");
-        amenitiesCol.setCellValueFactory(new PropertyValueFactory<>("amenities"));
+        amenitiesCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).amenitiesProperty());
 
         TableColumn<Room, String> buildingCol = new TableColumn<>("Building");
-        buildingCol.setCellValueFactory(new PropertyValueFactory<>("building"));
+        buildingCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).buildingProperty());
 
         TableColumn<Room, String> statusCol = new TableColumn<>("Status");
-        statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).statusProperty());
 
         roomsTable.getColumns().addAll(
                 idCol, nameCol, capCol, locCol,
@@ -132,10 +132,7 @@ public class ManageRoomsController {
         try {
             var loaded = shared.util.CSVHelper.loadRooms("data/rooms.csv");
 
-            repo.getAllRooms().clear();
-            for (Room r : loaded) {
-                repo.getAllRooms().put(r.getRoomId(), r);
-            }
+            repo.replaceAll(loaded);
 
             roomsTable.getItems().setAll(repo.getAllRooms().values());
 
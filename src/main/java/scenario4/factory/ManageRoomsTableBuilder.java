@@ -2,10 +2,10 @@ package scenario4.factory;
 
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.VBox;
 import shared.model.Room;
 import shared.model.RoomRepository;
+import scenario4.viewmodel.RoomViewModel;
 
 /**
  * ManageRoomsTableBuilder – Scenario 4 (Admin → Manage Rooms)
@@ -69,16 +69,16 @@ public class ManageRoomsTableBuilder {
         TableView<Room> table = new TableView<>();
 
         TableColumn<Room, String> idCol = new TableColumn<>("Room ID");
-        idCol.setCellValueFactory(new PropertyValueFactory<>("roomId"));
+        idCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).roomIdProperty());
 
         TableColumn<Room, Integer> capCol = new TableColumn<>("Capacity");
-        capCol.setCellValueFactory(new PropertyValueFactory<>("capacity"));
+        capCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).capacityProperty().asObject());
 
         TableColumn<Room, String> locCol = new TableColumn<>("Location");
-        locCol.setCellValueFactory(new PropertyValueFactory<>("location"));
+        locCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).locationProperty());
 
         TableColumn<Room, String> statusCol = new TableColumn<>("Status");
-        statusCol.setCellValueFactory(new PropertyValueFactory<>("status"));
+        statusCol.setCellValueFactory(c -> RoomViewModel.of(c.getValue()).statusProperty());
 
         TableColumn<Room, Void> deleteCol = new TableColumn<>("Delete");
 
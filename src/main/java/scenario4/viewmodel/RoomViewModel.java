@@ -0,0 +1,134 @@
+package scenario4.viewmodel;
+
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import shared.model.Room;
+import shared.model.RoomStatus;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * RoomViewModel – Scenario 4 (Admin Room Management)
+ * ---------------------------------------------------------------------------
+ * <p>JavaFX view of a {@link Room} for TableView columns. The {@link Room}
+ * itself carries plain fields only; the properties live here and are created
+ * one at a time, the first time a column asks for them.</p>
+ *
+ * <h2>One View per Room</h2>
+ * <p>{@link #of(Room)} returns the same view model for the same room every
+ * time, so cell callbacks do not allocate. The cache is a
+ * {@link WeakHashMap}, and a view model holds its room only weakly, so the
+ * entry goes away together with the room.</p>
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * capCol.setCellValueFactory(c -&gt; RoomViewModel.of(c.getValue()).capacityProperty().asObject());
+ * </pre>
+ *
+ * <h2>Updates</h2>
+ * <ul>
+ *     <li>Status changes (Scenario 3 check-ins and no-shows, Scenario 4
+ *         enable/disable) are pushed into {@link #statusProperty()} through
+ *         {@link Room#addStatusListener}, so bound tables update live.</li>
+ *     <li>Each property accessor re-reads the room, so the values are current
+ *         whenever a column asks for them.</li>
+ *     <li>Edits still go through the {@link Room} setters and
+ *         {@link shared.model.RoomRepository}; tables call
+ *         {@code refresh()} afterwards, which re-runs the cell value factories.</li>
+ * </ul>
+ */
+public final class RoomViewModel {
+
+    private static final Map<Room, RoomViewModel> VIEWS = new WeakHashMap<>();
+
+    static {
+        Room.addStatusListener(RoomViewModel::statusChanged);
+    }
+
+    private final WeakReference<Room> room;
+
+    private StringProperty roomId;
+    private StringProperty roomName;
+    private IntegerProperty capacity;
+    private StringProperty location;
+    private StringProperty amenities;
+    private StringProperty building;
+    private StringProperty status;
+
+    private RoomViewModel(Room room) {
+        this.room = new WeakReference<>(room);
+    }
+
+    /**
+     * The view of {@code room}, created on first use; no property is
+     * allocated until one is requested.
+     */
+    public static RoomViewModel of(Room room) {
+        synchronized (VIEWS) {
+            return VIEWS.computeIfAbsent(room, RoomViewModel::new);
+        }
+    }
+
+    /** Pushes a status change into the room's view, if it has one showing the status. */
+    private static void statusChanged(Room room, RoomStatus newStatus) {
+        RoomViewModel view;
+        synchronized (VIEWS) {
+            view = VIEWS.get(room);
+        }
+        if (view != null && view.status != null && newStatus != null) {
+            view.status.set(newStatus.name());
+        }
+    }
+
+    public Room getRoom() { return room.get(); }
+
+    // ============================================================
+    // JavaFX property getters (created on first use)
+    // ============================================================
+
+    public StringProperty roomIdProperty() {
+        if (roomId == null) roomId = new SimpleStringProperty();
+        roomId.set(getRoom().getRoomId());
+        return roomId;
+    }
+
+    public StringProperty roomNameProperty() {
+        if (roomName == null) roomName = new SimpleStringProperty();
+        roomName.set(getRoom().getRoomName());
+        return roomName;
+    }
+
+    public IntegerProperty capacityProperty() {
+        if (capacity == null) capacity = new SimpleIntegerProperty();
+        capacity.set(getRoom().getCapacity());
+        return capacity;
+    }
+
+    public StringProperty locationProperty() {
+        if (location == null) location = new SimpleStringProperty();
+        location.set(getRoom().getLocation());
+        return location;
+    }
+
+    public StringProperty amenitiesProperty() {
+        if (amenities == null) amenities = new SimpleStringProperty();
+        amenities.set(getRoom().getAmenities());
+        return amenities;
+    }
+
+    public StringProperty buildingProperty() {
+        if (building == null) building = new SimpleStringProperty();
+        building.set(getRoom().getBuilding());
+        return building;
+    }
+
+    public StringProperty statusProperty() {
+        if (status == null) status = new SimpleStringProperty();
+        status.set(getRoom().getStatus());
+        return status;
+    }
+}
@@ -1,22 +1,17 @@
 package shared.model;
 
-import javafx.beans.property.SimpleStringProperty;
-import javafx.beans.property.StringProperty;
-
 /**
  * Admin – Scenario 4 (Admin & System Management)
  * ============================================================================
  * <p>Represents an administrative account used exclusively in Scenario 4 for
  * managing the Conference Room Scheduler system. This model is intentionally
- * lightweight and UI-friendly, using JavaFX {@code StringProperty} fields for
- * seamless binding inside TableView components.</p>
+ * lightweight: plain fields only, with no JavaFX properties.</p>
  *
  * <h2>Purpose</h2>
  * <ul>
  *     <li>Stores core admin credentials (username, password).</li>
  *     <li>Tracks activation status (ACTIVE / DISABLED).</li>
  *     <li>Supports role-based access (ADMIN / CHIEF).</li>
- *     <li>Provides JavaFX properties for live UI updates.</li>
  * </ul>
  *
  * <h2>Design Context</h2>
@@ -31,7 +26,7 @@ import javafx.beans.property.StringProperty;
  * <h2>Key Features</h2>
  * <ul>
  *     <li>Role-based hierarchy (ADMIN vs CHIEF_EVENT_COORDINATOR).</li>
- *     <li>JavaFX-friendly model for real-time TableView rendering.</li>
+ *     <li>No JavaFX dependency – usable from repositories and tests without a toolkit.</li>
  *     <li>Serializable via {@link #toString()} for CSV persistence.</li>
  * </ul>
  *
@@ -46,10 +41,10 @@ import javafx.beans.property.StringProperty;
 
 public class Admin {
 
-    private final StringProperty username = new SimpleStringProperty();
-    private final StringProperty password = new SimpleStringProperty();
-    private final StringProperty status   = new SimpleStringProperty("ACTIVE");
-    private final StringProperty role     = new SimpleStringProperty("ADMIN"); // default role
+    private final String username;
+    private final String password;
+    private String status = "ACTIVE";
+    private String role   = "ADMIN"; // default role
 
     // -----------------------
     // CONSTRUCTORS
@@ -62,33 +57,24 @@ public class Admin {
 
     // New full constructor with role
     public Admin(String username, String password, String role) {
-        this.username.set(username);
-        this.password.set(password);
-        this.status.set("ACTIVE");
-        this.role.set(role != null ? role : "ADMIN");
+        this.username = username;
+        this.password = password;
+        this.role = role != null ? role : "ADMIN";
     }
 
     // -----------------------
     // GETTERS
     // -----------------------
-    public String getUsername() { return username.get(); }
-    public String getPassword() { return password.get(); }
-    public String getStatus()   { return status.get(); }
-    public String getRole()     { return role.get(); }
+    public String getUsername() { return username; }
+    public String getPassword() { return password; }
+    public String getStatus()   { return status; }
+    public String getRole()     { return role; }
 
     // -----------------------
     // SETTERS
     // -----------------------
-    public void setStatus(String status) { this.status.set(status); }
-    public void setRole(String role)     { this.role.set(role); }
-
-    // -----------------------
-    // PROPERTIES (For TableView)
-    // -----------------------
-    public StringProperty usernameProperty() { return username; }
-    public StringProperty passwordProperty() { return password; }
-    public StringProperty statusProperty()   { return status; }
-    public StringProperty roleProperty()     { return role; }
+    public void setStatus(String status) { this.status = status; }
+    public void setRole(String role)     { this.role = role; }
 
     // -----------------------
     // CSV SAVE FORMAT
@@ -1,7 +1,13 @@
 package shared.model;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Represents a single room reservation in the YorkU Conference Room Scheduler.
@@ -12,8 +18,8 @@ import java.time.format.DateTimeFormatter;
  *     <li>Room being reserved</li>
  *     <li>Date and time range</li>
  *     <li>Purpose of the meeting</li>
- *     <li>Booking status (confirmed/cancelled/pending payment)</li>
- *     <li>Payment status (pending/approved/failed)</li>
+ *     <li>Booking status ({@link BookingStatus})</li>
+ *     <li>Payment status ({@link PaymentStatus})</li>
  *     <li>Deposit amount charged at booking time</li>
  * </ul>
  *
@@ -46,28 +52,36 @@ public class Booking {
     private String purpose;
 
     /**
-     * Status of the booking:
-     * <ul>
-     *     <li>{@code CONFIRMED} – booking is valid</li>
-     *     <li>{@code CANCELLED} – user cancelled the booking</li>
-     *     <li>{@code PENDING_PAYMENT} – waiting for payment approval</li>
-     * </ul>
+     * Status of the booking (see {@link BookingStatus}). Held as the enum so
+     * the conflict and quota loops compare references, not strings.
      */
-    private String status;
+    private BookingStatus status;
 
-    /**
-     * Status of the payment process:
-     * <ul>
-     *     <li>{@code PENDING} – payment not completed yet</li>
-     *     <li>{@code APPROVED} – payment successful</li>
-     *     <li>{@code FAILED} – payment encountered an error</li>
-     * </ul>
-     */
-    private String paymentStatus;
+    /** Original text when {@link #status} is {@code UNKNOWN}, so it saves back unchanged. */
+    private String statusText;
+
+    /** Status of the payment process (see {@link PaymentStatus}). */
+    private PaymentStatus paymentStatus;
+
+    /** Original text when {@link #paymentStatus} is {@code UNKNOWN}. */
+    private String paymentStatusText;
 
     /** Deposit amount collected (always equals 1 × hourly rate). */
     private double depositAmount;
 
+    /**
+     * How this booking repeats, or {@code null} for a one-off booking. For a
+     * series, {@link #startTime}/{@link #endTime} are the first occurrence.
+     */
+    private RecurrenceRule recurrence;
+
+    /**
+     * Check-in / no-show state of single occurrences of a series, keyed by
+     * occurrence start; {@code null} until one is recorded. The map is
+     * replaced, never changed in place, so other threads read it unlocked.
+     */
+    private volatile Map<LocalDateTime, BookingStatus> occurrenceStatuses;
+
     /**
      * Constructor used when creating a new booking from the UI or logic layer.
      * Defaults:
@@ -98,8 +112,8 @@ public class Booking {
         this.endTime = endTime;
         this.purpose = purpose;
 
-        this.status = "CONFIRMED";
-        this.paymentStatus = "PENDING";
+        this.status = BookingStatus.CONFIRMED;
+        this.paymentStatus = PaymentStatus.PENDING;
         this.depositAmount = 0.0;
     }
 
@@ -133,11 +147,20 @@ public class Booking {
         this.startTime = startTime;
         this.endTime = endTime;
         this.purpose = purpose;
-        this.status = status;
-        this.paymentStatus = paymentStatus;
+        this.status = BookingStatus.fromString(status);
+        this.statusText = this.status == BookingStatus.UNKNOWN ? status : null;
+        this.paymentStatus = PaymentStatus.fromString(paymentStatus);
+        this.paymentStatusText = this.paymentStatus == PaymentStatus.UNKNOWN ? paymentStatus : null;
         this.depositAmount = depositAmount;
     }
 
+    /**
+     * For subclasses that keep the fields elsewhere (the flyweight views of
+     * {@link ColumnarBookingStore}); they override every accessor.
+     */
+    protected Booking() {
+    }
+
     // =====================================================
     //                     GETTERS
     // =====================================================
@@ -148,21 +171,38 @@ public class Booking {
     public LocalDateTime getStartTime() { return startTime; }
     public LocalDateTime getEndTime() { return endTime; }
     public String getPurpose() { return purpose; }
-    public String getStatus() { return status; }
-    public String getPaymentStatus() { return paymentStatus; }
+    public String getStatus() {
+        return status == BookingStatus.UNKNOWN ? statusText : status.name();
+    }
+    public String getPaymentStatus() {
+        return paymentStatus == PaymentStatus.UNKNOWN ? paymentStatusText : paymentStatus.name();
+    }
+    public BookingStatus getStatusEnum() { return status; }
+    public PaymentStatus getPaymentStatusEnum() { return paymentStatus; }
     public double getDepositAmount() { return depositAmount; }
+    public RecurrenceRule getRecurrence() { return recurrence; }
+    public boolean isRecurring() { return getRecurrence() != null; }
 
     // =====================================================
     //                     SETTERS
     // =====================================================
 
-    public void setStatus(String status) { this.status = status; }
+    public void setStatus(String status) {
+        this.status = BookingStatus.fromString(status);
+        this.statusText = this.status == BookingStatus.UNKNOWN ? status : null;
+    }
+    public void setStatus(BookingStatus status) { setStatus(status.name()); }
     public void setPurpose(String purpose) { this.purpose = purpose; }
-    public void setPaymentStatus(String paymentStatus) { this.paymentStatus = paymentStatus; }
+    public void setPaymentStatus(String paymentStatus) {
+        this.paymentStatus = PaymentStatus.fromString(paymentStatus);
+        this.paymentStatusText = this.paymentStatus == PaymentStatus.UNKNOWN ? paymentStatus : null;
+    }
+    public void setPaymentStatus(PaymentStatus paymentStatus) { setPaymentStatus(paymentStatus.name()); }
     public void setDepositAmount(double depositAmount) { this.depositAmount = depositAmount; }
     public void setRoomId(String roomId) { this.roomId = roomId; }
     public void setStartTime(LocalDateTime startTime) { this.startTime = startTime; }
     public void setEndTime(LocalDateTime endTime) { this.endTime = endTime; }
+    public void setRecurrence(RecurrenceRule recurrence) { this.recurrence = recurrence; }
 
     // =====================================================
     //                     HELPERS
@@ -173,7 +213,7 @@ public class Booking {
      */
     public String getFormattedDate() {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-        return startTime.format(fmt);
+        return getStartTime().format(fmt);
     }
 
     /**
@@ -181,12 +221,136 @@ public class Booking {
      */
     public String getFormattedTime() {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("HH:mm");
-        return startTime.format(fmt) + " - " + endTime.format(fmt);
+        return getStartTime().format(fmt) + " - " + getEndTime().format(fmt);
     }
     public boolean overlapsInterval(LocalDateTime otherStart, LocalDateTime otherEnd) {
         if (otherStart == null || otherEnd == null) return false;
         // [startTime, endTime) overlaps [otherStart, otherEnd)
-        return startTime.isBefore(otherEnd) && endTime.isAfter(otherStart);
+        return getStartTime().isBefore(otherEnd) && getEndTime().isAfter(otherStart);
+    }
+
+    // =====================================================
+    //                  RECURRENCE
+    // =====================================================
+
+    /** End of the last occurrence (the end time for a one-off booking). */
+    public LocalDateTime getSeriesEnd() {
+        RecurrenceRule rule = getRecurrence();
+        if (rule == null) return getEndTime();
+        LocalDateTime start = getStartTime();
+        return rule.lastStart(start).plus(Duration.between(start, getEndTime()));
+    }
+
+    /**
+     * True if this booking – any occurrence of it, for a series – overlaps
+     * {@code [from, to]}, touching ends included (the conflict rule used by
+     * BookingManager). Occurrences are computed for that window only.
+     */
+    public boolean conflictsWith(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null) return false;
+        RecurrenceRule rule = getRecurrence();
+        LocalDateTime start = getStartTime();
+        LocalDateTime end = getEndTime();
+        if (rule == null) {
+            return !end.isBefore(from) && !start.isAfter(to);
+        }
+        if (!hasReleasedOccurrence()) {
+            Duration length = Duration.between(start, end);
+            return rule.hasOccurrence(start, from.minus(length), to);
+        }
+        for (Booking occ : getOccurrences(from, to)) {
+            if (!occ.getStatusEnum().isReleased()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Occurrences of this booking that overlap {@code [from, to]} (touching
+     * ends included). A one-off booking returns itself; a series returns one
+     * non-recurring copy per occurrence, sharing this booking's ID and
+     * carrying that occurrence's own check-in / no-show status if it has one.
+     */
+    public List<Booking> getOccurrences(LocalDateTime from, LocalDateTime to) {
+        List<Booking> result = new ArrayList<>();
+        if (from == null || to == null) return result;
+
+        RecurrenceRule rule = getRecurrence();
+        if (rule == null) {
+            if (conflictsWith(from, to)) result.add(this);
+            return result;
+        }
+
+        LocalDateTime start = getStartTime();
+        Duration length = Duration.between(start, getEndTime());
+        Map<LocalDateTime, BookingStatus> statuses = occurrenceStatuses;
+        for (LocalDateTime s : rule.occurrenceStarts(start, from.minus(length), to)) {
+            BookingStatus own = statuses == null ? null : statuses.get(s);
+            result.add(new Booking(getBookingId(), getRoomId(), getUserId(), s, s.plus(length), getPurpose(),
+                    own != null ? own.name() : getStatus(), getPaymentStatus(), getDepositAmount()));
+        }
+        return result;
+    }
+
+    /**
+     * Check-in / no-show state recorded for the occurrence starting at
+     * {@code occurrenceStart}, or {@code null} if nothing happened to it yet.
+     */
+    public BookingStatus getOccurrenceStatus(LocalDateTime occurrenceStart) {
+        Map<LocalDateTime, BookingStatus> statuses = occurrenceStatuses;
+        return statuses == null ? null : statuses.get(occurrenceStart);
+    }
+
+    /** All recorded occurrence states, by occurrence start (read-only). */
+    public Map<LocalDateTime, BookingStatus> getOccurrenceStatuses() {
+        Map<LocalDateTime, BookingStatus> statuses = occurrenceStatuses;
+        return statuses == null ? Collections.emptyMap() : statuses;
+    }
+
+    /**
+     * Records the state of the occurrence starting at {@code occurrenceStart};
+     * a released state (NO_SHOW) frees that occurrence's slot for
+     * {@link #conflictsWith}. {@code null} clears it.
+     */
+    public synchronized void setOccurrenceStatus(LocalDateTime occurrenceStart, BookingStatus status) {
+        Map<LocalDateTime, BookingStatus> next = new HashMap<>(getOccurrenceStatuses());
+        if (status == null) {
+            next.remove(occurrenceStart);
+        } else {
+            next.put(occurrenceStart, status);
+        }
+        occurrenceStatuses = next.isEmpty() ? null : Collections.unmodifiableMap(next);
+    }
+
+    /** Forgets every occurrence state (the series was moved to other times). */
+    public synchronized void clearOccurrenceStatuses() {
+        occurrenceStatuses = null;
+    }
+
+    /**
+     * Drops the state of occurrences that ended before {@code cutoff}; they
+     * can no longer conflict or be checked into.
+     *
+     * @return true if anything was dropped
+     */
+    public synchronized boolean pruneOccurrenceStatuses(LocalDateTime cutoff) {
+        Map<LocalDateTime, BookingStatus> statuses = occurrenceStatuses;
+        if (statuses == null) return false;
+
+        Duration length = Duration.between(getStartTime(), getEndTime());
+        Map<LocalDateTime, BookingStatus> next = new HashMap<>(statuses);
+        next.keySet().removeIf(s -> s.plus(length).isBefore(cutoff));
+        if (next.size() == statuses.size()) return false;
+        occurrenceStatuses = next.isEmpty() ? null : Collections.unmodifiableMap(next);
+        return true;
+    }
+
+    private boolean hasReleasedOccurrence() {
+        Map<LocalDateTime, BookingStatus> statuses = occurrenceStatuses;
+        if (statuses == null) return false;
+        for (BookingStatus st : statuses.values()) {
+            if (st.isReleased()) return true;
+        }
+        return false;
     }
 
     /**
@@ -197,10 +361,10 @@ public class Booking {
         if (newEndTime == null) {
             throw new IllegalArgumentException("New end time cannot be null");
         }
-        if (!newEndTime.isAfter(endTime)) {
+        if (!newEndTime.isAfter(getEndTime())) {
             throw new IllegalArgumentException("New end time must be after current end time");
         }
-        this.endTime = newEndTime;
+        setEndTime(newEndTime);
     }
 
     /**
@@ -214,15 +378,15 @@ public class Booking {
         DateTimeFormatter fmt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
         return String.format(
                 "%s,%s,%s,%s,%s,%s,%s,%s,%.2f",
-                bookingId,
-                roomId,
-                userId,
-                startTime.format(fmt),
-                endTime.format(fmt),
-                purpose,
-                status,
-                paymentStatus,
-                depositAmount
+                getBookingId(),
+                getRoomId(),
+                getUserId(),
+                getStartTime().format(fmt),
+                getEndTime().format(fmt),
+                getPurpose(),
+                getStatus(),
+                getPaymentStatus(),
+                getDepositAmount()
         );
     }
 }
@@ -0,0 +1,232 @@
+package shared.model;
+
+import shared.util.CSVHelper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * BookingArchive – Cold Storage for Old Bookings (All Scenarios)
+ * ============================================================================
+ * <p>Holds bookings that {@link BookingRepository#archiveEndedBefore} moved
+ * out of the in-memory set. They no longer affect availability, so they are
+ * kept only on disk, GZIP-compressed, and read back for history views and
+ * reports.</p>
+ *
+ * <h2>File Format</h2>
+ * <ul>
+ *     <li>Rows use exactly the bookings CSV format
+ *         ({@link CSVHelper#formatBookingLine}).</li>
+ *     <li>Each archival run appends one GZIP member to the file, so earlier
+ *         runs are never rewritten. {@link GZIPInputStream} reads the
+ *         concatenated members back as one stream.</li>
+ *     <li>Default location: {@code bookings_archive.csv.gz} next to the
+ *         bookings CSV.</li>
+ * </ul>
+ *
+ * <h2>Reading</h2>
+ * <p>{@link #stream()} decompresses and parses lazily, one row at a time, so
+ * a report never holds more of the archive in memory than it keeps itself.
+ * The stream owns an open file and must be closed (try-with-resources).</p>
+ *
+ * <h2>History Index</h2>
+ * <p>Once a {@link BookingHistoryIndex} built from the current file is
+ * installed ({@link #useIndex}), {@link #findForUser} answers from it instead
+ * of decompressing the archive. Every {@link #append} drops the index, since
+ * it no longer covers the whole file, until the next one is built.</p>
+ */
+public class BookingArchive {
+
+    /** Archive file name, kept next to the bookings CSV. */
+    public static final String FILE_NAME = "bookings_archive.csv.gz";
+
+    private final String path;
+
+    /** Index covering the whole file, or {@code null}. */
+    private volatile BookingHistoryIndex index;
+
+    /** Bumped by every append; tells whether an index is still complete. */
+    private long generation;
+
+    public BookingArchive(String path) {
+        this.path = path;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /** True once at least one archival run has written the file. */
+    public boolean exists() {
+        return new File(path).isFile();
+    }
+
+    // =========================================================
+    //                  WRITE
+    // =========================================================
+
+    /**
+     * Appends the bookings as one new GZIP member. The member is complete on
+     * disk before this returns, so callers may drop the bookings afterwards.
+     *
+     * @throws IOException if the archive cannot be written; nothing usable
+     *                     was added in that case
+     */
+    public synchronized void append(List<Booking> archived) throws IOException {
+        if (archived.isEmpty()) return;
+
+        generation++;
+        closeIndex(index);
+        index = null;
+
+        File file = new File(path);
+        if (file.getParentFile() != null) file.getParentFile().mkdirs();
+        long lengthBefore = file.length();
+
+        try (BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(new FileOutputStream(file, true)), StandardCharsets.UTF_8))) {
+            for (Booking b : archived) {
+                bw.write(CSVHelper.formatBookingLine(b));
+                bw.newLine();
+            }
+        } catch (IOException e) {
+            truncate(file, lengthBefore);
+            throw e;
+        }
+    }
+
+    /** Cuts a half-written member off again so the archive stays readable. */
+    private static void truncate(File file, long length) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        } catch (IOException e) {
+            System.out.println("[BookingArchive] Could not roll back " + file + ": " + e.getMessage());
+        }
+    }
+
+    // =========================================================
+    //                  HISTORY INDEX
+    // =========================================================
+
+    /** Changes with every append; pass it to {@link #useIndex} with an index built afterwards. */
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Installs an index built from the archive as it was at
+     * {@code builtFromGeneration}, replacing (and closing) the previous one.
+     *
+     * @return {@code false} if the archive was appended to since; the index
+     *         is not installed and the caller should close it
+     */
+    public synchronized boolean useIndex(BookingHistoryIndex newIndex, long builtFromGeneration) {
+        if (builtFromGeneration != generation) return false;
+        BookingHistoryIndex old = index;
+        index = newIndex;
+        closeIndex(old);
+        return true;
+    }
+
+    /** True while an up-to-date index answers history lookups. */
+    public boolean hasIndex() {
+        return index != null;
+    }
+
+    private static void closeIndex(BookingHistoryIndex old) {
+        if (old == null) return;
+        try {
+            old.close();
+        } catch (IllegalStateException e) {
+            System.out.println("[BookingArchive] Could not close history index: " + e.getMessage());
+        }
+    }
+
+    // =========================================================
+    //                  STREAMING READS
+    // =========================================================
+
+    /**
+     * Lazily reads every archived booking, oldest archival run first.
+     * Empty if nothing was archived yet. Close the stream when done.
+     *
+     * @throws UncheckedIOException if the archive cannot be opened or read
+     */
+    public Stream<Booking> stream() {
+        File file = new File(path);
+        if (!file.isFile()) return Stream.empty();
+
+        BufferedReader br;
+        FileInputStream in = null;
+        try {
+            in = new FileInputStream(file);
+            br = new BufferedReader(new InputStreamReader(new GZIPInputStream(in), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            closeQuietly(in);
+            throw new UncheckedIOException(e);
+        }
+
+        return br.lines()
+                .map(CSVHelper::parseBookingLine)
+                .filter(Objects::nonNull)
+                .onClose(() -> {
+                    try {
+                        br.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    private static void closeQuietly(FileInputStream in) {
+        if (in == null) return;
+        try {
+            in.close();
+        } catch (IOException ignored) {
+            // already failing; the original error is reported
+        }
+    }
+
+    /** Archived bookings of one user, most recent first. */
+    public List<Booking> findForUser(String userId) {
+        if (userId == null) return List.of();
+
+        BookingHistoryIndex current = index;
+        if (current != null) {
+            try {
+                return current.findForUser(userId);
+            } catch (IllegalStateException e) {
+                // replaced and closed while we were reading – use the file
+            }
+        }
+        try (Stream<Booking> s = stream()) {
+            return s.filter(b -> userId.equalsIgnoreCase(b.getUserId()))
+                    .sorted((a, b) -> b.getStartTime().compareTo(a.getStartTime()))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /** Archived bookings starting in {@code [from, to)}, in archive order. */
+    public List<Booking> findStartingBetween(LocalDateTime from, LocalDateTime to) {
+        try (Stream<Booking> s = stream()) {
+            return s.filter(b -> !b.getStartTime().isBefore(from) && b.getStartTime().isBefore(to))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package shared.model;
+
+import java.util.List;
+
+/**
+ * BookingHistoryIndex – Fast Lookups over Archived Bookings (All Scenarios)
+ * ============================================================================
+ * <p>A read-only index built from the whole {@link BookingArchive}, which the
+ * archive consults instead of decompressing its file on every history view.
+ * {@link OffHeapBookingSegment} is the implementation used by the app.</p>
+ *
+ * <p>An index may be {@linkplain #close() closed} while another thread is
+ * reading it; the reader then gets an {@link IllegalStateException} and
+ * falls back to the archive file.</p>
+ */
+public interface BookingHistoryIndex extends AutoCloseable {
+
+    /** Archived bookings of one user (compared ignoring case), most recent first. */
+    List<Booking> findForUser(String userId);
+
+    /** Releases the index; it must not be used afterwards. Nothing to release by default. */
+    @Override
+    default void close() {
+    }
+}
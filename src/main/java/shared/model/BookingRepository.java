@@ -1,9 +1,29 @@
 package shared.model;
 
+import shared.observer.RepositoryListener;
 import shared.util.CSVHelper;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
 
 /**
  * BookingRepository – Centralized Booking Storage (All Scenarios)
@@ -30,6 +50,27 @@ import java.util.List;
  *         </ul>
  *     </li>
  *     <li>Persist all changes back to CSV using {@link CSVHelper}</li>
+ *     <li>Persist the check-in / no-show state of single occurrences of
+ *         recurring bookings in {@value #OCCURRENCE_FILE_NAME} next to the
+ *         CSV, dropping it a day after the occurrence ended</li>
+ *     <li>Keep a per-room index so room lookups do not scan every booking</li>
+ *     <li>Move long-finished bookings to the compressed {@link BookingArchive}
+ *         so the in-memory set stays proportional to current bookings</li>
+ *     <li>Publish add / update / remove events to {@link RepositoryListener}s</li>
+ * </ul>
+ *
+ * <h2>Thread Safety</h2>
+ * <ul>
+ *     <li>The booking list and the per-room index are only touched under one
+ *         repository lock, so bookings made, edited or archived on different
+ *         threads (e.g. for different rooms) cannot corrupt them.</li>
+ *     <li>{@link #saveAll()} writes a {@linkplain #snapshot() snapshot} and
+ *         CSV/archive writes are serialised, so the file always reflects the
+ *         list at one moment.</li>
+ *     <li>Listeners are notified after the lock is released, so they may
+ *         call back into the repository or take their own locks safely.</li>
+ *     <li>Iterating {@link #getAllBookings()} directly is only safe on the
+ *         thread that changes it; other threads use {@link #snapshot()}.</li>
  * </ul>
  *
  * <h2>Supported Scenarios</h2>
@@ -64,19 +105,61 @@ public class BookingRepository {
      */
     public static final String BOOKING_CSV_PROPERTY = "booking.csv.path";
 
+    /** Sidecar file with the state of single occurrences: {@code bookingId,occurrenceStart,status}. */
+    public static final String OCCURRENCE_FILE_NAME = "occurrence_status.csv";
+
+    /** How long an occurrence's state is kept after the occurrence ended. */
+    private static final Duration OCCURRENCE_RETENTION = Duration.ofDays(1);
+
     /** Singleton instance. */
     private static BookingRepository instance;
 
+    /**
+     * Path of another data file kept in the same folder as the bookings CSV
+     * (e.g. payment caches and ledgers), so tests that redirect
+     * {@link #BOOKING_CSV_PROPERTY} also redirect these files.
+     */
+    public static String siblingDataFile(String fileName) {
+        String override = System.getProperty(BOOKING_CSV_PROPERTY);
+        String csv = (override == null || override.isBlank()) ? "data/bookings.csv" : override;
+        File parent = new File(csv).getParentFile();
+        return parent == null ? fileName : new File(parent, fileName).getPath();
+    }
+
     /** Actual CSV path used by this instance. */
     private final String bookingCsvPath;
 
-    /** In-memory list of all bookings. */
-    private final List<Booking> bookings = new ArrayList<>();
+    /** Path of the {@value #OCCURRENCE_FILE_NAME} sidecar. */
+    private final String occurrenceCsvPath;
+
+    /** In-memory list of all bookings (reports structural changes to listeners). */
+    private final TrackedBookingList bookings = new TrackedBookingList();
+
+    /** Cold storage for bookings moved out by {@link #archiveEndedBefore}. */
+    private final BookingArchive archive;
+
+    /** Per-room index over {@link #bookings}: room ID → bookings in that room, by start time. */
+    private final Map<String, List<Booking>> bookingsByRoom = new HashMap<>();
+
+    /** Recurring bookings per room (also in {@link #bookingsByRoom}, at their first occurrence). */
+    private final Map<String, List<Booking>> seriesByRoom = new HashMap<>();
+
+    /** Room ID each booking is currently indexed under (to detect in-place room moves). */
+    private final Map<Booking, String> indexedRoom = new IdentityHashMap<>();
+
+    /** Subscribers to booking add / update / remove events. */
+    private final List<RepositoryListener<Booking>> listeners = new CopyOnWriteArrayList<>();
+
+    /** Guards {@link #bookings} and the per-room index. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Serialises writes of the CSV and the archive (taken before {@link #lock}). */
+    private final ReentrantLock fileLock = new ReentrantLock();
 
     /**
      * Returns the singleton instance, creating it on first use.
      */
-    public static BookingRepository getInstance() {
+    public static synchronized BookingRepository getInstance() {
         if (instance == null) {
             instance = new BookingRepository();
         }
@@ -90,7 +173,7 @@ public class BookingRepository {
      * a new repository using the current value of the
      * {@link #BOOKING_CSV_PROPERTY} system property.
      */
-    public static void resetForTests() {
+    public static synchronized void resetForTests() {
         instance = null;
     }
 
@@ -107,7 +190,10 @@ public class BookingRepository {
         } else {
             bookingCsvPath = override;              // test or custom path
         }
+        archive = new BookingArchive(siblingDataFile(BookingArchive.FILE_NAME));
+        occurrenceCsvPath = siblingDataFile(OCCURRENCE_FILE_NAME);
         loadFromCSV();
+        loadOccurrenceStatuses();
     }
 
     // =========================================================
@@ -125,40 +211,584 @@ public class BookingRepository {
         }
     }
 
-    /** Saves all in-memory bookings back to the configured CSV file. */
+    /**
+     * Saves all in-memory bookings back to the configured CSV file, and the
+     * occurrence states to their sidecar.
+     */
     public void saveAll() {
+        fileLock.lock();
         try {
-            CSVHelper.saveBookings(bookingCsvPath, bookings);
-        } catch (Exception e) {
-            System.out.println("[BookingRepository] Could not save " + bookingCsvPath + ": " + e.getMessage());
+            List<Booking> all = snapshot();
+            try {
+                CSVHelper.saveBookings(bookingCsvPath, all);
+            } catch (Exception e) {
+                System.out.println("[BookingRepository] Could not save " + bookingCsvPath + ": " + e.getMessage());
+            }
+            saveOccurrenceStatuses(all);
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /** Applies the sidecar's occurrence states to the loaded bookings. */
+    private void loadOccurrenceStatuses() {
+        File file = new File(occurrenceCsvPath);
+        if (!file.exists()) return;
+
+        Map<String, Booking> series = new HashMap<>();
+        for (Booking b : bookings) {
+            if (b.isRecurring()) series.put(b.getBookingId(), b);
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(OCCURRENCE_RETENTION);
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] p = line.split(",");
+                if (p.length < 3 || p[0].equals("bookingId")) continue;
+
+                Booking b = series.get(p[0]);
+                if (b == null) continue;
+                try {
+                    b.setOccurrenceStatus(LocalDateTime.parse(p[1].trim()), BookingStatus.valueOf(p[2].trim()));
+                } catch (RuntimeException ex) {
+                    System.out.println("[BookingRepository] Bad occurrence state: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("[BookingRepository] Could not load " + occurrenceCsvPath + ": " + e.getMessage());
+        }
+        for (Booking b : series.values()) {
+            b.pruneOccurrenceStatuses(cutoff);
+        }
+    }
+
+    /** Rewrites the sidecar from {@code all}, leaving out occurrences past retention. */
+    private void saveOccurrenceStatuses(List<Booking> all) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(OCCURRENCE_RETENTION);
+        List<String> lines = new ArrayList<>();
+        for (Booking b : all) {
+            b.pruneOccurrenceStatuses(cutoff);
+            for (Map.Entry<LocalDateTime, BookingStatus> e : b.getOccurrenceStatuses().entrySet()) {
+                lines.add(b.getBookingId() + "," + e.getKey() + "," + e.getValue().name());
+            }
+        }
+
+        File file = new File(occurrenceCsvPath);
+        if (lines.isEmpty() && !file.exists()) return;
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(file))) {
+            bw.write("bookingId,occurrenceStart,status");
+            bw.newLine();
+            for (String line : lines) {
+                bw.write(line);
+                bw.newLine();
+            }
+        } catch (IOException e) {
+            System.out.println("[BookingRepository] Could not save " + occurrenceCsvPath + ": " + e.getMessage());
+        }
+    }
+
+    // =========================================================
+    //                  ARCHIVE
+    // =========================================================
+
+    /**
+     * Moves every booking that finished before {@code cutoff} – for a series,
+     * whose last occurrence did – into the {@link BookingArchive}, then drops
+     * it from memory and rewrites the CSV. Bookings whose payment is still
+     * PENDING stay until they are settled.
+     *
+     * <p>The archive is written first; if that fails nothing is removed. A
+     * crash between the two writes can at worst leave a row in both files.
+     * Removed bookings are reported to listeners like any other removal.</p>
+     *
+     * @return number of bookings archived
+     */
+    public int archiveEndedBefore(LocalDateTime cutoff) {
+        fileLock.lock();
+        try {
+            List<Booking> finished = new ArrayList<>();
+            for (Booking b : snapshot()) {
+                if (isArchivable(b, cutoff)) finished.add(b);
+            }
+            if (finished.isEmpty()) return 0;
+
+            try {
+                archive.append(finished);
+            } catch (IOException e) {
+                System.out.println("[BookingRepository] Could not write " + archive.getPath() + ": " + e.getMessage());
+                return 0;
+            }
+            bookings.removeAllSame(finished);
+            saveAll();
+            return finished.size();
+        } finally {
+            fileLock.unlock();
         }
     }
 
+    private static boolean isArchivable(Booking b, LocalDateTime cutoff) {
+        if (b.getPaymentStatusEnum() == PaymentStatus.PENDING) return false;
+        return b.getSeriesEnd().isBefore(cutoff);
+    }
+
+    /** Archived bookings, for history views and reports (read via streaming). */
+    public BookingArchive getArchive() {
+        return archive;
+    }
+
     // =========================================================
     //                  QUERY / ACCESSORS
     // =========================================================
 
-    /** Returns the live in-memory list of bookings. */
+    /**
+     * Returns the live in-memory list of bookings. Single calls on it are
+     * thread-safe; to iterate from another thread use {@link #snapshot()}.
+     */
     public List<Booking> getAllBookings() {
         return bookings;
     }
 
+    /** Copy of the booking list taken atomically, safe to iterate on any thread. */
+    public List<Booking> snapshot() {
+        lock.lock();
+        try {
+            return new ArrayList<>(bookings.items);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /** Finds a booking by its unique ID, or {@code null} if not found. */
     public Booking findById(String id) {
-        for (Booking b : bookings) {
-            if (b.getBookingId().equals(id)) return b;
+        lock.lock();
+        try {
+            for (Booking b : bookings.items) {
+                if (b.getBookingId().equals(id)) return b;
+            }
+            return null;
+        } finally {
+            lock.unlock();
         }
-        return null;
     }
 
-    /** Returns all bookings for a given room ID. */
+    /**
+     * Returns all bookings for a given room ID, ordered by start time. Served
+     * from the per-room index, so the cost depends on that room's bookings only.
+     */
     public List<Booking> getBookingsForRoom(String roomId) {
-        List<Booking> result = new ArrayList<>();
-        for (Booking b : bookings) {
-            if (b.getRoomId().equals(roomId)) {
-                result.add(b);
+        if (roomId == null) return new ArrayList<>();
+        lock.lock();
+        try {
+            List<Booking> forRoom = bookingsByRoom.get(roomId);
+            return forRoom == null ? new ArrayList<>() : new ArrayList<>(forRoom);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Earliest moment in {@code [from, until)} at which another live booking
+     * (not cancelled / no-show – for a series, per occurrence – and not
+     * {@code ignoreBookingId}) occupies the room, or {@code null} if the room
+     * is free for that whole window.
+     * Returns {@code from} itself if a booking is still running at
+     * {@code from}. Bookings end exclusively here: one ending at {@code from}
+     * does not count.
+     *
+     * <p>One binary search in the room's start-ordered index finds the next
+     * one-off booking; bookings in a room do not overlap, so only the nearest
+     * earlier one can still be running. Series are expanded inside the window
+     * only.</p>
+     */
+    public LocalDateTime nextOccupiedAfter(String roomId, LocalDateTime from,
+                                           LocalDateTime until, String ignoreBookingId) {
+        if (roomId == null || from == null || until == null) return null;
+        lock.lock();
+        try {
+            return nextOccupiedAfterLocked(roomId, from, until, ignoreBookingId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private LocalDateTime nextOccupiedAfterLocked(String roomId, LocalDateTime from,
+                                                  LocalDateTime until, String ignoreBookingId) {
+        LocalDateTime next = null;
+
+        List<Booking> forRoom = bookingsByRoom.get(roomId);
+        if (forRoom != null) {
+            int i = firstStartingAfter(forRoom, from);
+
+            // nearest earlier one-off booking may still be running at `from`
+            for (int j = i - 1; j >= 0; j--) {
+                Booking b = forRoom.get(j);
+                if (!isLive(b, ignoreBookingId) || b.isRecurring()) continue;
+                if (b.getEndTime().isAfter(from)) return from;
+                break;
+            }
+            // first one-off booking starting after `from`
+            for (int j = i; j < forRoom.size(); j++) {
+                Booking b = forRoom.get(j);
+                if (!isLive(b, ignoreBookingId) || b.isRecurring()) continue;
+                if (b.getStartTime().isBefore(until)) next = b.getStartTime();
+                break;
+            }
+        }
+
+        List<Booking> series = seriesByRoom.get(roomId);
+        if (series != null) {
+            for (Booking s : series) {
+                if (!isLive(s, ignoreBookingId)) continue;
+                for (Booking occ : s.getOccurrences(from, next == null ? until : next)) {
+                    if (occ.getStatusEnum().isReleased()) continue;
+                    if (!occ.getEndTime().isAfter(from)) continue;
+                    if (!occ.getStartTime().isAfter(from)) return from;
+                    if (occ.getStartTime().isBefore(until)
+                            && (next == null || occ.getStartTime().isBefore(next))) {
+                        next = occ.getStartTime();
+                    }
+                }
+            }
+        }
+        return next;
+    }
+
+    private static boolean isLive(Booking b, String ignoreBookingId) {
+        if (b.getStatusEnum().isReleased()) return false;
+        return !b.getBookingId().equals(ignoreBookingId);
+    }
+
+    // =========================================================
+    //                  PER-ROOM INDEX
+    // =========================================================
+
+    /** Inserts after any bookings with the same start, keeping the bucket ordered. */
+    private void indexAdd(Booking booking) {
+        String roomId = booking.getRoomId();
+        List<Booking> forRoom = bookingsByRoom.computeIfAbsent(roomId, k -> new ArrayList<>());
+        forRoom.add(firstStartingAfter(forRoom, booking.getStartTime()), booking);
+        if (booking.isRecurring()) {
+            seriesByRoom.computeIfAbsent(roomId, k -> new ArrayList<>()).add(booking);
+        }
+        indexedRoom.put(booking, roomId);
+    }
+
+    private void indexRemove(Booking booking) {
+        if (!indexedRoom.containsKey(booking)) return;
+        String roomId = indexedRoom.get(booking);
+        List<Booking> forRoom = bookingsByRoom.get(roomId);
+        removeFromSeries(roomId, booking);
+        if (forRoom != null) {
+            removeSame(forRoom, booking);
+            if (!containsSame(forRoom, booking)) indexedRoom.remove(booking);
+            if (forRoom.isEmpty()) bookingsByRoom.remove(roomId);
+        } else {
+            indexedRoom.remove(booking);
+        }
+    }
+
+    /**
+     * Re-files a booking edited in place: moves it to its new room bucket,
+     * or to its new position if its start time changed.
+     */
+    private void indexReroute(Booking booking) {
+        if (!indexedRoom.containsKey(booking)) return;
+        String oldRoom = indexedRoom.get(booking);
+        List<Booking> forOldRoom = bookingsByRoom.get(oldRoom);
+        if (Objects.equals(oldRoom, booking.getRoomId()) && isInOrder(forOldRoom, booking)) return;
+
+        int copies = 0;
+        while (forOldRoom != null && removeSame(forOldRoom, booking)) copies++;
+        if (forOldRoom != null && forOldRoom.isEmpty()) bookingsByRoom.remove(oldRoom);
+        for (int i = 0; i < copies; i++) removeFromSeries(oldRoom, booking);
+
+        indexedRoom.remove(booking);
+        for (int i = 0; i < copies; i++) indexAdd(booking);
+    }
+
+    /** Index of the first booking in {@code forRoom} starting strictly after {@code time}. */
+    private static int firstStartingAfter(List<Booking> forRoom, LocalDateTime time) {
+        int lo = 0;
+        int hi = forRoom.size();
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (forRoom.get(mid).getStartTime().isAfter(time)) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    /** True if {@code booking} sits between neighbours that start no later / no earlier. */
+    private static boolean isInOrder(List<Booking> forRoom, Booking booking) {
+        if (forRoom == null) return true;
+        for (int i = 0; i < forRoom.size(); i++) {
+            if (forRoom.get(i) != booking) continue;
+            LocalDateTime start = booking.getStartTime();
+            if (i > 0 && forRoom.get(i - 1).getStartTime().isAfter(start)) return false;
+            if (i + 1 < forRoom.size() && forRoom.get(i + 1).getStartTime().isBefore(start)) return false;
+        }
+        return true;
+    }
+
+    private void removeFromSeries(String roomId, Booking booking) {
+        List<Booking> series = seriesByRoom.get(roomId);
+        if (series == null) return;
+        removeSame(series, booking);
+        if (series.isEmpty()) seriesByRoom.remove(roomId);
+    }
+
+    private static boolean removeSame(List<Booking> list, Booking booking) {
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) == booking) {
+                list.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsSame(List<Booking> list, Booking booking) {
+        for (Booking b : list) {
+            if (b == booking) return true;
+        }
+        return false;
+    }
+
+    // =========================================================
+    //                  CHANGE EVENTS
+    // =========================================================
+
+    /** Registers a listener for booking add / update / remove events. */
+    public void addListener(RepositoryListener<Booking> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(RepositoryListener<Booking> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Announces that {@code booking} was changed in place (status, times,
+     * room, deposit...). Adds and removes through {@link #getAllBookings()}
+     * are reported automatically; in-place edits must call this.
+     */
+    public void notifyUpdated(Booking booking) {
+        lock.lock();
+        try {
+            indexReroute(booking);
+        } finally {
+            lock.unlock();
+        }
+        for (RepositoryListener<Booking> l : listeners) {
+            try {
+                l.onUpdated(booking);
+            } catch (Exception e) {
+                System.out.println("[BookingRepository] Listener failed on update: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fireAdded(Booking booking) {
+        for (RepositoryListener<Booking> l : listeners) {
+            try {
+                l.onAdded(booking);
+            } catch (Exception e) {
+                System.out.println("[BookingRepository] Listener failed on add: " + e.getMessage());
+            }
+        }
+    }
+
+    private void fireRemoved(Booking booking) {
+        for (RepositoryListener<Booking> l : listeners) {
+            try {
+                l.onRemoved(booking);
+            } catch (Exception e) {
+                System.out.println("[BookingRepository] Listener failed on remove: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Backing list for {@link #getAllBookings()}. It behaves like a normal
+     * {@code ArrayList} (controllers and tests still add, remove and clear it
+     * directly) but every structural change is reported to the listeners.
+     * Each operation runs under the repository lock; listeners are called
+     * once it is released.
+     */
+    private final class TrackedBookingList extends AbstractList<Booking> implements RandomAccess {
+
+        private final ArrayList<Booking> items = new ArrayList<>();
+
+        @Override
+        public Booking get(int index) {
+            lock.lock();
+            try {
+                return items.get(index);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int size() {
+            lock.lock();
+            try {
+                return items.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void add(int index, Booking booking) {
+            lock.lock();
+            try {
+                items.add(index, booking);
+                modCount++;
+                indexAdd(booking);
+            } finally {
+                lock.unlock();
+            }
+            fireAdded(booking);
+        }
+
+        @Override
+        public Booking remove(int index) {
+            Booking removed;
+            lock.lock();
+            try {
+                removed = items.remove(index);
+                modCount++;
+                indexRemove(removed);
+            } finally {
+                lock.unlock();
+            }
+            fireRemoved(removed);
+            return removed;
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            Booking removed;
+            lock.lock();
+            try {
+                int index = items.indexOf(o);
+                if (index < 0) return false;
+                removed = items.remove(index);
+                modCount++;
+                indexRemove(removed);
+            } finally {
+                lock.unlock();
+            }
+            fireRemoved(removed);
+            return true;
+        }
+
+        @Override
+        public Booking set(int index, Booking booking) {
+            Booking previous;
+            lock.lock();
+            try {
+                previous = items.set(index, booking);
+                if (previous == booking) return previous;
+                indexRemove(previous);
+                indexAdd(booking);
+            } finally {
+                lock.unlock();
+            }
+            fireRemoved(previous);
+            fireAdded(booking);
+            return previous;
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super Booking> filter) {
+            List<Booking> removed = new ArrayList<>();
+            lock.lock();
+            try {
+                for (Booking b : items) {
+                    if (filter.test(b)) removed.add(b);
+                }
+                if (removed.isEmpty()) return false;
+                Set<Booking> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+                gone.addAll(removed);
+                items.removeIf(gone::contains);
+                modCount++;
+                for (Booking b : removed) indexRemove(b);
+            } finally {
+                lock.unlock();
+            }
+            for (Booking b : removed) fireRemoved(b);
+            return true;
+        }
+
+        /** Removes these exact objects in one pass over the list. */
+        void removeAllSame(List<Booking> toRemove) {
+            Set<Booking> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+            gone.addAll(toRemove);
+            removeIf(gone::contains);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            lock.lock();
+            try {
+                return items.contains(o);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            lock.lock();
+            try {
+                return items.indexOf(o);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public Object[] toArray() {
+            lock.lock();
+            try {
+                return items.toArray();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public <T> T[] toArray(T[] a) {
+            lock.lock();
+            try {
+                return items.toArray(a);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void clear() {
+            List<Booking> removed;
+            lock.lock();
+            try {
+                if (items.isEmpty()) return;
+                removed = new ArrayList<>(items);
+                items.clear();
+                modCount++;
+                bookingsByRoom.clear();
+                seriesByRoom.clear();
+                indexedRoom.clear();
+            } finally {
+                lock.unlock();
             }
+            for (Booking b : removed) fireRemoved(b);
         }
-        return result;
     }
 }
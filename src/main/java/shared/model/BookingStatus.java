@@ -0,0 +1,65 @@
+package shared.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * BookingStatus – Booking Lifecycle Enumeration (Scenarios 2 & 3)
+ * ============================================================================
+ * <p>The states a {@link Booking} moves through, from creation to check-in
+ * or cancellation. {@link Booking} keeps its status as one of these constants,
+ * so the availability and quota loops compare references instead of
+ * strings.</p>
+ *
+ * <h2>Status Descriptions</h2>
+ * <ul>
+ *     <li><b>CONFIRMED</b> – booking is valid and holds the room.</li>
+ *     <li><b>PENDING_PAYMENT</b> – waiting for payment approval.</li>
+ *     <li><b>IN_USE</b> – user has checked in (Scenario 3).</li>
+ *     <li><b>FINISHED</b> – booking ran to its end.</li>
+ *     <li><b>CANCELLED</b> – user or admin cancelled the booking.</li>
+ *     <li><b>NO_SHOW</b> – check-in window passed without the user (Scenario 3).</li>
+ *     <li><b>UNKNOWN</b> – any other text found in bookings.csv; {@link Booking}
+ *         keeps the original text so it is saved back unchanged.</li>
+ * </ul>
+ *
+ * <h2>Persistence</h2>
+ * <p>Stored by name in the status column of bookings.csv via
+ * {@link shared.util.CSVHelper}.</p>
+ * ============================================================================
+ */
+
+public enum BookingStatus {
+    CONFIRMED,
+    PENDING_PAYMENT,
+    IN_USE,
+    FINISHED,
+    CANCELLED,
+    NO_SHOW,
+    UNKNOWN;
+
+    private static final Map<String, BookingStatus> BY_NAME = new HashMap<>();
+
+    static {
+        for (BookingStatus s : values()) {
+            BY_NAME.put(s.name(), s);
+        }
+    }
+
+    /**
+     * Constant with exactly this name, or {@link #UNKNOWN} for {@code null}
+     * and any other text (unlike {@link #valueOf(String)}, never throws).
+     */
+    public static BookingStatus fromString(String text) {
+        if (text == null) return UNKNOWN;
+        return BY_NAME.getOrDefault(text, UNKNOWN);
+    }
+
+    /**
+     * True for CANCELLED and NO_SHOW – bookings that no longer hold their
+     * room and are ignored by conflict checks and quotas.
+     */
+    public boolean isReleased() {
+        return this == CANCELLED || this == NO_SHOW;
+    }
+}
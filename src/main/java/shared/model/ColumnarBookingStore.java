@@ -0,0 +1,452 @@
+package shared.model;
+
+import shared.util.CSVHelper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ColumnarBookingStore – Compact Booking Storage (All Scenarios)
+ * ============================================================================
+ * <p>An alternative to the object-per-booking list of
+ * {@link BookingRepository} for very large booking sets (imports, reports,
+ * load tests). Bookings are stored column-wise in primitive arrays instead of
+ * one {@link Booking} with two {@link LocalDateTime}s and several Strings
+ * each, which cuts the per-booking footprint to roughly the booking ID plus
+ * ~30 bytes and leaves the GC almost nothing to trace.</p>
+ *
+ * <h2>Columns (one slot per row)</h2>
+ * <ul>
+ *     <li>Room, user and purpose – {@code int} codes into per-store
+ *         dictionaries (each distinct string is kept once).</li>
+ *     <li>Start and end – {@code int} minutes since 1970-01-01T00:00, read as
+ *         local date-times. Seconds are dropped: bookings are minute-aligned.</li>
+ *     <li>Status and payment status – {@code byte} dictionary codes (up to 256
+ *         distinct values each; unknown strings are kept as they are). Each
+ *         code's enum is parsed once and cached, so the status checks of the
+ *         conflict loops do no string work.</li>
+ *     <li>Deposit – {@code double}.</li>
+ *     <li>Booking ID – the only per-row object; recurrence rules are kept in
+ *         a sparse map because few rows have one.</li>
+ * </ul>
+ *
+ * <h2>Access</h2>
+ * <ul>
+ *     <li>{@link #get(int)} returns a flyweight {@link Booking} view: every
+ *         accessor reads (and every setter writes) the row's columns, so
+ *         existing code works on it unchanged. Views are created on demand;
+ *         two views of the same row are {@code equals}.</li>
+ *     <li>{@link #findRow(String)} looks IDs up in an open-addressing
+ *         {@code int} table instead of a map of boxed rows.</li>
+ *     <li>{@link #isRoomFree} scans the primitive columns without creating
+ *         any view for one-off bookings.</li>
+ * </ul>
+ *
+ * <h2>Differences From BookingRepository</h2>
+ * <p>Rows are removed by marking them deleted; their views then report
+ * nothing in queries. The store is not thread-safe and publishes no change
+ * events: the repository's listeners and identity-keyed indexes rely on
+ * long-lived booking objects, which this store deliberately does not keep.</p>
+ */
+public class ColumnarBookingStore {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_BYTE_CODES = 256;
+
+    // ---------- Columns ----------
+    private String[] bookingIds = new String[INITIAL_CAPACITY];
+    private int[] roomCodes = new int[INITIAL_CAPACITY];
+    private int[] userCodes = new int[INITIAL_CAPACITY];
+    private int[] purposeCodes = new int[INITIAL_CAPACITY];
+    private int[] startMinutes = new int[INITIAL_CAPACITY];
+    private int[] endMinutes = new int[INITIAL_CAPACITY];
+    private byte[] statusCodes = new byte[INITIAL_CAPACITY];
+    private byte[] paymentCodes = new byte[INITIAL_CAPACITY];
+    private double[] deposits = new double[INITIAL_CAPACITY];
+
+    /** Row → rule, only for recurring rows. */
+    private final Map<Integer, RecurrenceRule> recurrences = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private int size = 0;
+
+    // ---------- Dictionaries ----------
+    private final Dictionary rooms = new Dictionary();
+    private final Dictionary users = new Dictionary();
+    private final Dictionary purposes = new Dictionary();
+    private final Dictionary statuses = new Dictionary();
+    private final Dictionary paymentStatuses = new Dictionary();
+
+    /** Decoded enum per status / payment code, filled the first time a code is read. */
+    private final BookingStatus[] statusEnums = new BookingStatus[MAX_BYTE_CODES];
+    private final PaymentStatus[] paymentEnums = new PaymentStatus[MAX_BYTE_CODES];
+
+    // ---------- ID index (open addressing, slot = row + 1, 0 = empty) ----------
+    private int[] idSlots = new int[INITIAL_CAPACITY * 2];
+
+    // =========================================================
+    //                  LOAD / SAVE
+    // =========================================================
+
+    /**
+     * Reads a bookings CSV row by row. Each row is parsed into a temporary
+     * {@link Booking} that dies young, so the full object list never exists.
+     */
+    public static ColumnarBookingStore loadCsv(String path) throws IOException {
+        ColumnarBookingStore store = new ColumnarBookingStore();
+        File file = new File(path);
+        if (!file.exists()) return store;
+
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                Booking b = CSVHelper.parseBookingLine(line);
+                if (b != null) store.add(b);
+            }
+        }
+        return store;
+    }
+
+    /** Writes the live rows in the bookings CSV format. */
+    public void saveCsv(String path) throws IOException {
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(path))) {
+            bw.write(CSVHelper.BOOKING_HEADER);
+            bw.newLine();
+            for (int row = 0; row < size; row++) {
+                if (deleted.get(row)) continue;
+                bw.write(CSVHelper.formatBookingLine(get(row)));
+                bw.newLine();
+            }
+        }
+    }
+
+    // =========================================================
+    //                  ROWS
+    // =========================================================
+
+    /**
+     * Copies a booking into a new row.
+     *
+     * @return the row number, used by {@link #get(int)}
+     */
+    public int add(Booking booking) {
+        Objects.requireNonNull(booking.getBookingId(), "bookingId");
+        // encode first, so a value that does not fit leaves no half-written row
+        int start = toMinutes(booking.getStartTime());
+        int end = toMinutes(booking.getEndTime());
+        byte status = byteCode(statuses, booking.getStatus());
+        byte payment = byteCode(paymentStatuses, booking.getPaymentStatus());
+        ensureCapacity(size + 1);
+
+        int row = size++;
+        bookingIds[row] = booking.getBookingId();
+        roomCodes[row] = rooms.encode(booking.getRoomId());
+        userCodes[row] = users.encode(booking.getUserId());
+        purposeCodes[row] = purposes.encode(booking.getPurpose());
+        startMinutes[row] = start;
+        endMinutes[row] = end;
+        statusCodes[row] = status;
+        paymentCodes[row] = payment;
+        deposits[row] = booking.getDepositAmount();
+        if (booking.getRecurrence() != null) recurrences.put(row, booking.getRecurrence());
+
+        indexId(row);
+        return row;
+    }
+
+    public void addAll(Iterable<Booking> bookings) {
+        for (Booking b : bookings) add(b);
+    }
+
+    /** Flyweight view of a row. */
+    public Booking get(int row) {
+        checkRow(row);
+        return new View(row);
+    }
+
+    /** Marks a row deleted; returns {@code false} if it already was. */
+    public boolean remove(int row) {
+        checkRow(row);
+        if (deleted.get(row)) return false;
+        deleted.set(row);
+        recurrences.remove(row);
+        return true;
+    }
+
+    public boolean isDeleted(int row) {
+        checkRow(row);
+        return deleted.get(row);
+    }
+
+    /** Rows ever added, deleted ones included (valid row numbers are {@code 0..size-1}). */
+    public int size() {
+        return size;
+    }
+
+    /** Rows that are not deleted. */
+    public int liveCount() {
+        return size - deleted.cardinality();
+    }
+
+    // =========================================================
+    //                  QUERIES
+    // =========================================================
+
+    /** Row of the (first live) booking with this ID, or {@code -1}. */
+    public int findRow(String bookingId) {
+        if (bookingId == null) return -1;
+        int mask = idSlots.length - 1;
+        for (int i = spread(bookingId.hashCode()) & mask; idSlots[i] != 0; i = (i + 1) & mask) {
+            int row = idSlots[i] - 1;
+            if (!deleted.get(row) && bookingId.equals(bookingIds[row])) return row;
+        }
+        return -1;
+    }
+
+    /** View of the booking with this ID, or {@code null}. */
+    public Booking findById(String bookingId) {
+        int row = findRow(bookingId);
+        return row < 0 ? null : new View(row);
+    }
+
+    /** Views of a room's live bookings, ordered by start time. */
+    public List<Booking> getBookingsForRoom(String roomId) {
+        List<Booking> result = new ArrayList<>();
+        int room = rooms.codeOf(roomId);
+        if (room < 0) return result;
+
+        // (start << 32 | row) sorts by start, then row, without boxing
+        long[] keys = new long[16];
+        int n = 0;
+        for (int row = 0; row < size; row++) {
+            if (roomCodes[row] != room || deleted.get(row)) continue;
+            if (n == keys.length) keys = Arrays.copyOf(keys, n * 2);
+            keys[n++] = ((long) startMinutes[row] << 32) | row;
+        }
+        Arrays.sort(keys, 0, n);
+        for (int i = 0; i < n; i++) result.add(new View((int) keys[i]));
+        return result;
+    }
+
+    /** Views of a user's live bookings, in row order. */
+    public List<Booking> getBookingsForUser(String userId) {
+        List<Booking> result = new ArrayList<>();
+        int user = users.codeOf(userId);
+        if (user < 0) return result;
+        for (int row = 0; row < size; row++) {
+            if (userCodes[row] == user && !deleted.get(row)) result.add(new View(row));
+        }
+        return result;
+    }
+
+    /**
+     * True if no live booking (not cancelled / no-show, not
+     * {@code ignoreBookingId}) in the room overlaps {@code [start, end]},
+     * touching ends included – the same rule as {@link Booking#conflictsWith}.
+     * One-off bookings are compared on the primitive columns directly.
+     */
+    public boolean isRoomFree(String roomId, LocalDateTime start, LocalDateTime end, String ignoreBookingId) {
+        int room = rooms.codeOf(roomId);
+        if (room < 0) return true;
+
+        long fromSecond = start.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = end.toEpochSecond(ZoneOffset.UTC);
+        int cancelled = statuses.codeOf(BookingStatus.CANCELLED.name());
+        int noShow = statuses.codeOf(BookingStatus.NO_SHOW.name());
+
+        for (int row = 0; row < size; row++) {
+            if (roomCodes[row] != room || deleted.get(row)) continue;
+            int status = statusCodes[row] & 0xFF;
+            if (status == cancelled || status == noShow) continue;
+            if (ignoreBookingId != null && ignoreBookingId.equals(bookingIds[row])) continue;
+
+            if (recurrences.containsKey(row)) {
+                if (new View(row).conflictsWith(start, end)) return false;
+            } else if (endMinutes[row] * 60L >= fromSecond && startMinutes[row] * 60L <= toSecond) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // =========================================================
+    //                  INTERNALS
+    // =========================================================
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        }
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= bookingIds.length) return;
+        int capacity = Math.max(needed, bookingIds.length * 2);
+        bookingIds = Arrays.copyOf(bookingIds, capacity);
+        roomCodes = Arrays.copyOf(roomCodes, capacity);
+        userCodes = Arrays.copyOf(userCodes, capacity);
+        purposeCodes = Arrays.copyOf(purposeCodes, capacity);
+        startMinutes = Arrays.copyOf(startMinutes, capacity);
+        endMinutes = Arrays.copyOf(endMinutes, capacity);
+        statusCodes = Arrays.copyOf(statusCodes, capacity);
+        paymentCodes = Arrays.copyOf(paymentCodes, capacity);
+        deposits = Arrays.copyOf(deposits, capacity);
+    }
+
+    /** Adds a row to the ID table, doubling it at half load. */
+    private void indexId(int row) {
+        if (size * 2 > idSlots.length) {
+            idSlots = new int[idSlots.length * 2];
+            for (int r = 0; r < size; r++) insertSlot(r);
+        } else {
+            insertSlot(row);
+        }
+    }
+
+    private void insertSlot(int row) {
+        int mask = idSlots.length - 1;
+        int i = spread(bookingIds[row].hashCode()) & mask;
+        while (idSlots[i] != 0) i = (i + 1) & mask;
+        idSlots[i] = row + 1;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+
+    static int toMinutes(LocalDateTime time) {
+        return Math.toIntExact(Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    static LocalDateTime fromMinutes(int minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private static byte byteCode(Dictionary dictionary, String value) {
+        int code = dictionary.codeOf(value);
+        if (code < 0) {
+            if (dictionary.size() >= MAX_BYTE_CODES) {
+                throw new IllegalStateException("More than " + MAX_BYTE_CODES + " distinct status values.");
+            }
+            code = dictionary.encode(value);
+        }
+        return (byte) code;
+    }
+
+    private BookingStatus statusEnum(int code) {
+        BookingStatus status = statusEnums[code];
+        if (status == null) {
+            status = BookingStatus.fromString(statuses.decode(code));
+            statusEnums[code] = status;
+        }
+        return status;
+    }
+
+    private PaymentStatus paymentEnum(int code) {
+        PaymentStatus status = paymentEnums[code];
+        if (status == null) {
+            status = PaymentStatus.fromString(paymentStatuses.decode(code));
+            paymentEnums[code] = status;
+        }
+        return status;
+    }
+
+    /** String ↔ dense int code; every distinct value is stored once. */
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int encode(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        /** Code of a known value, or {@code -1}. */
+        int codeOf(String value) {
+            Integer code = codes.get(value);
+            return code == null ? -1 : code;
+        }
+
+        String decode(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+
+    // =========================================================
+    //                  FLYWEIGHT VIEW
+    // =========================================================
+
+    /** A {@link Booking} whose fields are one row of the enclosing store. */
+    private final class View extends Booking {
+        private final int row;
+
+        View(int row) {
+            this.row = row;
+        }
+
+        @Override public String getBookingId() { return bookingIds[row]; }
+        @Override public String getRoomId() { return rooms.decode(roomCodes[row]); }
+        @Override public String getUserId() { return users.decode(userCodes[row]); }
+        @Override public LocalDateTime getStartTime() { return fromMinutes(startMinutes[row]); }
+        @Override public LocalDateTime getEndTime() { return fromMinutes(endMinutes[row]); }
+        @Override public String getPurpose() { return purposes.decode(purposeCodes[row]); }
+        @Override public String getStatus() { return statuses.decode(statusCodes[row] & 0xFF); }
+        @Override public String getPaymentStatus() { return paymentStatuses.decode(paymentCodes[row] & 0xFF); }
+        @Override public BookingStatus getStatusEnum() { return statusEnum(statusCodes[row] & 0xFF); }
+        @Override public PaymentStatus getPaymentStatusEnum() { return paymentEnum(paymentCodes[row] & 0xFF); }
+        @Override public double getDepositAmount() { return deposits[row]; }
+        @Override public RecurrenceRule getRecurrence() { return recurrences.get(row); }
+
+        @Override public void setStatus(String status) { statusCodes[row] = byteCode(statuses, status); }
+        @Override public void setPurpose(String purpose) { purposeCodes[row] = purposes.encode(purpose); }
+        @Override public void setPaymentStatus(String paymentStatus) {
+            paymentCodes[row] = byteCode(paymentStatuses, paymentStatus);
+        }
+        @Override public void setDepositAmount(double depositAmount) { deposits[row] = depositAmount; }
+        @Override public void setRoomId(String roomId) { roomCodes[row] = rooms.encode(roomId); }
+        @Override public void setStartTime(LocalDateTime startTime) { startMinutes[row] = toMinutes(startTime); }
+        @Override public void setEndTime(LocalDateTime endTime) { endMinutes[row] = toMinutes(endTime); }
+        @Override public void setRecurrence(RecurrenceRule recurrence) {
+            if (recurrence == null) recurrences.remove(row);
+            else recurrences.put(row, recurrence);
+        }
+
+        private ColumnarBookingStore store() {
+            return ColumnarBookingStore.this;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof View)) return false;
+            View other = (View) o;
+            return row == other.row && store() == other.store();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(store()) + row;
+        }
+    }
+}
@@ -0,0 +1,700 @@
+package shared.model;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.IntConsumer;
+
+/**
+ * OffHeapBookingSegment – Memory-Mapped Booking History (All Scenarios)
+ * ============================================================================
+ * <p>Read-only view of historical bookings kept in fixed-width records in a
+ * memory-mapped file, accessed through the Foreign Memory API. The records
+ * live outside the Java heap, so heap size and GC pauses do not grow with
+ * years of history; range and room queries scan the mapped records without
+ * creating objects.</p>
+ *
+ * <h2>File Layout (little-endian)</h2>
+ * <pre>
+ * header  (48 B)  magic, version, record count, max span, strings offset, dictionaries offset,
+ *                 series count
+ * records (48 B each) one-off bookings sorted by start, then recurring series
+ *   0 start minute   4 end minute   8 series end minute   12 room code
+ *  16 user code     20 purpose code 24 recurrence code (-1 = none)
+ *  28 status code   29 payment code 32 deposit (double)
+ *  40 booking ID offset             44 booking ID length
+ * strings         booking IDs, UTF-8
+ * dictionaries    rooms, users, purposes, statuses, payment statuses, recurrence rules
+ * </pre>
+ * <p>Times are minutes since 1970-01-01T00:00 read as local date-times, as in
+ * {@link ColumnarBookingStore}. Only the small dictionaries are copied onto
+ * the heap when the segment is opened.</p>
+ *
+ * <h2>Queries</h2>
+ * <ul>
+ *     <li>One-off records are sorted by start, and the header stores the
+ *         longest one-off booking, so an overlap query binary-searches to the
+ *         only slice that can match.</li>
+ *     <li>Recurring series sit in their own section after the one-off
+ *         records and are checked one by one, so a series running for months
+ *         does not widen the binary-search window of every query.</li>
+ *     <li>{@link #forEachOverlapping} hands record indexes to the caller;
+ *         the {@code get...} accessors read single fields without
+ *         materialising a {@link Booking}.</li>
+ *     <li>Recurring records are expanded (as objects) only when their series
+ *         span overlaps the query.</li>
+ * </ul>
+ *
+ * <h2>Writing</h2>
+ * <p>{@link #write(Path, Iterator)} never holds the whole history on the
+ * heap: bookings are sorted in runs of {@link #RUN_SIZE}, each run is
+ * spilled to a temporary file, and the runs are merged straight into the
+ * mapped segment.</p>
+ *
+ * <p>Built from the {@link BookingArchive} by the archive job, which installs
+ * it as the archive's {@link BookingHistoryIndex}; the segment must be
+ * {@linkplain #close() closed} to unmap the file.</p>
+ */
+public final class OffHeapBookingSegment implements BookingHistoryIndex {
+
+    /** Segment file name, kept next to the bookings CSV. */
+    public static final String FILE_NAME = "bookings_history.seg";
+
+    private static final int MAGIC = 0x424B5347;   // "BKSG"
+    private static final int VERSION = 2;
+
+    /** Bookings sorted in memory at a time while writing. */
+    public static final int RUN_SIZE = 50_000;
+
+    // ---------- Header ----------
+    private static final long H_MAGIC = 0;
+    private static final long H_VERSION = 4;
+    private static final long H_COUNT = 8;
+    private static final long H_MAX_SPAN = 16;
+    private static final long H_STRINGS = 24;
+    private static final long H_DICTIONARIES = 32;
+    private static final long H_SERIES_COUNT = 40;
+    private static final long HEADER_SIZE = 48;
+
+    // ---------- Record ----------
+    static final long RECORD_SIZE = 48;
+    private static final long R_START = 0;
+    private static final long R_END = 4;
+    private static final long R_SERIES_END = 8;
+    private static final long R_ROOM = 12;
+    private static final long R_USER = 16;
+    private static final long R_PURPOSE = 20;
+    private static final long R_RECURRENCE = 24;
+    private static final long R_STATUS = 28;
+    private static final long R_PAYMENT = 29;
+    private static final long R_DEPOSIT = 32;
+    private static final long R_ID_OFFSET = 40;
+    private static final long R_ID_LENGTH = 44;
+
+    private static final int ROOMS = 0;
+    private static final int USERS = 1;
+    private static final int PURPOSES = 2;
+    private static final int STATUSES = 3;
+    private static final int PAYMENTS = 4;
+    private static final int RECURRENCES = 5;
+    private static final int DICTIONARY_COUNT = 6;
+
+    private static final int MAX_BYTE_CODES = 256;
+
+    private static final ValueLayout.OfInt INT =
+            ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG =
+            ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfDouble DOUBLE =
+            ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfByte BYTE = ValueLayout.JAVA_BYTE;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int count;
+    /** Index of the first recurring record; one-off records come before it. */
+    private final int seriesStart;
+    private final int maxSpanMinutes;
+    private final long stringsOffset;
+
+    /** Decoded dictionaries; record fields index into these. */
+    private final String[][] dictionaries = new String[DICTIONARY_COUNT][];
+    private final Map<String, Integer> roomCodes = new HashMap<>();
+    private final int cancelledCode;
+    private final int noShowCode;
+
+    // =========================================================
+    //                  OPEN / CLOSE
+    // =========================================================
+
+    /** Maps a segment file read-only. */
+    public static OffHeapBookingSegment open(Path file) throws IOException {
+        Arena arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MemorySegment mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            return new OffHeapBookingSegment(arena, mapped, file);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+    }
+
+    private OffHeapBookingSegment(Arena arena, MemorySegment segment, Path file) throws IOException {
+        this.arena = arena;
+        this.segment = segment;
+
+        if (segment.byteSize() < HEADER_SIZE
+                || segment.get(INT, H_MAGIC) != MAGIC
+                || segment.get(INT, H_VERSION) != VERSION) {
+            throw new IOException("Not a booking history segment: " + file);
+        }
+        count = Math.toIntExact(segment.get(LONG, H_COUNT));
+        seriesStart = count - Math.toIntExact(segment.get(LONG, H_SERIES_COUNT));
+        maxSpanMinutes = Math.toIntExact(segment.get(LONG, H_MAX_SPAN));
+        stringsOffset = segment.get(LONG, H_STRINGS);
+
+        long offset = segment.get(LONG, H_DICTIONARIES);
+        for (int d = 0; d < DICTIONARY_COUNT; d++) {
+            int size = segment.get(INT, offset);
+            offset += 4;
+            String[] values = new String[size];
+            for (int i = 0; i < size; i++) {
+                int length = segment.get(INT, offset);
+                offset += 4;
+                if (length >= 0) {
+                    values[i] = readUtf8(offset, length);
+                    offset += length;
+                }
+            }
+            dictionaries[d] = values;
+        }
+        for (int i = 0; i < dictionaries[ROOMS].length; i++) {
+            roomCodes.put(dictionaries[ROOMS][i], i);
+        }
+        cancelledCode = indexOf(dictionaries[STATUSES], BookingStatus.CANCELLED.name());
+        noShowCode = indexOf(dictionaries[STATUSES], BookingStatus.NO_SHOW.name());
+    }
+
+    /** Unmaps the file; the segment must not be used afterwards. */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    // =========================================================
+    //                  RECORD ACCESS (no allocation)
+    // =========================================================
+
+    public int size() {
+        return count;
+    }
+
+    public int getStartMinute(int record) { return segment.get(INT, at(record) + R_START); }
+    public int getEndMinute(int record) { return segment.get(INT, at(record) + R_END); }
+    public double getDeposit(int record) { return segment.get(DOUBLE, at(record) + R_DEPOSIT); }
+    public boolean isRecurring(int record) { return segment.get(INT, at(record) + R_RECURRENCE) >= 0; }
+
+    /** Room ID of a record (a dictionary entry, not a new string). */
+    public String getRoomId(int record) {
+        return dictionaries[ROOMS][segment.get(INT, at(record) + R_ROOM)];
+    }
+
+    public String getUserId(int record) {
+        return dictionaries[USERS][segment.get(INT, at(record) + R_USER)];
+    }
+
+    public String getStatus(int record) {
+        return dictionaries[STATUSES][segment.get(BYTE, at(record) + R_STATUS) & 0xFF];
+    }
+
+    /** Copies one record into a regular {@link Booking}. */
+    public Booking materialize(int record) {
+        long base = at(record);
+        String bookingId = readUtf8(stringsOffset + segment.get(INT, base + R_ID_OFFSET),
+                segment.get(INT, base + R_ID_LENGTH));
+
+        Booking b = new Booking(
+                bookingId,
+                getRoomId(record),
+                getUserId(record),
+                toTime(getStartMinute(record)),
+                toTime(getEndMinute(record)),
+                dictionaries[PURPOSES][segment.get(INT, base + R_PURPOSE)],
+                getStatus(record),
+                dictionaries[PAYMENTS][segment.get(BYTE, base + R_PAYMENT) & 0xFF],
+                getDeposit(record));
+
+        int recurrence = segment.get(INT, base + R_RECURRENCE);
+        if (recurrence >= 0) {
+            b.setRecurrence(RecurrenceRule.parse(dictionaries[RECURRENCES][recurrence]));
+        }
+        return b;
+    }
+
+    // =========================================================
+    //                  RANGE / ROOM QUERIES
+    // =========================================================
+
+    /**
+     * Visits every record in {@code roomId} ({@code null} = all rooms) that
+     * overlaps {@code [from, to]}, touching ends included – the rule of
+     * {@link Booking#conflictsWith}. Statuses are not filtered.
+     *
+     * @return number of records visited
+     */
+    public int forEachOverlapping(String roomId, LocalDateTime from, LocalDateTime to, IntConsumer visitor) {
+        int room = -1;
+        if (roomId != null) {
+            Integer code = roomCodes.get(roomId);
+            if (code == null) return 0;
+            room = code;
+        }
+
+        long fromSecond = from.toEpochSecond(ZoneOffset.UTC);
+        long toSecond = to.toEpochSecond(ZoneOffset.UTC);
+        long earliestStart = Math.floorDiv(fromSecond, 60) - maxSpanMinutes;
+
+        int visited = 0;
+        for (int r = firstStartingAtOrAfter(earliestStart); r < seriesStart; r++) {
+            long base = at(r);
+            if (segment.get(INT, base + R_START) * 60L > toSecond) break;
+            if (room >= 0 && segment.get(INT, base + R_ROOM) != room) continue;
+            if (segment.get(INT, base + R_END) * 60L < fromSecond) continue;
+
+            visitor.accept(r);
+            visited++;
+        }
+
+        for (int r = seriesStart; r < count; r++) {
+            long base = at(r);
+            if (segment.get(INT, base + R_START) * 60L > toSecond) continue;
+            if (room >= 0 && segment.get(INT, base + R_ROOM) != room) continue;
+            if (segment.get(INT, base + R_SERIES_END) * 60L < fromSecond) continue;
+            if (!materialize(r).conflictsWith(from, to)) continue;
+
+            visitor.accept(r);
+            visited++;
+        }
+        return visited;
+    }
+
+    /** Number of records in the room ({@code null} = all rooms) overlapping {@code [from, to]}. */
+    public int countOverlapping(String roomId, LocalDateTime from, LocalDateTime to) {
+        return forEachOverlapping(roomId, from, to, r -> { });
+    }
+
+    /** Records overlapping {@code [from, to]}, materialised – for views that need objects. */
+    public List<Booking> findOverlapping(String roomId, LocalDateTime from, LocalDateTime to) {
+        List<Booking> result = new ArrayList<>();
+        forEachOverlapping(roomId, from, to, r -> result.add(materialize(r)));
+        return result;
+    }
+
+    /**
+     * Minutes the room ({@code null} = all rooms) was booked within
+     * {@code [from, to)}, cancelled and no-show bookings excluded – the
+     * utilisation figure for reports. One-off records are clipped on the
+     * mapped fields alone.
+     */
+    public long bookedMinutes(String roomId, LocalDateTime from, LocalDateTime to) {
+        long fromMinute = Math.floorDiv(from.toEpochSecond(ZoneOffset.UTC), 60);
+        long toMinute = Math.floorDiv(to.toEpochSecond(ZoneOffset.UTC), 60);
+        long[] total = new long[1];
+
+        forEachOverlapping(roomId, from, to, r -> {
+            int status = segment.get(BYTE, at(r) + R_STATUS) & 0xFF;
+            if (status == cancelledCode || status == noShowCode) return;
+
+            if (!isRecurring(r)) {
+                total[0] += overlapMinutes(getStartMinute(r), getEndMinute(r), fromMinute, toMinute);
+                return;
+            }
+            for (Booking occ : materialize(r).getOccurrences(from, to)) {
+                total[0] += overlapMinutes(toMinute(occ.getStartTime()), toMinute(occ.getEndTime()),
+                        fromMinute, toMinute);
+            }
+        });
+        return total[0];
+    }
+
+    private static long overlapMinutes(long start, long end, long from, long to) {
+        return Math.max(0, Math.min(end, to) - Math.max(start, from));
+    }
+
+    /**
+     * Records of one user (IDs compared ignoring case), most recent first.
+     * Scans the mapped user codes; only matching records are materialised.
+     */
+    @Override
+    public List<Booking> findForUser(String userId) {
+        List<Booking> result = new ArrayList<>();
+        if (userId == null) return result;
+
+        String[] users = dictionaries[USERS];
+        boolean[] matches = new boolean[users.length];
+        boolean any = false;
+        for (int i = 0; i < users.length; i++) {
+            matches[i] = users[i] != null && users[i].equalsIgnoreCase(userId);
+            any |= matches[i];
+        }
+        if (!any) return result;
+
+        for (int r = 0; r < count; r++) {
+            if (matches[segment.get(INT, at(r) + R_USER)]) result.add(materialize(r));
+        }
+        result.sort((a, b) -> b.getStartTime().compareTo(a.getStartTime()));
+        return result;
+    }
+
+    /** First one-off record whose start minute is {@code >= minute}. */
+    private int firstStartingAtOrAfter(long minute) {
+        int lo = 0;
+        int hi = seriesStart;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (segment.get(INT, at(mid) + R_START) < minute) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // =========================================================
+    //                  WRITE
+    // =========================================================
+
+    /** Writes {@code bookings} as a new segment file; see {@link #write(Path, Iterator)}. */
+    public static void write(Path file, List<Booking> bookings) throws IOException {
+        write(file, bookings.iterator());
+    }
+
+    /**
+     * Writes the bookings as a new segment file, reading them once. The file
+     * is built next to {@code file} and moved into place, so readers never
+     * see a partial segment; segments already open keep their old mapping.
+     */
+    public static void write(Path file, Iterator<Booking> bookings) throws IOException {
+        write(file, bookings, RUN_SIZE);
+    }
+
+    /** Package-private for tests, which use small runs to exercise the merge. */
+    static void write(Path file, Iterator<Booking> bookings, int runSize) throws IOException {
+        RunWriter writer = new RunWriter(file);
+        try {
+            // first pass: sorted runs of one-off bookings, series as they come
+            List<Booking> run = new ArrayList<>();
+            while (bookings.hasNext()) {
+                Booking b = bookings.next();
+                if (b.isRecurring()) {
+                    writer.addSeries(b);
+                    continue;
+                }
+                run.add(b);
+                if (run.size() == runSize) {
+                    writer.spill(run);
+                    run.clear();
+                }
+            }
+            writer.spill(run);
+            writer.finishRuns();
+
+            // second pass: merge the runs straight into the mapped file
+            writer.writeSegment();
+        } finally {
+            writer.deleteRuns();
+        }
+    }
+
+    /** Dictionaries, counters and temporary run files of one {@link #write}. */
+    private static final class RunWriter {
+        private final Path file;
+        private final List<Path> runs = new ArrayList<>();
+        private final Path seriesRun;
+        private final DataOutputStream series;
+        private final List<Map<String, Integer>> codes = new ArrayList<>();
+        private final List<List<String>> values = new ArrayList<>();
+        private long oneOffCount;
+        private long seriesCount;
+        private long stringsSize;
+        private long maxSpan;
+
+        RunWriter(Path file) throws IOException {
+            this.file = file;
+            for (int d = 0; d < DICTIONARY_COUNT; d++) {
+                codes.add(new HashMap<>());
+                values.add(new ArrayList<>());
+            }
+            seriesRun = file.resolveSibling(file.getFileName() + ".series.run");
+            series = openRun(seriesRun);
+        }
+
+        void addSeries(Booking b) throws IOException {
+            writeRecord(series, b);
+            seriesCount++;
+        }
+
+        /** Sorts one run by start and writes it to its own temporary file. */
+        void spill(List<Booking> run) throws IOException {
+            if (run.isEmpty()) return;
+            run.sort(Comparator.comparing(Booking::getStartTime));
+
+            Path path = file.resolveSibling(file.getFileName() + "." + runs.size() + ".run");
+            runs.add(path);
+            try (DataOutputStream out = openRun(path)) {
+                for (Booking b : run) {
+                    writeRecord(out, b);
+                    maxSpan = Math.max(maxSpan, (long) toMinute(b.getEndTime()) - toMinute(b.getStartTime()));
+                }
+            }
+            oneOffCount += run.size();
+        }
+
+        void finishRuns() throws IOException {
+            series.close();
+        }
+
+        /** One record in run format: the fixed fields, then the booking ID. */
+        private void writeRecord(DataOutputStream out, Booking b) throws IOException {
+            byte[] id = b.getBookingId().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(toMinute(b.getStartTime()));
+            out.writeInt(toMinute(b.getEndTime()));
+            out.writeInt(toMinute(b.getSeriesEnd()));
+            out.writeInt(encode(codes.get(ROOMS), values.get(ROOMS), b.getRoomId()));
+            out.writeInt(encode(codes.get(USERS), values.get(USERS), b.getUserId()));
+            out.writeInt(encode(codes.get(PURPOSES), values.get(PURPOSES), b.getPurpose()));
+            out.writeInt(b.isRecurring()
+                    ? encode(codes.get(RECURRENCES), values.get(RECURRENCES), b.getRecurrence().format())
+                    : -1);
+            out.writeByte(byteCode(codes.get(STATUSES), values.get(STATUSES), b.getStatus()));
+            out.writeByte(byteCode(codes.get(PAYMENTS), values.get(PAYMENTS), b.getPaymentStatus()));
+            out.writeDouble(b.getDepositAmount());
+            out.writeInt(id.length);
+            out.write(id);
+            stringsSize += id.length;
+        }
+
+        void writeSegment() throws IOException {
+            long n = oneOffCount + seriesCount;
+            long stringsOffset = HEADER_SIZE + n * RECORD_SIZE;
+            long dictionariesOffset = stringsOffset + stringsSize;
+            long total = dictionariesOffset + dictionariesSize();
+
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                 Arena arena = Arena.ofConfined()) {
+
+                MemorySegment out = channel.map(FileChannel.MapMode.READ_WRITE, 0, total, arena);
+
+                out.set(INT, H_MAGIC, MAGIC);
+                out.set(INT, H_VERSION, VERSION);
+                out.set(LONG, H_COUNT, n);
+                out.set(LONG, H_MAX_SPAN, maxSpan);
+                out.set(LONG, H_STRINGS, stringsOffset);
+                out.set(LONG, H_DICTIONARIES, dictionariesOffset);
+                out.set(LONG, H_SERIES_COUNT, seriesCount);
+
+                long[] next = {0, 0};   // record index, ID offset
+                mergeRuns(out, stringsOffset, next);
+                try (RunReader reader = new RunReader(seriesRun, 0)) {
+                    while (reader.next()) {
+                        reader.copyTo(out, next, stringsOffset);
+                    }
+                }
+                writeDictionaries(out, dictionariesOffset);
+                out.force();
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /** K-way merge of the sorted runs by start; ties keep run order. */
+        private void mergeRuns(MemorySegment out, long stringsOffset, long[] next) throws IOException {
+            PriorityQueue<RunReader> heads = new PriorityQueue<>((a, b) -> a.start != b.start
+                    ? Integer.compare(a.start, b.start)
+                    : Integer.compare(a.order, b.order));
+            List<RunReader> readers = new ArrayList<>();
+            try {
+                for (int i = 0; i < runs.size(); i++) {
+                    RunReader reader = new RunReader(runs.get(i), i);
+                    readers.add(reader);
+                    if (reader.next()) heads.add(reader);
+                }
+                RunReader head;
+                while ((head = heads.poll()) != null) {
+                    head.copyTo(out, next, stringsOffset);
+                    if (head.next()) heads.add(head);
+                }
+            } finally {
+                for (RunReader reader : readers) reader.close();
+            }
+        }
+
+        private long dictionariesSize() {
+            long size = 0;
+            for (List<String> dictionary : values) {
+                size += 4;
+                for (String v : dictionary) {
+                    size += 4 + (v == null ? 0 : v.getBytes(StandardCharsets.UTF_8).length);
+                }
+            }
+            return size;
+        }
+
+        private void writeDictionaries(MemorySegment out, long offset) {
+            for (List<String> dictionary : values) {
+                out.set(INT, offset, dictionary.size());
+                offset += 4;
+                for (String v : dictionary) {
+                    byte[] bytes = v == null ? null : v.getBytes(StandardCharsets.UTF_8);
+                    out.set(INT, offset, bytes == null ? -1 : bytes.length);
+                    offset += 4;
+                    if (bytes != null) {
+                        MemorySegment.copy(bytes, 0, out, BYTE, offset, bytes.length);
+                        offset += bytes.length;
+                    }
+                }
+            }
+        }
+
+        void deleteRuns() throws IOException {
+            series.close();
+            Files.deleteIfExists(seriesRun);
+            for (Path run : runs) Files.deleteIfExists(run);
+        }
+
+        private static DataOutputStream openRun(Path path) throws IOException {
+            return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        }
+    }
+
+    /** Reads one run file record by record into reused fields. */
+    private static final class RunReader implements AutoCloseable {
+        private final DataInputStream in;
+        private final int order;
+        private final int[] fields = new int[7];
+        private byte status;
+        private byte payment;
+        private double deposit;
+        private byte[] id = new byte[64];
+        private int idLength;
+        int start;
+
+        RunReader(Path path, int order) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+            this.order = order;
+        }
+
+        /** Reads the next record; {@code false} at the end of the run. */
+        boolean next() throws IOException {
+            try {
+                fields[0] = in.readInt();
+            } catch (EOFException end) {
+                return false;
+            }
+            for (int i = 1; i < fields.length; i++) fields[i] = in.readInt();
+            status = in.readByte();
+            payment = in.readByte();
+            deposit = in.readDouble();
+            idLength = in.readInt();
+            if (idLength > id.length) id = new byte[Math.max(idLength, id.length * 2)];
+            in.readFully(id, 0, idLength);
+            start = fields[0];
+            return true;
+        }
+
+        /** Writes the current record at {@code next[0]} and its ID at {@code next[1]}. */
+        void copyTo(MemorySegment out, long[] next, long stringsOffset) {
+            long base = HEADER_SIZE + next[0] * RECORD_SIZE;
+            out.set(INT, base + R_START, fields[0]);
+            out.set(INT, base + R_END, fields[1]);
+            out.set(INT, base + R_SERIES_END, fields[2]);
+            out.set(INT, base + R_ROOM, fields[3]);
+            out.set(INT, base + R_USER, fields[4]);
+            out.set(INT, base + R_PURPOSE, fields[5]);
+            out.set(INT, base + R_RECURRENCE, fields[6]);
+            out.set(BYTE, base + R_STATUS, status);
+            out.set(BYTE, base + R_PAYMENT, payment);
+            out.set(DOUBLE, base + R_DEPOSIT, deposit);
+            out.set(INT, base + R_ID_OFFSET, Math.toIntExact(next[1]));
+            out.set(INT, base + R_ID_LENGTH, idLength);
+
+            MemorySegment.copy(id, 0, out, BYTE, stringsOffset + next[1], idLength);
+            next[0]++;
+            next[1] += idLength;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // =========================================================
+    //                  INTERNALS
+    // =========================================================
+
+    private static long at(int record) {
+        return HEADER_SIZE + record * RECORD_SIZE;
+    }
+
+    private String readUtf8(long offset, int length) {
+        byte[] bytes = segment.asSlice(offset, length).toArray(BYTE);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static int toMinute(LocalDateTime time) {
+        return Math.toIntExact(Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60));
+    }
+
+    static LocalDateTime toTime(int minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60L, 0, ZoneOffset.UTC);
+    }
+
+    private static int encode(Map<String, Integer> codes, List<String> values, String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private static int byteCode(Map<String, Integer> codes, List<String> values, String value) {
+        if (!codes.containsKey(value) && values.size() >= MAX_BYTE_CODES) {
+            throw new IllegalStateException("More than " + MAX_BYTE_CODES + " distinct status values.");
+        }
+        return encode(codes, values, value);
+    }
+
+    private static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (value.equals(values[i])) return i;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,52 @@
+package shared.model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * PaymentStatus – Booking Payment State Enumeration (Scenario 2)
+ * ============================================================================
+ * <p>The payment states of a {@link Booking}. {@link Booking} keeps its
+ * payment status as one of these constants; the String accessors remain
+ * for the UI and CSV code.</p>
+ *
+ * <h2>Status Descriptions</h2>
+ * <ul>
+ *     <li><b>PENDING</b> – payment not completed yet.</li>
+ *     <li><b>APPROVED</b> – payment successful.</li>
+ *     <li><b>FAILED</b> – payment encountered an error.</li>
+ *     <li><b>REFUNDED</b> – deposit returned after a cancellation.</li>
+ *     <li><b>FORFEITED</b> – deposit kept after a no-show.</li>
+ *     <li><b>INVOICED</b> – partner booking billed in a monthly invoice.</li>
+ *     <li><b>UNKNOWN</b> – any other text found in bookings.csv; {@link Booking}
+ *         keeps the original text so it is saved back unchanged.</li>
+ * </ul>
+ * ============================================================================
+ */
+
+public enum PaymentStatus {
+    PENDING,
+    APPROVED,
+    FAILED,
+    REFUNDED,
+    FORFEITED,
+    INVOICED,
+    UNKNOWN;
+
+    private static final Map<String, PaymentStatus> BY_NAME = new HashMap<>();
+
+    static {
+        for (PaymentStatus s : values()) {
+            BY_NAME.put(s.name(), s);
+        }
+    }
+
+    /**
+     * Constant with exactly this name, or {@link #UNKNOWN} for {@code null}
+     * and any other text (unlike {@link #valueOf(String)}, never throws).
+     */
+    public static PaymentStatus fromString(String text) {
+        if (text == null) return UNKNOWN;
+        return BY_NAME.getOrDefault(text, UNKNOWN);
+    }
+}
@@ -0,0 +1,219 @@
+package shared.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * RecurrenceRule – Repeating Bookings (Scenario 2)
+ * ------------------------------------------------------------------------
+ * <p>Describes how a {@link Booking} repeats: every week or every other week,
+ * on the booking's own weekday or on a chosen set of weekdays, up to and
+ * including an end date. The booking's start/end are the first occurrence;
+ * every occurrence has the same time of day and length.</p>
+ *
+ * <h2>Lazy Expansion</h2>
+ * <ul>
+ *     <li>A series is stored as one booking plus this rule – occurrences are
+ *         never materialised in the repository or the CSV.</li>
+ *     <li>{@link #occurrenceStarts} jumps straight to the first week inside the
+ *         queried window, so the cost depends on the window, not on how long
+ *         the series runs.</li>
+ *     <li>{@link #hasOccurrence} answers "does any occurrence start in this
+ *         window?" and stops at the first hit, without building a list.</li>
+ * </ul>
+ *
+ * <h2>CSV Form</h2>
+ * <p>{@code W<interval>:<days>:<until>}, e.g. {@code W1:MON+WED:2026-04-30}
+ * or {@code W2:-:2026-04-30} ("-" = the booking's own weekday). The form has
+ * no commas, so it fits as an extra column of {@code bookings.csv}.</p>
+ */
+public final class RecurrenceRule {
+
+    private final int intervalWeeks;
+    /** Empty = the weekday of the series start. */
+    private final Set<DayOfWeek> days;
+    /** Last date an occurrence may fall on (inclusive). */
+    private final LocalDate until;
+
+    public RecurrenceRule(int intervalWeeks, Set<DayOfWeek> days, LocalDate until) {
+        if (intervalWeeks < 1) {
+            throw new IllegalArgumentException("Recurrence interval must be at least one week.");
+        }
+        if (until == null) {
+            throw new IllegalArgumentException("Recurrence needs an end date.");
+        }
+        this.intervalWeeks = intervalWeeks;
+        this.days = (days == null || days.isEmpty())
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(days));
+        this.until = until;
+    }
+
+    /** Every week on the booking's weekday. */
+    public static RecurrenceRule weekly(LocalDate until) {
+        return new RecurrenceRule(1, null, until);
+    }
+
+    /** Every other week on the booking's weekday. */
+    public static RecurrenceRule biweekly(LocalDate until) {
+        return new RecurrenceRule(2, null, until);
+    }
+
+    /** Every week on each of the given weekdays. */
+    public static RecurrenceRule onDays(Set<DayOfWeek> days, LocalDate until) {
+        if (days == null || days.isEmpty()) {
+            throw new IllegalArgumentException("At least one weekday is required.");
+        }
+        return new RecurrenceRule(1, days, until);
+    }
+
+    public int getIntervalWeeks() { return intervalWeeks; }
+    public Set<DayOfWeek> getDays() { return days; }
+    public LocalDate getUntil() { return until; }
+
+    // =====================================================
+    //                  OCCURRENCES
+    // =====================================================
+
+    /**
+     * Starts of the occurrences of a series beginning at {@code seriesStart}
+     * that fall within {@code [from, to]}, in chronological order.
+     */
+    public List<LocalDateTime> occurrenceStarts(LocalDateTime seriesStart,
+                                                LocalDateTime from,
+                                                LocalDateTime to) {
+        List<LocalDateTime> result = new ArrayList<>();
+        walk(seriesStart, from, to, result);
+        return result;
+    }
+
+    /** True if some occurrence starts within {@code [from, to]}. */
+    public boolean hasOccurrence(LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to) {
+        return walk(seriesStart, from, to, null);
+    }
+
+    /** Start of the last occurrence (the series start if nothing repeats). */
+    public LocalDateTime lastStart(LocalDateTime seriesStart) {
+        // every weekday slot comes round once per interval, so the last
+        // interval before "until" holds the final occurrence
+        List<LocalDateTime> tail = occurrenceStarts(seriesStart,
+                until.minusWeeks(intervalWeeks).atStartOfDay(), until.atTime(LocalTime.MAX));
+        return tail.isEmpty() ? seriesStart : tail.get(tail.size() - 1);
+    }
+
+    /** Number of occurrences in the whole series. */
+    public int countOccurrences(LocalDateTime seriesStart) {
+        return occurrenceStarts(seriesStart, seriesStart, until.atTime(LocalTime.MAX)).size();
+    }
+
+    /**
+     * Visits the occurrences inside {@code [from, to]}; collects them into
+     * {@code out} or, when {@code out} is null, stops at the first one.
+     */
+    private boolean walk(LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to,
+                         List<LocalDateTime> out) {
+        LocalDate firstDate = seriesStart.toLocalDate();
+        LocalDate lo = from.toLocalDate().isAfter(firstDate) ? from.toLocalDate() : firstDate;
+        LocalDate hi = to.toLocalDate().isBefore(until) ? to.toLocalDate() : until;
+        if (lo.isAfter(hi)) return false;
+
+        Set<DayOfWeek> effective = days.isEmpty() ? EnumSet.of(seriesStart.getDayOfWeek()) : days;
+        LocalTime time = seriesStart.toLocalTime();
+
+        // jump to the first active week at or before lo
+        LocalDate anchor = mondayOf(firstDate);
+        long weeks = ChronoUnit.WEEKS.between(anchor, mondayOf(lo));
+        LocalDate weekStart = anchor.plusWeeks(weeks - Math.floorMod(weeks, intervalWeeks));
+
+        boolean found = false;
+        for (; !weekStart.isAfter(hi); weekStart = weekStart.plusWeeks(intervalWeeks)) {
+            for (DayOfWeek day : effective) {           // EnumSet iterates Monday → Sunday
+                LocalDate date = weekStart.plusDays(day.getValue() - 1L);
+                if (date.isBefore(lo) || date.isAfter(hi)) continue;
+
+                LocalDateTime start = date.atTime(time);
+                if (start.isBefore(from) || start.isAfter(to) || start.isBefore(seriesStart)) continue;
+
+                if (out == null) return true;
+                out.add(start);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private static LocalDate mondayOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    // =====================================================
+    //                  CSV FORM
+    // =====================================================
+
+    /** {@code W<interval>:<days>:<until>} – see the class comment. */
+    public String format() {
+        StringBuilder sb = new StringBuilder("W").append(intervalWeeks).append(':');
+        if (days.isEmpty()) {
+            sb.append('-');
+        } else {
+            boolean first = true;
+            for (DayOfWeek d : days) {
+                if (!first) sb.append('+');
+                sb.append(d.name(), 0, 3);
+                first = false;
+            }
+        }
+        return sb.append(':').append(until).toString();
+    }
+
+    /** Parses {@link #format()} output. */
+    public static RecurrenceRule parse(String text) {
+        if (text == null) throw new IllegalArgumentException("Recurrence text is null.");
+        String[] p = text.trim().split(":");
+        if (p.length != 3 || !p[0].startsWith("W")) {
+            throw new IllegalArgumentException("Invalid recurrence: " + text);
+        }
+
+        int interval = Integer.parseInt(p[0].substring(1));
+        Set<DayOfWeek> parsedDays = EnumSet.noneOf(DayOfWeek.class);
+        if (!"-".equals(p[1])) {
+            for (String token : p[1].split("\\+")) {
+                parsedDays.add(dayOf(token));
+            }
+        }
+        return new RecurrenceRule(interval, parsedDays, LocalDate.parse(p[2]));
+    }
+
+    private static DayOfWeek dayOf(String token) {
+        for (DayOfWeek d : DayOfWeek.values()) {
+            if (d.name().startsWith(token.toUpperCase())) return d;
+        }
+        throw new IllegalArgumentException("Unknown weekday: " + token);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof RecurrenceRule)) return false;
+        RecurrenceRule r = (RecurrenceRule) o;
+        return intervalWeeks == r.intervalWeeks && days.equals(r.days) && until.equals(r.until);
+    }
+
+    @Override
+    public int hashCode() {
+        return format().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return format();
+    }
+}
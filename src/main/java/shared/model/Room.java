@@ -1,6 +1,8 @@
 package shared.model;
 
-import javafx.beans.property.*;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
 
 /**
  * Room – Unified Model for Scenarios 2, 3, and 4
@@ -20,8 +22,11 @@ import javafx.beans.property.*;
  *     <li><b>Core Fields</b> (roomId, name, capacity, location, amenities, building)</li>
  *     <li><b>Scenario 3 State</b> using {@link RoomStatus}
  *         (AVAILABLE, IN_USE, MAINTENANCE, DISABLED, etc.)</li>
- *     <li><b>JavaFX Properties</b> for Scenario 4 table bindings
- *         (roomNameProperty, capacityProperty, statusProperty, etc.)</li>
+ *     <li><b>No JavaFX state</b> – Scenario 4 tables bind through
+ *         {@code scenario4.viewmodel.RoomViewModel}, created only for the
+ *         cells a table actually shows, so rooms loaded by Scenarios 2 and 3
+ *         carry plain fields only; status changes are pushed to it through
+ *         {@link #addStatusListener}</li>
  *     <li><b>Multiple Constructors</b> used across scenarios for flexible room creation</li>
  * </ul>
  *
@@ -30,7 +35,7 @@ import javafx.beans.property.*;
  * The current version:</p>
  * <ul>
  *     <li>Ensures all fields persist correctly to CSV</li>
- *     <li>Supports JavaFX TableView binding seamlessly</li>
+ *     <li>Supports JavaFX TableView binding through a separate view model</li>
  *     <li>Provides backward compatibility for Scenario 2 and Scenario 4 code</li>
  *     <li>Correctly translates CSV text (e.g., “MAINT”, “DISABLED”) into RoomStatus enum</li>
  * </ul>
@@ -58,16 +63,11 @@ public class Room {
     private RoomStatus status = RoomStatus.AVAILABLE;
     private String currentBookingId = null;
 
-    // ============================================================
-    // JavaFX properties (Scenario 4)
-    // ============================================================
-    private final StringProperty roomIdProperty = new SimpleStringProperty();
-    private final StringProperty roomNameProperty = new SimpleStringProperty();
-    private final IntegerProperty capacityProperty = new SimpleIntegerProperty();
-    private final StringProperty locationProperty = new SimpleStringProperty();
-    private final StringProperty amenitiesProperty = new SimpleStringProperty();
-    private final StringProperty buildingProperty = new SimpleStringProperty();
-    private final StringProperty statusProperty = new SimpleStringProperty("AVAILABLE");
+    // Lower-cased search text for admin filtering (rebuilt lazily after edits)
+    private String searchKey = null;
+
+    // Told about every status change; shared by all rooms, so a room carries no listener field
+    private static final List<BiConsumer<Room, RoomStatus>> STATUS_LISTENERS = new CopyOnWriteArrayList<>();
 
     // ============================================================
     // Constructors
@@ -93,9 +93,7 @@ public class Room {
         this.building = building;
 
         // Load correct status into enum
-        setStatus(statusString);
-
-        syncToProperties();
+        this.status = parseStatus(statusString);
     }
 
     // NEW: Restore old 6-argument constructor used by Scenario 2 + 4
@@ -114,27 +112,12 @@ public class Room {
     public Room(String id, String name) {
         this.roomId = id;
         this.roomName = name;
-        syncToProperties();
     }
 
     public Room(String roomId, int capacity, String location) {
         this.roomId = roomId;
         this.capacity = capacity;
         this.location = location;
-        syncToProperties();
-    }
-
-    // ============================================================
-    // Sync core fields → JavaFX properties
-    // ============================================================
-    private void syncToProperties() {
-        roomIdProperty.set(roomId);
-        roomNameProperty.set(roomName);
-        capacityProperty.set(capacity);
-        locationProperty.set(location);
-        amenitiesProperty.set(amenities);
-        buildingProperty.set(building);
-        statusProperty.set(status.name());
     }
 
     // ============================================================
@@ -160,96 +143,113 @@ public class Room {
         return "📋";
     }
 
+    /**
+     * Lower-cased id, name, location, building and status joined by line
+     * breaks, used by the Scenario 4 room search. Computed once and reused
+     * until one of those fields changes, so filtering does not lower-case
+     * every field of every room on each keystroke.
+     */
+    public String getSearchKey() {
+        if (searchKey == null) {
+            searchKey = String.join("\n",
+                    roomId != null ? roomId : "",
+                    roomName != null ? roomName : "",
+                    location != null ? location : "",
+                    building != null ? building : "",
+                    status.name()
+            ).toLowerCase();
+        }
+        return searchKey;
+    }
+
     // ============================================================
     // STATUS — FIXED AND MADE CONSISTENT
     // ============================================================
     public synchronized String getStatus() { return status.name(); }
     public synchronized RoomStatus getStatusEnum() { return status; }
 
-    public synchronized void setStatus(RoomStatus status) {
-        this.status = status;
-        statusProperty.set(status.name());
+    /** Changes the status and tells the status listeners (outside the room's lock). */
+    public void setStatus(RoomStatus status) {
+        synchronized (this) {
+            this.status = status;
+            this.searchKey = null;
+        }
+        for (BiConsumer<Room, RoomStatus> listener : STATUS_LISTENERS) {
+            listener.accept(this, status);
+        }
+    }
+
+    public void setStatus(String statusString) {
+        setStatus(parseStatus(statusString));
     }
 
     /**
      * FIXED — this correctly interprets CSV text status.
      */
-    public synchronized void setStatus(String statusString) {
-        if (statusString == null) {
-            this.status = RoomStatus.AVAILABLE;
-        } else {
-            switch (statusString.toUpperCase()) {
-
-                case "ENABLED":
-                case "ACTIVE":
-                case "AVAILABLE":
-                    this.status = RoomStatus.AVAILABLE;
-                    break;
-
-                case "DISABLED":
-                case "INACTIVE":
-                    this.status = RoomStatus.DISABLED;
-                    break;
-
-                case "MAINTENANCE":
-                case "MAINT":
-                    this.status = RoomStatus.MAINTENANCE;
-                    break;
-
-                case "OCCUPIED":
-                    this.status = RoomStatus.OCCUPIED;
-                    break;
-
-                default:
-                    this.status = RoomStatus.AVAILABLE;
-            }
+    private static RoomStatus parseStatus(String statusString) {
+        if (statusString == null) return RoomStatus.AVAILABLE;
+
+        switch (statusString.toUpperCase()) {
+
+            case "ENABLED":
+            case "ACTIVE":
+            case "AVAILABLE":
+                return RoomStatus.AVAILABLE;
+
+            case "DISABLED":
+            case "INACTIVE":
+                return RoomStatus.DISABLED;
+
+            case "MAINTENANCE":
+            case "MAINT":
+                return RoomStatus.MAINTENANCE;
+
+            case "OCCUPIED":
+                return RoomStatus.OCCUPIED;
+
+            default:
+                return RoomStatus.AVAILABLE;
         }
+    }
+
+    /** Registers a listener told about every room's status changes (e.g. table view models). */
+    public static void addStatusListener(BiConsumer<Room, RoomStatus> listener) {
+        STATUS_LISTENERS.add(listener);
+    }
 
-        statusProperty.set(this.status.name());
+    public static void removeStatusListener(BiConsumer<Room, RoomStatus> listener) {
+        STATUS_LISTENERS.remove(listener);
     }
 
     public synchronized String getCurrentBookingId() { return currentBookingId; }
     public synchronized void setCurrentBookingId(String bid) { this.currentBookingId = bid; }
 
     // ============================================================
-    // Setters (sync both field & JavaFX prop)
+    // Setters
     // ============================================================
     public void setRoomName(String name) {
         this.roomName = name;
-        roomNameProperty.set(name);
+        this.searchKey = null;
     }
 
     public void setCapacity(int capacity) {
         this.capacity = capacity;
-        capacityProperty.set(capacity);
     }
 
     public void setLocation(String location) {
         this.location = location;
-        locationProperty.set(location);
+        this.searchKey = null;
     }
 
     public void setAmenities(String amenities) {
         this.amenities = amenities;
-        amenitiesProperty.set(amenities);
     }
 
     public void setBuilding(String building) {
         this.building = building;
-        buildingProperty.set(building);
+        this.searchKey = null;
     }
 
-    // ============================================================
-    // JavaFX property getters
-    // ============================================================
-    public StringProperty roomIdProperty() { return roomIdProperty; }
-    public StringProperty roomNameProperty() { return roomNameProperty; }
-    public IntegerProperty capacityProperty() { return capacityProperty; }
-    public StringProperty locationProperty() { return locationProperty; }
-    public StringProperty amenitiesProperty() { return amenitiesProperty; }
-    public StringProperty buildingProperty() { return buildingProperty; }
-    public StringProperty statusProperty() { return statusProperty; }
-
     // ============================================================
     // CSV FORMAT
     // ============================================================
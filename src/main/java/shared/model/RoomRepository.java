@@ -1,9 +1,13 @@
 package shared.model;
 
+import shared.observer.RepositoryListener;
 import shared.util.CSVHelper;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * RoomRepository – Shared Room Storage (All Scenarios)
@@ -17,6 +21,7 @@ import java.util.Map;
  *     <li>Provides CRUD operations for room management.</li>
  *     <li>Keeps Scenario 2, Scenario 3, and Scenario 4 fully synchronized.</li>
  *     <li>Automatically persists all changes to rooms.csv.</li>
+ *     <li>Publishes add / update / delete events to {@link RepositoryListener}s.</li>
  * </ul>
  *
  * <h2>Design Patterns</h2>
@@ -46,6 +51,8 @@ public class RoomRepository {
 
     private final Map<String, Room> rooms = new HashMap<>();
 
+    private final List<RepositoryListener<Room>> listeners = new CopyOnWriteArrayList<>();
+
     private RoomRepository() {
         loadRoomsFromCSV();
     }
@@ -61,7 +68,8 @@ public class RoomRepository {
     // ADD ROOM
     // -------------------------------------------------------
     public void addRoom(Room room) {
-        rooms.put(room.getRoomId(), room);
+        Room previous = rooms.put(room.getRoomId(), room);
+        firePut(previous, room);
         saveToCSV();
         System.out.println("[ROOM ADDED] " + room.getRoomId() + " - " + room.getRoomName());// auto-save
     }
@@ -91,7 +99,8 @@ public class RoomRepository {
     // UPDATE ROOM
     // -------------------------------------------------------
     public void updateRoom(Room room) {
-        rooms.put(room.getRoomId(), room);
+        Room previous = rooms.put(room.getRoomId(), room);
+        firePut(previous, room);
         saveToCSV();        // auto-save
     }
 
@@ -99,10 +108,25 @@ public class RoomRepository {
     // DELETE ROOM
     // -------------------------------------------------------
     public void deleteRoom(String id) {
-        rooms.remove(id);
+        Room removed = rooms.remove(id);
+        if (removed != null) fireRemoved(removed);
         saveToCSV();        // auto-save
     }
 
+    // -------------------------------------------------------
+    // REPLACE ALL (reload from CSV without re-saving)
+    // -------------------------------------------------------
+    public void replaceAll(Collection<Room> loaded) {
+        for (Room old : new java.util.ArrayList<>(rooms.values())) {
+            rooms.remove(old.getRoomId());
+            fireRemoved(old);
+        }
+        for (Room r : loaded) {
+            Room previous = rooms.put(r.getRoomId(), r);
+            firePut(previous, r);
+        }
+    }
+
     // -------------------------------------------------------
     // SAVE ROOMS TO CSV
     // -------------------------------------------------------
@@ -149,5 +173,30 @@ public class RoomRepository {
         return rooms.get(roomId);
     }
 
+    // -------------------------------------------------------
+    // CHANGE EVENTS
+    // -------------------------------------------------------
+    public void addListener(RepositoryListener<Room> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(RepositoryListener<Room> listener) {
+        listeners.remove(listener);
+    }
+
+    /** Reports a put: a new id is an add, the same object is an update, a different object replaces the old one. */
+    private void firePut(Room previous, Room current) {
+        if (previous == null) {
+            for (RepositoryListener<Room> l : listeners) l.onAdded(current);
+        } else if (previous == current) {
+            for (RepositoryListener<Room> l : listeners) l.onUpdated(current);
+        } else {
+            fireRemoved(previous);
+            for (RepositoryListener<Room> l : listeners) l.onAdded(current);
+        }
+    }
 
+    private void fireRemoved(Room room) {
+        for (RepositoryListener<Room> l : listeners) l.onRemoved(room);
+    }
 }
@@ -0,0 +1,37 @@
+package shared.observer;
+
+/**
+ * RepositoryListener – Change Events for In-Memory Repositories
+ * ------------------------------------------------------------------------
+ * <p>A typed companion to {@link Observer}: instead of a bare "something
+ * changed" signal, repositories tell listeners <i>which</i> item was added,
+ * updated or removed. This lets components keep running totals and indexes
+ * up to date incrementally rather than rescanning every record.</p>
+ *
+ * <h2>Where Used</h2>
+ * <ul>
+ *     <li>{@code BookingRepository} – booking added / updated / removed.</li>
+ *     <li>{@code RoomRepository} – room added / updated / deleted.</li>
+ *     <li>Scenario 4 dashboard counters subscribe to both.</li>
+ * </ul>
+ *
+ * <h2>Notes</h2>
+ * <ul>
+ *     <li>All methods default to no-ops, so listeners override only what they need.</li>
+ *     <li>Callbacks run synchronously on the thread that made the change;
+ *         UI listeners must hop to the FX thread themselves.</li>
+ * </ul>
+ *
+ * @param <T> the repository's item type
+ */
+public interface RepositoryListener<T> {
+
+    /** Called after {@code item} has been added to the repository. */
+    default void onAdded(T item) { }
+
+    /** Called after {@code item} has been changed in place. */
+    default void onUpdated(T item) { }
+
+    /** Called after {@code item} has been removed from the repository. */
+    default void onRemoved(T item) { }
+}
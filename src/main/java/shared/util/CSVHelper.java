@@ -44,8 +44,10 @@ import java.util.UUID;
  *
  * <p><b>Bookings CSV</b> — safe format with purpose escaping:</p>
  * <pre>
- * bookingId,roomId,userId,startTime,endTime,purpose,status,paymentStatus,depositAmount
+ * bookingId,roomId,userId,startTime,endTime,purpose,status,paymentStatus,depositAmount[,recurrence]
  * </pre>
+ * <p>The optional 10th column holds a {@link RecurrenceRule} for repeating
+ * bookings; one-off bookings keep the 9-column rows.</p>
  *
  * <p><b>Rooms CSV</b> — enriched to include room status (Scenario 3 integration):</p>
  * <pre>
@@ -70,6 +72,12 @@ import java.util.UUID;
 
 public class CSVHelper {
 
+    /**
+     * Room IDs, user IDs and amenities repeat on many rows; rows loaded by
+     * any method share one instance per value (see {@link StringPool}).
+     */
+    private static final StringPool SHARED_VALUES = new StringPool();
+
     // ============================================================
     // USERS  (Sharwin’s correct implementation to prevent corruption)
     // ============================================================
@@ -161,6 +169,10 @@ public class CSVHelper {
     // BOOKINGS (Your safe version with purpose escaping)
     // ============================================================
 
+    /** Header row of every bookings file. */
+    public static final String BOOKING_HEADER =
+            "bookingId,roomId,userId,startTime,endTime,purpose,status,paymentStatus,depositAmount,recurrence";
+
     public static ArrayList<Booking> loadBookings(String path) throws Exception {
 
         ArrayList<Booking> list = new ArrayList<>();
@@ -176,29 +188,8 @@ public class CSVHelper {
 
             String line;
             while ((line = br.readLine()) != null) {
-
-                if (line.trim().isEmpty()) continue;
-                if (line.startsWith("bookingId")) continue;
-
-                String[] p = line.split(",");
-
-                if (p.length < 9) continue;
-
-                String purpose = p[5].replace(";", ",");
-
-                Booking b = new Booking(
-                        p[0],   // bookingId
-                        p[1],   // roomId
-                        p[2],   // userId
-                        LocalDateTime.parse(p[3].trim()),
-                        LocalDateTime.parse(p[4].trim()),
-                        purpose,
-                        p[6],   // status
-                        p[7],   // paymentStatus
-                        Double.parseDouble(p[8].trim())
-                );
-
-                list.add(b);
+                Booking b = parseBookingLine(line);
+                if (b != null) list.add(b);
             }
         }
 
@@ -209,28 +200,76 @@ public class CSVHelper {
 
         try (BufferedWriter bw = new BufferedWriter(new FileWriter(path))) {
 
-            bw.write("bookingId,roomId,userId,startTime,endTime,purpose,status,paymentStatus,depositAmount");
+            bw.write(BOOKING_HEADER);
             bw.newLine();
 
             for (Booking b : list) {
-                String purpose = b.getPurpose().replace(",", ";");
-
-                bw.write(String.join(",",
-                        b.getBookingId(),
-                        b.getRoomId(),
-                        b.getUserId(),
-                        b.getStartTime().toString(),
-                        b.getEndTime().toString(),
-                        purpose,
-                        b.getStatus(),
-                        b.getPaymentStatus(),
-                        Double.toString(b.getDepositAmount())
-                ));
+                bw.write(formatBookingLine(b));
                 bw.newLine();
             }
         }
     }
 
+    /**
+     * Parses one bookings row; returns {@code null} for blank lines, the
+     * header and rows with too few columns. Shared by the CSV file and the
+     * booking archive so both use exactly the same format.
+     */
+    public static Booking parseBookingLine(String line) {
+
+        if (line.trim().isEmpty()) return null;
+        if (line.startsWith("bookingId")) return null;
+
+        String[] p = line.split(",");
+
+        if (p.length < 9) return null;
+
+        String purpose = p[5].replace(";", ",");
+
+        Booking b = new Booking(
+                p[0],   // bookingId
+                SHARED_VALUES.intern(p[1]),   // roomId
+                SHARED_VALUES.intern(p[2]),   // userId
+                LocalDateTime.parse(p[3].trim()),
+                LocalDateTime.parse(p[4].trim()),
+                purpose,
+                p[6],   // status
+                p[7],   // paymentStatus
+                Double.parseDouble(p[8].trim())
+        );
+
+        if (p.length > 9 && !p[9].isBlank()) {
+            try {
+                b.setRecurrence(RecurrenceRule.parse(p[9]));
+            } catch (RuntimeException ex) {
+                System.out.println("[CSV ERROR] Bad recurrence for " + p[0] + ": " + p[9]);
+            }
+        }
+
+        return b;
+    }
+
+    /** Formats one bookings row (without line break). */
+    public static String formatBookingLine(Booking b) {
+        String purpose = b.getPurpose().replace(",", ";");
+
+        String line = String.join(",",
+                b.getBookingId(),
+                b.getRoomId(),
+                b.getUserId(),
+                b.getStartTime().toString(),
+                b.getEndTime().toString(),
+                purpose,
+                b.getStatus(),
+                b.getPaymentStatus(),
+                Double.toString(b.getDepositAmount())
+        );
+        if (b.isRecurring()) {
+            line += "," + b.getRecurrence().format();
+        }
+        return line;
+    }
+
     // ============================================================
     // ROOMS (Your version — includes STATUS column for Scenario 3)
     // ============================================================
@@ -256,12 +295,12 @@ public class CSVHelper {
                 String[] p = line.split(",");
 
                 Room r = new Room(
-                        p[0],
+                        SHARED_VALUES.intern(p[0]),
                         p.length > 1 ? p[1] : "",
                         p.length > 2 ? Integer.parseInt(p[2]) : 0,
                         p.length > 3 ? p[3] : "",
-                        p.length > 4 ? p[4] : "",
-                        p.length > 5 ? p[5] : "",
+                        p.length > 4 ? SHARED_VALUES.intern(p[4]) : "",
+                        p.length > 5 ? SHARED_VALUES.intern(p[5]) : "",
                         p.length > 6 ? p[6] : "AVAILABLE"
                 );
 
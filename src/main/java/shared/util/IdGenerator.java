@@ -0,0 +1,165 @@
+package shared.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * IdGenerator – Unique, Time-Ordered Record IDs
+ * ------------------------------------------------------------------------
+ * <p>Generates 63-bit IDs that never repeat, even when many are created in
+ * the same millisecond or by several application instances that share one
+ * data folder.</p>
+ *
+ * <h2>ID Layout</h2>
+ * <pre>
+ *  | 41 bits: ms since 2024-01-01 | 10 bits: node | 12 bits: sequence |
+ * </pre>
+ * <ul>
+ *     <li><b>Timestamp + sequence</b> are kept together in one
+ *         {@link AtomicLong} and advanced with a single CAS, so generation is
+ *         lock-free (4096 IDs per millisecond per node before borrowing).</li>
+ *     <li>If the wall clock stands still, runs backwards, or the sequence
+ *         overflows, the generator keeps counting from the last value it
+ *         issued – IDs stay strictly increasing.</li>
+ *     <li><b>Node</b> separates application instances. It is claimed by
+ *         locking one of up to 1024 lock files next to the data files
+ *         ({@link FileChannel#tryLock()}); the lock is held for as long as the
+ *         generator lives, and the OS drops it if the process dies.</li>
+ * </ul>
+ *
+ * <h2>Design Context</h2>
+ * <ul>
+ *     <li>Used by {@code BookingManager} for booking IDs
+ *         ({@code "B" + nextId()}).</li>
+ * </ul>
+ */
+public class IdGenerator implements AutoCloseable {
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    /** 2024-01-01T00:00:00Z – leaves ~69 years of 41-bit timestamps. */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    private final int nodeId;
+    private final LongSupplier clock;
+
+    /** Last issued (timestamp << SEQUENCE_BITS | sequence). */
+    private final AtomicLong last = new AtomicLong();
+
+    /** Lock on the node file, or {@code null} if the node was given explicitly. */
+    private final FileChannel nodeChannel;
+
+    public IdGenerator(int nodeId) {
+        this(nodeId, System::currentTimeMillis, null);
+    }
+
+    /** Package-private for tests, which drive the clock by hand. */
+    IdGenerator(int nodeId, LongSupplier clock) {
+        this(nodeId, clock, null);
+    }
+
+    private IdGenerator(int nodeId, LongSupplier clock, FileChannel nodeChannel) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.nodeChannel = nodeChannel;
+    }
+
+    /**
+     * Creates a generator whose node ID is the first free lock file
+     * {@code <lockPathPrefix>-<n>.lock}. Instances sharing the same folder
+     * therefore never share a node. If no file can be locked a random node
+     * is used (and logged).
+     */
+    public static IdGenerator withNodeLock(String lockPathPrefix) {
+        File first = new File(lockPathPrefix + "-0.lock");
+        if (first.getParentFile() != null) first.getParentFile().mkdirs();
+
+        for (int n = 0; n <= MAX_NODE_ID; n++) {
+            File file = new File(lockPathPrefix + "-" + n + ".lock");
+            FileChannel channel = null;
+            try {
+                channel = FileChannel.open(file.toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                FileLock lock = channel.tryLock();
+                if (lock != null) {
+                    System.out.println("[IdGenerator] Claimed node " + n + " (" + file.getPath() + ")");
+                    return new IdGenerator(n, System::currentTimeMillis, channel);
+                }
+            } catch (OverlappingFileLockException e) {
+                // held by another generator in this JVM – try the next node
+            } catch (IOException e) {
+                System.out.println("[IdGenerator] Could not lock " + file.getPath() + ": " + e.getMessage());
+                closeQuietly(channel);
+                break;
+            }
+            closeQuietly(channel);
+        }
+
+        int node = ThreadLocalRandom.current().nextInt(MAX_NODE_ID + 1);
+        System.out.println("[IdGenerator] No node lock available; using random node " + node);
+        return new IdGenerator(node);
+    }
+
+    // =============================================================
+    // GENERATION
+    // =============================================================
+
+    /** Next unique ID; strictly greater than every ID this generator issued before. */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long next = last.updateAndGet(prev -> Math.max(prev + 1, now));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS))
+                | ((long) nodeId << SEQUENCE_BITS)
+                | (next & SEQUENCE_MASK);
+    }
+
+    /** {@code prefix + nextId()}, e.g. {@code "B" + id} for bookings. */
+    public String nextId(String prefix) {
+        return prefix + nextId();
+    }
+
+    public int getNodeId() {
+        return nodeId;
+    }
+
+    /** Node that generated {@code id}. */
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /** Wall-clock millis encoded in {@code id} (may run ahead under bursts). */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    /** Releases the node lock so another instance can claim it. */
+    @Override
+    public void close() {
+        closeQuietly(nodeChannel);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // nothing useful to do
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package shared.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * StringPool – Shared Instances for Repeated CSV Values
+ * ------------------------------------------------------------------------
+ * <p>Every row read by {@link CSVHelper} is split into new String objects,
+ * so a room booked ten thousand times ends up with ten thousand copies of
+ * its ID. {@link #intern(String)} returns one canonical instance per
+ * distinct value instead, and the duplicate becomes garbage straight
+ * away.</p>
+ *
+ * <h2>Notes</h2>
+ * <ul>
+ *     <li>Only for low-cardinality values (room IDs, user IDs, amenities):
+ *         entries are never evicted, so the pool grows with the number of
+ *         distinct values, not with the number of rows.</li>
+ *     <li>Thread-safe; the archive is read on a background thread.</li>
+ *     <li>Unlike {@link String#intern()}, the pool is private to its owner
+ *         and can be measured with {@link #size()}.</li>
+ * </ul>
+ */
+public final class StringPool {
+
+    private final ConcurrentHashMap<String, String> values = new ConcurrentHashMap<>();
+
+    /**
+     * Canonical instance equal to {@code value}; the first instance seen
+     * becomes the canonical one. {@code null} is returned as is.
+     */
+    public String intern(String value) {
+        if (value == null) return null;
+        String existing = values.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /** Number of distinct values held. */
+    public int size() {
+        return values.size();
+    }
+}
@@ -0,0 +1,160 @@
+package scenario2.allocation;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scenario2.controller.BookingManager;
+import shared.model.Booking;
+import shared.model.BookingRepository;
+import shared.model.Room;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BatchRoomAllocator}.
+ *
+ * <p>Planning runs over hand-made rooms: each request must land in the
+ * smallest suitable room, a blocked request must be able to push one planned
+ * request into another room, and impossible requests must be reported.
+ * Committing runs against the real {@link BookingManager} in a term of its
+ * own (2035) so it never meets other tests' bookings.</p>
+ */
+public class BatchRoomAllocatorTest {
+
+    /** 2035-01-08 is a Monday. */
+    private static final LocalDate TERM_START = LocalDate.of(2035, 1, 8);
+    private static final LocalDate TERM_END = LocalDate.of(2035, 4, 13);
+
+    private static final LocalTime TEN = LocalTime.of(10, 0);
+    private static final LocalTime ELEVEN = LocalTime.of(11, 0);
+
+    private static final Room SMALL = new Room("A-20", "Small", 20, "1st floor", "Projector, Whiteboard", "Lassonde");
+    private static final Room MEDIUM = new Room("C-25", "Medium", 25, "2nd floor", "Projector", "Lassonde");
+    private static final Room LARGE = new Room("B-40", "Large", 40, "3rd floor", "Whiteboard", "Lassonde");
+    private static final List<Room> ROOMS = List.of(LARGE, MEDIUM, SMALL);
+
+    @BeforeClass
+    public static void configureCsvForTests() {
+        System.setProperty(BookingRepository.BOOKING_CSV_PROPERTY, "TestData/data/bookings.csv");
+    }
+
+    /** Each request gets the smallest room with enough seats and the equipment. */
+    @Test
+    public void plan_picksSmallestSuitableRoom() {
+        BatchRoomAllocator allocator = new BatchRoomAllocator(BookingManager.getInstance());
+
+        // Arrange
+        List<BatchRoomAllocator.Request> requests = List.of(
+                request("TUT", 10, null, DayOfWeek.MONDAY, TEN, ELEVEN),
+                request("LEC", 22, "projector", DayOfWeek.TUESDAY, TEN, ELEVEN),
+                request("BIG", 30, null, DayOfWeek.WEDNESDAY, TEN, ELEVEN));
+
+        // Act
+        BatchRoomAllocator.Plan plan = allocator.plan(requests, TERM_START, TERM_END, ROOMS);
+
+        // Assert
+        assertTrue(plan.getUnassigned().isEmpty());
+        assertEquals("A-20", plan.getAssignment("TUT").getRoom().getRoomId());
+        assertEquals("C-25", plan.getAssignment("LEC").getRoom().getRoomId());
+        assertEquals("B-40", plan.getAssignment("BIG").getRoom().getRoomId());
+        assertEquals(LocalDateTime.of(2035, 1, 9, 10, 0), plan.getAssignment("LEC").getFirstStart());
+        assertFalse(plan.isCommitted());
+    }
+
+    /** A request blocked by a planned one gets its room after the other one moves. */
+    @Test
+    public void plan_repairsByMovingBlockingRequest() {
+        BatchRoomAllocator allocator = new BatchRoomAllocator(BookingManager.getInstance());
+
+        // Arrange – greedy order is PROJ-L, WB, PROJ-S; WB takes A-20 first
+        List<BatchRoomAllocator.Request> requests = List.of(
+                request("PROJ-L", 24, "Projector", DayOfWeek.MONDAY, TEN, ELEVEN),
+                request("WB", 19, "Whiteboard", DayOfWeek.MONDAY, TEN, ELEVEN),
+                request("PROJ-S", 18, "Projector", DayOfWeek.MONDAY, LocalTime.of(10, 30), LocalTime.of(11, 30)));
+
+        // Act
+        BatchRoomAllocator.Plan plan = allocator.plan(requests, TERM_START, TERM_END, ROOMS);
+
+        // Assert
+        assertTrue(plan.getReport(), plan.getUnassigned().isEmpty());
+        assertEquals("C-25", plan.getAssignment("PROJ-L").getRoom().getRoomId());
+        assertEquals("A-20", plan.getAssignment("PROJ-S").getRoom().getRoomId());
+        assertEquals("B-40", plan.getAssignment("WB").getRoom().getRoomId());
+    }
+
+    /** Requests no room can ever hold, or that clash everywhere, end up in the report. */
+    @Test
+    public void plan_reportsUnassignedRequests() {
+        BatchRoomAllocator allocator = new BatchRoomAllocator(BookingManager.getInstance());
+
+        // Arrange
+        List<BatchRoomAllocator.Request> requests = List.of(
+                request("HUGE", 500, null, DayOfWeek.MONDAY, TEN, ELEVEN),
+                request("FIRST", 30, null, DayOfWeek.FRIDAY, TEN, ELEVEN),
+                request("SECOND", 30, null, DayOfWeek.FRIDAY, ELEVEN, LocalTime.of(12, 0)));
+
+        // Act
+        BatchRoomAllocator.Plan plan = allocator.plan(requests, TERM_START, TERM_END, ROOMS);
+
+        // Assert – touching ends clash, as in BookingManager
+        assertEquals(1, plan.getAssignments().size());
+        assertEquals(2, plan.getUnassigned().size());
+        assertEquals("HUGE", plan.getUnassigned().get(0).getRequest().getRequestId());
+        assertTrue(plan.getUnassigned().get(0).getReason().contains("500 seats"));
+        assertEquals("SECOND", plan.getUnassigned().get(1).getRequest().getRequestId());
+        assertTrue(plan.getReport().contains("1 assigned, 2 unassigned"));
+    }
+
+    /** Committing writes weekly series; a slot booked after planning is reported, not double-booked. */
+    @Test
+    public void commit_savesSeriesAndReportsLostSlots() throws Exception {
+        BookingManager manager = BookingManager.getInstance();
+        List<Room> rooms = manager.getAllRooms();
+        if (rooms.size() < 2) return;
+
+        BatchRoomAllocator allocator = new BatchRoomAllocator(manager);
+        int seats = Math.min(rooms.get(0).getCapacity(), rooms.get(1).getCapacity());
+
+        // Arrange
+        BatchRoomAllocator.Plan plan = allocator.plan(List.of(
+                request("KEEP", seats, null, DayOfWeek.MONDAY, TEN, ELEVEN),
+                request("LOSE", seats, null, DayOfWeek.MONDAY, TEN, ELEVEN)), TERM_START, TERM_END);
+        assertEquals(2, plan.getAssignments().size());
+
+        String lostRoom = plan.getAssignment("LOSE").getRoom().getRoomId();
+        LocalDateTime midTerm = LocalDateTime.of(2035, 3, 5, 10, 15);   // a Monday
+        manager.bookRoom(lostRoom, "walkin@yorku.ca", midTerm, midTerm.plusMinutes(30), "Walk-in", "STUDENT");
+
+        // Act
+        allocator.commit(plan);
+
+        // Assert
+        assertTrue(plan.isCommitted());
+        assertNull(plan.getAssignment("LOSE"));
+        assertEquals("LOSE", plan.getUnassigned().get(0).getRequest().getRequestId());
+
+        Booking series = plan.getAssignment("KEEP").getBooking();
+        assertNotNull(series);
+        assertTrue(series.isRecurring());
+        assertEquals(TERM_END, series.getRecurrence().getUntil());
+        assertNotNull(manager.getBookingById(series.getBookingId()));
+        assertFalse(manager.isRoomAvailable(series.getRoomId(),
+                LocalDateTime.of(2035, 4, 9, 10, 30), LocalDateTime.of(2035, 4, 9, 10, 45)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void request_withEndBeforeStart_isRejected() {
+        request("BAD", 10, null, DayOfWeek.MONDAY, ELEVEN, TEN);
+    }
+
+    private static BatchRoomAllocator.Request request(String id, int seats, String equipment,
+                                                      DayOfWeek day, LocalTime start, LocalTime end) {
+        return new BatchRoomAllocator.Request(id, "registrar@yorku.ca", seats, equipment,
+                day, start, end, null);
+    }
+}
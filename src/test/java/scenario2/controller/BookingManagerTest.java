@@ -4,13 +4,24 @@ import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import scenario2.builder.BookingBuilder;
+import scenario2.payment.PaymentLedger;
+import scenario2.quota.BookingQuotaTracker;
 import shared.model.Booking;
 import shared.model.BookingRepository;
+import shared.model.BookingStatus;
+import shared.model.RecurrenceRule;
 import shared.model.Room;
 import shared.model.RoomRepository;
+import shared.model.UserType;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.Assert.*;
 
@@ -85,6 +96,20 @@ public class BookingManagerTest {
         assertEquals(50.0, manager.getDepositForUserTypeAndDuration("PARTNER", 10), 0.0001);
     }
 
+    /** A whole result set is priced the same as quoting each room on its own. */
+    @Test
+    public void getDeposits_matchesPerRoomQuotes() {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        LocalDateTime start = LocalDateTime.of(2025, 1, 6, 16, 0);
+
+        double[] deposits = manager.getDeposits("PARTNER", rooms, start);
+
+        assertEquals(rooms.size(), deposits.length);
+        for (int i = 0; i < rooms.size(); i++) {
+            assertEquals(manager.getDeposit("PARTNER", rooms.get(i), start), deposits[i], 0.0001);
+        }
+    }
+
     /** Estimated total is max(hours,1) * rate. */
     @Test
     public void getEstimatedTotalForUser_multipliesHoursByRateAndRoundsUp() {
@@ -269,6 +294,56 @@ public class BookingManagerTest {
         assertFalse(manager.canExtendBooking(booking, 30));
     }
 
+    /** The next booking in the room bounds the extension, rounded down to whole slots. */
+    @Test
+    public void getMaxExtensionMinutes_stopsAtNextBookingInRoom() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.now().plusHours(2).withNano(0);
+        LocalDateTime end = start.plusHours(1);
+        Booking booking = newBooking("BMAX", "R-MAX", "user@yorku.ca", start, end);
+        Booking next = newBooking("BNEXT", "R-MAX", "other@yorku.ca", end.plusMinutes(50), end.plusMinutes(80));
+        Booking elsewhere = newBooking("BELSE", "R-OTHER", "other@yorku.ca", end, end.plusMinutes(30));
+        repo.getAllBookings().add(booking);
+        repo.getAllBookings().add(next);
+        repo.getAllBookings().add(elsewhere);
+
+        // Act
+        long max = manager.getMaxExtensionMinutes(booking, 120);
+
+        // Assert
+        assertEquals(45, max);
+        assertTrue(manager.canExtendBooking(booking, 45));
+        assertFalse(manager.canExtendBooking(booking, 60));
+    }
+
+    /** With nothing after it, the limit applies; cancelled bookings do not block. */
+    @Test
+    public void getMaxExtensionMinutes_ignoresCancelledAndCapsAtLimit() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.now().plusHours(2).withNano(0);
+        LocalDateTime end = start.plusHours(1);
+        Booking booking = newBooking("BCAP", "R-CAP", "user@yorku.ca", start, end);
+        Booking cancelled = newBooking("BGONE", "R-CAP", "other@yorku.ca", end, end.plusMinutes(30));
+        cancelled.setStatus("CANCELLED");
+        repo.getAllBookings().add(booking);
+        repo.getAllBookings().add(cancelled);
+
+        // Act & Assert
+        assertEquals(120, manager.getMaxExtensionMinutes(booking, 120));
+        assertEquals(90, manager.getMaxExtensionMinutes(booking, 100));
+        assertEquals(0, manager.getMaxExtensionMinutes(null, 120));
+    }
+
+    /** Inside the end-time buffer no extension is offered at all. */
+    @Test
+    public void getMaxExtensionMinutes_tooCloseToEnd_isZero() {
+        LocalDateTime endSoon = LocalDateTime.now().plusMinutes(5);
+        Booking booking = newBooking("BLATE", "R-MAX", "user@yorku.ca", endSoon.minusHours(1), endSoon);
+        repo.getAllBookings().add(booking);
+
+        assertEquals(0, manager.getMaxExtensionMinutes(booking, 120));
+    }
+
     // =====================================================================
     // CANCEL / STATUS TRANSITIONS
     // =====================================================================
@@ -565,6 +640,34 @@ public class BookingManagerTest {
         assertEquals(beforeSize + 1, repo.getAllBookings().size());
     }
 
+    @Test
+    public void bookRoom_recordsPaymentStatusFromStrategy() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        Room room = rooms.get(0);
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        LocalDateTime end = start.plusHours(1);
+
+        assertTrue(manager.isRoomAvailable(room.getRoomId(), start, end));
+
+        Booking booking = manager.bookRoom(
+                room.getRoomId(),
+                "partner@org.com",
+                start,
+                end,
+                "Partner meeting",
+                "PARTNER",
+                "PENDING"
+        );
+
+        assertEquals("CONFIRMED", booking.getStatus());
+        assertEquals("PENDING", booking.getPaymentStatus());
+        assertFalse(manager.isRoomAvailable(room.getRoomId(), start, end));
+    }
+
     @Test(expected = Exception.class)
     public void bookRoom_withNonExistingRoom_throwsException() throws Exception {
         LocalDateTime start = LocalDateTime.now().plusDays(1);
@@ -662,4 +765,410 @@ public class BookingManagerTest {
                 newEnd,
                 "Updated");
     }
+
+    /** A hold blocks other users from booking the slot, but not the holder. */
+    @Test
+    public void placeHold_blocksOthersUntilHolderBooks() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        Room room = rooms.get(0);
+        LocalDateTime start = LocalDateTime.now().plusDays(3);
+        LocalDateTime end = start.plusHours(1);
+
+        String holdId = manager.placeHold(room.getRoomId(), "holder@yorku.ca", start, end);
+        try {
+            assertFalse(manager.isRoomAvailable(room.getRoomId(), start, end));
+            assertTrue(manager.isRoomAvailable(room.getRoomId(), start, end, "holder@yorku.ca"));
+
+            try {
+                manager.bookRoom(room.getRoomId(), "other@yorku.ca", start, end, "Steal", "STUDENT");
+                fail("Booking a held slot should fail for other users");
+            } catch (Exception expected) {
+                assertEquals("Room is no longer available for that time.", expected.getMessage());
+            }
+
+            manager.bookRoom(room.getRoomId(), "holder@yorku.ca", start, end, "Mine", "STUDENT");
+
+            // the booking replaced the hold
+            assertFalse(manager.releaseHold(holdId));
+        } finally {
+            manager.releaseHold(holdId);
+        }
+    }
+
+    /** Releasing a hold makes the slot available again. */
+    @Test
+    public void releaseHold_freesSlot() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        Room room = rooms.get(0);
+        LocalDateTime start = LocalDateTime.now().plusDays(4);
+        LocalDateTime end = start.plusHours(1);
+
+        String holdId = manager.placeHold(room.getRoomId(), "holder@yorku.ca", start, end);
+
+        assertTrue(manager.releaseHold(holdId));
+        assertTrue(manager.isRoomAvailable(room.getRoomId(), start, end));
+    }
+
+    /** Event booking creates one booking per room. */
+    @Test
+    public void bookRooms_booksEveryRoom() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.size() < 2) {
+            return;
+        }
+
+        List<String> roomIds = List.of(rooms.get(1).getRoomId(), rooms.get(0).getRoomId());
+        LocalDateTime start = LocalDateTime.now().plusDays(6);
+        LocalDateTime end = start.plusHours(2);
+
+        List<Booking> created = manager.bookRooms(roomIds, "events@yorku.ca", start, end,
+                "Conference", "CHIEF_EVENT_COORDINATOR", "APPROVED");
+
+        assertEquals(2, created.size());
+        assertEquals(roomIds.get(0), created.get(0).getRoomId());
+        assertEquals(roomIds.get(1), created.get(1).getRoomId());
+        assertNotEquals(created.get(0).getBookingId(), created.get(1).getBookingId());
+        assertEquals(2, repo.getAllBookings().size());
+        assertFalse(manager.isRoomAvailable(roomIds.get(0), start, end));
+        assertFalse(manager.isRoomAvailable(roomIds.get(1), start, end));
+    }
+
+    /** If any room is taken, no room is booked. */
+    @Test
+    public void bookRooms_withOneRoomTaken_booksNothing() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.size() < 2) {
+            return;
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(7);
+        LocalDateTime end = start.plusHours(1);
+        String free = rooms.get(0).getRoomId();
+        String taken = rooms.get(1).getRoomId();
+        manager.bookRoom(taken, "someone@yorku.ca", start, end, "Taken", "STUDENT");
+
+        try {
+            manager.bookRooms(List.of(free, taken), "events@yorku.ca", start, end,
+                    "Conference", "CHIEF_EVENT_COORDINATOR", "APPROVED");
+            fail("Event booking should fail when one room is taken");
+        } catch (Exception expected) {
+            assertTrue(expected.getMessage().contains(taken));
+        }
+
+        assertEquals(1, repo.getAllBookings().size());
+        assertTrue(manager.isRoomAvailable(free, start, end));
+    }
+
+    @Test(expected = Exception.class)
+    public void bookRooms_withDuplicateRoom_throwsException() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        String roomId = rooms.isEmpty() ? "R1" : rooms.get(0).getRoomId();
+        LocalDateTime start = LocalDateTime.now().plusDays(8);
+
+        manager.bookRooms(List.of(roomId, roomId), "events@yorku.ca", start, start.plusHours(1),
+                "Conference", "CHIEF_EVENT_COORDINATOR", "APPROVED");
+    }
+
+    /** A 15-week series is one record and blocks every week it covers. */
+    @Test
+    public void bookRecurring_storesOneRecordAndBlocksEveryOccurrence() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        String roomId = rooms.get(0).getRoomId();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime end = start.plusHours(1);
+        RecurrenceRule rule = RecurrenceRule.weekly(start.toLocalDate().plusWeeks(14));
+
+        Booking series = manager.bookRecurring(roomId, "prof@yorku.ca", start, end,
+                "Lab meeting", "FACULTY", "APPROVED", rule);
+
+        assertEquals(1, repo.getAllBookings().size());
+        assertEquals(rule, series.getRecurrence());
+        assertEquals(15, rule.countOccurrences(start));
+        assertFalse(manager.isRoomAvailable(roomId, start.plusWeeks(9), end.plusWeeks(9)));
+        assertTrue(manager.isRoomAvailable(roomId, start.plusWeeks(15), end.plusWeeks(15)));
+        assertTrue(manager.isRoomAvailable(roomId, start.plusDays(1), end.plusDays(1)));
+    }
+
+    /** A no-show week of a series frees that week only and forfeits the deposit held. */
+    @Test
+    public void markDepositForfeited_seriesOccurrence_freesThatWeekOnly() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        String roomId = rooms.get(0).getRoomId();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withHour(11).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime end = start.plusHours(1);
+        Booking series = manager.bookRecurring(roomId, "prof@yorku.ca", start, end,
+                "Lab meeting", "FACULTY", "APPROVED", RecurrenceRule.weekly(start.toLocalDate().plusWeeks(4)));
+
+        manager.markDepositForfeited(series.getBookingId(), start.plusWeeks(2));
+
+        assertEquals(BookingStatus.CONFIRMED, series.getStatusEnum());
+        assertEquals(BookingStatus.NO_SHOW, manager.getOccurrenceStatus(series.getBookingId(), start.plusWeeks(2)));
+        assertTrue(manager.isRoomAvailable(roomId, start.plusWeeks(2), end.plusWeeks(2)));
+        assertFalse(manager.isRoomAvailable(roomId, start.plusWeeks(3), end.plusWeeks(3)));
+        assertEquals(0, manager.getBookedMinutesInWeek("prof@yorku.ca", start.plusWeeks(2)));
+        assertEquals(0.0, PaymentLedger.getInstance().getBookingBalance(series.getBookingId()), 0.0001);
+    }
+
+    /** Moving a series forgets the no-shows recorded for its old occurrence times. */
+    @Test
+    public void editBooking_seriesMoved_clearsOccurrenceStatuses() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        String roomId = rooms.get(0).getRoomId();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withHour(15).withMinute(0).withSecond(0).withNano(0);
+        Booking series = manager.bookRecurring(roomId, "prof@yorku.ca", start, start.plusHours(1),
+                "Lab meeting", "FACULTY", "APPROVED", RecurrenceRule.weekly(start.toLocalDate().plusWeeks(4)));
+        manager.markDepositForfeited(series.getBookingId(), start.plusWeeks(2));
+
+        // one week later: the old week 3 is now week 2
+        manager.editBooking(series.getBookingId(), "prof@yorku.ca", roomId,
+                start.plusWeeks(1), start.plusWeeks(1).plusHours(1), "Lab meeting", "FACULTY");
+
+        assertNull(manager.getOccurrenceStatus(series.getBookingId(), start.plusWeeks(2)));
+        assertFalse(manager.isRoomAvailable(roomId, start.plusWeeks(2), start.plusWeeks(2).plusHours(1)));
+    }
+
+    /** A series clashing with one existing booking in a later week is rejected whole. */
+    @Test
+    public void bookRecurring_withClashInLaterWeek_booksNothing() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        String roomId = rooms.get(0).getRoomId();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withHour(13).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime end = start.plusHours(1);
+        manager.bookRoom(roomId, "other@yorku.ca", start.plusWeeks(6).plusMinutes(30),
+                end.plusWeeks(6).plusMinutes(30), "Clash", "STUDENT");
+
+        try {
+            manager.bookRecurring(roomId, "prof@yorku.ca", start, end, "Lab meeting", "FACULTY",
+                    "APPROVED", RecurrenceRule.weekly(start.toLocalDate().plusWeeks(14)));
+            fail("Series overlapping an existing booking should be rejected");
+        } catch (Exception expected) {
+            assertEquals("Room is not available for every occurrence of that series.", expected.getMessage());
+        }
+
+        assertEquals(1, repo.getAllBookings().size());
+    }
+
+    /** Moving a series checks every occurrence, ignoring the series' own weeks. */
+    @Test
+    public void editBooking_series_checksEveryOccurrence() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        String roomId = rooms.get(0).getRoomId();
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withHour(15).withMinute(0).withSecond(0).withNano(0);
+        LocalDateTime end = start.plusHours(1);
+        Booking series = manager.bookRecurring(roomId, "prof@yorku.ca", start, end, "Lab meeting", "FACULTY",
+                "APPROVED", RecurrenceRule.weekly(start.toLocalDate().plusWeeks(9)));
+        manager.bookRoom(roomId, "other@yorku.ca", start.plusWeeks(5).plusHours(2),
+                end.plusWeeks(5).plusHours(2), "Clash", "STUDENT");
+
+        try {
+            manager.editBooking(series.getBookingId(), "prof@yorku.ca", roomId,
+                    start.plusHours(2), end.plusHours(2), "Lab meeting");
+            fail("Moving the series onto a later booking should be rejected");
+        } catch (Exception expected) {
+            assertEquals("Room is not available for the new time.", expected.getMessage());
+        }
+        assertEquals(start, series.getStartTime());
+
+        // overlapping its own current slots is fine
+        manager.editBooking(series.getBookingId(), "prof@yorku.ca", roomId,
+                start.plusMinutes(30), end.plusMinutes(30), "Lab meeting");
+        assertEquals(start.plusMinutes(30), series.getStartTime());
+    }
+
+    /** A series shares one end time, so it cannot be extended. */
+    @Test
+    public void extendBooking_series_isRejected() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusMinutes(20);
+        Booking series = new BookingBuilder()
+                .setBookingId("BSERIESX")
+                .setRoomId("R-EXT")
+                .setUserId("prof@yorku.ca")
+                .setStartTime(start)
+                .setEndTime(start.plusHours(1))
+                .setStatus("CONFIRMED")
+                .setRecurrence(RecurrenceRule.weekly(start.toLocalDate().plusWeeks(3)))
+                .build();
+        repo.getAllBookings().add(series);
+
+        assertFalse(manager.canExtendBooking(series, 30));
+        assertEquals(0, manager.getMaxExtensionMinutes(series, 60));
+        try {
+            manager.extendBooking("BSERIESX", "prof@yorku.ca", 30, "FACULTY");
+            fail("Extending a series should be rejected");
+        } catch (Exception expected) {
+            assertEquals("Recurring bookings cannot be extended; edit the series instead.", expected.getMessage());
+        }
+        assertEquals(start.plusHours(1), series.getEndTime());
+    }
+
+    /** A student over the weekly hours limit is refused; cancelling frees the hours again. */
+    @Test
+    public void bookRoom_overWeeklyQuota_throwsUntilCancelled() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        String roomId = rooms.get(0).getRoomId();
+        LocalDateTime start = LocalDateTime.now().plusDays(11).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        manager.setQuotaLimit(UserType.STUDENT, new BookingQuotaTracker.Limit(1, BookingQuotaTracker.UNLIMITED));
+        try {
+            Booking first = manager.bookRoom(roomId, "quota@yorku.ca", start, start.plusHours(1), "First", "STUDENT");
+            assertEquals(60, manager.getBookedMinutesInWeek("quota@yorku.ca", start));
+
+            try {
+                manager.bookRoom(roomId, "quota@yorku.ca", start.plusHours(2), start.plusHours(3), "Second", "STUDENT");
+                fail("Booking over the weekly limit should be rejected");
+            } catch (Exception expected) {
+                assertTrue(expected.getMessage().startsWith("Weekly limit reached"));
+            }
+
+            manager.cancelBooking(first.getBookingId(), "quota@yorku.ca");
+            assertEquals(0, manager.getBookedMinutesInWeek("quota@yorku.ca", start));
+            manager.bookRoom(roomId, "quota@yorku.ca", start.plusHours(2), start.plusHours(3), "Second", "STUDENT");
+        } finally {
+            manager.setQuotaLimit(UserType.STUDENT, null);
+        }
+    }
+
+    /** A hold and a booking racing for the same slot never both succeed. */
+    @Test
+    public void placeHold_racingBookRoom_neverBothSucceed() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        String roomId = rooms.get(0).getRoomId();
+        LocalDateTime day = LocalDateTime.now().plusDays(20).withHour(0).withMinute(0).withSecond(0).withNano(0);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int i = 0; i < 40; i++) {
+                LocalDateTime start = day.plusMinutes(30L * i);
+                LocalDateTime end = start.plusMinutes(20);
+                CountDownLatch go = new CountDownLatch(1);
+                Future<?> hold = pool.submit(() -> {
+                    go.await();
+                    return manager.placeHold(roomId, "holder@yorku.ca", start, end);
+                });
+                Future<?> booking = pool.submit(() -> {
+                    go.await();
+                    return manager.bookRoom(roomId, "booker@yorku.ca", start, end, "Race", "STAFF");
+                });
+                go.countDown();
+
+                int succeeded = 0;
+                for (Future<?> attempt : List.of(hold, booking)) {
+                    try {
+                        attempt.get(10, TimeUnit.SECONDS);
+                        succeeded++;
+                    } catch (ExecutionException expected) {
+                        // lost the race
+                    }
+                }
+                assertEquals(1, succeeded);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Two rooms booked at once by the same user cannot both slip under an active-bookings limit of one. */
+    @Test
+    public void bookRoom_concurrentlyForSameUser_respectsActiveLimit() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.size() < 2) {
+            return;
+        }
+
+        LocalDateTime start = LocalDateTime.now().plusDays(12).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        manager.setQuotaLimit(UserType.STUDENT, new BookingQuotaTracker.Limit(BookingQuotaTracker.UNLIMITED, 1));
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            Future<?>[] attempts = new Future<?>[2];
+            for (int i = 0; i < 2; i++) {
+                String roomId = rooms.get(i).getRoomId();
+                attempts[i] = pool.submit(() -> {
+                    go.await();
+                    return manager.bookRoom(roomId, "race@yorku.ca", start, start.plusHours(1), "Race", "STUDENT");
+                });
+            }
+            go.countDown();
+
+            int booked = 0;
+            for (Future<?> attempt : attempts) {
+                try {
+                    attempt.get(10, TimeUnit.SECONDS);
+                    booked++;
+                } catch (ExecutionException expected) {
+                    assertTrue(expected.getCause().getMessage().startsWith("Booking limit reached"));
+                }
+            }
+            assertEquals(1, booked);
+            assertEquals(1, manager.getAllUserBookings("race@yorku.ca").size());
+        } finally {
+            pool.shutdownNow();
+            manager.setQuotaLimit(UserType.STUDENT, null);
+        }
+    }
+
+    /** Editing a booking to a longer slot is checked against the weekly hours, minus its own. */
+    @Test
+    public void editBooking_overWeeklyQuota_isRejected() throws Exception {
+        List<Room> rooms = RoomRepository.getInstance().getAllRoomsList();
+        if (rooms.isEmpty()) {
+            return;
+        }
+
+        String roomId = rooms.get(0).getRoomId();
+        LocalDateTime start = LocalDateTime.now().plusDays(13).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        manager.setQuotaLimit(UserType.STUDENT, new BookingQuotaTracker.Limit(2, BookingQuotaTracker.UNLIMITED));
+        try {
+            Booking booking = manager.bookRoom(roomId, "edit@yorku.ca", start, start.plusHours(1), "Study", "STUDENT");
+
+            manager.editBooking(booking.getBookingId(), "edit@yorku.ca", roomId,
+                    start.plusHours(1), start.plusHours(3), "Study", "STUDENT");
+            assertEquals(120, manager.getBookedMinutesInWeek("edit@yorku.ca", start));
+
+            try {
+                manager.editBooking(booking.getBookingId(), "edit@yorku.ca", roomId,
+                        start, start.plusHours(3), "Study", "STUDENT");
+                fail("Editing over the weekly limit should be rejected");
+            } catch (Exception expected) {
+                assertTrue(expected.getMessage().startsWith("Weekly limit reached"));
+            }
+            assertEquals(start.plusHours(1), booking.getStartTime());
+        } finally {
+            manager.setQuotaLimit(UserType.STUDENT, null);
+        }
+    }
 }
@@ -0,0 +1,113 @@
+package scenario2.controller;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link RoomHoldRegistry}.
+ *
+ * <p>The registry runs on a hand-driven clock so expiry can be tested without
+ * sleeping.</p>
+ */
+public class RoomHoldRegistryTest {
+
+    private static final long TTL = 60_000;
+    private static final LocalDateTime START = LocalDateTime.of(2030, 1, 7, 10, 0);
+    private static final LocalDateTime END = START.plusHours(1);
+
+    private long now;
+    private RoomHoldRegistry registry;
+
+    @Before
+    public void setUp() {
+        now = 1_000_000;
+        registry = new RoomHoldRegistry(() -> now, TTL);
+    }
+
+    /** A hold blocks other users but not its owner. */
+    @Test
+    public void place_blocksOtherUsersOnly() {
+        // Act
+        RoomHoldRegistry.Hold hold = registry.place("R1", "alice@yorku.ca", START, END);
+
+        // Assert
+        assertNotNull(hold);
+        assertTrue(registry.isHeld("R1", START.plusMinutes(30), END.plusHours(1), "bob@yorku.ca"));
+        assertFalse(registry.isHeld("R1", START, END, "ALICE@yorku.ca"));
+        assertFalse(registry.isHeld("R2", START, END, null));
+        assertNull(registry.place("R1", "bob@yorku.ca", START, END));
+    }
+
+    /** Holds disappear once their TTL has passed. */
+    @Test
+    public void holds_expireAfterTtl() {
+        // Arrange
+        RoomHoldRegistry.Hold hold = registry.place("R1", "alice@yorku.ca", START, END);
+
+        // Act
+        now += TTL - 1;
+        boolean heldBefore = registry.isHeld("R1", START, END, null);
+        now += 1;
+        boolean heldAfter = registry.isHeld("R1", START, END, null);
+
+        // Assert
+        assertTrue(heldBefore);
+        assertFalse(heldAfter);
+        assertNull(registry.getHold(hold.getHoldId()));
+        assertEquals(0, registry.getActiveCount());
+        assertNotNull(registry.place("R1", "bob@yorku.ca", START, END));
+    }
+
+    /** Releasing frees the slot; releasing twice reports false. */
+    @Test
+    public void release_freesSlot() {
+        RoomHoldRegistry.Hold hold = registry.place("R1", "alice@yorku.ca", START, END);
+
+        assertTrue(registry.release(hold.getHoldId()));
+        assertFalse(registry.release(hold.getHoldId()));
+        assertFalse(registry.isHeld("R1", START, END, null));
+    }
+
+    /** releaseFor drops only the owner's overlapping holds on that room. */
+    @Test
+    public void releaseFor_dropsOwnersOverlappingHolds() {
+        // Arrange
+        registry.place("R1", "alice@yorku.ca", START, END);
+        registry.place("R1", "alice@yorku.ca", START.plusHours(3), END.plusHours(3));
+        registry.place("R2", "alice@yorku.ca", START, END);
+
+        // Act
+        registry.releaseFor("R1", "alice@yorku.ca", START, END);
+
+        // Assert
+        assertEquals(2, registry.getActiveCount());
+        assertFalse(registry.isHeld("R1", START, END, null));
+        assertTrue(registry.isHeld("R1", START.plusHours(3), END.plusHours(3), null));
+    }
+
+    /** A released hold that later reaches the head of the expiry queue is harmless. */
+    @Test
+    public void expiry_ofReleasedHold_doesNotAffectNewerHolds() {
+        // Arrange
+        RoomHoldRegistry.Hold first = registry.place("R1", "alice@yorku.ca", START, END);
+        registry.release(first.getHoldId());
+        now += TTL / 2;
+        RoomHoldRegistry.Hold second = registry.place("R1", "bob@yorku.ca", START, END);
+
+        // Act
+        now += TTL / 2;
+
+        // Assert
+        assertNotNull(registry.getHold(second.getHoldId()));
+        assertTrue(registry.isHeld("R1", START, END, "alice@yorku.ca"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setTtlMillis_rejectsNonPositive() {
+        registry.setTtlMillis(0);
+    }
+}
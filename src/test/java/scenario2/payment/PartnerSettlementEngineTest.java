@@ -0,0 +1,139 @@
+package scenario2.payment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import shared.model.Booking;
+import shared.model.BookingRepository;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PartnerSettlementEngine}.
+ *
+ * <p>Pending partner charges must be grouped per organisation, written as one
+ * batch of invoice lines, and the affected bookings marked INVOICED. Bookings
+ * that stopped being PENDING before settlement must not be billed. All files
+ * are written under {@code TestData/}.</p>
+ */
+public class PartnerSettlementEngineTest {
+
+    private static final String INVOICES = "TestData/data/partner_invoices_test.csv";
+
+    private BookingRepository repo;
+    private PartnerSettlementEngine engine;
+
+    @Before
+    public void setUp() {
+        System.setProperty(BookingRepository.BOOKING_CSV_PROPERTY, "TestData/data/bookings.csv");
+        BookingRepository.resetForTests();
+        repo = BookingRepository.getInstance();
+        repo.getAllBookings().clear();
+        new File(INVOICES).delete();
+
+        Map<String, String> orgs = Map.of(
+                "a1@acme.com", "ACME",
+                "a2@acme.com", "ACME",
+                "b1@globex.com", "GLOBEX");
+        engine = new PartnerSettlementEngine(INVOICES, () -> repo,
+                userId -> orgs.getOrDefault(userId, userId));
+    }
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+        new File(INVOICES).delete();
+    }
+
+    /** Charges are grouped into one invoice per organisation and written together. */
+    @Test
+    public void settleNow_groupsChargesPerOrganisation() throws Exception {
+        // Arrange
+        Booking a1 = pendingBooking("B1", "a1@acme.com", 30.0);
+        Booking a2 = pendingBooking("B2", "a2@acme.com", 20.0);
+        Booking b1 = pendingBooking("B3", "b1@globex.com", 40.0);
+        engine.enqueue(a1);
+        engine.enqueue(a2);
+        engine.enqueue(b1);
+
+        assertEquals(2, engine.getPendingCount("ACME"));
+        assertEquals(3, engine.getPendingCount());
+
+        // Act
+        List<PartnerSettlementEngine.Invoice> invoices = engine.settleNow();
+
+        // Assert
+        assertEquals(2, invoices.size());
+        PartnerSettlementEngine.Invoice acme = invoices.get(0);
+        assertEquals("ACME", acme.getOrgId());
+        assertEquals(List.of("B1", "B2"), acme.getBookingIds());
+        assertEquals(50.0, acme.getTotal(), 0.0001);
+
+        assertEquals(PartnerSettlementEngine.INVOICED, a1.getPaymentStatus());
+        assertEquals(PartnerSettlementEngine.INVOICED, b1.getPaymentStatus());
+        assertEquals(0, engine.getPendingCount());
+
+        List<String> lines = Files.readAllLines(new File(INVOICES).toPath());
+        assertEquals(4, lines.size());   // header + 3 charges
+        assertTrue(lines.get(0).startsWith("invoiceId"));
+    }
+
+    /** A booking refunded before settlement is dropped from the invoice. */
+    @Test
+    public void settleNow_skipsBookingsNoLongerPending() {
+        // Arrange
+        Booking kept = pendingBooking("B1", "a1@acme.com", 30.0);
+        Booking refunded = pendingBooking("B2", "a2@acme.com", 20.0);
+        engine.enqueue(kept);
+        engine.enqueue(refunded);
+        refunded.setPaymentStatus("REFUNDED");
+
+        // Act
+        List<PartnerSettlementEngine.Invoice> invoices = engine.settleNow();
+
+        // Assert
+        assertEquals(1, invoices.size());
+        assertEquals(List.of("B1"), invoices.get(0).getBookingIds());
+        assertEquals("REFUNDED", refunded.getPaymentStatus());
+    }
+
+    /** Queuing the same booking twice, or a non-pending booking, has no effect. */
+    @Test
+    public void enqueue_ignoresDuplicatesAndNonPendingBookings() {
+        // Arrange
+        Booking pending = pendingBooking("B1", "a1@acme.com", 30.0);
+        Booking approved = pendingBooking("B2", "a1@acme.com", 30.0);
+        approved.setPaymentStatus("APPROVED");
+
+        // Act
+        engine.enqueue(pending);
+        engine.enqueue(pending);
+        engine.enqueue(approved);
+
+        // Assert
+        assertEquals(1, engine.getPendingCount());
+    }
+
+    /** Nothing pending → no invoice and no file. */
+    @Test
+    public void settleNow_withNothingPending_writesNothing() {
+        assertTrue(engine.settleNow().isEmpty());
+        assertFalse(new File(INVOICES).exists());
+    }
+
+    // ---------- helpers ----------
+
+    private Booking pendingBooking(String id, String userId, double deposit) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking b = new Booking(id, "R1", userId, start, start.plusHours(1), "Partner",
+                "CONFIRMED", "PENDING", deposit);
+        repo.getAllBookings().add(b);
+        return b;
+    }
+}
@@ -2,6 +2,13 @@ package scenario2.payment;
 
 import org.junit.Test;
 
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.*;
 
 /**
@@ -226,4 +233,221 @@ public class PaymentContextTest {
         assertEquals(PaymentResult.Status.APPROVED, result.getStatus());
         assertEquals(1, calls[0]);
     }
+
+    // =====================================================================
+    // ASYNCHRONOUS EXECUTION
+    // =====================================================================
+
+    /**
+     * Verifies that the async path completes with the strategy's result and
+     * runs it on a payment worker rather than the calling thread.
+     */
+    @Test
+    public void executePaymentAsync_runsStrategyOffCallerThread() throws Exception {
+        // Arrange
+        final String[] threadName = {null};
+        PaymentContext context = new PaymentContext((userId, amount, userType) -> {
+            threadName[0] = Thread.currentThread().getName();
+            return new PaymentResult(PaymentResult.Status.APPROVED, "ok");
+        });
+
+        // Act
+        PaymentResult result = context.executePaymentAsync("user", 20.0, "STUDENT").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(PaymentResult.Status.APPROVED, result.getStatus());
+        assertEquals("payment-worker", threadName[0]);
+    }
+
+    /**
+     * Verifies that a timed-out attempt of a strategy that honours payment
+     * keys is retried with the same key, and the later successful attempt
+     * decides the result.
+     */
+    @Test
+    public void executePaymentAsync_retriesAfterTimeout() throws Exception {
+        // Arrange: first attempt hangs past the timeout, second one answers
+        AtomicInteger calls = new AtomicInteger();
+        Set<String> keys = ConcurrentHashMap.newKeySet();
+        PaymentStrategy slowOnce = new PaymentStrategy() {
+            @Override
+            public PaymentResult pay(String userId, double amount, String userType, String paymentKey) {
+                keys.add(paymentKey);
+                return pay(userId, amount, userType);
+            }
+
+            @Override
+            public boolean honoursPaymentKey() {
+                return true;
+            }
+
+            @Override
+            public PaymentResult pay(String userId, double amount, String userType) {
+                if (calls.incrementAndGet() == 1) {
+                    try {
+                        Thread.sleep(5_000);
+                    } catch (InterruptedException ignored) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                return new PaymentResult(PaymentResult.Status.APPROVED, "attempt " + calls.get());
+            }
+
+            @Override
+            public long getTimeoutMillis() {
+                return 100;
+            }
+        };
+        PaymentContext context = new PaymentContext(slowOnce);
+        context.setRetryPolicy(2, 10);
+
+        // Act
+        PaymentResult result = context.executePaymentAsync("user", 20.0, "STUDENT").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(PaymentResult.Status.APPROVED, result.getStatus());
+        assertEquals(2, calls.get());
+        assertEquals(1, keys.size());
+    }
+
+    /**
+     * Verifies that a timeout is not retried for a strategy without payment
+     * keys: the first call may still charge, so a retry could charge twice.
+     */
+    @Test
+    public void executePaymentAsync_doesNotRetryTimeoutWithoutPaymentKeys() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        PaymentStrategy slow = new PaymentStrategy() {
+            @Override
+            public PaymentResult pay(String userId, double amount, String userType) {
+                calls.incrementAndGet();
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+                return new PaymentResult(PaymentResult.Status.APPROVED, "late");
+            }
+
+            @Override
+            public long getTimeoutMillis() {
+                return 100;
+            }
+        };
+        PaymentContext context = new PaymentContext(slow);
+        context.setRetryPolicy(2, 10);
+
+        // Act
+        PaymentResult result = context.executePaymentAsync("user", 20.0, "STUDENT").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(PaymentResult.Status.FAILED, result.getStatus());
+        assertTrue(result.getMessage().startsWith("Payment timed out"));
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * Verifies that exceptions of a strategy that honours payment keys are
+     * retried up to the limit and then reported as a {@code FAILED} result
+     * instead of an exceptional future.
+     */
+    @Test
+    public void executePaymentAsync_givesUpAfterMaxRetries() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        PaymentContext context = new PaymentContext(new PaymentStrategy() {
+            @Override
+            public PaymentResult pay(String userId, double amount, String userType) {
+                calls.incrementAndGet();
+                throw new IllegalStateException("gateway down");
+            }
+
+            @Override
+            public boolean honoursPaymentKey() {
+                return true;
+            }
+        });
+        context.setRetryPolicy(2, 5);
+
+        // Act
+        PaymentResult result = context.executePaymentAsync("user", 20.0, "STUDENT").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(PaymentResult.Status.FAILED, result.getStatus());
+        assertTrue(result.getMessage().contains("gateway down"));
+        assertEquals(3, calls.get());
+    }
+
+    /**
+     * Verifies that an exception is not retried for a strategy without
+     * payment keys: the gateway may have charged before failing.
+     */
+    @Test
+    public void executePaymentAsync_doesNotRetryExceptionWithoutPaymentKeys() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        PaymentContext context = new PaymentContext((userId, amount, userType) -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("connection reset");
+        });
+        context.setRetryPolicy(2, 5);
+
+        // Act
+        PaymentResult result = context.executePaymentAsync("user", 20.0, "STUDENT").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(PaymentResult.Status.FAILED, result.getStatus());
+        assertTrue(result.getMessage().contains("check your statement"));
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * Verifies that a declined ({@code FAILED}) result is final and not retried.
+     */
+    @Test
+    public void executePaymentAsync_doesNotRetryDeclines() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        PaymentContext context = new PaymentContext((userId, amount, userType) -> {
+            calls.incrementAndGet();
+            return new PaymentResult(PaymentResult.Status.FAILED, "declined");
+        });
+
+        // Act
+        PaymentResult result = context.executePaymentAsync("user", 20.0, "STUDENT").get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals("declined", result.getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * Verifies that cancelling the returned future interrupts the running
+     * attempt.
+     */
+    @Test
+    public void executePaymentAsync_cancelInterruptsRunningAttempt() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        PaymentContext context = new PaymentContext((userId, amount, userType) -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return new PaymentResult(PaymentResult.Status.APPROVED, "too late");
+        });
+
+        // Act
+        CompletableFuture<PaymentResult> future = context.executePaymentAsync("user", 20.0, "STUDENT");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        future.cancel(true);
+
+        // Assert
+        assertTrue(future.isCancelled());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+    }
 }
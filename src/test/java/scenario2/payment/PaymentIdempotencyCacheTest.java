@@ -0,0 +1,217 @@
+package scenario2.payment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PaymentIdempotencyCache}.
+ *
+ * <p>Verifies that repeated idempotency keys reuse the first outcome, that
+ * concurrent duplicates share one gateway call, that declines are not cached,
+ * and that outcomes survive a restart through the persisted CSV file. All
+ * files are written under {@code TestData/}.</p>
+ */
+public class PaymentIdempotencyCacheTest {
+
+    private static final String PATH = "TestData/data/payment_idempotency_test.csv";
+
+    private PaymentIdempotencyCache cache;
+
+    @Before
+    public void setUp() {
+        new File(PATH).delete();
+        cache = new PaymentIdempotencyCache(PATH);
+    }
+
+    @After
+    public void tearDown() {
+        new File(PATH).delete();
+    }
+
+    /** A repeated key returns the cached result without running the payment again. */
+    @Test
+    public void execute_duplicateKey_returnsCachedResult() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        PaymentContext context = new PaymentContext((userId, amount, userType) -> {
+            calls.incrementAndGet();
+            return new PaymentResult(PaymentResult.Status.APPROVED, "ok");
+        });
+
+        // Act
+        PaymentResult first = cache.execute("K1",
+                () -> context.executePaymentAsync("user", 20.0, "STUDENT")).get(5, TimeUnit.SECONDS);
+        PaymentResult second = cache.execute("K1",
+                () -> context.executePaymentAsync("user", 20.0, "STUDENT")).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertEquals(PaymentResult.Status.APPROVED, second.getStatus());
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+    }
+
+    /** A duplicate arriving while the first payment is running joins it. */
+    @Test
+    public void execute_concurrentDuplicate_joinsInFlightPayment() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentContext context = new PaymentContext((userId, amount, userType) -> {
+            calls.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return new PaymentResult(PaymentResult.Status.APPROVED, "ok");
+        });
+
+        // Act
+        CompletableFuture<PaymentResult> first =
+                cache.execute("K2", () -> context.executePaymentAsync("user", 20.0, "STUDENT"));
+        CompletableFuture<PaymentResult> second =
+                cache.execute("K2", () -> context.executePaymentAsync("user", 20.0, "STUDENT"));
+        release.countDown();
+
+        // Assert
+        assertEquals(PaymentResult.Status.APPROVED, second.get(5, TimeUnit.SECONDS).getStatus());
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+    }
+
+    /**
+     * Cancelling one caller's future neither cancels the other caller nor the
+     * payment itself, whose outcome is still remembered.
+     */
+    @Test
+    public void execute_cancelledCaller_leavesPaymentAndOtherCallersRunning() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PaymentContext context = new PaymentContext((userId, amount, userType) -> {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return new PaymentResult(PaymentResult.Status.FAILED, "interrupted");
+            }
+            return new PaymentResult(PaymentResult.Status.APPROVED, "charged");
+        });
+        CompletableFuture<PaymentResult> first =
+                cache.execute("K5", () -> context.executePaymentAsync("user", 20.0, "STUDENT"));
+        CompletableFuture<PaymentResult> second =
+                cache.execute("K5", () -> context.executePaymentAsync("user", 20.0, "STUDENT"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        first.cancel(true);
+        release.countDown();
+
+        // Assert
+        assertTrue(first.isCancelled());
+        assertEquals("charged", second.get(5, TimeUnit.SECONDS).getMessage());
+        assertEquals("charged", cache.get("K5").getMessage());
+        assertEquals(1, calls.get());
+    }
+
+    /** Declined payments are not remembered, so the key can be retried. */
+    @Test
+    public void execute_failedResult_isNotCached() throws Exception {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        PaymentContext context = new PaymentContext((userId, amount, userType) -> {
+            calls.incrementAndGet();
+            return new PaymentResult(PaymentResult.Status.FAILED, "declined");
+        });
+
+        // Act
+        cache.execute("K3", () -> context.executePaymentAsync("user", 20.0, "STUDENT")).get(5, TimeUnit.SECONDS);
+        cache.execute("K3", () -> context.executePaymentAsync("user", 20.0, "STUDENT")).get(5, TimeUnit.SECONDS);
+
+        // Assert
+        assertNull(cache.get("K3"));
+        assertEquals(2, calls.get());
+    }
+
+    /** Outcomes are reloaded by a new cache instance reading the same file. */
+    @Test
+    public void put_isPersistedAcrossRestart() {
+        // Arrange
+        cache.put("K4", new PaymentResult(PaymentResult.Status.PENDING, "Partner billing, pending"));
+
+        // Act
+        PaymentIdempotencyCache restarted = new PaymentIdempotencyCache(PATH);
+
+        // Assert
+        PaymentResult reloaded = restarted.get("K4");
+        assertNotNull(reloaded);
+        assertEquals(PaymentResult.Status.PENDING, reloaded.getStatus());
+        assertEquals("Partner billing, pending", reloaded.getMessage());
+    }
+
+    /** The cache never holds more than MAX_ENTRIES keys; the oldest go first. */
+    @Test
+    public void put_beyondCapacity_evictsOldestKeys() {
+        // Act
+        for (int i = 0; i <= PaymentIdempotencyCache.MAX_ENTRIES; i++) {
+            cache.put("K" + i, new PaymentResult(PaymentResult.Status.APPROVED, "ok"));
+        }
+
+        // Assert
+        assertEquals(PaymentIdempotencyCache.MAX_ENTRIES, cache.size());
+        assertNull(cache.get("K0"));
+        assertNotNull(cache.get("K" + PaymentIdempotencyCache.MAX_ENTRIES));
+        assertEquals(PaymentIdempotencyCache.MAX_ENTRIES,
+                new PaymentIdempotencyCache(PATH).size());
+    }
+
+    /** An invalidated key is forgotten, also by a cache reloaded from the file. */
+    @Test
+    public void invalidate_forgetsKeyAcrossRestart() {
+        // Arrange
+        cache.put("K5", new PaymentResult(PaymentResult.Status.APPROVED, "ok"));
+
+        // Act
+        cache.invalidate("K5");
+        PaymentIdempotencyCache restarted = new PaymentIdempotencyCache(PATH);
+
+        // Assert
+        assertNull(cache.get("K5"));
+        assertNull(restarted.get("K5"));
+        assertEquals(0, restarted.size());
+    }
+
+    /** The booking key is stable for one attempt and differs for another slot. */
+    @Test
+    public void keyForBooking_isStablePerBookingAttempt() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2025, 3, 4, 10, 0);
+
+        // Act
+        String key = PaymentIdempotencyCache.keyForBooking("a@yorku.ca", "R1", start, start.plusHours(1));
+
+        // Assert
+        assertEquals(key, PaymentIdempotencyCache.keyForBooking("a@yorku.ca", "R1", start, start.plusHours(1)));
+        assertNotEquals(key, PaymentIdempotencyCache.keyForBooking("a@yorku.ca", "R1", start.plusHours(1),
+                start.plusHours(2)));
+        cache.put(key, new PaymentResult(PaymentResult.Status.APPROVED, "ok"));   // valid CSV key
+    }
+
+    /** Keys with commas would break the CSV format and are rejected. */
+    @Test(expected = IllegalArgumentException.class)
+    public void put_keyWithComma_isRejected() {
+        cache.put("bad,key", new PaymentResult(PaymentResult.Status.APPROVED, "ok"));
+    }
+}
@@ -0,0 +1,173 @@
+package scenario2.payment;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import shared.model.Booking;
+
+import java.io.File;
+import java.time.LocalDateTime;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PaymentLedger}.
+ *
+ * <p>Verifies the running totals per user, per room and overall, the
+ * per-booking balance used for refunds and forfeits, and that a fresh ledger
+ * rebuilds the same totals by replaying the file. All files are written under
+ * {@code TestData/}.</p>
+ */
+public class PaymentLedgerTest {
+
+    private static final String PATH = "TestData/data/payment_ledger_test.csv";
+
+    private PaymentLedger ledger;
+
+    @Before
+    public void setUp() {
+        new File(PATH).delete();
+        ledger = new PaymentLedger(PATH);
+    }
+
+    @After
+    public void tearDown() {
+        new File(PATH).delete();
+    }
+
+    /** Charges and extensions add up per user, per room and overall. */
+    @Test
+    public void chargesAndExtensions_updateRunningTotals() {
+        // Arrange
+        Booking b1 = booking("B1", "Alice@yorku.ca", "R1", 20.0);
+        Booking b2 = booking("B2", "bob@yorku.ca", "R1", 30.0);
+
+        // Act
+        ledger.recordCharge(b1);
+        ledger.recordCharge(b2);
+        ledger.recordExtension(b1, 20.0);
+
+        // Assert
+        assertEquals(70.0, ledger.getOverallTotals().getCharged(), 0.0001);
+        assertEquals(40.0, ledger.getUserTotals("alice@yorku.ca").getCharged(), 0.0001);
+        assertEquals(70.0, ledger.getRoomTotals("R1").getCharged(), 0.0001);
+        assertEquals(40.0, ledger.getBookingBalance("B1"), 0.0001);
+        assertEquals(3, ledger.getOverallTotals().getEntryCount());
+    }
+
+    /** A refund returns the whole balance, including extensions, and empties it. */
+    @Test
+    public void recordRefund_returnsRemainingBalance() {
+        // Arrange
+        Booking b = booking("B1", "alice@yorku.ca", "R1", 20.0);
+        ledger.recordCharge(b);
+        ledger.recordExtension(b, 20.0);
+
+        // Act
+        double refunded = ledger.recordRefund(b);
+
+        // Assert
+        assertEquals(40.0, refunded, 0.0001);
+        assertEquals(0.0, ledger.getBookingBalance("B1"), 0.0001);
+        assertEquals(0.0, ledger.getUserTotals("alice@yorku.ca").getNetRevenue(), 0.0001);
+        assertEquals(40.0, ledger.getOverallTotals().getRefunded(), 0.0001);
+    }
+
+    /** A forfeit keeps the revenue and is reported separately. */
+    @Test
+    public void recordForfeit_keepsRevenue() {
+        // Arrange
+        Booking b = booking("B1", "alice@yorku.ca", "R2", 40.0);
+        ledger.recordCharge(b);
+
+        // Act
+        double forfeited = ledger.recordForfeit(b);
+
+        // Assert
+        assertEquals(40.0, forfeited, 0.0001);
+        assertEquals(40.0, ledger.getRoomTotals("R2").getNetRevenue(), 0.0001);
+        assertEquals(40.0, ledger.getRoomTotals("R2").getForfeited(), 0.0001);
+    }
+
+    /** Bookings made before the ledger existed refund their stored deposit. */
+    @Test
+    public void recordRefund_forUnknownBooking_usesStoredDeposit() {
+        Booking legacy = booking("OLD", "alice@yorku.ca", "R1", 25.0);
+
+        assertEquals(25.0, ledger.recordRefund(legacy), 0.0001);
+    }
+
+    /** A new ledger over the same file replays the same totals. */
+    @Test
+    public void replay_rebuildsTotalsFromFile() {
+        // Arrange
+        Booking b1 = booking("B1", "alice@yorku.ca", "R1", 20.0);
+        Booking b2 = booking("B2", "bob@yorku.ca", "R2", 30.0);
+        ledger.recordCharge(b1);
+        ledger.recordCharge(b2);
+        ledger.recordRefund(b2);
+
+        // Act
+        PaymentLedger replayed = new PaymentLedger(PATH);
+
+        // Assert
+        assertEquals(50.0, replayed.getOverallTotals().getCharged(), 0.0001);
+        assertEquals(30.0, replayed.getOverallTotals().getRefunded(), 0.0001);
+        assertEquals(20.0, replayed.getUserTotals("alice@yorku.ca").getNetRevenue(), 0.0001);
+        assertEquals(0.0, replayed.getBookingBalance("B2"), 0.0001);
+
+        // sequence numbers continue after the replayed entries
+        replayed.recordExtension(b1, 10.0);
+        assertEquals(4, new PaymentLedger(PATH).getOverallTotals().getEntryCount());
+    }
+
+    /** A PENDING partner deposit is receivable, not revenue, until it is invoiced. */
+    @Test
+    public void pendingDeposit_isReceivableUntilSettled() {
+        // Arrange
+        Booking b = booking("B1", "partner@acme.com", "R1", 50.0);
+        b.setPaymentStatus("PENDING");
+
+        // Act
+        ledger.recordCharge(b);
+
+        // Assert
+        assertEquals(0.0, ledger.getOverallTotals().getCharged(), 0.0001);
+        assertEquals(50.0, ledger.getOverallTotals().getReceivable(), 0.0001);
+        assertEquals(0.0, ledger.getBookingBalance("B1"), 0.0001);
+
+        ledger.recordSettlement(b, 50.0);
+        assertEquals(50.0, ledger.getOverallTotals().getCharged(), 0.0001);
+        assertEquals(0.0, ledger.getUserTotals("partner@acme.com").getReceivable(), 0.0001);
+        assertEquals(50.0, new PaymentLedger(PATH).getRoomTotals("R1").getCharged(), 0.0001);
+    }
+
+    /** Cancelling before the invoice drops the receivable and refunds nothing. */
+    @Test
+    public void pendingDeposit_cancelledBeforeSettlement_refundsNothing() {
+        Booking b = booking("B1", "partner@acme.com", "R1", 50.0);
+        b.setPaymentStatus("PENDING");
+        ledger.recordCharge(b);
+
+        assertEquals(0.0, ledger.recordRefund(b), 0.0001);
+        assertEquals(0.0, ledger.getOverallTotals().getReceivable(), 0.0001);
+        assertEquals(0.0, ledger.getOverallTotals().getNetRevenue(), 0.0001);
+    }
+
+    /** Users without entries report zero totals. */
+    @Test
+    public void getUserTotals_unknownUser_isEmpty() {
+        PaymentLedger.Totals t = ledger.getUserTotals("nobody@yorku.ca");
+
+        assertEquals(0.0, t.getCharged(), 0.0001);
+        assertEquals(0, t.getEntryCount());
+    }
+
+    // ---------- helpers ----------
+
+    private Booking booking(String id, String user, String room, double deposit) {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return new Booking(id, room, user, start, start.plusHours(1), "Test",
+                "CONFIRMED", "APPROVED", deposit);
+    }
+}
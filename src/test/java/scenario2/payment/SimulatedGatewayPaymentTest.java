@@ -0,0 +1,130 @@
+package scenario2.payment;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link SimulatedGatewayPayment} and {@link GatewayLoadDriver}.
+ *
+ * <p>Checks that the simulated gateway honours its configured latency, error,
+ * decline and rate-limit settings, and that the load driver reports every
+ * checkout it pushed through {@link PaymentContext}.</p>
+ */
+public class SimulatedGatewayPaymentTest {
+
+    /** A gateway with no faults approves and waits for the configured latency. */
+    @Test
+    public void pay_withFixedLatency_approvesAfterDelay() {
+        // Arrange
+        SimulatedGatewayPayment gateway =
+                new SimulatedGatewayPayment(SimulatedGatewayPayment.LatencyModel.fixed(30));
+
+        // Act
+        long start = System.nanoTime();
+        PaymentResult result = gateway.pay("user", 20.0, "STUDENT");
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Assert
+        assertEquals(PaymentResult.Status.APPROVED, result.getStatus());
+        assertTrue(elapsedMs >= 25);
+        assertEquals(1, gateway.getCallCount());
+    }
+
+    /** An error rate of 1 makes every call throw a transient gateway error. */
+    @Test(expected = SimulatedGatewayPayment.GatewayException.class)
+    public void pay_withFullErrorRate_throws() {
+        new SimulatedGatewayPayment(SimulatedGatewayPayment.LatencyModel.fixed(0), 1.0, 0, 0, 1L)
+                .pay("user", 20.0, "STUDENT");
+    }
+
+    /** A decline rate of 1 makes every call return FAILED. */
+    @Test
+    public void pay_withFullDeclineRate_fails() {
+        // Arrange
+        SimulatedGatewayPayment gateway = new SimulatedGatewayPayment(
+                SimulatedGatewayPayment.LatencyModel.fixed(0), 0, 1.0, 0, 1L);
+
+        // Act
+        PaymentResult result = gateway.pay("user", 20.0, "STUDENT");
+
+        // Assert
+        assertEquals(PaymentResult.Status.FAILED, result.getStatus());
+        assertEquals(1, gateway.getDeclineCount());
+    }
+
+    /** A payment key that was already approved returns the first result without charging again. */
+    @Test
+    public void pay_withRepeatedPaymentKey_chargesOnce() {
+        // Arrange
+        SimulatedGatewayPayment gateway =
+                new SimulatedGatewayPayment(SimulatedGatewayPayment.LatencyModel.fixed(0));
+
+        // Act
+        PaymentResult first = gateway.pay("user", 20.0, "STUDENT", "KEY-1");
+        PaymentResult second = gateway.pay("user", 20.0, "STUDENT", "KEY-1");
+        gateway.pay("user", 20.0, "STUDENT", "KEY-2");
+
+        // Assert
+        assertTrue(gateway.honoursPaymentKey());
+        assertSame(first, second);
+        assertEquals(2, gateway.getCallCount());
+        assertEquals(1, gateway.getDuplicateCount());
+    }
+
+    /** Calls beyond the token bucket's burst are rejected immediately. */
+    @Test
+    public void pay_aboveRateLimit_isRejected() {
+        // Arrange: 5 calls per second, burst of 5
+        SimulatedGatewayPayment gateway = new SimulatedGatewayPayment(
+                SimulatedGatewayPayment.LatencyModel.fixed(0), 0, 0, 5, 1L);
+
+        // Act
+        int rejected = 0;
+        for (int i = 0; i < 8; i++) {
+            try {
+                gateway.pay("user", 20.0, "STUDENT");
+            } catch (SimulatedGatewayPayment.GatewayException e) {
+                rejected++;
+            }
+        }
+
+        // Assert
+        assertTrue(rejected >= 2);
+        assertEquals(rejected, gateway.getRateLimitedCount());
+    }
+
+    /** Uniform latency samples stay inside the configured bounds. */
+    @Test
+    public void uniformLatency_staysWithinBounds() {
+        SimulatedGatewayPayment.LatencyModel model = SimulatedGatewayPayment.LatencyModel.uniform(10, 20);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 1000; i++) {
+            long sample = model.sampleMillis(random);
+            assertTrue(sample >= 10 && sample <= 20);
+        }
+    }
+
+    /** The load driver accounts for every checkout and orders its percentiles. */
+    @Test
+    public void loadDriver_reportsAllCheckouts() throws Exception {
+        // Arrange
+        SimulatedGatewayPayment gateway = new SimulatedGatewayPayment(
+                SimulatedGatewayPayment.LatencyModel.uniform(1, 5), 0, 0.5, 0, 3L);
+
+        // Act
+        GatewayLoadDriver.Report report =
+                GatewayLoadDriver.run(new PaymentContext(gateway), 40, 8);
+
+        // Assert
+        assertEquals(40, report.getCheckouts());
+        assertEquals(40, report.getApproved() + report.getPending() + report.getFailed());
+        assertEquals(gateway.getDeclineCount(), report.getFailed());
+        assertTrue(report.getPercentileMillis(50) <= report.getPercentileMillis(99));
+        assertTrue(report.getThroughputPerSecond() > 0);
+    }
+}
@@ -0,0 +1,125 @@
+package scenario2.pricing;
+
+import org.junit.Test;
+import shared.model.UserType;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link PricingEngine}.
+ *
+ * <p>Without rules the engine must reproduce the original flat rates. With
+ * rules, each (user type, building, hour bucket) cell must carry the product
+ * of the matching multipliers, and multi-hour quotes must price each hour in
+ * its own bucket.</p>
+ */
+public class PricingEngineTest {
+
+    /** 2025-01-06 is a Monday, 2025-01-11 a Saturday. */
+    private static final LocalDateTime MONDAY_10AM = LocalDateTime.of(2025, 1, 6, 10, 0);
+    private static final LocalDateTime MONDAY_8PM = LocalDateTime.of(2025, 1, 6, 20, 0);
+    private static final LocalDateTime SATURDAY_10AM = LocalDateTime.of(2025, 1, 11, 10, 0);
+
+    private static final List<PricingEngine.Rule> PEAK_RULES = List.of(
+            new PricingEngine.Rule(null, null, Boolean.FALSE, 9, 17, 1.5),         // weekday daytime peak
+            new PricingEngine.Rule(UserType.PARTNER, "Lassonde", null, 0, 24, 2.0)  // premium building
+    );
+
+    /** No rules → the original rates, independent of time and building. */
+    @Test
+    public void withoutRules_matchesFlatRates() {
+        PricingEngine engine = new PricingEngine(PricingEngine.defaultBaseRates(), List.of());
+
+        assertEquals(20.0, engine.getHourlyRate(UserType.STUDENT, "Any", MONDAY_10AM), 0.0001);
+        assertEquals(30.0, engine.getHourlyRate(UserType.FACULTY, null, SATURDAY_10AM), 0.0001);
+        assertEquals(40.0, engine.getBaseRate(UserType.STAFF), 0.0001);
+        assertEquals(50.0, engine.quoteDeposit(UserType.PARTNER, "Lassonde", MONDAY_8PM), 0.0001);
+        assertEquals(20.0, engine.getBaseRate(UserType.ADMIN), 0.0001);
+    }
+
+    /** Peak rules apply only inside their hour and day range. */
+    @Test
+    public void peakRule_appliesToWeekdayDaytimeOnly() {
+        PricingEngine engine = new PricingEngine(PricingEngine.defaultBaseRates(), PEAK_RULES);
+
+        assertEquals(30.0, engine.getHourlyRate(UserType.STUDENT, "Other", MONDAY_10AM), 0.0001);
+        assertEquals(20.0, engine.getHourlyRate(UserType.STUDENT, "Other", MONDAY_8PM), 0.0001);
+        assertEquals(20.0, engine.getHourlyRate(UserType.STUDENT, "Other", SATURDAY_10AM), 0.0001);
+    }
+
+    /** Building rules stack with time rules and match building names ignoring case. */
+    @Test
+    public void buildingRule_stacksWithPeakRule() {
+        PricingEngine engine = new PricingEngine(PricingEngine.defaultBaseRates(), PEAK_RULES);
+
+        assertEquals(150.0, engine.getHourlyRate(UserType.PARTNER, "lassonde", MONDAY_10AM), 0.0001);
+        assertEquals(100.0, engine.getHourlyRate(UserType.PARTNER, "Lassonde", SATURDAY_10AM), 0.0001);
+        assertEquals(75.0, engine.getHourlyRate(UserType.PARTNER, "Vari Hall", MONDAY_10AM), 0.0001);
+        assertEquals(List.of("Lassonde"), engine.getPricedBuildings());
+    }
+
+    /** A booking crossing the end of the peak pays each hour at its own rate. */
+    @Test
+    public void quoteTotal_pricesEachHourInItsBucket() {
+        PricingEngine engine = new PricingEngine(PricingEngine.defaultBaseRates(), PEAK_RULES);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 6, 16, 0);
+
+        // 16:00–17:00 peak (30) + 17:00–18:00 off-peak (20) + partial hour 18:00–18:30 (20)
+        assertEquals(70.0, engine.quoteTotal(UserType.STUDENT, null, start, start.plusMinutes(150)), 0.0001);
+    }
+
+    /** A whole result set is quoted into a caller-supplied array. */
+    @Test
+    public void quoteDeposits_fillsOutputArray() {
+        PricingEngine engine = new PricingEngine(PricingEngine.defaultBaseRates(), PEAK_RULES);
+        double[] out = new double[3];
+
+        engine.quoteDeposits(UserType.PARTNER, new String[] {"Lassonde", "Vari Hall", null}, SATURDAY_10AM, out);
+
+        assertArrayEquals(new double[] {100.0, 50.0, 50.0}, out, 0.0001);
+    }
+
+    /** Stored user-type strings resolve case-insensitively; unknown ones fall back to STUDENT. */
+    @Test
+    public void resolveUserType_handlesCaseAndUnknownValues() {
+        PricingEngine engine = new PricingEngine(PricingEngine.defaultBaseRates(), List.of());
+
+        assertEquals(UserType.FACULTY, engine.resolveUserType("faculty"));
+        assertEquals(UserType.PARTNER, engine.resolveUserType(" Partner "));
+        assertEquals(UserType.STUDENT, engine.resolveUserType("UNKNOWN"));
+        assertEquals(UserType.STUDENT, engine.resolveUserType(null));
+    }
+
+    /** Rules are read from CSV; malformed lines are skipped. */
+    @Test
+    public void loadRules_readsCsvAndSkipsBadLines() throws Exception {
+        File file = new File("TestData/data/pricing_rules_test.csv");
+        try (FileWriter w = new FileWriter(file)) {
+            w.write("userType,building,days,fromHour,toHour,multiplier\n");
+            w.write("*,*,WEEKDAY,9,17,1.5\n");
+            w.write("NOT_A_TYPE,*,*,0,24,2\n");
+            w.write("STAFF,Lassonde,WEEKEND,0,24,0.5\n");
+        }
+
+        try {
+            List<PricingEngine.Rule> rules = PricingEngine.loadRules(file.getPath());
+            PricingEngine engine = new PricingEngine(PricingEngine.defaultBaseRates(), rules);
+
+            assertEquals(2, rules.size());
+            assertEquals(60.0, engine.getHourlyRate(UserType.STAFF, "Other", MONDAY_10AM), 0.0001);
+            assertEquals(20.0, engine.getHourlyRate(UserType.STAFF, "Lassonde", SATURDAY_10AM), 0.0001);
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rule_withInvalidHourRange_isRejected() {
+        new PricingEngine.Rule(null, null, null, 17, 9, 1.5);
+    }
+}
@@ -0,0 +1,173 @@
+package scenario2.quota;
+
+import org.junit.Before;
+import org.junit.Test;
+import shared.model.Booking;
+import shared.model.UserType;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BookingQuotaTracker}.
+ *
+ * <p>The counters must follow booking events alone – add, cancel, extend,
+ * no-show – and the checks must refuse exactly what goes over a user type's
+ * weekly hours or active-booking limit. The clock is fixed so "active" does
+ * not depend on when the tests run.</p>
+ */
+public class BookingQuotaTrackerTest {
+
+    /** Wednesday 2030-01-09 08:00; the ISO week runs Mon 01-07 to Sun 01-13. */
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 9, 8, 0);
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private BookingQuotaTracker tracker;
+
+    @Before
+    public void setUp() {
+        Clock clock = Clock.fixed(NOW.atZone(ZONE).toInstant(), ZONE);
+        tracker = new BookingQuotaTracker(
+                Map.of(UserType.STUDENT, new BookingQuotaTracker.Limit(3, 2)), clock);
+    }
+
+    /** Adding counts minutes in the booking's ISO week and one active booking. */
+    @Test
+    public void onAdded_countsWeeklyMinutesAndActiveBookings() {
+        // Arrange
+        Booking b = booking("B1", "Student@yorku.ca", NOW.plusHours(2), NOW.plusHours(4));
+
+        // Act
+        tracker.onAdded(b);
+
+        // Assert
+        assertEquals(120, tracker.getBookedMinutes("student@yorku.ca", NOW));
+        assertEquals(0, tracker.getBookedMinutes("student@yorku.ca", NOW.plusWeeks(1)));
+        assertEquals(1, tracker.getActiveCount("student@yorku.ca"));
+    }
+
+    /** A booking over Sunday midnight counts in both ISO weeks. */
+    @Test
+    public void onAdded_splitsAtWeekBoundary() {
+        LocalDateTime sundayLate = LocalDateTime.of(2030, 1, 13, 23, 0);
+        tracker.onAdded(booking("B1", "u@yorku.ca", sundayLate, sundayLate.plusHours(2)));
+
+        assertEquals(60, tracker.getBookedMinutes("u@yorku.ca", sundayLate));
+        assertEquals(60, tracker.getBookedMinutes("u@yorku.ca", sundayLate.plusHours(2)));
+    }
+
+    /** Cancellation, no-show and extension replace the booking's old contribution. */
+    @Test
+    public void onUpdated_followsCancelExtendAndNoShow() {
+        // Arrange
+        Booking extended = booking("B1", "u@yorku.ca", NOW.plusHours(1), NOW.plusHours(2));
+        Booking cancelled = booking("B2", "u@yorku.ca", NOW.plusHours(3), NOW.plusHours(4));
+        Booking noShow = booking("B3", "u@yorku.ca", NOW.plusHours(5), NOW.plusHours(6));
+        tracker.onAdded(extended);
+        tracker.onAdded(cancelled);
+        tracker.onAdded(noShow);
+
+        // Act
+        extended.setEndTime(extended.getEndTime().plusMinutes(30));
+        tracker.onUpdated(extended);
+        cancelled.setStatus("CANCELLED");
+        tracker.onUpdated(cancelled);
+        noShow.setStatus("NO_SHOW");
+        tracker.onUpdated(noShow);
+
+        // Assert
+        assertEquals(90, tracker.getBookedMinutes("u@yorku.ca", NOW));
+        assertEquals(1, tracker.getActiveCount("u@yorku.ca"));
+
+        tracker.onRemoved(extended);
+        assertEquals(0, tracker.getBookedMinutes("u@yorku.ca", NOW));
+        assertEquals(0, tracker.getActiveCount("u@yorku.ca"));
+    }
+
+    /** Going over the weekly hours is refused; other types and other weeks are unaffected. */
+    @Test
+    public void checkNewBookings_enforcesWeeklyHours() {
+        tracker.onAdded(booking("B1", "u@yorku.ca", NOW.plusHours(1), NOW.plusHours(3)));
+
+        assertNull(tracker.checkNewBookings("u@yorku.ca", "STUDENT", NOW.plusHours(4), NOW.plusHours(5), 1));
+        assertNotNull(tracker.checkNewBookings("u@yorku.ca", "student", NOW.plusHours(4), NOW.plusHours(6), 1));
+        assertNotNull(tracker.checkNewBookings("u@yorku.ca", "STUDENT", NOW.plusHours(4), NOW.plusHours(5), 2));
+        assertNull(tracker.checkNewBookings("u@yorku.ca", "STUDENT", NOW.plusWeeks(1), NOW.plusWeeks(1).plusHours(3), 1));
+        assertNull(tracker.checkNewBookings("u@yorku.ca", "FACULTY", NOW.plusHours(4), NOW.plusHours(9), 1));
+    }
+
+    /** The active limit counts only bookings that have not ended yet. */
+    @Test
+    public void checkNewBookings_enforcesActiveBookingsIgnoringEndedOnes() {
+        // Arrange – one ended booking, two upcoming
+        tracker.onAdded(booking("B0", "u@yorku.ca", NOW.minusHours(3), NOW.minusHours(2)));
+        tracker.onAdded(booking("B1", "u@yorku.ca", NOW.plusDays(7), NOW.plusDays(7).plusMinutes(15)));
+        tracker.onAdded(booking("B2", "u@yorku.ca", NOW.plusDays(8), NOW.plusDays(8).plusMinutes(15)));
+
+        // Act
+        String reason = tracker.checkNewBookings("u@yorku.ca", "STUDENT",
+                NOW.plusDays(9), NOW.plusDays(9).plusMinutes(15), 1);
+
+        // Assert
+        assertEquals(2, tracker.getActiveCount("u@yorku.ca"));
+        assertNotNull(reason);
+        assertTrue(reason.contains("2 active bookings"));
+    }
+
+    /** Extensions are refused once the extra minutes would exceed the week's hours. */
+    @Test
+    public void checkExtension_countsOnlyTheExtraMinutes() {
+        Booking b = booking("B1", "u@yorku.ca", NOW.plusHours(1), NOW.plusHours(3));
+        tracker.onAdded(b);
+
+        assertNull(tracker.checkExtension(b, "STUDENT", 60));
+        assertNotNull(tracker.checkExtension(b, "STUDENT", 75));
+    }
+
+    /** Edits only count the minutes they add on top of the booking's current ones. */
+    @Test
+    public void checkEdit_replacesTheBookingsOwnMinutes() {
+        Booking b = booking("B1", "u@yorku.ca", NOW.plusHours(1), NOW.plusHours(3));
+        tracker.onAdded(b);
+
+        assertNull(tracker.checkEdit(b, "STUDENT", NOW.plusHours(4), NOW.plusHours(7)));
+        assertNotNull(tracker.checkEdit(b, "STUDENT", NOW.plusHours(4), NOW.plusHours(8)));
+    }
+
+    /** Limits are read from CSV; '*' is unlimited and bad lines are skipped. */
+    @Test
+    public void loadLimits_readsCsvAndSkipsBadLines() throws Exception {
+        File file = new File("TestData/data/quota_limits_test.csv");
+        try (FileWriter w = new FileWriter(file)) {
+            w.write("userType,maxHoursPerWeek,maxActiveBookings\n");
+            w.write("STUDENT,10,3\n");
+            w.write("NOT_A_TYPE,1,1\n");
+            w.write("PARTNER,40,*\n");
+        }
+
+        try {
+            Map<UserType, BookingQuotaTracker.Limit> limits = BookingQuotaTracker.loadLimits(file.getPath());
+
+            assertEquals(2, limits.size());
+            assertEquals(10, limits.get(UserType.STUDENT).getMaxHoursPerWeek());
+            assertEquals(BookingQuotaTracker.UNLIMITED, limits.get(UserType.PARTNER).getMaxActiveBookings());
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void loadLimits_missingFile_meansNoLimits() {
+        assertTrue(BookingQuotaTracker.loadLimits("TestData/data/no_such_file.csv").isEmpty());
+    }
+
+    private static Booking booking(String id, String userId, LocalDateTime start, LocalDateTime end) {
+        return new Booking(id, "R101", userId, start, end, "Test");
+    }
+}
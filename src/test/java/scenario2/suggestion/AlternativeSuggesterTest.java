@@ -0,0 +1,149 @@
+package scenario2.suggestion;
+
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scenario2.controller.BookingManager;
+import shared.model.Booking;
+import shared.model.BookingRepository;
+import shared.model.Room;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link AlternativeSuggester}.
+ *
+ * <p>Similar rooms must rank by building, capacity and amenities; a failed
+ * slot must yield free rooms at the same time and free nearby times in the
+ * same room, never anything that clashes. Each test uses its own day far in
+ * the future so bookings never collide across tests.</p>
+ */
+public class AlternativeSuggesterTest {
+
+    private BookingManager manager;
+    private AlternativeSuggester suggester;
+
+    @BeforeClass
+    public static void configureCsvForTests() {
+        System.setProperty(BookingRepository.BOOKING_CSV_PROPERTY, "TestData/data/bookings.csv");
+    }
+
+    @Before
+    public void setUp() {
+        manager = BookingManager.getInstance();
+        suggester = new AlternativeSuggester(manager);
+    }
+
+    /** Same building and shared amenities outrank a room elsewhere with different equipment. */
+    @Test
+    public void similarity_prefersSameBuildingCapacityAndAmenities() {
+        // Arrange
+        Room original = new Room("R1", "Orig", 20, "1F", "Projector;Whiteboard", "Lassonde");
+        Room twin = new Room("R2", "Twin", 22, "2F", "projector; whiteboard", "lassonde");
+        Room elsewhere = new Room("R3", "Far", 20, "1F", "VideoConference", "Vari Hall");
+        Set<String> wanted = AlternativeSuggester.amenitiesOf(original);
+
+        // Act
+        double twinScore = AlternativeSuggester.similarity(original, wanted, twin);
+        double elsewhereScore = AlternativeSuggester.similarity(original, wanted, elsewhere);
+
+        // Assert
+        assertEquals(Set.of("projector", "whiteboard"), wanted);
+        assertEquals(0.4 + 0.3 * 0.9 + 0.3, twinScore, 0.0001);
+        assertEquals(0.3, elsewhereScore, 0.0001);
+        assertTrue(twinScore > elsewhereScore);
+    }
+
+    /** A taken slot yields other rooms at that time first, then the same room at free nearby times. */
+    @Test
+    public void suggest_returnsFreeRoomsAndNearbyTimes() throws Exception {
+        List<Room> rooms = manager.getAllRooms();
+        if (rooms.size() < 2) return;
+
+        // Arrange
+        Room room = rooms.get(0);
+        LocalDateTime start = day(60, 10);
+        LocalDateTime end = start.plusHours(1);
+        manager.bookRoom(room.getRoomId(), "owner@yorku.ca", start, end, "Taken", "STUDENT");
+
+        // Act
+        List<AlternativeSuggester.Suggestion> suggestions =
+                suggester.suggest(room.getRoomId(), start, end, "other@yorku.ca", null, 20);
+
+        // Assert
+        assertFalse(suggestions.isEmpty());
+        assertFalse(suggestions.get(0).isSameRoom());
+        assertEquals(start, suggestions.get(0).getStart());
+
+        boolean laterFound = false;
+        for (AlternativeSuggester.Suggestion s : suggestions) {
+            assertTrue(manager.isRoomAvailable(s.getRoom().getRoomId(), s.getStart(), s.getEnd()));
+            if (s.isSameRoom() && s.getStart().equals(start.plusMinutes(75))) laterFound = true;
+        }
+        // touching ends clash, so 11:00–12:00 is not offered but 11:15–12:15 is
+        assertTrue(laterFound);
+    }
+
+    /** Rooms that are booked at that time are not suggested. */
+    @Test
+    public void suggest_skipsRoomsTakenAtThatTime() throws Exception {
+        List<Room> rooms = manager.getAllRooms();
+        if (rooms.size() < 2) return;
+
+        // Arrange
+        LocalDateTime start = day(61, 14);
+        LocalDateTime end = start.plusHours(1);
+        manager.bookRoom(rooms.get(0).getRoomId(), "owner@yorku.ca", start, end, "Taken", "STUDENT");
+        manager.bookRoom(rooms.get(1).getRoomId(), "owner@yorku.ca", start, end, "Taken", "STUDENT");
+
+        // Act
+        List<AlternativeSuggester.Suggestion> suggestions =
+                suggester.suggest(rooms.get(0).getRoomId(), start, end, "other@yorku.ca");
+
+        // Assert
+        assertTrue(suggestions.size() <= AlternativeSuggester.DEFAULT_LIMIT);
+        for (AlternativeSuggester.Suggestion s : suggestions) {
+            if (!s.isSameRoom()) {
+                assertNotEquals(rooms.get(1).getRoomId(), s.getRoom().getRoomId());
+            }
+        }
+    }
+
+    /** When editing, the booking itself does not block a slightly moved time. */
+    @Test
+    public void suggest_ignoresBookingBeingEdited() throws Exception {
+        List<Room> rooms = manager.getAllRooms();
+        if (rooms.isEmpty()) return;
+
+        // Arrange
+        Room room = rooms.get(0);
+        LocalDateTime start = day(62, 9);
+        Booking own = manager.bookRoom(room.getRoomId(), "me@yorku.ca", start, start.plusHours(1),
+                "Mine", "STUDENT");
+
+        // Act
+        List<AlternativeSuggester.Suggestion> suggestions = suggester.suggest(room.getRoomId(),
+                start.plusMinutes(30), start.plusMinutes(90), "me@yorku.ca", own.getBookingId(), 50);
+
+        // Assert – moving by 15 minutes only overlaps the booking being edited
+        boolean shiftedFound = false;
+        for (AlternativeSuggester.Suggestion s : suggestions) {
+            if (s.isSameRoom() && s.getStart().equals(start.plusMinutes(45))) shiftedFound = true;
+        }
+        assertTrue(shiftedFound);
+    }
+
+    @Test
+    public void suggest_forUnknownRoom_isEmpty() {
+        LocalDateTime start = day(63, 10);
+        assertTrue(suggester.suggest("NO_SUCH_ROOM", start, start.plusHours(1), null).isEmpty());
+    }
+
+    private static LocalDateTime day(int daysAhead, int hour) {
+        return LocalDateTime.now().plusDays(daysAhead).withHour(hour).withMinute(0).withSecond(0).withNano(0);
+    }
+}
@@ -0,0 +1,247 @@
+package scenario2.waitlist;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import scenario2.controller.BookingManager;
+import scenario2.controller.RoomHoldRegistry;
+import shared.model.Booking;
+import shared.model.BookingRepository;
+import shared.model.RecurrenceRule;
+import shared.model.Room;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link WaitlistEngine}.
+ *
+ * <p>A cancellation must offer the freed slot to the oldest overlapping
+ * request by placing a hold in that user's name; booking the slot completes
+ * the request, and leaving or letting the hold run out passes the slot on.
+ * The booking repository is emptied around every test, and each test works on
+ * its own day far in the future so holds never collide across tests.</p>
+ */
+public class WaitlistEngineTest {
+
+    private BookingManager manager;
+    private WaitlistEngine engine;
+    private final List<WaitlistEngine.Request> offers = new ArrayList<>();
+    private final List<WaitlistEngine.Request> joined = new ArrayList<>();
+
+    @BeforeClass
+    public static void configureCsvForTests() {
+        System.setProperty(BookingRepository.BOOKING_CSV_PROPERTY, "TestData/data/bookings.csv");
+        BookingRepository.resetForTests();
+    }
+
+    @Before
+    public void setUp() {
+        BookingRepository.getInstance().getAllBookings().clear();
+        manager = BookingManager.getInstance();
+        engine = new WaitlistEngine(manager);
+        engine.addOfferListener(offers::add);
+    }
+
+    @After
+    public void tearDown() {
+        for (WaitlistEngine.Request r : joined) engine.leave(r.getRequestId());
+        engine.shutdown();
+        manager.setHoldTtlMillis(RoomHoldRegistry.DEFAULT_TTL_MILLIS);
+        BookingRepository.getInstance().getAllBookings().clear();
+    }
+
+    /** The oldest overlapping request gets the slot; later ones keep waiting. */
+    @Test
+    public void cancellation_offersSlotToOldestRequest() throws Exception {
+        Room room = firstRoom();
+        if (room == null) return;
+
+        // Arrange
+        LocalDateTime start = day(40, 10);
+        Booking taken = manager.bookRoom(room.getRoomId(), "owner@yorku.ca", start, start.plusHours(1),
+                "Taken", "STUDENT");
+        WaitlistEngine.Request first = join(engine.join("first@yorku.ca", "STUDENT", room.getRoomId(),
+                start, start.plusHours(1), "Study"));
+        WaitlistEngine.Request second = join(engine.join("second@yorku.ca", "STUDENT", room.getRoomId(),
+                start.plusMinutes(30), start.plusHours(1), "Study"));
+
+        // Act
+        manager.cancelBooking(taken.getBookingId(), "owner@yorku.ca");
+
+        // Assert
+        assertEquals(WaitlistEngine.Status.OFFERED, first.getStatus());
+        assertEquals(room.getRoomId(), first.getOfferedRoomId());
+        assertNotNull(first.getHoldId());
+        assertEquals(WaitlistEngine.Status.WAITING, second.getStatus());
+        assertEquals(List.of(first), offers);
+
+        // the held slot is reserved for the first user only
+        assertFalse(manager.isRoomAvailable(room.getRoomId(), start, start.plusHours(1), "second@yorku.ca"));
+        assertTrue(manager.isRoomAvailable(room.getRoomId(), start, start.plusHours(1), "first@yorku.ca"));
+    }
+
+    /** Booking the offered slot completes the request. */
+    @Test
+    public void bookingOfferedSlot_marksRequestAssigned() throws Exception {
+        Room room = firstRoom();
+        if (room == null) return;
+
+        LocalDateTime start = day(41, 10);
+        Booking taken = manager.bookRoom(room.getRoomId(), "owner@yorku.ca", start, start.plusHours(1),
+                "Taken", "STUDENT");
+        WaitlistEngine.Request r = join(engine.join("first@yorku.ca", "STUDENT", room.getRoomId(),
+                start, start.plusHours(1), "Study"));
+        manager.cancelBooking(taken.getBookingId(), "owner@yorku.ca");
+
+        // Act
+        manager.bookRoom(room.getRoomId(), "first@yorku.ca", start, start.plusHours(1), "Study", "STUDENT");
+
+        // Assert
+        assertEquals(WaitlistEngine.Status.ASSIGNED, r.getStatus());
+    }
+
+    /** Leaving with an open offer hands the slot to the next person in line. */
+    @Test
+    public void leave_withOffer_passesSlotOn() throws Exception {
+        Room room = firstRoom();
+        if (room == null) return;
+
+        LocalDateTime start = day(42, 10);
+        Booking taken = manager.bookRoom(room.getRoomId(), "owner@yorku.ca", start, start.plusHours(1),
+                "Taken", "STUDENT");
+        WaitlistEngine.Request first = join(engine.join("first@yorku.ca", "STUDENT", room.getRoomId(),
+                start, start.plusHours(1), "Study"));
+        WaitlistEngine.Request second = join(engine.join("second@yorku.ca", "STUDENT", room.getRoomId(),
+                start, start.plusHours(1), "Study"));
+        manager.cancelBooking(taken.getBookingId(), "owner@yorku.ca");
+
+        // Act
+        assertTrue(engine.leave(first.getRequestId()));
+
+        // Assert
+        assertEquals(WaitlistEngine.Status.CANCELLED, first.getStatus());
+        assertEquals(WaitlistEngine.Status.OFFERED, second.getStatus());
+    }
+
+    /** An offer whose hold runs out expires and the slot goes to the next person in line. */
+    @Test
+    public void expiredOffer_isPassedToNextRequest() throws Exception {
+        Room room = firstRoom();
+        if (room == null) return;
+
+        // Arrange
+        LocalDateTime start = day(45, 10);
+        Booking taken = manager.bookRoom(room.getRoomId(), "owner@yorku.ca", start, start.plusHours(1),
+                "Taken", "STUDENT");
+        WaitlistEngine.Request first = join(engine.join("first@yorku.ca", "STUDENT", room.getRoomId(),
+                start, start.plusHours(1), "Study"));
+        WaitlistEngine.Request second = join(engine.join("second@yorku.ca", "STUDENT", room.getRoomId(),
+                start, start.plusHours(1), "Study"));
+        manager.setHoldTtlMillis(50);
+        manager.cancelBooking(taken.getBookingId(), "owner@yorku.ca");
+        manager.setHoldTtlMillis(RoomHoldRegistry.DEFAULT_TTL_MILLIS);
+        Thread.sleep(100);
+
+        // Act (the expiry thread may already have done this; running it twice is harmless)
+        engine.expireOffers();
+
+        // Assert
+        assertEquals(WaitlistEngine.Status.EXPIRED, first.getStatus());
+        assertNull(first.getHoldId());
+        assertEquals(WaitlistEngine.Status.OFFERED, second.getStatus());
+        assertEquals(List.of(first, second), offers);
+        assertFalse(manager.isRoomAvailable(room.getRoomId(), start, start.plusHours(1), "first@yorku.ca"));
+    }
+
+    /** A constraint request (any room) is matched against the freed room. */
+    @Test
+    public void constraintRequest_isOfferedMatchingRoom() throws Exception {
+        LocalDateTime start = day(43, 10);
+        LocalDateTime end = start.plusHours(1);
+
+        // Arrange – book out every searchable room (any capacity: other tests may shrink rooms)
+        List<Booking> bookings = new ArrayList<>();
+        for (Room r : manager.searchAvailableRooms(start, end, 0, null, null)) {
+            bookings.add(manager.bookRoom(r.getRoomId(), "owner@yorku.ca", start, end, "Taken", "STUDENT"));
+        }
+        assertFalse("TestData should have searchable rooms", bookings.isEmpty());
+
+        WaitlistEngine.Request r = join(engine.join("first@yorku.ca", "STUDENT",
+                start, end, 0, null, null, "Study"));
+
+        // Act
+        manager.cancelBooking(bookings.get(0).getBookingId(), "owner@yorku.ca");
+
+        // Assert
+        assertEquals(WaitlistEngine.Status.OFFERED, r.getStatus());
+        assertEquals(bookings.get(0).getRoomId(), r.getOfferedRoomId());
+        assertNull(r.getRoomId());
+    }
+
+    /** Requests that do not overlap the freed slot are not offered anything. */
+    @Test
+    public void cancellation_ignoresNonOverlappingRequests() throws Exception {
+        Room room = firstRoom();
+        if (room == null) return;
+
+        LocalDateTime start = day(44, 10);
+        Booking taken = manager.bookRoom(room.getRoomId(), "owner@yorku.ca", start, start.plusHours(1),
+                "Taken", "STUDENT");
+        WaitlistEngine.Request later = join(engine.join("first@yorku.ca", "STUDENT", room.getRoomId(),
+                start.plusHours(3), start.plusHours(4), "Study"));
+
+        manager.cancelBooking(taken.getBookingId(), "owner@yorku.ca");
+
+        assertEquals(WaitlistEngine.Status.WAITING, later.getStatus());
+        assertTrue(offers.isEmpty());
+    }
+
+    @Test(expected = Exception.class)
+    public void join_inThePast_isRejected() throws Exception {
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        engine.join("first@yorku.ca", "STUDENT", start, start.plusHours(1), 1, null, null, "Study");
+    }
+
+    // ---------- helpers ----------
+
+    /** A no-show week of a series offers that week only. */
+    @Test
+    public void seriesOccurrenceNoShow_offersThatWeek() throws Exception {
+        Room room = firstRoom();
+        if (room == null) return;
+
+        // Arrange
+        LocalDateTime start = day(46, 10);
+        Booking series = manager.bookRecurring(room.getRoomId(), "owner@yorku.ca", start, start.plusHours(1),
+                "Lab meeting", "FACULTY", "APPROVED", RecurrenceRule.weekly(start.toLocalDate().plusWeeks(3)));
+        LocalDateTime week2 = start.plusWeeks(1);
+        WaitlistEngine.Request r = join(engine.join("first@yorku.ca", "STUDENT", room.getRoomId(),
+                week2, week2.plusHours(1), "Study"));
+
+        // Act
+        manager.markDepositForfeited(series.getBookingId(), week2);
+
+        // Assert
+        assertEquals(WaitlistEngine.Status.OFFERED, r.getStatus());
+        assertEquals(List.of(r), offers);
+    }
+
+    private Room firstRoom() {
+        List<Room> rooms = manager.getAllRooms();
+        return rooms.isEmpty() ? null : rooms.get(0);
+    }
+
+    private static LocalDateTime day(int daysAhead, int hour) {
+        return LocalDateTime.now().plusDays(daysAhead).withHour(hour).withMinute(0).withSecond(0).withNano(0);
+    }
+
+    private WaitlistEngine.Request join(WaitlistEngine.Request r) {
+        joined.add(r);
+        return r;
+    }
+}
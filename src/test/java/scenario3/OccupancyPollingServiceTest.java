@@ -0,0 +1,154 @@
+package scenario3;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import scenario2.controller.BookingManager;
+import shared.model.Booking;
+import shared.model.BookingRepository;
+import shared.model.RoomRepository;
+import shared.observer.Observer;
+
+import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * OccupancyPollingServiceTest – shared sensor poller (Scenario 3)
+ * --------------------------------------------------------------------
+ * Covers the bounded per-room log, delta-only pushes, and the
+ * "notify only on change" behaviour of RoomStatusManager.refreshOccupancy().
+ */
+public class OccupancyPollingServiceTest {
+
+    private BookingRepository bookingRepo;
+    private OccupancyPollingService poller;
+    private final List<String> pushed = new CopyOnWriteArrayList<>();
+    private CountDownLatch firstPush;
+    private OccupancyPollingService.OccupancyListener listener;
+
+    @BeforeEach
+    void setup() throws Exception {
+        System.setProperty("user.dir", Paths.get("TestData").toAbsolutePath().toString());
+        System.setProperty("booking.csv.path", Paths.get("TestData/data/bookings.csv").toString());
+
+        resetSingleton(RoomStatusManager.class, "instance");
+        resetSingleton(RoomRepository.class, "instance");
+        resetSingleton(BookingManager.class, "instance");
+        resetSingleton(OccupancyPollingService.class, "instance");
+        BookingRepository.resetForTests();
+
+        bookingRepo = BookingRepository.getInstance();
+        bookingRepo.getAllBookings().clear();
+        poller = OccupancyPollingService.getInstance();
+
+        firstPush = new CountDownLatch(1);
+        listener = (roomId, status, line) -> {
+            pushed.add(status);
+            firstPush.countDown();
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        poller.unwatch("R1", listener);
+    }
+
+    @Test
+    void ringLogKeepsOnlyNewestLines() {
+        OccupancyPollingService.RingLog log = new OccupancyPollingService.RingLog(3);
+        for (int i = 1; i <= 5; i++) log.add("line" + i);
+
+        assertEquals(List.of("line3", "line4", "line5"), log.toList());
+    }
+
+    @Test
+    void pushesOnlyWhenStatusChanges() throws Exception {
+        poller.watch("R1", listener);
+        assertTrue(firstPush.await(5, TimeUnit.SECONDS), "initial poll should push the first status");
+        assertEquals(List.of("AVAILABLE"), pushed);
+
+        // No change → no push, no new log line
+        poller.pollAll();
+        poller.pollAll();
+        assertEquals(1, pushed.size());
+        assertEquals(1, poller.getLog("R1").size());
+
+        // Checked-in booking → IN_USE delta
+        LocalDateTime now = LocalDateTime.now();
+        Booking b = new Booking("BPOLL", "R1", "U1", now.minusMinutes(5), now.plusMinutes(30), "Study");
+        b.setStatus("IN_USE");
+        bookingRepo.getAllBookings().add(b);
+
+        poller.pollAll();
+        assertEquals(List.of("AVAILABLE", "IN_USE"), pushed);
+        assertEquals(2, poller.getLog("R1").size());
+    }
+
+    @Test
+    void unwatchStopsTrackingRoom() {
+        poller.watch("R1", listener);
+        assertTrue(poller.isWatched("R1"));
+
+        poller.unwatch("R1", listener);
+        assertFalse(poller.isWatched("R1"));
+        assertTrue(poller.getLog("R1").isEmpty());
+    }
+
+    @Test
+    void pollsRunOnUpdateExecutor() throws Exception {
+        ConcurrentLinkedQueue<Runnable> uiQueue = new ConcurrentLinkedQueue<>();
+        CountDownLatch handedOver = new CountDownLatch(1);
+        poller.setUpdateExecutor(task -> {
+            uiQueue.add(task);
+            handedOver.countDown();
+        });
+
+        poller.watch("R1", listener);
+        assertTrue(handedOver.await(5, TimeUnit.SECONDS), "initial poll should be handed to the executor");
+        assertTrue(pushed.isEmpty(), "nothing may run on the poller thread");
+
+        Runnable task;
+        while ((task = uiQueue.poll()) != null) task.run();
+        assertEquals(List.of("AVAILABLE"), pushed);
+    }
+
+    @Test
+    void refreshOccupancyNotifiesObserversOnlyOnChange() {
+        RoomStatusManager manager = RoomStatusManager.getInstance();
+        AtomicInteger notifications = new AtomicInteger();
+        Observer counter = notifications::incrementAndGet;
+        manager.attach(counter);
+
+        manager.refreshOccupancy("R1");   // AVAILABLE → AVAILABLE (default)
+        assertEquals(0, notifications.get());
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking b = new Booking("BREF", "R1", "U1", now.minusMinutes(5), now.plusMinutes(30), "Study");
+        b.setStatus("IN_USE");
+        bookingRepo.getAllBookings().add(b);
+
+        assertEquals("IN_USE", manager.refreshOccupancy("R1"));
+        assertEquals(1, notifications.get());
+
+        manager.refreshOccupancy("R1");
+        assertEquals(1, notifications.get());
+
+        manager.detach(counter);
+    }
+
+    // ---------- reflection helpers ----------
+    private void resetSingleton(Class<?> clazz, String fieldName) throws Exception {
+        Field f = clazz.getDeclaredField(fieldName);
+        f.setAccessible(true);
+        f.set(null, null);   // static field
+    }
+}
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import scenario2.controller.BookingManager;
 import shared.model.Booking;
 import shared.model.BookingRepository;
+import shared.model.BookingStatus;
+import shared.model.RecurrenceRule;
 import shared.model.Room;
 import shared.model.RoomRepository;
 import shared.observer.Observer;
@@ -341,6 +343,67 @@ public class RoomStatusManagerTest {
         assertEquals("IN_USE", manager.getRoomStatus("R1"));
     }
 
+    // --------------------------------------------------------------
+    // RECURRING BOOKINGS (per-occurrence check-in / no-show)
+    // --------------------------------------------------------------
+
+    /** Weekly series whose first week is over and whose second week started 5 minutes ago. */
+    private Booking secondWeekOfSeries(String id) {
+        LocalDateTime first = LocalDateTime.now().minusWeeks(1).minusMinutes(5);
+        Booking series = new Booking(id, "R1", "U7", first, first.plusHours(1), "Lab meeting");
+        series.setStatus("CONFIRMED");
+        series.setRecurrence(RecurrenceRule.weekly(first.toLocalDate().plusWeeks(4)));
+        bookingRepo.getAllBookings().add(series);
+        return series;
+    }
+
+    @Test
+    void testCheckIn_SeriesChecksIntoCurrentOccurrenceOnly() throws Exception {
+        Booking series = secondWeekOfSeries("S1");
+        LocalDateTime current = series.getStartTime().plusWeeks(1);
+
+        manager.checkIn("S1", "R1", "U7");
+
+        assertEquals("IN_USE", manager.getRoomStatus("R1"));
+        assertEquals(BookingStatus.CONFIRMED, series.getStatusEnum());
+        assertEquals(BookingStatus.IN_USE,
+                BookingManager.getInstance().getOccurrenceStatus("S1", current));
+
+        Booking active = BookingManager.getInstance().getActiveBookingForRoom("R1", LocalDateTime.now());
+        assertEquals(current, active.getStartTime());
+        assertEquals(BookingStatus.IN_USE, active.getStatusEnum());
+    }
+
+    @Test
+    void testForceNoShow_SeriesForfeitsOnlyCurrentOccurrence() {
+        Booking series = secondWeekOfSeries("S2");
+        LocalDateTime current = series.getStartTime().plusWeeks(1);
+
+        manager.forceNoShow("S2", "R1", "U7");
+
+        assertTrue(manager.isNoShow("S2", current));
+        assertFalse(manager.isNoShow("S2"));
+        assertEquals(BookingStatus.CONFIRMED, series.getStatusEnum());
+        assertNotEquals("FORFEITED", series.getPaymentStatus());
+        assertNull(BookingManager.getInstance().getActiveBookingForRoom("R1", LocalDateTime.now()));
+        assertNull(BookingManager.getInstance().getOccurrenceStatus("S2", current.plusWeeks(1)));
+    }
+
+    @Test
+    void testStartNoShowCountdown_SeriesArmsOpenOccurrence() throws Exception {
+        Booking series = secondWeekOfSeries("S3");
+        LocalDateTime current = series.getStartTime().plusWeeks(1);
+
+        manager.startNoShowCountdown("S3", "R1", series.getStartTime());
+
+        var field = RoomStatusManager.class.getDeclaredField("noShowTimers");
+        field.setAccessible(true);
+        Map<String, ?> timers = (Map<String, ?>) field.get(manager);
+
+        assertTrue(timers.containsKey(BookingManager.occurrenceKey("S3", current)));
+        assertFalse(timers.containsKey("S3"));
+    }
+
     // --------------------------------------------------------------
     // OBSERVER TESTS
     // --------------------------------------------------------------
@@ -0,0 +1,127 @@
+package scenario4;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import shared.model.Booking;
+import shared.model.BookingRepository;
+import shared.model.Room;
+import shared.model.RoomRepository;
+
+import java.lang.reflect.Field;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DashboardStatsServiceTest – Scenario 4 dashboard counters
+ * --------------------------------------------------------------------
+ * Verifies that the rolling dashboard counters follow repository change
+ * events (add / in-place update / remove) without rescanning, and that the
+ * snapshot matches what the dashboard used to compute from scratch.
+ */
+public class DashboardStatsServiceTest {
+
+    private BookingRepository bookingRepo;
+    private RoomRepository roomRepo;
+
+    @BeforeEach
+    void setup() throws Exception {
+        System.setProperty("user.dir", Paths.get("TestData").toAbsolutePath().toString());
+        System.setProperty(BookingRepository.BOOKING_CSV_PROPERTY,
+                Paths.get("TestData/data/bookings.csv").toString());
+
+        resetSingleton(RoomRepository.class, "instance");
+        resetSingleton(DashboardStatsService.class, "instance");
+        BookingRepository.resetForTests();
+
+        bookingRepo = BookingRepository.getInstance();
+        roomRepo = RoomRepository.getInstance();
+
+        bookingRepo.getAllBookings().clear();
+        // replaceAll() reloads the map without writing rooms.csv
+        roomRepo.replaceAll(List.of(
+                new Room("R1", "A", 10, "L", "", "York", "ACTIVE"),
+                new Room("R2", "B", 20, "L", "", "York", "DISABLED"),
+                new Room("R3", "C", 30, "L", "", "", "MAINTENANCE")
+        ));
+    }
+
+    @Test
+    void snapshotCountsRoomsByStatusAndBuilding() {
+        DashboardStatsService.Snapshot s = DashboardStatsService.getInstance().snapshot();
+
+        assertEquals(3, s.getTotalRooms());
+        assertEquals(1, s.getActiveRooms());
+        assertEquals(1, s.getDisabledRooms());
+        assertEquals(1, s.getMaintenanceRooms());
+        assertEquals(30, s.getCapacityByBuilding().get("York"));
+        assertEquals(30, s.getCapacityByBuilding().get("Other"));
+    }
+
+    @Test
+    void roomEventsAdjustCountersIncrementally() {
+        DashboardStatsService service = DashboardStatsService.getInstance();
+        service.snapshot();
+
+        roomRepo.replaceAll(List.of(
+                new Room("R1", "A", 15, "L", "", "York", "MAINTENANCE"),
+                new Room("R4", "D", 5, "L", "", "Vari", "ACTIVE")
+        ));
+
+        DashboardStatsService.Snapshot s = service.snapshot();
+        assertEquals(2, s.getTotalRooms());
+        assertEquals(1, s.getActiveRooms());
+        assertEquals(0, s.getDisabledRooms());
+        assertEquals(1, s.getMaintenanceRooms());
+        assertEquals(15, s.getCapacityByBuilding().get("York"));
+        assertEquals(5, s.getCapacityByBuilding().get("Vari"));
+        assertNull(s.getCapacityByBuilding().get("Other"));
+    }
+
+    @Test
+    void bookingEventsMaintainBookingsPerDay() {
+        DashboardStatsService service = DashboardStatsService.getInstance();
+        LocalDate today = LocalDate.now();
+
+        Booking b1 = booking("B1", today.atTime(10, 0));
+        Booking b2 = booking("B2", today.atTime(12, 0));
+        bookingRepo.getAllBookings().add(b1);
+        bookingRepo.getAllBookings().add(b2);
+
+        assertEquals(2, service.snapshot().getBookingsPerDay().get(today));
+
+        // In-place edit moves b2 to yesterday
+        b2.setStartTime(today.minusDays(1).atTime(12, 0));
+        b2.setEndTime(today.minusDays(1).atTime(13, 0));
+        bookingRepo.notifyUpdated(b2);
+
+        DashboardStatsService.Snapshot s = service.snapshot();
+        assertEquals(1, s.getBookingsPerDay().get(today));
+        assertEquals(1, s.getBookingsPerDay().get(today.minusDays(1)));
+
+        bookingRepo.getAllBookings().remove(b1);
+        assertEquals(0, service.snapshot().getBookingsPerDay().get(today));
+        assertEquals(DashboardStatsService.TREND_DAYS, service.snapshot().getBookingsPerDay().size());
+    }
+
+    @Test
+    void snapshotIsReusedWhenNothingChanged() {
+        DashboardStatsService service = DashboardStatsService.getInstance();
+        assertSame(service.snapshot(), service.snapshot());
+    }
+
+    // ---------- helpers ----------
+
+    private Booking booking(String id, LocalDateTime start) {
+        return new Booking(id, "R1", "user@yorku.ca", start, start.plusHours(1), "Test");
+    }
+
+    private void resetSingleton(Class<?> clazz, String fieldName) throws Exception {
+        Field f = clazz.getDeclaredField(fieldName);
+        f.setAccessible(true);
+        f.set(null, null);   // static field
+    }
+}
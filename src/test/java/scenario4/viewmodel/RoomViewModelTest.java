@@ -0,0 +1,76 @@
+package scenario4.viewmodel;
+
+import javafx.beans.property.StringProperty;
+import org.junit.jupiter.api.Test;
+import shared.model.Room;
+import shared.model.RoomStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RoomViewModelTest – Unit tests for {@link RoomViewModel} (Scenario 4).
+ * ---------------------------------------------------------------------
+ * <p>Properties must show the room's current values, including edits made
+ * through the {@link Room} setters after the view was created; each room has
+ * one view, and status changes are pushed into it.</p>
+ */
+class RoomViewModelTest {
+
+    @Test
+    void testPropertiesReflectRoom() {
+        Room r = new Room("101", "Conf", 20, "L2", "Proj", "ENG", "ACTIVE");
+        RoomViewModel vm = RoomViewModel.of(r);
+
+        assertSame(r, vm.getRoom());
+        assertEquals("101", vm.roomIdProperty().get());
+        assertEquals("Conf", vm.roomNameProperty().get());
+        assertEquals(20, vm.capacityProperty().get());
+        assertEquals("L2", vm.locationProperty().get());
+        assertEquals("Proj", vm.amenitiesProperty().get());
+        assertEquals("ENG", vm.buildingProperty().get());
+        assertEquals("AVAILABLE", vm.statusProperty().get()); // ACTIVE → AVAILABLE
+    }
+
+    @Test
+    void testPropertiesPickUpRoomEdits() {
+        Room r = new Room("10", "Old", 5, "A", "None", "B");
+        RoomViewModel vm = RoomViewModel.of(r);
+        assertEquals("Old", vm.roomNameProperty().get());
+
+        r.setRoomName("NewName");
+        r.setCapacity(77);
+        r.setStatus(RoomStatus.OCCUPIED);
+
+        assertEquals("NewName", vm.roomNameProperty().get());
+        assertEquals(77, vm.capacityProperty().get());
+        assertEquals("OCCUPIED", vm.statusProperty().get());
+    }
+
+    @Test
+    void testSamePropertyReturnedOnEachCall() {
+        RoomViewModel vm = RoomViewModel.of(new Room("X1", "Mini Room"));
+
+        assertSame(vm.roomNameProperty(), vm.roomNameProperty());
+        assertNull(vm.locationProperty().get());
+    }
+
+    @Test
+    void testSameViewReturnedForSameRoom() {
+        Room r = new Room("X2", "Room");
+
+        assertSame(RoomViewModel.of(r), RoomViewModel.of(r));
+        assertNotSame(RoomViewModel.of(r), RoomViewModel.of(new Room("X2", "Room")));
+    }
+
+    @Test
+    void testStatusChangeIsPushedToBoundProperty() {
+        Room r = new Room("X3", "Room", 4, "L1", "", "ENG", "AVAILABLE");
+        StringProperty status = RoomViewModel.of(r).statusProperty();
+
+        r.setStatus(RoomStatus.OCCUPIED);
+        assertEquals("OCCUPIED", status.get());
+
+        r.setStatus("MAINT");
+        assertEquals("MAINTENANCE", status.get());
+    }
+}
@@ -1,6 +1,5 @@
 package shared.model;
 
-import javafx.beans.property.StringProperty;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -10,14 +9,12 @@ import static org.junit.jupiter.api.Assertions.*;
  * -----------------------------------------------------------------------
  * <p>This class validates the behaviour of the {@code Admin} model used in
  * the Conference Room Scheduler system. The Admin class encapsulates user
- * account information such as username, password, status, and role. It also
- * exposes JavaFX {@link StringProperty} fields for GUI binding.</p>
+ * account information such as username, password, status, and role.</p>
  *
  * <h2>Test Coverage Goals</h2>
  * <ul>
  *     <li>Verify all constructors correctly initialize fields</li>
  *     <li>Ensure status/role setters update values properly</li>
- *     <li>Validate property bindings for JavaFX UI integration</li>
  *     <li>Confirm {@code toString()} returns valid CSV output</li>
  *     <li>Achieve 100% line and method coverage for the {@link Admin} class</li>
  * </ul>
@@ -94,68 +91,7 @@ class AdminTest {
     }
 
     /**
-     * Test 6 — Verifies that {@link Admin#usernameProperty()} is not null
-     * and that the property value matches the username getter.
-     */
-    @Test
-    void testUsernamePropertyReflectsValue() {
-        Admin admin = new Admin("frank", "pw");
-        StringProperty prop = admin.usernameProperty();
-
-        assertNotNull(prop);
-        assertEquals("frank", prop.get());
-        assertEquals("frank", admin.getUsername());
-    }
-
-    /**
-     * Test 7 — Ensures {@link Admin#passwordProperty()} returns a valid
-     * property object that reflects the stored password.
-     */
-    @Test
-    void testPasswordPropertyReflectsValue() {
-        Admin admin = new Admin("gina", "topsecret");
-        StringProperty prop = admin.passwordProperty();
-
-        assertNotNull(prop);
-        assertEquals("topsecret", prop.get());
-        assertEquals("topsecret", admin.getPassword());
-    }
-
-    /**
-     * Test 8 — Confirms {@link Admin#statusProperty()} is linked
-     * bidirectionally with {@link Admin#getStatus()}.
-     */
-    @Test
-    void testStatusPropertyLinkedToGetter() {
-        Admin admin = new Admin("henry", "pw");
-        StringProperty statusProp = admin.statusProperty();
-
-        assertNotNull(statusProp);
-        assertEquals("ACTIVE", statusProp.get());
-
-        // Modify property → getter should reflect change
-        statusProp.set("SUSPENDED");
-        assertEquals("SUSPENDED", admin.getStatus());
-    }
-
-    /**
-     * Test 9 — Ensures {@link Admin#roleProperty()} is linked
-     * to the role getter and reflects updates.
-     */
-    @Test
-    void testRolePropertyLinkedToGetter() {
-        Admin admin = new Admin("irene", "pw", "ADMIN");
-        StringProperty roleProp = admin.roleProperty();
-
-        assertNotNull(roleProp);
-        assertEquals("ADMIN", roleProp.get());
-
-        roleProp.set("CHIEF");
-        assertEquals("CHIEF", admin.getRole());
-    }
-
-    /**
-     * Test 10 — Validates the {@link Admin#toString()} method returns
+     * Test 6 — Validates the {@link Admin#toString()} method returns
      * the correct CSV representation of the admin object in the form:
      * <pre>
      * username,password,status,role
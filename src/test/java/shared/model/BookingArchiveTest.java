@@ -0,0 +1,192 @@
+package shared.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link BookingArchive} and
+ * {@link BookingRepository#archiveEndedBefore(LocalDateTime)}.
+ *
+ * <p>The archive must read back, lazily and in order, every row written by
+ * any number of archival runs; the repository must move out exactly the
+ * bookings that can no longer affect availability and keep everything else
+ * in memory.</p>
+ */
+public class BookingArchiveTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2020, 3, 2, 10, 0);
+
+    private File archiveFile;
+    private BookingArchive archive;
+
+    @BeforeClass
+    public static void configureCsvForTests() {
+        System.setProperty(BookingRepository.BOOKING_CSV_PROPERTY, "TestData/data/bookings.csv");
+        BookingRepository.resetForTests();
+    }
+
+    @Before
+    public void setUp() {
+        archiveFile = new File("target/test-archive/archive-test.csv.gz");
+        archiveFile.delete();
+        archive = new BookingArchive(archiveFile.getPath());
+    }
+
+    @After
+    public void tearDown() {
+        archiveFile.delete();
+        new File(BookingRepository.getInstance().getArchive().getPath()).delete();
+    }
+
+    // ============================================================
+    // ARCHIVE FILE
+    // ============================================================
+
+    /** Rows of several runs come back in order, with purpose commas and recurrence intact. */
+    @Test
+    public void append_twice_thenStreamReadsAllRunsInOrder() throws Exception {
+        // Arrange
+        Booking series = booking("B1", "a@yorku.ca", BASE, "Lab, weekly");
+        series.setRecurrence(RecurrenceRule.weekly(LocalDate.of(2020, 4, 27)));
+        Booking single = booking("B2", "b@yorku.ca", BASE.plusDays(1), "Study");
+
+        // Act
+        archive.append(List.of(series));
+        archive.append(List.of(single));
+
+        // Assert
+        List<Booking> read;
+        try (Stream<Booking> s = archive.stream()) {
+            read = s.collect(Collectors.toList());
+        }
+        assertEquals(2, read.size());
+        assertEquals("B1", read.get(0).getBookingId());
+        assertEquals("Lab, weekly", read.get(0).getPurpose());
+        assertEquals(series.getRecurrence(), read.get(0).getRecurrence());
+        assertEquals("B2", read.get(1).getBookingId());
+    }
+
+    @Test
+    public void stream_withoutArchiveFile_isEmpty() {
+        assertFalse(archive.exists());
+        try (Stream<Booking> s = archive.stream()) {
+            assertEquals(0, s.count());
+        }
+    }
+
+    /** User lookups are case-insensitive and newest first; range lookups are half-open. */
+    @Test
+    public void findForUser_andFindStartingBetween_filterTheStream() throws Exception {
+        archive.append(List.of(
+                booking("B1", "a@yorku.ca", BASE, "One"),
+                booking("B2", "b@yorku.ca", BASE.plusDays(1), "Two"),
+                booking("B3", "A@yorku.ca", BASE.plusDays(2), "Three")));
+
+        List<Booking> forA = archive.findForUser("a@yorku.ca");
+        List<Booking> inRange = archive.findStartingBetween(BASE, BASE.plusDays(2));
+
+        assertEquals(2, forA.size());
+        assertEquals("B3", forA.get(0).getBookingId());
+        assertEquals("B1", forA.get(1).getBookingId());
+        assertEquals(2, inRange.size());
+        assertTrue(archive.findForUser(null).isEmpty());
+    }
+
+    /** An installed index answers user lookups until the next append drops it. */
+    @Test
+    public void useIndex_answersLookupsUntilNextAppend() throws Exception {
+        archive.append(List.of(booking("B1", "a@yorku.ca", BASE, "One")));
+        List<Booking> indexed = List.of(booking("I1", "a@yorku.ca", BASE, "Indexed"));
+        boolean[] closed = new boolean[1];
+        BookingHistoryIndex index = new BookingHistoryIndex() {
+            @Override
+            public List<Booking> findForUser(String userId) {
+                return indexed;
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+
+        assertTrue(archive.useIndex(index, archive.getGeneration()));
+        assertSame(indexed, archive.findForUser("a@yorku.ca"));
+
+        archive.append(List.of(booking("B2", "a@yorku.ca", BASE.plusDays(1), "Two")));
+        assertTrue(closed[0]);
+        assertFalse(archive.hasIndex());
+        assertEquals("B2", archive.findForUser("a@yorku.ca").get(0).getBookingId());
+    }
+
+    /** An index built before the latest append is refused. */
+    @Test
+    public void useIndex_fromOlderGeneration_isRejected() throws Exception {
+        long before = archive.getGeneration();
+        archive.append(List.of(booking("B1", "a@yorku.ca", BASE, "One")));
+
+        assertFalse(archive.useIndex(userId -> List.of(), before));
+        assertFalse(archive.hasIndex());
+    }
+
+    // ============================================================
+    // REPOSITORY ARCHIVAL
+    // ============================================================
+
+    /** Only finished, settled bookings move out; the rest stays indexed in memory. */
+    @Test
+    public void archiveEndedBefore_movesFinishedBookingsOnly() {
+        // Arrange
+        BookingRepository repo = BookingRepository.getInstance();
+        repo.getAllBookings().clear();
+
+        LocalDateTime cutoff = BASE.plusMonths(6);
+        Booking finished = new Booking("OLD1", "R101", "u@yorku.ca", BASE, BASE.plusHours(1),
+                "Old", "FINISHED", "APPROVED", 20.0);
+        Booking cancelled = new Booking("OLD2", "R101", "u@yorku.ca", BASE.plusDays(1),
+                BASE.plusDays(1).plusHours(1), "Old", "CANCELLED", "REFUNDED", 20.0);
+        Booking unsettled = new Booking("OLD3", "R101", "p@yorku.ca", BASE.plusDays(2),
+                BASE.plusDays(2).plusHours(1), "Old", "FINISHED", "PENDING", 50.0);
+        Booking liveSeries = new Booking("SER1", "R101", "u@yorku.ca", BASE.plusDays(3),
+                BASE.plusDays(3).plusHours(1), "Series", "CONFIRMED", "APPROVED", 20.0);
+        liveSeries.setRecurrence(RecurrenceRule.weekly(cutoff.toLocalDate().plusWeeks(2)));
+        Booking recent = new Booking("NEW1", "R101", "u@yorku.ca", cutoff.plusDays(1),
+                cutoff.plusDays(1).plusHours(1), "New", "CONFIRMED", "APPROVED", 20.0);
+        repo.getAllBookings().addAll(List.of(finished, cancelled, unsettled, liveSeries, recent));
+
+        // Act
+        int archived = repo.archiveEndedBefore(cutoff);
+
+        // Assert
+        assertEquals(2, archived);
+        assertEquals(3, repo.getAllBookings().size());
+        assertNull(repo.findById("OLD1"));
+        assertNull(repo.findById("OLD2"));
+        assertNotNull(repo.findById("OLD3"));
+        assertEquals(3, repo.getBookingsForRoom("R101").size());
+
+        List<Booking> history = repo.getArchive().findForUser("u@yorku.ca");
+        assertEquals(2, history.size());
+        assertEquals("OLD2", history.get(0).getBookingId());
+
+        // a second run finds nothing new
+        assertEquals(0, repo.archiveEndedBefore(cutoff));
+        repo.getAllBookings().clear();
+    }
+
+    private static Booking booking(String id, String userId, LocalDateTime start, String purpose) {
+        return new Booking(id, "R101", userId, start, start.plusHours(1), purpose,
+                "FINISHED", "APPROVED", 20.0);
+    }
+}
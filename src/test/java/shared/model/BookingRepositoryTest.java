@@ -3,7 +3,9 @@ package shared.model;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.Assert.*;
@@ -143,4 +145,189 @@ public class BookingRepositoryTest {
         assertTrue("No bookings should be returned for unknown room ID",
                 r999Bookings.isEmpty());
     }
+
+    /**
+     * Verifies that the per-room index follows an in-place room change once
+     * it is announced through {@link BookingRepository#notifyUpdated(Booking)},
+     * and that removals through the live list drop the booking from the index.
+     */
+    @Test
+    public void getBookingsForRoom_followsInPlaceRoomChangeAndRemoval() {
+        Booking moved = newBooking("B1", "R101");
+        repo.getAllBookings().add(moved);
+        repo.getAllBookings().add(newBooking("B2", "R101"));
+
+        moved.setRoomId("R202");
+        repo.notifyUpdated(moved);
+
+        assertEquals(1, repo.getBookingsForRoom("R101").size());
+        assertSame(moved, repo.getBookingsForRoom("R202").get(0));
+
+        repo.getAllBookings().remove(moved);
+        assertTrue(repo.getBookingsForRoom("R202").isEmpty());
+    }
+
+    /**
+     * Verifies that the per-room index stays ordered by start time, also
+     * after a start time is edited in place and announced.
+     */
+    @Test
+    public void getBookingsForRoom_isOrderedByStartTime() {
+        // Arrange
+        Booking late = newBooking("B1", "R101", 14, 15);
+        Booking early = newBooking("B2", "R101", 9, 10);
+        Booking middle = newBooking("B3", "R101", 11, 12);
+        repo.getAllBookings().add(late);
+        repo.getAllBookings().add(early);
+        repo.getAllBookings().add(middle);
+
+        // Act
+        early.setStartTime(LocalDateTime.of(2025, 1, 1, 16, 0));
+        early.setEndTime(LocalDateTime.of(2025, 1, 1, 17, 0));
+        repo.notifyUpdated(early);
+
+        // Assert
+        assertEquals(List.of(middle, late, early), repo.getBookingsForRoom("R101"));
+    }
+
+    /**
+     * Verifies that {@link BookingRepository#nextOccupiedAfter} finds the next
+     * live booking, skips cancelled and ignored ones, and reports a booking
+     * still running at the queried time.
+     */
+    @Test
+    public void nextOccupiedAfter_findsNextLiveBooking() {
+        // Arrange
+        Booking own = newBooking("B1", "R101", 10, 11);
+        Booking cancelled = newBooking("B2", "R101", 11, 12);
+        cancelled.setStatus("CANCELLED");
+        repo.getAllBookings().add(own);
+        repo.getAllBookings().add(cancelled);
+        repo.getAllBookings().add(newBooking("B3", "R101", 13, 14));
+
+        LocalDateTime elevenAm = LocalDateTime.of(2025, 1, 1, 11, 0);
+        LocalDateTime evening = LocalDateTime.of(2025, 1, 1, 20, 0);
+
+        // Act & Assert
+        assertEquals(LocalDateTime.of(2025, 1, 1, 13, 0),
+                repo.nextOccupiedAfter("R101", elevenAm, evening, "B1"));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 30),
+                repo.nextOccupiedAfter("R101", LocalDateTime.of(2025, 1, 1, 10, 30), evening, null));
+        assertNull(repo.nextOccupiedAfter("R101", elevenAm, LocalDateTime.of(2025, 1, 1, 13, 0), "B1"));
+        assertNull(repo.nextOccupiedAfter("R999", elevenAm, evening, null));
+    }
+
+    /**
+     * Verifies that a recurring booking blocks at its next occurrence, not at
+     * its (much earlier) first one.
+     */
+    @Test
+    public void nextOccupiedAfter_expandsRecurringBookings() {
+        // Arrange – weekly from 2025-01-01, 15:00–16:00
+        Booking series = newBooking("S1", "R101", 15, 16);
+        series.setRecurrence(RecurrenceRule.weekly(LocalDate.of(2025, 3, 1)));
+        repo.getAllBookings().add(series);
+
+        LocalDateTime from = LocalDateTime.of(2025, 1, 22, 12, 0);
+
+        // Act & Assert
+        assertEquals(LocalDateTime.of(2025, 1, 22, 15, 0),
+                repo.nextOccupiedAfter("R101", from, from.plusDays(1), null));
+        assertNull(repo.nextOccupiedAfter("R101", from.plusDays(1), from.plusDays(2), null));
+    }
+
+    /**
+     * Verifies that an occurrence marked NO_SHOW no longer blocks the room,
+     * while the series' other occurrences still do.
+     */
+    @Test
+    public void nextOccupiedAfter_skipsNoShowOccurrence() {
+        // Arrange – weekly from 2025-01-01, 15:00–16:00; 2025-01-22 was a no-show
+        Booking series = newBooking("S1", "R101", 15, 16);
+        series.setRecurrence(RecurrenceRule.weekly(LocalDate.of(2025, 3, 1)));
+        series.setOccurrenceStatus(LocalDateTime.of(2025, 1, 22, 15, 0), BookingStatus.NO_SHOW);
+        repo.getAllBookings().add(series);
+
+        LocalDateTime from = LocalDateTime.of(2025, 1, 22, 12, 0);
+
+        // Act & Assert
+        assertEquals(LocalDateTime.of(2025, 1, 29, 15, 0),
+                repo.nextOccupiedAfter("R101", from, from.plusWeeks(1).plusDays(1), null));
+    }
+
+    /**
+     * Verifies that occurrence states survive a restart through the sidecar
+     * file, and that states of long-finished occurrences are dropped.
+     */
+    @Test
+    public void occurrenceStatuses_persistAcrossReloadAndPrunePast() throws Exception {
+        // Arrange
+        String previous = System.getProperty(BookingRepository.BOOKING_CSV_PROPERTY);
+        java.nio.file.Path dir = java.nio.file.Files.createTempDirectory("occurrences");
+        System.setProperty(BookingRepository.BOOKING_CSV_PROPERTY, dir.resolve("bookings.csv").toString());
+        try {
+            BookingRepository.resetForTests();
+            BookingRepository fresh = BookingRepository.getInstance();
+
+            LocalDateTime first = LocalDateTime.now().minusWeeks(2).withNano(0).withSecond(0);
+            Booking series = new Booking("S9", "R101", "user@yorku.ca", first, first.plusHours(1), "Test");
+            series.setRecurrence(RecurrenceRule.weekly(first.toLocalDate().plusWeeks(4)));
+            series.setOccurrenceStatus(first, BookingStatus.NO_SHOW);
+            series.setOccurrenceStatus(first.plusWeeks(3), BookingStatus.NO_SHOW);
+            fresh.getAllBookings().add(series);
+
+            // Act
+            fresh.saveAll();
+            BookingRepository.resetForTests();
+            Booking reloaded = BookingRepository.getInstance().findById("S9");
+
+            // Assert
+            assertEquals(BookingStatus.NO_SHOW, reloaded.getOccurrenceStatus(first.plusWeeks(3)));
+            assertNull(reloaded.getOccurrenceStatus(first));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(BookingRepository.BOOKING_CSV_PROPERTY);
+            } else {
+                System.setProperty(BookingRepository.BOOKING_CSV_PROPERTY, previous);
+            }
+            BookingRepository.resetForTests();
+        }
+    }
+
+    private Booking newBooking(String id, String roomId, int fromHour, int toHour) {
+        return new Booking(id, roomId, "user@yorku.ca",
+                LocalDateTime.of(2025, 1, 1, fromHour, 0), LocalDateTime.of(2025, 1, 1, toHour, 0), "Test");
+    }
+
+    /**
+     * Verifies that concurrent adds from several threads (as happens when
+     * different rooms are booked at once) keep both the list and the
+     * per-room index complete.
+     */
+    @Test
+    public void concurrentAdds_keepListAndIndexConsistent() throws Exception {
+        // Arrange
+        int threads = 4;
+        int perThread = 250;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String roomId = "R" + t;
+            workers.add(new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    repo.getAllBookings().add(newBooking(roomId + "-" + i, roomId));
+                }
+            }));
+        }
+
+        // Act
+        for (Thread w : workers) w.start();
+        for (Thread w : workers) w.join();
+
+        // Assert
+        assertEquals(threads * perThread, repo.snapshot().size());
+        for (int t = 0; t < threads; t++) {
+            assertEquals(perThread, repo.getBookingsForRoom("R" + t).size());
+        }
+        assertNotNull(repo.findById("R3-249"));
+    }
 }
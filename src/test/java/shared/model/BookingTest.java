@@ -274,4 +274,94 @@ public class BookingTest {
         assertTrue(csv.contains("APPROVED"));
         assertTrue(csv.endsWith("20.00"));
     }
+
+    /**
+     * Verifies that a recurring booking conflicts with an interval that only
+     * one of its later occurrences touches, and expands just that occurrence.
+     */
+    @Test
+    public void recurringBooking_conflictsThroughLaterOccurrence() {
+        // Arrange – 2025-01-01 is a Wednesday; weekly until end of February
+        Booking booking = new Booking("B9", "R101", "user@yorku.ca", start(), end(), "Lab");
+        booking.setRecurrence(RecurrenceRule.weekly(java.time.LocalDate.of(2025, 2, 28)));
+
+        LocalDateTime from = start().plusWeeks(3).plusMinutes(30);
+        LocalDateTime to = from.plusHours(2);
+
+        // Act
+        java.util.List<Booking> occurrences = booking.getOccurrences(from, to);
+
+        // Assert
+        assertTrue(booking.isRecurring());
+        assertTrue(booking.conflictsWith(from, to));
+        assertFalse(booking.conflictsWith(start().plusDays(1), end().plusDays(1)));
+        assertEquals(1, occurrences.size());
+        assertEquals(start().plusWeeks(3), occurrences.get(0).getStartTime());
+        assertEquals(end().plusWeeks(3), occurrences.get(0).getEndTime());
+        assertEquals("B9", occurrences.get(0).getBookingId());
+        assertEquals(end().plusWeeks(8), booking.getSeriesEnd());
+    }
+
+    /**
+     * Verifies that a no-show occurrence of a series stops conflicting and is
+     * expanded with its own status, while the other occurrences still block.
+     */
+    @Test
+    public void recurringBooking_noShowOccurrenceNoLongerConflicts() {
+        // Arrange
+        Booking booking = new Booking("B9", "R101", "user@yorku.ca", start(), end(), "Lab");
+        booking.setRecurrence(RecurrenceRule.weekly(java.time.LocalDate.of(2025, 2, 28)));
+
+        // Act
+        booking.setOccurrenceStatus(start().plusWeeks(3), BookingStatus.NO_SHOW);
+
+        // Assert
+        assertFalse(booking.conflictsWith(start().plusWeeks(3), end().plusWeeks(3)));
+        assertTrue(booking.conflictsWith(start().plusWeeks(4), end().plusWeeks(4)));
+        assertEquals(BookingStatus.NO_SHOW,
+                booking.getOccurrences(start().plusWeeks(3), end().plusWeeks(3)).get(0).getStatusEnum());
+        assertEquals(BookingStatus.CONFIRMED, booking.getStatusEnum());
+
+        assertTrue(booking.pruneOccurrenceStatuses(end().plusWeeks(4)));
+        assertNull(booking.getOccurrenceStatus(start().plusWeeks(3)));
+    }
+
+    /** Verifies that a one-off booking is its own only occurrence. */
+    @Test
+    public void oneOffBooking_isItsOwnOccurrence() {
+        Booking booking = new Booking("B1", "R101", "user@yorku.ca", start(), end(), "Study");
+
+        assertFalse(booking.isRecurring());
+        assertSame(booking, booking.getOccurrences(start(), end()).get(0));
+        assertTrue(booking.getOccurrences(end().plusMinutes(1), end().plusHours(1)).isEmpty());
+        assertEquals(end(), booking.getSeriesEnd());
+    }
+
+    /**
+     * Verifies that statuses are exposed as enums, and that text outside the
+     * enums maps to {@code UNKNOWN} while still reading back unchanged.
+     */
+    @Test
+    public void statusEnums_knownValuesMapAndUnknownTextRoundTrips() {
+        // Arrange
+        Booking booking = new Booking("B10", "R101", "user@yorku.ca",
+                start(), end(), "Study", "hi!", "", 10.0);
+
+        // Assert – unknown text is kept verbatim
+        assertEquals(BookingStatus.UNKNOWN, booking.getStatusEnum());
+        assertEquals(PaymentStatus.UNKNOWN, booking.getPaymentStatusEnum());
+        assertEquals("hi!", booking.getStatus());
+        assertEquals("", booking.getPaymentStatus());
+
+        // Act – known values switch to the enum constants
+        booking.setStatus(BookingStatus.NO_SHOW);
+        booking.setPaymentStatus("FORFEITED");
+
+        // Assert
+        assertEquals("NO_SHOW", booking.getStatus());
+        assertTrue(booking.getStatusEnum().isReleased());
+        assertSame(PaymentStatus.FORFEITED, booking.getPaymentStatusEnum());
+        assertFalse(BookingStatus.CONFIRMED.isReleased());
+        assertNull(new Booking("B11", "R101", "u", start(), end(), "x", null, null, 0).getStatus());
+    }
 }
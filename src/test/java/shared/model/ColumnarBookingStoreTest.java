@@ -0,0 +1,172 @@
+package shared.model;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link ColumnarBookingStore}.
+ *
+ * <p>Views must behave like the bookings they were copied from – every
+ * accessor, setter and helper – and the primitive-column queries must give
+ * the same answers as the object model.</p>
+ */
+public class ColumnarBookingStoreTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2026, 3, 2, 10, 0);
+
+    private ColumnarBookingStore store;
+
+    @Before
+    public void setUp() {
+        store = new ColumnarBookingStore();
+    }
+
+    /** A view returns exactly what was stored, including unknown status strings. */
+    @Test
+    public void add_thenGet_viewMatchesOriginal() {
+        // Arrange
+        Booking original = new Booking("B1", "R101", "u@yorku.ca", BASE, BASE.plusMinutes(90),
+                "Review, final", "hi!", "", 12.5);
+        original.setRecurrence(RecurrenceRule.weekly(LocalDate.of(2026, 4, 27)));
+
+        // Act
+        Booking view = store.get(store.add(original));
+
+        // Assert
+        assertEquals("B1", view.getBookingId());
+        assertEquals("R101", view.getRoomId());
+        assertEquals("u@yorku.ca", view.getUserId());
+        assertEquals(BASE, view.getStartTime());
+        assertEquals(BASE.plusMinutes(90), view.getEndTime());
+        assertEquals("Review, final", view.getPurpose());
+        assertEquals("hi!", view.getStatus());
+        assertEquals("", view.getPaymentStatus());
+        assertEquals(12.5, view.getDepositAmount(), 0.0001);
+        assertEquals(original.getRecurrence(), view.getRecurrence());
+        assertEquals(original.getSeriesEnd(), view.getSeriesEnd());
+        assertEquals(original.toString(), view.toString());
+    }
+
+    /** Setters and helpers such as extendTo write through to the columns. */
+    @Test
+    public void viewSetters_writeThroughToTheRow() {
+        int row = store.add(booking("B1", "R101", BASE));
+
+        Booking view = store.get(row);
+        view.setStatus("CANCELLED");
+        view.setRoomId("R202");
+        view.extendTo(BASE.plusHours(2));
+
+        Booking again = store.get(row);
+        assertEquals("CANCELLED", again.getStatus());
+        assertEquals("R202", again.getRoomId());
+        assertEquals(BASE.plusHours(2), again.getEndTime());
+        assertEquals(view, again);
+        assertEquals(view.hashCode(), again.hashCode());
+        assertNotEquals(view, store.get(store.add(booking("B2", "R101", BASE))));
+    }
+
+    /** Status enums follow the row's code, including after a status change. */
+    @Test
+    public void statusEnums_followTheRowCode() {
+        int row = store.add(booking("B1", "R101", BASE));
+        int other = store.add(new Booking("B2", "R101", "u@yorku.ca", BASE, BASE.plusHours(1),
+                "Study", "hi!", "APPROVED", 10.0));
+
+        Booking view = store.get(row);
+        assertEquals(BookingStatus.CONFIRMED, view.getStatusEnum());
+        assertEquals(PaymentStatus.PENDING, view.getPaymentStatusEnum());
+        assertEquals(BookingStatus.UNKNOWN, store.get(other).getStatusEnum());
+        assertEquals(PaymentStatus.APPROVED, store.get(other).getPaymentStatusEnum());
+
+        view.setStatus(BookingStatus.NO_SHOW);
+        assertEquals(BookingStatus.NO_SHOW, store.get(row).getStatusEnum());
+        assertEquals(BookingStatus.CONFIRMED, store.get(store.add(booking("B3", "R101", BASE))).getStatusEnum());
+    }
+
+    /** ID lookups survive table growth and skip deleted rows. */
+    @Test
+    public void findRow_acrossGrowthAndDeletes() {
+        for (int i = 0; i < 500; i++) {
+            store.add(booking("B" + i, "R" + (i % 7), BASE.plusHours(i)));
+        }
+
+        assertEquals(321, store.findRow("B321"));
+        assertEquals("R" + (321 % 7), store.findById("B321").getRoomId());
+        assertEquals(-1, store.findRow("NOPE"));
+
+        assertTrue(store.remove(321));
+        assertFalse(store.remove(321));
+        assertEquals(-1, store.findRow("B321"));
+        assertEquals(499, store.liveCount());
+        assertEquals(500, store.size());
+    }
+
+    /** Room lookups come back ordered by start and without deleted rows. */
+    @Test
+    public void getBookingsForRoom_sortedByStart() {
+        store.add(booking("LATE", "R101", BASE.plusHours(5)));
+        store.add(booking("OTHER", "R202", BASE));
+        int gone = store.add(booking("GONE", "R101", BASE.plusHours(3)));
+        store.add(booking("EARLY", "R101", BASE.plusHours(1)));
+        store.remove(gone);
+
+        List<Booking> forRoom = store.getBookingsForRoom("R101");
+
+        assertEquals(2, forRoom.size());
+        assertEquals("EARLY", forRoom.get(0).getBookingId());
+        assertEquals("LATE", forRoom.get(1).getBookingId());
+        assertTrue(store.getBookingsForRoom("R999").isEmpty());
+        assertEquals(3, store.getBookingsForUser("u@yorku.ca").size());
+    }
+
+    /** Same inclusive conflict rule as Booking; cancelled and ignored bookings do not block. */
+    @Test
+    public void isRoomFree_matchesBookingConflictRule() {
+        store.add(booking("B1", "R101", BASE));                       // 10:00–11:00
+        Booking cancelled = booking("B2", "R101", BASE.plusHours(3)); // 13:00–14:00
+        cancelled.setStatus("CANCELLED");
+        store.add(cancelled);
+        Booking series = booking("S1", "R101", BASE.plusDays(1));
+        series.setRecurrence(RecurrenceRule.weekly(LocalDate.of(2026, 5, 4)));
+        store.add(series);
+
+        assertFalse(store.isRoomFree("R101", BASE.plusHours(1), BASE.plusHours(2), null));
+        assertTrue(store.isRoomFree("R101", BASE.plusHours(1).plusSeconds(30), BASE.plusHours(2), null));
+        assertTrue(store.isRoomFree("R101", BASE.plusHours(1), BASE.plusHours(2), "B1"));
+        assertTrue(store.isRoomFree("R101", BASE.plusHours(3), BASE.plusHours(4), null));
+        assertFalse(store.isRoomFree("R101", BASE.plusDays(15), BASE.plusDays(15).plusMinutes(30), null));
+        assertTrue(store.isRoomFree("R202", BASE, BASE.plusHours(1), null));
+    }
+
+    /** CSV load and save keep every column. */
+    @Test
+    public void saveCsv_thenLoadCsv_roundTrips() throws Exception {
+        File dir = new File("target/test-columnar");
+        dir.mkdirs();
+        String path = new File(dir, "bookings.csv").getPath();
+
+        Booking paid = new Booking("B1", "R101", "u@yorku.ca", BASE, BASE.plusHours(1),
+                "Study", "CONFIRMED", "APPROVED", 20.0);
+        store.add(paid);
+        store.remove(store.add(booking("GONE", "R101", BASE.plusHours(2))));
+
+        store.saveCsv(path);
+        ColumnarBookingStore loaded = ColumnarBookingStore.loadCsv(path);
+
+        assertEquals(1, loaded.size());
+        assertEquals(paid.toString(), loaded.get(0).toString());
+        assertEquals("APPROVED", loaded.findById("B1").getPaymentStatus());
+    }
+
+    private static Booking booking(String id, String roomId, LocalDateTime start) {
+        return new Booking(id, roomId, "u@yorku.ca", start, start.plusHours(1), "Test");
+    }
+}
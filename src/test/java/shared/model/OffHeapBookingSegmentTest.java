@@ -0,0 +1,170 @@
+package shared.model;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link OffHeapBookingSegment}.
+ *
+ * <p>A written segment must read back every field, and its range and room
+ * queries – answered from the mapped records – must agree with the
+ * {@link Booking#conflictsWith} rule, including recurring bookings.</p>
+ */
+public class OffHeapBookingSegmentTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2021, 3, 1, 9, 0);
+
+    private Path file;
+    private OffHeapBookingSegment segment;
+
+    @Before
+    public void setUp() {
+        File dir = new File("target/test-segment");
+        dir.mkdirs();
+        file = new File(dir, "history.seg").toPath();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        if (segment != null) segment.close();
+        Files.deleteIfExists(file);
+    }
+
+    /** Every field of a materialised record matches the booking written. */
+    @Test
+    public void write_thenOpen_materializesEveryField() throws Exception {
+        // Arrange
+        Booking series = new Booking("S-1", "R101", "prof@yorku.ca", BASE, BASE.plusMinutes(50),
+                "Lab, weekly", "FINISHED", "APPROVED", 30.0);
+        series.setRecurrence(RecurrenceRule.weekly(LocalDate.of(2021, 4, 26)));
+        Booking single = new Booking("B-1", "R202", "stu@yorku.ca", BASE.minusDays(1),
+                BASE.minusDays(1).plusHours(2), "Study", "CANCELLED", "REFUNDED", 20.0);
+
+        // Act
+        OffHeapBookingSegment.write(file, List.of(series, single));
+        segment = OffHeapBookingSegment.open(file);
+
+        // Assert – records are sorted by start
+        assertEquals(2, segment.size());
+        Booking first = segment.materialize(0);
+        Booking second = segment.materialize(1);
+        assertEquals(single.toString(), first.toString());
+        assertEquals("S-1", second.getBookingId());
+        assertEquals("Lab, weekly", second.getPurpose());
+        assertEquals(series.getRecurrence(), second.getRecurrence());
+        assertEquals("R101", segment.getRoomId(1));
+        assertEquals("CANCELLED", segment.getStatus(0));
+        assertTrue(segment.isRecurring(1));
+    }
+
+    /** Overlap queries use the inclusive conflict rule and filter by room. */
+    @Test
+    public void forEachOverlapping_findsRecordsInRangeAndRoom() throws Exception {
+        List<Booking> history = new ArrayList<>();
+        for (int day = 0; day < 100; day++) {
+            history.add(booking("B" + day, day % 2 == 0 ? "R101" : "R202", BASE.plusDays(day)));
+        }
+        OffHeapBookingSegment.write(file, history);
+        segment = OffHeapBookingSegment.open(file);
+
+        // 09:00–10:00 on days 10..19
+        assertEquals(10, segment.countOverlapping(null, BASE.plusDays(10), BASE.plusDays(19).plusHours(1)));
+        assertEquals(5, segment.countOverlapping("R101", BASE.plusDays(10), BASE.plusDays(19).plusHours(1)));
+        // touching the end counts, one second later does not
+        assertEquals(1, segment.countOverlapping(null, BASE.plusHours(1), BASE.plusHours(2)));
+        assertEquals(0, segment.countOverlapping(null, BASE.plusHours(1).plusSeconds(1), BASE.plusHours(2)));
+        assertEquals(0, segment.countOverlapping("NO_ROOM", BASE, BASE.plusDays(100)));
+        assertEquals("B42", segment.findOverlapping("R101", BASE.plusDays(42), BASE.plusDays(42)).get(0).getBookingId());
+    }
+
+    /** A series started long before the range is still found through its later occurrences. */
+    @Test
+    public void forEachOverlapping_expandsRecurringRecords() throws Exception {
+        Booking series = booking("S1", "R101", BASE);
+        series.setRecurrence(RecurrenceRule.weekly(BASE.toLocalDate().plusWeeks(20)));
+        OffHeapBookingSegment.write(file, List.of(series, booking("B1", "R101", BASE.plusDays(60))));
+        segment = OffHeapBookingSegment.open(file);
+
+        LocalDateTime week10 = BASE.plusWeeks(10);
+        assertEquals(1, segment.countOverlapping("R101", week10, week10.plusMinutes(30)));
+        assertEquals(0, segment.countOverlapping("R101", week10.plusDays(1), week10.plusDays(1).plusMinutes(30)));
+    }
+
+    /** Booked minutes are clipped to the range and skip cancelled bookings. */
+    @Test
+    public void bookedMinutes_clipsAndSkipsCancelled() throws Exception {
+        Booking cancelled = booking("C1", "R101", BASE.plusDays(1));
+        cancelled.setStatus("CANCELLED");
+        OffHeapBookingSegment.write(file, List.of(booking("B1", "R101", BASE), cancelled,
+                booking("B2", "R101", BASE.plusDays(2))));
+        segment = OffHeapBookingSegment.open(file);
+
+        assertEquals(90, segment.bookedMinutes("R101", BASE.plusMinutes(30), BASE.plusDays(3)));
+        assertEquals(0, segment.bookedMinutes("R202", BASE, BASE.plusDays(3)));
+    }
+
+    /** Small runs spilled to disk are merged back into one start-sorted segment; series go last. */
+    @Test
+    public void write_inSmallRuns_mergesRecordsByStart() throws Exception {
+        List<Booking> history = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int day = (i * 17) % 50;   // every day once, out of order
+            history.add(booking("B" + day, "R101", BASE.plusDays(day)));
+        }
+        Booking series = booking("S1", "R202", BASE);
+        series.setRecurrence(RecurrenceRule.weekly(BASE.toLocalDate().plusWeeks(30)));
+        history.add(20, series);
+
+        OffHeapBookingSegment.write(file, history.iterator(), 7);
+        segment = OffHeapBookingSegment.open(file);
+
+        assertEquals(51, segment.size());
+        for (int r = 0; r < 50; r++) {
+            assertEquals("B" + r, segment.materialize(r).getBookingId());
+        }
+        assertTrue(segment.isRecurring(50));
+        assertEquals(1, segment.countOverlapping(null, BASE.plusDays(3), BASE.plusDays(3).plusMinutes(30)));
+        assertEquals(1, segment.countOverlapping("R202", BASE.plusWeeks(25), BASE.plusWeeks(25).plusMinutes(30)));
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".0.run")));
+    }
+
+    /** A user's records come back most recent first, matched ignoring case. */
+    @Test
+    public void findForUser_returnsOnlyThatUserNewestFirst() throws Exception {
+        Booking other = new Booking("X1", "R101", "other@yorku.ca", BASE, BASE.plusHours(1), "Test",
+                "FINISHED", "APPROVED", 20.0);
+        OffHeapBookingSegment.write(file, List.of(booking("B1", "R101", BASE), other,
+                booking("B2", "R101", BASE.plusDays(2))));
+        segment = OffHeapBookingSegment.open(file);
+
+        List<Booking> found = segment.findForUser("U@YorkU.ca");
+
+        assertEquals(2, found.size());
+        assertEquals("B2", found.get(0).getBookingId());
+        assertEquals("B1", found.get(1).getBookingId());
+        assertTrue(segment.findForUser("nobody@yorku.ca").isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void open_rejectsOtherFiles() throws Exception {
+        Files.write(file, new byte[64]);
+        segment = OffHeapBookingSegment.open(file);
+    }
+
+    private static Booking booking(String id, String roomId, LocalDateTime start) {
+        return new Booking(id, roomId, "u@yorku.ca", start, start.plusHours(1), "Test",
+                "FINISHED", "APPROVED", 20.0);
+    }
+}
@@ -0,0 +1,107 @@
+package shared.model;
+
+import org.junit.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for {@link RecurrenceRule}.
+ *
+ * <p>Occurrences must be generated only inside the queried window, honour
+ * the interval, weekdays and inclusive end date, and survive a round trip
+ * through the CSV form.</p>
+ */
+public class RecurrenceRuleTest {
+
+    /** Monday 2030-01-07 10:00. */
+    private static final LocalDateTime FIRST = LocalDateTime.of(2030, 1, 7, 10, 0);
+
+    /** Only occurrences inside the window are produced. */
+    @Test
+    public void weekly_expandsOnlyInsideWindow() {
+        // Arrange
+        RecurrenceRule rule = RecurrenceRule.weekly(LocalDate.of(2030, 12, 31));
+
+        // Act
+        List<LocalDateTime> starts = rule.occurrenceStarts(FIRST,
+                LocalDateTime.of(2030, 3, 1, 0, 0), LocalDateTime.of(2030, 3, 20, 0, 0));
+
+        // Assert
+        assertEquals(List.of(
+                LocalDateTime.of(2030, 3, 4, 10, 0),
+                LocalDateTime.of(2030, 3, 11, 10, 0),
+                LocalDateTime.of(2030, 3, 18, 10, 0)), starts);
+    }
+
+    /** Biweekly series skip every other week. */
+    @Test
+    public void biweekly_skipsAlternateWeeks() {
+        RecurrenceRule rule = RecurrenceRule.biweekly(LocalDate.of(2030, 2, 28));
+
+        List<LocalDateTime> starts = rule.occurrenceStarts(FIRST, FIRST, FIRST.plusWeeks(6));
+
+        assertEquals(List.of(FIRST, FIRST.plusWeeks(2), FIRST.plusWeeks(4), FIRST.plusWeeks(6)), starts);
+        assertFalse(rule.hasOccurrence(FIRST, FIRST.plusWeeks(1), FIRST.plusWeeks(1).plusDays(6)));
+    }
+
+    /** Several weekdays per week, in chronological order. */
+    @Test
+    public void onDays_coversEachWeekday() {
+        RecurrenceRule rule = RecurrenceRule.onDays(
+                EnumSet.of(DayOfWeek.WEDNESDAY, DayOfWeek.MONDAY), LocalDate.of(2030, 1, 16));
+
+        List<LocalDateTime> starts = rule.occurrenceStarts(FIRST, FIRST, FIRST.plusWeeks(4));
+
+        assertEquals(List.of(FIRST, FIRST.plusDays(2), FIRST.plusWeeks(1), FIRST.plusWeeks(1).plusDays(2)), starts);
+    }
+
+    /** The end date is inclusive and bounds the series. */
+    @Test
+    public void until_isInclusive() {
+        // 15 Mondays: 2030-01-07 … 2030-04-15
+        RecurrenceRule rule = RecurrenceRule.weekly(LocalDate.of(2030, 4, 15));
+
+        assertEquals(15, rule.countOccurrences(FIRST));
+        assertEquals(LocalDateTime.of(2030, 4, 15, 10, 0), rule.lastStart(FIRST));
+        assertFalse(rule.hasOccurrence(FIRST, LocalDateTime.of(2030, 4, 16, 0, 0),
+                LocalDateTime.of(2031, 1, 1, 0, 0)));
+    }
+
+    /** Nothing occurs before the series start. */
+    @Test
+    public void occurrences_neverPrecedeSeriesStart() {
+        RecurrenceRule rule = RecurrenceRule.weekly(LocalDate.of(2030, 6, 30));
+
+        assertTrue(rule.occurrenceStarts(FIRST, FIRST.minusWeeks(4), FIRST.minusMinutes(1)).isEmpty());
+    }
+
+    /** The CSV form round-trips and contains no commas. */
+    @Test
+    public void format_parse_roundTrip() {
+        RecurrenceRule weekly = RecurrenceRule.weekly(LocalDate.of(2030, 4, 15));
+        RecurrenceRule days = RecurrenceRule.onDays(
+                EnumSet.of(DayOfWeek.MONDAY, DayOfWeek.THURSDAY), LocalDate.of(2030, 4, 15));
+
+        assertEquals("W1:-:2030-04-15", weekly.format());
+        assertEquals("W1:MON+THU:2030-04-15", days.format());
+        assertEquals(weekly, RecurrenceRule.parse(weekly.format()));
+        assertEquals(days, RecurrenceRule.parse(days.format()));
+        assertEquals(RecurrenceRule.biweekly(LocalDate.of(2030, 1, 1)), RecurrenceRule.parse("W2:-:2030-01-01"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parse_rejectsGarbage() {
+        RecurrenceRule.parse("every monday");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_rejectsZeroInterval() {
+        new RecurrenceRule(0, null, LocalDate.of(2030, 1, 1));
+    }
+}
@@ -1,6 +1,5 @@
 package shared.model;
 
-import javafx.beans.property.StringProperty;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -56,45 +55,27 @@ public class RoomTest {
     }
 
     // ============================================================
-    // PROPERTY SYNC TESTS
+    // SETTERS
     // ============================================================
 
     @Test
-    void testSyncToProperties() {
-        Room r = new Room("101", "Conf", 20, "L2", "Proj", "ENG", "ACTIVE");
-
-        assertEquals("101", r.roomIdProperty().get());
-        assertEquals("Conf", r.roomNameProperty().get());
-        assertEquals(20, r.capacityProperty().get());
-        assertEquals("L2", r.locationProperty().get());
-        assertEquals("Proj", r.amenitiesProperty().get());
-        assertEquals("ENG", r.buildingProperty().get());
-        assertEquals("AVAILABLE", r.statusProperty().get()); // ACTIVE → AVAILABLE
-    }
-
-    @Test
-    void testSettersUpdateFieldsAndProperties() {
+    void testSettersUpdateFields() {
         Room r = new Room("10", "Old", 5, "A", "None", "B");
 
         r.setRoomName("NewName");
         assertEquals("NewName", r.getRoomName());
-        assertEquals("NewName", r.roomNameProperty().get());
 
         r.setCapacity(77);
         assertEquals(77, r.getCapacity());
-        assertEquals(77, r.capacityProperty().get());
 
         r.setLocation("NewLoc");
         assertEquals("NewLoc", r.getLocation());
-        assertEquals("NewLoc", r.locationProperty().get());
 
         r.setAmenities("Projector");
         assertEquals("Projector", r.getAmenities());
-        assertEquals("Projector", r.amenitiesProperty().get());
 
         r.setBuilding("ENG");
         assertEquals("ENG", r.getBuilding());
-        assertEquals("ENG", r.buildingProperty().get());
     }
 
     // ============================================================
@@ -141,7 +122,7 @@ public class RoomTest {
         Room r = new Room("1", "A");
 
         r.setStatus(RoomStatus.OCCUPIED);
-        assertEquals("OCCUPIED", r.statusProperty().get());
+        assertEquals("OCCUPIED", r.getStatus());
         assertEquals(RoomStatus.OCCUPIED, r.getStatusEnum());
     }
 
@@ -192,6 +173,36 @@ public class RoomTest {
         assertEquals("", r.getAmenitiesIcon());
     }
 
+    // ============================================================
+    // SEARCH KEY
+    // ============================================================
+
+    @Test
+    void testSearchKey_LowercasesSearchableFields() {
+        Room r = new Room("R101", "York Room", 10, "Floor 1", "Projector", "Vari Hall", "MAINT");
+
+        String key = r.getSearchKey();
+        assertTrue(key.contains("r101"));
+        assertTrue(key.contains("york room"));
+        assertTrue(key.contains("floor 1"));
+        assertTrue(key.contains("vari hall"));
+        assertTrue(key.contains("maintenance"));
+        assertSame(key, r.getSearchKey());
+    }
+
+    @Test
+    void testSearchKey_RebuiltAfterEdit() {
+        Room r = new Room("R101", "York Room", 10, "Floor 1", "Projector", "Vari Hall", "ACTIVE");
+        r.getSearchKey();
+
+        r.setRoomName("Lassonde Room");
+        r.setStatus("DISABLED");
+
+        assertTrue(r.getSearchKey().contains("lassonde room"));
+        assertTrue(r.getSearchKey().contains("disabled"));
+        assertFalse(r.getSearchKey().contains("york room"));
+    }
+
     // ============================================================
     // CSV OUTPUT
     // ============================================================
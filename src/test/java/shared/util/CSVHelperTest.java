@@ -3,6 +3,9 @@ package shared.util;
 import org.junit.Before;
 import org.junit.Test;
 import shared.model.Booking;
+import shared.model.BookingStatus;
+import shared.model.PaymentStatus;
+import shared.model.RecurrenceRule;
 import shared.model.Room;
 import shared.model.SystemUser;
 import shared.model.User;
@@ -431,4 +434,75 @@ public class CSVHelperTest {
         assertEquals("", r.getBuilding());         // default ""
         assertEquals("AVAILABLE", r.getStatusEnum().name()); // default status
     }
+
+    /**
+     * Verifies that a recurring booking keeps its rule through a save/load
+     * round trip, while one-off bookings still load without one.
+     */
+    @Test
+    public void saveBookings_thenLoadBookings_roundTripsRecurrence() throws Exception {
+        String filePath = path("bookings-recurring.csv");
+
+        LocalDateTime start = LocalDateTime.of(2025, 1, 6, 10, 0);
+        Booking series = new Booking("B1", "R101", "user@yorku.ca", start, start.plusHours(1),
+                "Lab", "CONFIRMED", "APPROVED", 20.0);
+        series.setRecurrence(RecurrenceRule.weekly(java.time.LocalDate.of(2025, 4, 14)));
+        Booking single = new Booking("B2", "R101", "user@yorku.ca", start.plusDays(1),
+                start.plusDays(1).plusHours(1), "Study", "CONFIRMED", "APPROVED", 20.0);
+
+        // Act
+        CSVHelper.saveBookings(filePath, List.of(series, single));
+        ArrayList<Booking> loaded = CSVHelper.loadBookings(filePath);
+
+        // Assert
+        assertEquals(2, loaded.size());
+        assertEquals(series.getRecurrence(), loaded.get(0).getRecurrence());
+        assertNull(loaded.get(1).getRecurrence());
+    }
+
+    /**
+     * A single row formats and parses back to the same booking; the header
+     * and blank lines parse to {@code null}.
+     */
+    @Test
+    public void formatBookingLine_thenParseBookingLine_roundTrips() {
+        LocalDateTime start = LocalDateTime.of(2025, 2, 3, 9, 30);
+        Booking original = new Booking("B9", "R202", "user@yorku.ca", start, start.plusHours(2),
+                "Review, final", "CANCELLED", "REFUNDED", 15.5);
+
+        Booking parsed = CSVHelper.parseBookingLine(CSVHelper.formatBookingLine(original));
+
+        assertEquals("B9", parsed.getBookingId());
+        assertEquals(start.plusHours(2), parsed.getEndTime());
+        assertEquals("Review, final", parsed.getPurpose());
+        assertEquals("CANCELLED", parsed.getStatus());
+        assertEquals(15.5, parsed.getDepositAmount(), 0.0001);
+        assertNull(CSVHelper.parseBookingLine(CSVHelper.BOOKING_HEADER));
+        assertNull(CSVHelper.parseBookingLine("   "));
+    }
+
+    /**
+     * Rows for the same room and user share one String instance for those
+     * IDs after loading, and statuses load as enums.
+     */
+    @Test
+    public void loadBookings_sharesRoomAndUserIdInstances() throws Exception {
+        String filePath = path("bookings-shared.csv");
+
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 9, 0);
+        CSVHelper.saveBookings(filePath, List.of(
+                new Booking("B1", "R101", "user@yorku.ca", start, start.plusHours(1),
+                        "Study", "CONFIRMED", "APPROVED", 20.0),
+                new Booking("B2", "R101", "user@yorku.ca", start.plusDays(1), start.plusDays(1).plusHours(1),
+                        "Study", "CANCELLED", "REFUNDED", 20.0)));
+
+        // Act
+        ArrayList<Booking> loaded = CSVHelper.loadBookings(filePath);
+
+        // Assert
+        assertSame(loaded.get(0).getRoomId(), loaded.get(1).getRoomId());
+        assertSame(loaded.get(0).getUserId(), loaded.get(1).getUserId());
+        assertSame(BookingStatus.CANCELLED, loaded.get(1).getStatusEnum());
+        assertSame(PaymentStatus.APPROVED, loaded.get(0).getPaymentStatusEnum());
+    }
 }
@@ -0,0 +1,98 @@
+package shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * IdGeneratorTest — Unit tests for {@link IdGenerator}.
+ * ---------------------------------------------------------
+ * <p>IDs must be unique and strictly increasing even when the clock stands
+ * still or runs backwards, must carry the node they were generated on, and
+ * generators sharing a folder must claim different nodes.</p>
+ */
+class IdGeneratorTest {
+
+    private static final long T0 = IdGenerator.EPOCH_MILLIS + 1_000_000L;
+
+    /** Many IDs in the same millisecond are still distinct and increasing. */
+    @Test
+    void testSameMillisecondIdsIncrease() {
+        IdGenerator gen = new IdGenerator(3, () -> T0);
+
+        long previous = gen.nextId();
+        for (int i = 0; i < 10_000; i++) {   // more than one sequence block
+            long id = gen.nextId();
+            assertTrue(id > previous);
+            assertEquals(3, IdGenerator.nodeOf(id));
+            previous = id;
+        }
+    }
+
+    /** A clock that jumps backwards does not produce smaller (or repeated) IDs. */
+    @Test
+    void testClockGoingBackwardsStaysMonotonic() {
+        AtomicLong clock = new AtomicLong(T0);
+        IdGenerator gen = new IdGenerator(1, clock::get);
+
+        long before = gen.nextId();
+        clock.set(T0 - 60_000);
+        long after = gen.nextId();
+
+        assertTrue(after > before);
+        assertEquals(T0, IdGenerator.timestampOf(after));
+    }
+
+    /** The timestamp part follows the clock when it moves forward. */
+    @Test
+    void testTimestampIsEncoded() {
+        IdGenerator gen = new IdGenerator(0, () -> T0 + 42);
+
+        assertEquals(T0 + 42, IdGenerator.timestampOf(gen.nextId()));
+    }
+
+    /** Concurrent callers never receive the same ID. */
+    @Test
+    void testConcurrentIdsAreUnique() throws Exception {
+        IdGenerator gen = new IdGenerator(7);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        for (int t = 0; t < 4; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 25_000; i++) ids.add(gen.nextId());
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(100_000, ids.size());
+    }
+
+    /** Two generators on the same folder claim different nodes; closing frees the node. */
+    @Test
+    void testNodeLocksAreExclusive() {
+        String prefix = "TestData/data/id-generator-test";
+        try (IdGenerator a = IdGenerator.withNodeLock(prefix);
+             IdGenerator b = IdGenerator.withNodeLock(prefix)) {
+            assertNotEquals(a.getNodeId(), b.getNodeId());
+            assertEquals("B", a.nextId("B").substring(0, 1));
+        } finally {
+            for (int n = 0; n < 2; n++) new File(prefix + "-" + n + ".lock").delete();
+        }
+    }
+
+    /** Node IDs outside 10 bits are rejected. */
+    @Test
+    void testInvalidNodeIdRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new IdGenerator(IdGenerator.MAX_NODE_ID + 1));
+    }
+}
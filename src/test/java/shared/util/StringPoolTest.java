@@ -0,0 +1,35 @@
+package shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * StringPoolTest — Unit tests for {@link StringPool}.
+ * ---------------------------------------------------------
+ * <p>Equal values must come back as the first instance seen, distinct
+ * values must stay distinct, and {@code null} must pass through.</p>
+ */
+class StringPoolTest {
+
+    @Test
+    void testEqualValuesShareFirstInstance() {
+        StringPool pool = new StringPool();
+        String first = new String("R101");
+        String second = new String("R101");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    void testDistinctValuesAndNull() {
+        StringPool pool = new StringPool();
+
+        assertEquals("R101", pool.intern("R101"));
+        assertEquals("R202", pool.intern("R202"));
+        assertNull(pool.intern(null));
+        assertEquals(2, pool.size());
+    }
+}